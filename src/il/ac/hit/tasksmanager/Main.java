@@ -1,24 +1,35 @@
 package il.ac.hit.tasksmanager;
 
-import il.ac.hit.tasksmanager.model.ModelException;
+import il.ac.hit.tasksmanager.diagnostics.EdtMonitor;
+import il.ac.hit.tasksmanager.model.dao.ITasksDAO;
+import il.ac.hit.tasksmanager.model.dao.TasksDAOFactory;
 import il.ac.hit.tasksmanager.view.MainWindow;
 import il.ac.hit.tasksmanager.viewmodel.TasksListViewModel;
+import java.util.concurrent.CompletableFuture;
 import javax.swing.SwingUtilities;
 
 /**
  * App entry point. Launches the Swing UI on the EDT and wires the view model to the main window.
+ * The EDT responsiveness monitor is installed before the UI is built, and the Derby DAO
+ * (backend chosen by {@code tasks.backend}) boots on a background thread while the UI is constructed.
  */
 public class Main {
 	public static void main(String[] args) {
+		EdtMonitor monitor = EdtMonitor.install();
+		// Boot Derby in parallel with building the UI; the window shows a loading state meanwhile
+		CompletableFuture<ITasksDAO> dao = TasksDAOFactory.bootAsync();
+		dao.exceptionally(e -> {
+			e.printStackTrace();
+			return null;
+		});
 		SwingUtilities.invokeLater(() -> {
 			// Launch on Event Dispatch Thread
-			try {
-				TasksListViewModel vm = new TasksListViewModel(); // ViewModel wiring
-				MainWindow window = new MainWindow(vm); // Main UI window
-				window.setVisible(true);
-			} catch (ModelException e) {
-				e.printStackTrace();
-			}
+			TasksListViewModel vm = new TasksListViewModel(dao); // ViewModel wiring
+			monitor.setExtraStatus(() -> vm.getExecutorStats().toString());
+			// clean Derby shutdown also when the JVM exits without closing the window
+			Runtime.getRuntime().addShutdownHook(new Thread(vm::shutdown, "tasks-shutdown"));
+			MainWindow window = new MainWindow(vm); // Main UI window
+			window.setVisible(true);
 		});
 	}
 }
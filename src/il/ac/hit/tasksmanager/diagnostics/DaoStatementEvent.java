@@ -0,0 +1,51 @@
+package il.ac.hit.tasksmanager.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event emitted for every JDBC statement executed by the Derby DAO.
+ * The event duration is the statement execution time.
+ */
+@Name("il.ac.hit.tasksmanager.DaoStatement")
+@Label("DAO Statement")
+@Category({"Tasks Manager", "Persistence"})
+@Description("A single SQL statement executed by TasksDAOImpl")
+@StackTrace(false)
+public class DaoStatementEvent extends Event {
+	@Label("SQL Kind")
+	private String sqlKind;
+
+	@Label("Row Count")
+	private int rowCount;
+
+	/**
+	 * Creates and begins timing a statement event.
+	 *
+	 * @param sqlKind statement kind such as SELECT, INSERT, UPDATE, DELETE or DDL
+	 * @return the started event
+	 */
+	public static DaoStatementEvent start(String sqlKind) {
+		DaoStatementEvent event = new DaoStatementEvent();
+		event.sqlKind = sqlKind;
+		event.begin();
+		return event;
+	}
+
+	/** Records the number of rows read or affected by the statement. */
+	public void rows(int rowCount) {
+		this.rowCount = rowCount;
+	}
+
+	/** Stops timing and commits the event when the recording wants it. */
+	public void finish() {
+		end();
+		if (shouldCommit()) {
+			commit();
+		}
+	}
+}
@@ -0,0 +1,53 @@
+package il.ac.hit.tasksmanager.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * JFR event emitted when the ViewModel re-dispatches a model change to the Swing EDT.
+ * The event duration is the view observer fan-out; the EDT queue latency is a field.
+ */
+@Name("il.ac.hit.tasksmanager.EdtDispatch")
+@Label("EDT Dispatch")
+@Category({"Tasks Manager", "UI"})
+@Description("A ViewModel notification delivered to the views on the Swing EDT")
+public class EdtDispatchEvent extends Event {
+	@Label("Source")
+	private String source;
+
+	@Label("Dispatch Latency")
+	@Timespan(Timespan.NANOSECONDS)
+	private long latency;
+
+	@Label("Observers")
+	private int observers;
+
+	/**
+	 * Creates and begins timing an EDT dispatch that has just started running.
+	 *
+	 * @param source name of the notification source
+	 * @param latencyNanos time between posting to the EDT and running there
+	 * @param observers number of view observers notified
+	 * @return the started event
+	 */
+	public static EdtDispatchEvent start(String source, long latencyNanos, int observers) {
+		EdtDispatchEvent event = new EdtDispatchEvent();
+		event.source = source;
+		event.latency = latencyNanos;
+		event.observers = observers;
+		event.begin();
+		return event;
+	}
+
+	/** Stops timing and commits the event when the recording wants it. */
+	public void finish() {
+		end();
+		if (shouldCommit()) {
+			commit();
+		}
+	}
+}
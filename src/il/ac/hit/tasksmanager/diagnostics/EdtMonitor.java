@@ -0,0 +1,226 @@
+package il.ac.hit.tasksmanager.diagnostics;
+
+import java.awt.AWTEvent;
+import java.awt.EventQueue;
+import java.awt.Toolkit;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * EdtMonitor watches the responsiveness of the Swing Event Dispatch Thread (Singleton).
+ * - Latency: a probe posted to the EDT every {@link #PROBE_INTERVAL_MS} ms measures
+ *   how long events wait before they are dispatched.
+ * - Stalls: a custom {@link EventQueue} times every dispatched event; a watchdog thread
+ *   captures the EDT stack trace of any event running longer than the stall threshold
+ *   and writes it to the log (stderr).
+ * - A summary line (including any extra status, e.g. Model executor statistics)
+ *   is written to the log every {@link #SUMMARY_INTERVAL_S} seconds.
+ * The stall threshold is read from {@code tasks.edt.stallMs} (default 200).
+ */
+public final class EdtMonitor {
+	private static final long PROBE_INTERVAL_MS = 100;
+	private static final long SUMMARY_INTERVAL_S = 60;
+	private static final int MAX_STALLS = 20;
+	private static EdtMonitor instance;
+
+	/**
+	 * A captured EDT stall.
+	 *
+	 * @param at when the stall was detected
+	 * @param event description of the event being dispatched
+	 * @param runningMillis how long the event had been running when captured
+	 * @param stackTrace EDT stack trace at capture time
+	 */
+	public record Stall(Instant at, String event, long runningMillis, String stackTrace) {}
+
+	/**
+	 * Point-in-time EDT statistics.
+	 *
+	 * @param lastLatencyMillis dispatch latency of the most recent probe
+	 * @param maxLatencyMillis highest probe latency since start
+	 * @param slowEvents number of events that ran longer than the stall threshold
+	 * @param maxEventMillis longest event dispatch since start
+	 * @param stallThresholdMillis configured stall threshold
+	 * @param recentStalls most recent stalls, newest last
+	 */
+	public record EdtStats(long lastLatencyMillis, long maxLatencyMillis, long slowEvents, long maxEventMillis,
+						   long stallThresholdMillis, List<Stall> recentStalls) {}
+
+	private final long stallThresholdNanos;
+	private final ScheduledExecutorService scheduler;
+	private final Deque<Stall> stalls = new ArrayDeque<>();
+	private volatile Thread edtThread;
+	private volatile long currentStart;
+	private volatile AWTEvent currentEvent;
+	private volatile boolean currentReported;
+	private volatile long lastLatencyNanos;
+	private volatile long maxLatencyNanos;
+	private volatile long maxEventNanos;
+	private volatile long slowEvents;
+	private volatile Supplier<String> extraStatus = () -> "";
+
+	private EdtMonitor(long stallThresholdMillis) {
+		this.stallThresholdNanos = TimeUnit.MILLISECONDS.toNanos(stallThresholdMillis);
+		this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+			Thread t = new Thread(r, "edt-monitor");
+			t.setDaemon(true);
+			return t;
+		});
+	}
+
+	/**
+	 * Installs the monitor on the system event queue (once) and starts the watchdog.
+	 *
+	 * @return the singleton monitor
+	 */
+	public static synchronized EdtMonitor install() {
+		if (instance == null) {
+			instance = new EdtMonitor(Long.getLong("tasks.edt.stallMs", 200L));
+			instance.start();
+		}
+		return instance;
+	}
+
+	/**
+	 * Returns the installed monitor, or null if {@link #install()} was never called.
+	 *
+	 * @return monitor or null
+	 */
+	public static synchronized EdtMonitor current() {
+		return instance;
+	}
+
+	/** Sets a supplier of extra status text appended to the periodic log summary. */
+	public void setExtraStatus(Supplier<String> extraStatus) {
+		this.extraStatus = extraStatus == null ? () -> "" : extraStatus;
+	}
+
+	/**
+	 * Returns the current EDT statistics.
+	 *
+	 * @return statistics snapshot
+	 */
+	public EdtStats getStats() {
+		List<Stall> recent;
+		synchronized (stalls) {
+			recent = new ArrayList<>(stalls);
+		}
+		return new EdtStats(
+			TimeUnit.NANOSECONDS.toMillis(lastLatencyNanos),
+			TimeUnit.NANOSECONDS.toMillis(maxLatencyNanos),
+			slowEvents,
+			TimeUnit.NANOSECONDS.toMillis(maxEventNanos),
+			TimeUnit.NANOSECONDS.toMillis(stallThresholdNanos),
+			recent);
+	}
+
+	/** Pushes the timing event queue and schedules the probe, watchdog and summary tasks. */
+	private void start() {
+		Toolkit.getDefaultToolkit().getSystemEventQueue().push(new TimingEventQueue());
+		scheduler.scheduleAtFixedRate(this::postProbe, PROBE_INTERVAL_MS, PROBE_INTERVAL_MS, TimeUnit.MILLISECONDS);
+		long checkMs = Math.max(10, TimeUnit.NANOSECONDS.toMillis(stallThresholdNanos) / 2);
+		scheduler.scheduleAtFixedRate(this::checkStall, checkMs, checkMs, TimeUnit.MILLISECONDS);
+		scheduler.scheduleAtFixedRate(this::logSummary, SUMMARY_INTERVAL_S, SUMMARY_INTERVAL_S, TimeUnit.SECONDS);
+	}
+
+	/** Posts a probe to the EDT that records how long it waited before running. */
+	private void postProbe() {
+		long posted = System.nanoTime();
+		EventQueue.invokeLater(() -> {
+			long latency = System.nanoTime() - posted;
+			lastLatencyNanos = latency;
+			if (latency > maxLatencyNanos) {
+				maxLatencyNanos = latency;
+			}
+		});
+	}
+
+	/** Captures the EDT stack if the event currently being dispatched exceeds the threshold. */
+	private void checkStall() {
+		long started = currentStart;
+		Thread edt = edtThread;
+		if (started == 0 || edt == null || currentReported) {
+			return;
+		}
+		long running = System.nanoTime() - started;
+		if (running < stallThresholdNanos) {
+			return;
+		}
+		StackTraceElement[] stack = edt.getStackTrace();
+		StringBuilder sb = new StringBuilder();
+		for (StackTraceElement e : stack) {
+			if ("java.awt.EventQueue".equals(e.getClassName()) && "getNextEvent".equals(e.getMethodName())) {
+				return; // idle inside a modal dialog's nested event loop, not stalled
+			}
+			sb.append("\tat ").append(e).append(System.lineSeparator());
+		}
+		currentReported = true;
+		AWTEvent event = currentEvent;
+		Stall stall = new Stall(Instant.now(), event == null ? "?" : event.getClass().getSimpleName() + " from " + event.getSource().getClass().getSimpleName(),
+			TimeUnit.NANOSECONDS.toMillis(running), sb.toString());
+		synchronized (stalls) {
+			if (stalls.size() == MAX_STALLS) {
+				stalls.removeFirst();
+			}
+			stalls.addLast(stall);
+		}
+		System.err.println("EDT stall: " + stall.event() + " running for " + stall.runningMillis() + " ms" + System.lineSeparator() + stall.stackTrace());
+	}
+
+	/** Writes a one-line summary of EDT and extra statistics to the log. */
+	private void logSummary() {
+		EdtStats s = getStats();
+		System.err.println("EDT latency last=" + s.lastLatencyMillis() + "ms max=" + s.maxLatencyMillis()
+			+ "ms slowEvents=" + s.slowEvents() + " maxEvent=" + s.maxEventMillis() + "ms " + extraStatus.get());
+	}
+
+	/**
+	 * Event queue that times each dispatched event for the watchdog.
+	 */
+	private final class TimingEventQueue extends EventQueue {
+		/** Nesting depth of dispatchEvent (modal dialogs pump events from inside an event). */
+		private int depth;
+		/** Total number of dispatched events, used to detect nested dispatch. */
+		private long dispatched;
+
+		@Override
+		protected void dispatchEvent(AWTEvent event) {
+			/*
+			 * A modal dialog runs a nested event loop inside the event that opened it.
+			 * Each nested event restarts the watchdog clock, and the outer event is not
+			 * counted as slow, so a dialog left open is not reported as a stall.
+			 */
+			depth++;
+			long seq = ++dispatched;
+			long start = System.nanoTime();
+			edtThread = Thread.currentThread();
+			currentEvent = event;
+			currentReported = false;
+			currentStart = start;
+			try {
+				super.dispatchEvent(event);
+			} finally {
+				long now = System.nanoTime();
+				long took = now - start;
+				depth--;
+				currentStart = depth > 0 ? now : 0;
+				currentEvent = null;
+				if (dispatched == seq) {
+					if (took > maxEventNanos) {
+						maxEventNanos = took;
+					}
+					if (took >= stallThresholdNanos) {
+						slowEvents++;
+					}
+				}
+			}
+		}
+	}
+}
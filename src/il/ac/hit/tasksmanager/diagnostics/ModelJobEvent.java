@@ -0,0 +1,48 @@
+package il.ac.hit.tasksmanager.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * JFR event emitted for every job run on the Model executor.
+ * The event duration is the run time; the queue wait is recorded as a field.
+ */
+@Name("il.ac.hit.tasksmanager.ModelJob")
+@Label("Model Job")
+@Category({"Tasks Manager", "Model"})
+@Description("A background job executed by the Model executor")
+public class ModelJobEvent extends Event {
+	@Label("Operation")
+	private String operation;
+
+	@Label("Queue Wait")
+	@Timespan(Timespan.NANOSECONDS)
+	private long queueWait;
+
+	/**
+	 * Creates and begins timing a job that has just been picked up by a worker.
+	 *
+	 * @param operation model operation name
+	 * @param queueWaitNanos time the job spent queued before it started
+	 * @return the started event
+	 */
+	public static ModelJobEvent start(String operation, long queueWaitNanos) {
+		ModelJobEvent event = new ModelJobEvent();
+		event.operation = operation;
+		event.queueWait = queueWaitNanos;
+		event.begin();
+		return event;
+	}
+
+	/** Stops timing and commits the event when the recording wants it. */
+	public void finish() {
+		end();
+		if (shouldCommit()) {
+			commit();
+		}
+	}
+}
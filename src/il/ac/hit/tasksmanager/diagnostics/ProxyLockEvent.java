@@ -0,0 +1,41 @@
+package il.ac.hit.tasksmanager.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * JFR event emitted when a TasksDAOProxy operation acquires the proxy lock.
+ * The event duration is the time spent waiting for the lock.
+ */
+@Name("il.ac.hit.tasksmanager.ProxyLock")
+@Label("Proxy Lock Wait")
+@Category({"Tasks Manager", "Cache"})
+@Description("Time a TasksDAOProxy operation waited for the proxy lock")
+public class ProxyLockEvent extends Event {
+	@Label("Operation")
+	private String operation;
+
+	/**
+	 * Creates and begins timing a lock wait.
+	 *
+	 * @param operation proxy method name
+	 * @return the started event
+	 */
+	public static ProxyLockEvent start(String operation) {
+		ProxyLockEvent event = new ProxyLockEvent();
+		event.operation = operation;
+		event.begin();
+		return event;
+	}
+
+	/** Stops timing once the lock is held and commits the event when enabled. */
+	public void acquired() {
+		end();
+		if (shouldCommit()) {
+			commit();
+		}
+	}
+}
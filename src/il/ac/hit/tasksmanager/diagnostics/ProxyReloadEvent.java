@@ -0,0 +1,49 @@
+package il.ac.hit.tasksmanager.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * JFR event emitted when TasksDAOProxy misses its cache and reads from the delegate DAO.
+ * The event duration is the delegate read time.
+ */
+@Name("il.ac.hit.tasksmanager.ProxyReload")
+@Label("Proxy Reload")
+@Category({"Tasks Manager", "Cache"})
+@Description("A cache miss in TasksDAOProxy served by the delegate DAO")
+public class ProxyReloadEvent extends Event {
+	@Label("Operation")
+	private String operation;
+
+	@Label("Row Count")
+	private int rowCount;
+
+	/**
+	 * Creates and begins timing a delegate read.
+	 *
+	 * @param operation proxy method name
+	 * @return the started event
+	 */
+	public static ProxyReloadEvent start(String operation) {
+		ProxyReloadEvent event = new ProxyReloadEvent();
+		event.operation = operation;
+		event.begin();
+		return event;
+	}
+
+	/** Records the number of tasks returned by the delegate. */
+	public void rows(int rowCount) {
+		this.rowCount = rowCount;
+	}
+
+	/** Stops timing and commits the event when the recording wants it. */
+	public void finish() {
+		end();
+		if (shouldCommit()) {
+			commit();
+		}
+	}
+}
@@ -0,0 +1,41 @@
+package il.ac.hit.tasksmanager.model;
+
+/**
+ * CsvFields holds the CSV escaping shared by the task exporter and the CSV report, so both
+ * quote fields the same way (RFC 4180: fields containing a comma, quote or line break are
+ * quoted, and quotes inside them are doubled).
+ */
+public final class CsvFields {
+	private CsvFields() {
+	}
+
+	/**
+	 * Appends a field, quoting it when needed; null is written as an empty field.
+	 *
+	 * @param sb target buffer
+	 * @param value field value (nullable)
+	 */
+	public static void append(StringBuilder sb, String value) {
+		if (value == null) {
+			return;
+		}
+		boolean quote = false;
+		for (int i = 0; i < value.length() && !quote; i++) {
+			char c = value.charAt(i);
+			quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+		}
+		if (!quote) {
+			sb.append(value);
+			return;
+		}
+		sb.append('"');
+		for (int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+			if (c == '"') {
+				sb.append('"');
+			}
+			sb.append(c);
+		}
+		sb.append('"');
+	}
+}
@@ -0,0 +1,20 @@
+package il.ac.hit.tasksmanager.model;
+
+/**
+ * Point-in-time statistics of the Model background executor, used to diagnose saturation.
+ *
+ * @param poolSize number of worker threads
+ * @param activeThreads workers currently running a job
+ * @param queueLength jobs waiting for a worker
+ * @param completedJobs jobs finished since start
+ * @param avgWaitMillis average time a job waited in the queue
+ * @param maxWaitMillis longest time a job waited in the queue
+ */
+public record ExecutorStats(int poolSize, int activeThreads, int queueLength, long completedJobs,
+							double avgWaitMillis, long maxWaitMillis) {
+	@Override
+	public String toString() {
+		return String.format("executor active=%d/%d queued=%d completed=%d wait avg=%.1fms max=%dms",
+			activeThreads, poolSize, queueLength, completedJobs, avgWaitMillis, maxWaitMillis);
+	}
+}
@@ -1,16 +1,26 @@
 package il.ac.hit.tasksmanager.model;
 
+import il.ac.hit.tasksmanager.model.combinator.TaskFilter;
+import il.ac.hit.tasksmanager.model.entities.ITask;
+import il.ac.hit.tasksmanager.model.observer.ReminderObserver;
 import il.ac.hit.tasksmanager.model.observer.TaskObserver;
 import il.ac.hit.tasksmanager.model.entities.state.TaskState;
 
+import java.nio.file.Path;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Consumer;
 
 /**
  * IModel defines the application data operations with asynchronous access and observer notifications.
  */
 public interface IModel {
+	/** Returns a future that completes when the data source is ready (exceptionally if it failed to start). */
+	default CompletableFuture<Void> whenReady() {
+		return CompletableFuture.completedFuture(null);
+	}
+
 	/** Loads tasks asynchronously into cache and notifies observers. */
 	void loadData();
 	/** Saves data (no-op if persistence is handled per mutation). */
@@ -19,6 +29,11 @@ public interface IModel {
 	/** Returns an immutable view of the cached tasks. */
 	List<Task> getTasks();
 
+	/** Returns the cached tasks matching the filter. */
+	default List<Task> getTasks(TaskFilter filter) {
+		return getTasks().stream().filter(filter::matches).toList();
+	}
+
 	/** Retrieves tasks asynchronously and invokes the callback on the EDT. */
 	void getTasksAsync(Consumer<Task[]> callback);
 
@@ -35,6 +50,42 @@ public interface IModel {
 	/** Deletes a task by ID. */
 	void deleteTask(int id) throws ModelException;
 
+	/** Imports tasks from a CSV or JSON Lines file in batches, reporting progress, then refreshes once. */
+	default void importTasks(Path file, Consumer<TaskImporter.Progress> progress) throws ModelException {
+		throw new ModelException("Import not supported by this implementation");
+	}
+
+	/** Exports all tasks to a CSV or JSON Lines file (gzip for {@code .gz}) without loading them all into memory. */
+	default void exportTasks(Path file, Consumer<TaskExporter.Result> done) throws ModelException {
+		throw new ModelException("Export not supported by this implementation");
+	}
+
+	/** Returns the dated occurrences of the cached tasks (recurring tasks expanded lazily over a window). */
+	default TaskOccurrences getOccurrences() {
+		return new TaskOccurrences(TaskColumnStore.of(getTasks().stream().map(t -> (ITask) t).toArray(ITask[]::new)));
+	}
+
+	/** Returns counts by state, overdue and per-day load, kept up to date by mutations (empty by default). */
+	default TaskAggregates getAggregates() {
+		return new TaskAggregates();
+	}
+
+	/** Returns statistics of the background executor (active workers, queue length, wait times; empty by default). */
+	default ExecutorStats getExecutorStats() {
+		return new ExecutorStats(0, 0, 0, 0, 0, 0);
+	}
+
+	/** Drains pending work and releases the data source before exit (no-op by default). */
+	default void shutdown() {
+	}
+
+	/** Registers an observer for due-soon and overdue reminders (ignored by default). */
+	default void registerReminderObserver(ReminderObserver observer) {
+	}
+	/** Unregisters a reminder observer. */
+	default void removeReminderObserver(ReminderObserver observer) {
+	}
+
 	/** Registers an observer for model changes. */
 	void register(TaskObserver observer);
 	/** Unregisters the given observer. */
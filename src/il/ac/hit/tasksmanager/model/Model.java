@@ -1,21 +1,42 @@
 package il.ac.hit.tasksmanager.model;
 
+import il.ac.hit.tasksmanager.diagnostics.ModelJobEvent;
+import il.ac.hit.tasksmanager.model.combinator.ScanFilter;
+import il.ac.hit.tasksmanager.model.combinator.TaskFilter;
 import il.ac.hit.tasksmanager.model.dao.ITasksDAO;
 import il.ac.hit.tasksmanager.model.dao.TasksDAOException;
 import il.ac.hit.tasksmanager.model.dao.TasksDAOProxy;
-import il.ac.hit.tasksmanager.model.dao.TasksDAOImpl;
+import il.ac.hit.tasksmanager.model.dao.TasksDAOFactory;
 import il.ac.hit.tasksmanager.model.entities.ITask;
 import il.ac.hit.tasksmanager.model.entities.state.TaskState;
-import il.ac.hit.tasksmanager.model.entities.state.ToDoState;
+import il.ac.hit.tasksmanager.model.entities.state.TaskStates;
+import il.ac.hit.tasksmanager.model.observer.ReminderObserver;
 import il.ac.hit.tasksmanager.model.observer.TaskObserver;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Instant;
 import java.time.LocalDate;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.Consumer;
 
 /**
@@ -29,31 +50,125 @@ import java.util.function.Consumer;
  * - All Derby/DAO operations run on a background {@link ExecutorService} (not on the Swing EDT)
  *   to avoid blocking the UI while the database touches the filesystem.
  * - The ViewModel is responsible for re-dispatching any UI updates back to the Swing EDT.
+ * - The DAO may still be booting when the Model is created ({@link #Model(CompletableFuture)});
+ *   jobs wait for it on the executor and {@link #whenReady()} reports when it is available.
+ * - Every job reports its queue wait and run time to Java Flight Recorder as a {@link ModelJobEvent};
+ *   queue length, active workers and wait times are available via {@link #getExecutorStats()}.
+ * Cache layout: the loaded tasks are held in a {@link TaskColumnStore} (primitive columns and a
+ * deduplicated string table) and exposed as records created on demand. Loads stream the DAO's
+ * cursor into the columns, so no full record array is kept beside it. This intentionally bypasses
+ * the {@link TasksDAOProxy} list snapshot and its stale-while-revalidate mode: the column store is
+ * the application's list cache, and each mutation here would invalidate that snapshot anyway, so
+ * reading through it would still rescan the table and also build a record array. The Model uses
+ * the proxy for its by-id cache (the previous version read by updates and deletes) and write
+ * invalidation; the snapshot serves callers that use the DAO directly.
+ * Startup snapshot: with {@link #enableSnapshot(Path)} the cache starts from a binary
+ * {@link TaskSnapshotFile}; the first {@link #loadData()} compares its fingerprint with the
+ * database contents and notifies observers only if they differ.
+ * Aggregates: {@link #getAggregates()} counts by state, overdue and per-day load. They are
+ * loaded with GROUP BY queries by {@link #loadData()} and after imports, and otherwise
+ * updated by each mutation's delta instead of rescanning the tasks. Each DAO write (with the
+ * read of the previous version) and its delta, recurrence batches included, and each reset
+ * run under one write lock, so overlapping jobs cannot count a change twice.
+ * Recurrence: completed {@link RecurringTask}s are handed to a {@link RecurrenceScheduler},
+ * which reopens them on their next occurrence; the Model then reloads and notifies observers.
+ * Reminders: open tasks with a due date are tracked by a {@link ReminderService}, which notifies
+ * {@link ReminderObserver}s when they become due soon or overdue; the first {@link #loadData()}
+ * reports what came due while the application was closed with one indexed query.
  */
 public class Model implements IModel {
-	private final ITasksDAO dao;
-	private final ExecutorService executor;
+	private final CompletableFuture<ITasksDAO> dao;
+	private static final long SHUTDOWN_TIMEOUT_S = 10;
+	private final ThreadPoolExecutor executor;
+	private final AtomicBoolean shutDown = new AtomicBoolean();
+	private final LongAdder startedJobs = new LongAdder();
+	private final LongAdder totalWaitNanos = new LongAdder();
+	private final LongAccumulator maxWaitNanos = new LongAccumulator(Math::max, 0L);
 	private final List<TaskObserver> observers = new ArrayList<>();
-	private volatile List<Task> cached = new ArrayList<>();
+	private volatile TaskColumnStore cached = TaskColumnStore.EMPTY;
+	private final TaskAggregates aggregates = new TaskAggregates();
+	/** Held around each write and its aggregate delta, and around aggregate resets, so deltas never drift. */
+	private final ReentrantLock writeLock = new ReentrantLock();
+	private final RecurrenceScheduler recurrence;
+	private final ReminderService reminders = new ReminderService();
+	private final AtomicBoolean remindersCaughtUp = new AtomicBoolean();
+	private volatile boolean servingSnapshot;
+	private volatile Path snapshotFile;
+	private volatile long snapshotStamp;
+	private ScheduledExecutorService snapshotWriter;
+	private ScheduledFuture<?> pendingSnapshot;
 
+	/**
+	 * Creates a model on the configured DAO ({@link TasksDAOFactory}), booting it synchronously on the calling thread.
+	 *
+	 * @throws ModelException when the DAO cannot be initialized
+	 */
 	public Model() throws ModelException {
+		this(bootNow());
+	}
+
+	/**
+	 * Creates a model whose DAO is still booting; jobs wait for it on the executor,
+	 * so the caller (typically the EDT) never blocks.
+	 *
+	 * @param daoFuture completes with the DAO once it is ready
+	 */
+	public Model(CompletableFuture<? extends ITasksDAO> daoFuture) {
+		this.dao = daoFuture.thenApply(TasksDAOProxy::new);
+		this.executor = new ThreadPoolExecutor(4, 4, 0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>());
+		this.recurrence = new RecurrenceScheduler(this.dao, Clock.systemDefaultZone(), this::recurringTasksReopened, writeLock);
+	}
+
+	private static CompletableFuture<ITasksDAO> bootNow() throws ModelException {
 		try {
-			this.dao = new TasksDAOProxy(TasksDAOImpl.getInstance());
-			this.executor = Executors.newFixedThreadPool(4);
+			return CompletableFuture.completedFuture(TasksDAOFactory.getInstance());
 		} catch (TasksDAOException e) {
 			throw new ModelException("Failed to initialize DAO", e);
 		}
 	}
 
+	@Override
+	/**
+	 * Returns a future that completes once the DAO has booted (or completes exceptionally if it failed).
+	 */
+	public CompletableFuture<Void> whenReady() {
+		return dao.thenAccept(d -> { });
+	}
+
+	/**
+	 * Returns the DAO, waiting for it to finish booting. Only called from executor jobs.
+	 *
+	 * @return ready DAO
+	 * @throws TasksDAOException when the DAO failed to boot
+	 */
+	private ITasksDAO dao() throws TasksDAOException {
+		try {
+			return dao.join();
+		} catch (CompletionException | CancellationException e) {
+			Throwable cause = e.getCause() == null ? e : e.getCause();
+			throw new TasksDAOException("DAO failed to start: " + cause.getMessage(), cause);
+		}
+	}
+
 	@Override
 	/**
 	 * Loads tasks asynchronously from the DAO into the in-memory cache and notifies observers.
 	 */
 	public void loadData() {
-		executor.submit(() -> {
+		loadAggregates();
+		submit("loadData", () -> {
 			try {
-				ITask[] arr = dao.getTasks();
-				cached = Arrays.stream(arr).map(t -> (Task) t).toList();
+				Instant remindedUntil = remindersCaughtUp.compareAndSet(false, true) ? reminders.catchUp(dao()) : Instant.now();
+				TaskColumnStore loaded = loadColumns();
+				recurrence.rebuild(records(loaded));
+				reminders.rebuild(records(loaded), remindedUntil);
+				boolean reconciled = servingSnapshot && loaded.fingerprint() == cached.fingerprint();
+				servingSnapshot = false;
+				if (reconciled) {
+					// the snapshot shown at startup already matches the database
+					return;
+				}
+				publish(loaded);
 				/*
 				 * Observer: notify subscribers that the data set has changed
 				 */
@@ -64,16 +179,59 @@ public class Model implements IModel {
 		});
 	}
 
+	/**
+	 * Re-bases the aggregates on the database's GROUP BY counts and notifies observers,
+	 * without waiting for the full task load.
+	 */
+	private void loadAggregates() {
+		submit("loadAggregates", () -> {
+			try {
+				resetAggregates();
+				notifyObservers();
+			} catch (TasksDAOException e) {
+				System.err.println("Error loading task counts: " + e.getMessage());
+			}
+		});
+	}
+
+	private void resetAggregates() throws TasksDAOException {
+		ITasksDAO target = dao();
+		writeLock.lock();
+		try {
+			aggregates.reset(target.countTasksByState(), target.countOpenTasksByDueDate());
+		} finally {
+			writeLock.unlock();
+		}
+	}
+
+	/**
+	 * Called by the {@link RecurrenceScheduler} after it reopened recurring tasks:
+	 * applies the deltas to the aggregates and reloads the cache once for the whole run.
+	 */
+	private void recurringTasksReopened(List<ITask> before, List<ITask> after) {
+		for (int i = 0; i < before.size(); i++) {
+			aggregates.replaced(before.get(i), after.get(i));
+			reminders.taskChanged(before.get(i), after.get(i));
+		}
+		submit("reopenRecurring", () -> {
+			try {
+				publish(loadColumns());
+				/* Notify all observers about the data change */
+				notifyObservers();
+			} catch (TasksDAOException e) {
+				System.err.println("Error reloading after reopening recurring tasks: " + e.getMessage());
+			}
+		});
+	}
+
 	/**
 	 * Retrieves tasks asynchronously and invokes the given callback directly (no Swing dependency).
 	 * The ViewModel is responsible for EDT dispatching.
 	 */
 	public void getTasksAsync(Consumer<Task[]> callback) {
-		executor.submit(() -> {
+		submit("getTasksAsync", () -> {
 			try {
-				ITask[] tasks = dao.getTasks();
-				Task[] mapped = Arrays.stream(tasks).map(t -> (Task) t).toArray(Task[]::new);
-				callback.accept(mapped);
+				callback.accept(loadColumns().asList().toArray(new Task[0]));
 			} catch (TasksDAOException e) {
 				System.err.println("Error loading tasks async: " + e.getMessage());
 			}
@@ -82,20 +240,172 @@ public class Model implements IModel {
 
 	@Override
 	/**
-	 * Persists data if needed. For embedded Derby every mutation is persisted immediately, so this is a no-op.
+	 * Persists data if needed. Derby persists every mutation immediately; this writes the
+	 * startup snapshot now (instead of after the quiet period) when snapshots are enabled.
 	 */
 	public void saveData() {
-		// Derby is persisted on each mutation; method left for API completeness
+		// Derby is persisted on each mutation; only the snapshot may be behind
+		synchronized (this) {
+			if (pendingSnapshot != null) {
+				pendingSnapshot.cancel(false);
+				pendingSnapshot = null;
+			}
+		}
+		writeSnapshot();
+	}
+
+	/**
+	 * Enables the startup snapshot: shows the tasks stored in {@code file} right away (until
+	 * {@link #loadData()} has reconciled them with the database) and rewrites the file after
+	 * changes once no further change arrived for {@code tasks.snapshot.quietMs} (default 2000),
+	 * and on JVM shutdown.
+	 *
+	 * @param file snapshot file (see {@link TaskSnapshotFile})
+	 */
+	public void enableSnapshot(Path file) {
+		if (file == null) {
+			return;
+		}
+		TaskColumnStore snapshot = TaskSnapshotFile.read(file);
+		synchronized (this) {
+			if (snapshotFile != null) {
+				return;
+			}
+			snapshotFile = file;
+			snapshotWriter = Executors.newSingleThreadScheduledExecutor(r -> {
+				Thread t = new Thread(r, "tasks-snapshot");
+				t.setDaemon(true);
+				return t;
+			});
+		}
+		if (snapshot != null && cached.size() == 0) {
+			snapshotStamp = snapshot.fingerprint();
+			cached = snapshot;
+			servingSnapshot = true;
+		}
+		Runtime.getRuntime().addShutdownHook(new Thread(this::writeSnapshot, "tasks-snapshot-shutdown"));
+	}
+
+	@Override
+	/**
+	 * Shuts the model down for exit: stops accepting jobs, waits for queued writes to finish,
+	 * writes the snapshot and shuts the DAO down (Derby checkpoint and clean stop).
+	 * Calling it more than once is harmless.
+	 */
+	public void shutdown() {
+		if (!shutDown.compareAndSet(false, true)) {
+			return;
+		}
+		recurrence.shutdown();
+		reminders.shutdown();
+		executor.shutdown();
+		try {
+			if (!executor.awaitTermination(SHUTDOWN_TIMEOUT_S, TimeUnit.SECONDS)) {
+				System.err.println("Model shutdown: jobs still running after " + SHUTDOWN_TIMEOUT_S + " s");
+			}
+			saveData();
+			synchronized (this) {
+				if (snapshotWriter != null) {
+					snapshotWriter.shutdownNow();
+				}
+			}
+			dao.get(SHUTDOWN_TIMEOUT_S, TimeUnit.SECONDS).shutdown();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} catch (ExecutionException | TimeoutException e) {
+			System.err.println("Model shutdown: DAO not available: " + e);
+		} catch (TasksDAOException e) {
+			System.err.println("Error shutting down DAO: " + e.getMessage());
+		}
+	}
+
+	/** Publishes a freshly loaded task set and schedules a snapshot write if it changed. */
+	private void publish(TaskColumnStore store) {
+		cached = store;
+		servingSnapshot = false;
+		if (snapshotFile == null || store.fingerprint() == snapshotStamp) {
+			return;
+		}
+		synchronized (this) {
+			if (pendingSnapshot != null) {
+				pendingSnapshot.cancel(false);
+			}
+			// debounce: write once changes have been quiet for a while
+			pendingSnapshot = snapshotWriter.schedule(this::writeSnapshot,
+				Long.getLong("tasks.snapshot.quietMs", 2000L), TimeUnit.MILLISECONDS);
+		}
+	}
+
+	/** Writes the current cache to the snapshot file if it differs from the last written one. */
+	private synchronized void writeSnapshot() {
+		Path file = snapshotFile;
+		TaskColumnStore store = cached;
+		if (file == null || servingSnapshot || store.fingerprint() == snapshotStamp) {
+			return;
+		}
+		try {
+			TaskSnapshotFile.write(file, store);
+			snapshotStamp = store.fingerprint();
+		} catch (IOException e) {
+			System.err.println("Error writing task snapshot: " + e.getMessage());
+		}
 	}
 
 	@Override
 	/**
 	 * Returns an immutable snapshot of the currently cached tasks.
+	 * The list is a view over the columnar cache; task records are created on access.
 	 *
 	 * @return unmodifiable list of tasks
 	 */
 	public List<Task> getTasks() {
-		return Collections.unmodifiableList(cached);
+		return cached.asList();
+	}
+
+	@Override
+	/**
+	 * Returns the cached tasks matching the filter.
+	 * A {@link ScanFilter} is evaluated over the packed columns into a bitmap and only
+	 * the matching rows (or the candidates of its residual filter) become task records.
+	 *
+	 * @param filter filter to apply
+	 * @return matching tasks in cache order
+	 */
+	public List<Task> getTasks(TaskFilter filter) {
+		TaskColumnStore columns = cached;
+		if (filter instanceof ScanFilter scan) {
+			return Collections.unmodifiableList(TaskColumnScan.select(columns, scan.scan(columns), scan.residual()));
+		}
+		return columns.asList().stream().filter(filter::matches).toList();
+	}
+
+	@Override
+	/**
+	 * Returns the incrementally maintained counts (by state, overdue, open tasks per day).
+	 *
+	 * @return live aggregates; reads do not scan the tasks
+	 */
+	public TaskAggregates getAggregates() {
+		return aggregates;
+	}
+
+	@Override
+	/**
+	 * Returns a lazy occurrence view (recurring tasks expanded over a date window) of the cached tasks.
+	 *
+	 * @return occurrences of the current snapshot
+	 */
+	public TaskOccurrences getOccurrences() {
+		return new TaskOccurrences(cached);
+	}
+
+	/**
+	 * Returns the columnar snapshot backing {@link #getTasks()}, for column-wise scans.
+	 *
+	 * @return current column store
+	 */
+	public TaskColumnStore getTaskColumns() {
+		return cached;
 	}
 
 	@Override
@@ -106,11 +416,18 @@ public class Model implements IModel {
 	 * @param description task description
 	 */
 	public void addTask(String title, String description) throws ModelException {
-		executor.submit(() -> {
+		submit("addTask", () -> {
 			try {
-				dao.addTask(new BasicTask(0, title, description, new ToDoState(), null));
-				ITask[] arr = dao.getTasks();
-				cached = Arrays.stream(arr).map(t -> (Task) t).toList();
+				BasicTask task = new BasicTask(0, title, description, TaskStates.TODO, null);
+				ITasksDAO target = dao();
+				writeLock.lock();
+				try {
+					target.addTask(task);
+					aggregates.added(task);
+				} finally {
+					writeLock.unlock();
+				}
+				publish(loadColumns());
 				/* Notify all observers about the data change */
 				notifyObservers();
 			} catch (TasksDAOException e) {
@@ -133,11 +450,22 @@ public class Model implements IModel {
 		if (dueDate != null && dueDate.isBefore(java.time.LocalDate.now())) {
 			throw new ModelException("Due date must be today or in the future");
 		}
-		executor.submit(() -> {
+		submit("addTask", () -> {
 			try {
-				dao.addTask(new BasicTask(0, title, description, state == null ? new ToDoState() : state, dueDate));
-				ITask[] arr = dao.getTasks();
-				cached = Arrays.stream(arr).map(t -> (Task) t).toList();
+				BasicTask task = new BasicTask(0, title, description, state == null ? TaskStates.TODO : state, dueDate);
+				ITasksDAO target = dao();
+				ITask stored;
+				writeLock.lock();
+				try {
+					stored = target.addAndGetTask(task);
+					aggregates.added(task);
+				} finally {
+					writeLock.unlock();
+				}
+				if (stored != null) {
+					reminders.taskChanged(null, stored);
+				}
+				publish(loadColumns());
 				/* Notify all observers about the data change */
 				notifyObservers();
 			} catch (TasksDAOException e) {
@@ -163,12 +491,23 @@ public class Model implements IModel {
 		if (dueDate != null && dueDate.isBefore(java.time.LocalDate.now())) {
 			throw new ModelException("Due date must be today or in the future");
 		}
-		executor.submit(() -> {
+		submit("addRecurringTask", () -> {
 			try {
-				RecurringTask rt = new RecurringTask(0, title, description, state == null ? new ToDoState() : state, dueDate, recurrenceDays);
-				dao.addTask(rt);
-				ITask[] arr = dao.getTasks();
-				cached = Arrays.stream(arr).map(t -> (Task) t).toList();
+				RecurringTask rt = new RecurringTask(0, title, description, state == null ? TaskStates.TODO : state, dueDate, recurrenceDays);
+				ITasksDAO target = dao();
+				ITask stored;
+				writeLock.lock();
+				try {
+					stored = target.addAndGetTask(rt);
+					aggregates.added(rt);
+				} finally {
+					writeLock.unlock();
+				}
+				if (stored != null) {
+					recurrence.taskChanged(stored);
+					reminders.taskChanged(null, stored);
+				}
+				publish(loadColumns());
 				/* Notify all observers about the data change */
 				notifyObservers();
 			} catch (TasksDAOException e) {
@@ -184,11 +523,31 @@ public class Model implements IModel {
 	 * @param task task with updated values
 	 */
 	public void updateTask(Task task) throws ModelException {
-		executor.submit(() -> {
+		submit("updateTask", () -> {
 			try {
-				dao.updateTask((ITask) task);
-				ITask[] arr = dao.getTasks();
-				cached = Arrays.stream(arr).map(t -> (Task) t).toList();
+				ITasksDAO target = dao();
+				ITask before;
+				writeLock.lock();
+				try {
+					// keeps a concurrent reopen of this task from writing over the edit
+					recurrence.taskWriting(task.id());
+					try {
+						before = task.id() > 0 ? target.getTask(task.id()) : null;
+						target.updateTask((ITask) task);
+						recurrence.taskChanged((ITask) task);
+					} finally {
+						recurrence.taskWritten(task.id());
+					}
+					if (before != null) {
+						aggregates.replaced(before, (ITask) task);
+					}
+				} finally {
+					writeLock.unlock();
+				}
+				if (before != null) {
+					reminders.taskChanged(before, (ITask) task);
+				}
+				publish(loadColumns());
 				/* Notify all observers about the data change */
 				notifyObservers();
 			} catch (TasksDAOException e) {
@@ -204,11 +563,28 @@ public class Model implements IModel {
 	 * @param id task identifier
 	 */
 	public void deleteTask(int id) throws ModelException {
-		executor.submit(() -> {
+		submit("deleteTask", () -> {
 			try {
-				dao.deleteTask(id);
-				ITask[] arr = dao.getTasks();
-				cached = Arrays.stream(arr).map(t -> (Task) t).toList();
+				ITasksDAO target = dao();
+				writeLock.lock();
+				try {
+					recurrence.taskWriting(id);
+					ITask before;
+					try {
+						before = id > 0 ? target.getTask(id) : null;
+						target.deleteTask(id);
+						recurrence.taskDeleted(id);
+					} finally {
+						recurrence.taskWritten(id);
+					}
+					if (before != null) {
+						aggregates.removed(before);
+					}
+				} finally {
+					writeLock.unlock();
+				}
+				reminders.taskDeleted(id);
+				publish(loadColumns());
 				/* Notify all observers about the data change */
 				notifyObservers();
 			} catch (TasksDAOException e) {
@@ -217,6 +593,83 @@ public class Model implements IModel {
 		});
 	}
 
+	@Override
+	/**
+	 * Streams a CSV or JSON Lines file into the DAO with {@link TaskImporter} (batched upserts,
+	 * resumable), then reloads the cache and notifies observers once for the whole import.
+	 *
+	 * @param file file to import
+	 * @param progress called after every committed batch (on the executor thread)
+	 */
+	public void importTasks(Path file, Consumer<TaskImporter.Progress> progress) throws ModelException {
+		submit("importTasks", () -> {
+			try {
+				TaskImporter.Result result = new TaskImporter(dao()).onProgress(progress).importFile(file);
+				for (String error : result.errors()) {
+					System.err.println("Import " + file + ": " + error);
+				}
+			} catch (TasksDAOException | IOException e) {
+				System.err.println("Error importing " + file + " (rerun to resume): " + e.getMessage());
+			}
+			try {
+				TaskColumnStore loaded = loadColumns();
+				recurrence.rebuild(records(loaded));
+				reminders.rebuild(records(loaded), Instant.now());
+				publish(loaded);
+				resetAggregates();
+				/* Notify all observers about the data change */
+				notifyObservers();
+			} catch (TasksDAOException e) {
+				System.err.println("Error reloading after import: " + e.getMessage());
+			}
+		});
+	}
+
+	@Override
+	/**
+	 * Writes all tasks to a CSV or JSON Lines file (gzip when the name ends in {@code .gz})
+	 * with {@link TaskExporter}, streaming from the DAO instead of the cache.
+	 *
+	 * @param file target file
+	 * @param done called with the result on the executor thread
+	 */
+	public void exportTasks(Path file, Consumer<TaskExporter.Result> done) throws ModelException {
+		submit("exportTasks", () -> {
+			try {
+				done.accept(new TaskExporter(dao()).export(file));
+			} catch (TasksDAOException | IOException e) {
+				System.err.println("Error exporting to " + file + ": " + e.getMessage());
+			}
+		});
+	}
+
+	/**
+	 * Reads all tasks from the DAO's cursor straight into columns. Goes around the proxy's
+	 * snapshot, so no full record array is kept next to the column store.
+	 */
+	private TaskColumnStore loadColumns() throws TasksDAOException {
+		TaskColumnStore.Builder builder = new TaskColumnStore.Builder();
+		dao().forEachTask(builder::add);
+		return builder.build();
+	}
+
+	/** Returns the tasks of a column store as ITask records, created one at a time. */
+	private static Iterable<ITask> records(TaskColumnStore columns) {
+		return () -> columns.asList().stream().map(t -> (ITask) t).iterator();
+	}
+
+	@Override
+	/** Registers an observer for due-soon and overdue reminders. */
+	public void registerReminderObserver(ReminderObserver observer) {
+		reminders.register(observer);
+	}
+
+	@Override
+	/** Unregisters a reminder observer. */
+	public void removeReminderObserver(ReminderObserver observer) {
+		reminders.remove(observer);
+	}
+
 	@Override
 	/** Registers a model observer that will be notified on data changes. */
 	public void register(TaskObserver observer) {
@@ -229,6 +682,43 @@ public class Model implements IModel {
 		observers.remove(observer);
 	}
 
+	@Override
+	/**
+	 * Returns the current executor statistics (active workers, queue length and wait times).
+	 */
+	public ExecutorStats getExecutorStats() {
+		long started = startedJobs.sum();
+		double avgWaitMillis = started == 0 ? 0 : totalWaitNanos.sum() / (double) started / 1_000_000.0;
+		return new ExecutorStats(executor.getPoolSize(), executor.getActiveCount(), executor.getQueue().size(),
+			executor.getCompletedTaskCount(), avgWaitMillis, TimeUnit.NANOSECONDS.toMillis(maxWaitNanos.get()));
+	}
+
+	/**
+	 * Submits a job to the executor, recording its queue wait and run time as a {@link ModelJobEvent}.
+	 *
+	 * @param operation operation name reported in the event
+	 * @param job the work to run on the executor
+	 */
+	private void submit(String operation, Runnable job) {
+		long enqueued = System.nanoTime();
+		if (shutDown.get()) {
+			System.err.println("Model is shut down; dropped " + operation);
+			return;
+		}
+		executor.submit(() -> {
+			long waited = System.nanoTime() - enqueued;
+			startedJobs.increment();
+			totalWaitNanos.add(waited);
+			maxWaitNanos.accumulate(waited);
+			ModelJobEvent event = ModelJobEvent.start(operation, waited);
+			try {
+				job.run();
+			} finally {
+				event.finish();
+			}
+		});
+	}
+
 	/** Notifies all registered observers about data changes (Observer pattern). */
 	private void notifyObservers() {
 		/*
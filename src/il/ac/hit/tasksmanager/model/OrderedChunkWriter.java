@@ -0,0 +1,99 @@
+package il.ac.hit.tasksmanager.model;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * OrderedChunkWriter formats chunks on a pool of daemon threads and hands them to a sink in
+ * submission order. At most {@code 2 × parallelism} chunks are in flight; when that many are
+ * pending, {@link #submit} writes the oldest first, which bounds memory to a few chunks.
+ * Used by the task exporter and the report writer.
+ *
+ * @param <T> formatted chunk type
+ */
+public final class OrderedChunkWriter<T> implements AutoCloseable {
+	/**
+	 * Receives formatted chunks in submission order.
+	 *
+	 * @param <T> formatted chunk type
+	 */
+	@FunctionalInterface
+	public interface Sink<T> {
+		void write(T chunk) throws IOException;
+	}
+
+	private final ExecutorService formatters;
+	private final ArrayDeque<Future<T>> pending = new ArrayDeque<>();
+	private final int maxPending;
+	private final Sink<T> sink;
+	private final String what;
+
+	/**
+	 * Starts the formatting threads.
+	 *
+	 * @param threadName thread name prefix, e.g. {@code tasks-export}
+	 * @param parallelism formatting threads
+	 * @param what output name used in error messages, e.g. {@code export}
+	 * @param sink receives the formatted chunks
+	 */
+	public OrderedChunkWriter(String threadName, int parallelism, String what, Sink<T> sink) {
+		AtomicInteger threads = new AtomicInteger();
+		this.formatters = Executors.newFixedThreadPool(parallelism, r -> {
+			Thread t = new Thread(r, threadName + "-" + threads.getAndIncrement());
+			t.setDaemon(true);
+			return t;
+		});
+		this.maxPending = 2 * parallelism;
+		this.what = what;
+		this.sink = sink;
+	}
+
+	/**
+	 * Queues a chunk for formatting; may block until the oldest pending chunk is written.
+	 *
+	 * @param format formats one chunk
+	 * @throws IOException when formatting or the sink fails
+	 */
+	public void submit(Callable<T> format) throws IOException {
+		pending.add(formatters.submit(format));
+		while (pending.size() >= maxPending) {
+			writeOldest();
+		}
+	}
+
+	/**
+	 * Writes every pending chunk.
+	 *
+	 * @throws IOException when formatting or the sink fails
+	 */
+	public void finish() throws IOException {
+		while (!pending.isEmpty()) {
+			writeOldest();
+		}
+	}
+
+	private void writeOldest() throws IOException {
+		T chunk;
+		try {
+			chunk = pending.poll().get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IOException("Interrupted while writing " + what, e);
+		} catch (ExecutionException e) {
+			throw new IOException("Failed to format " + what, e.getCause());
+		}
+		sink.write(chunk);
+	}
+
+	/** Stops the formatting threads, cancelling chunks not yet written. */
+	@Override
+	public void close() {
+		formatters.shutdownNow();
+	}
+}
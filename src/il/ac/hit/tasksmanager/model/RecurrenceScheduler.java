@@ -0,0 +1,395 @@
+package il.ac.hit.tasksmanager.model;
+
+import il.ac.hit.tasksmanager.model.dao.ITasksDAO;
+import il.ac.hit.tasksmanager.model.dao.TasksDAOException;
+import il.ac.hit.tasksmanager.model.entities.ITask;
+import il.ac.hit.tasksmanager.model.entities.state.TaskStates;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * RecurrenceScheduler reopens completed {@link RecurringTask}s when their next occurrence arrives.
+ * Rule: a recurring task completed with due date {@code D} reopens as TODO, due on the first
+ * {@code D + k × interval} (k ≥ 1) that is today or later; without a due date it is due
+ * {@code interval} days after the day its completion was seen.
+ * Scheduling:
+ * - Completed recurring tasks are kept in a priority queue of (reopen day, id); nothing runs
+ *   between events: a single timer wakes at the start of the earliest reopen day (at least hourly,
+ *   so clock jumps are noticed).
+ * - Edits and deletions are not searched for in the queue: the id's current day is kept in a map
+ *   and queue entries that no longer match it are skipped when they come up (lazy cancellation).
+ * - When a day arrives, the due tasks are handled in batches of {@code tasks.recurrence.batchSize}
+ *   (default 500): each is re-read, rolled forward if it is still completed, and the batch is
+ *   written back with {@link ITasksDAO#upsertTasks}; the listener receives each batch once it is written.
+ * - A task leaves the schedule only once its batch is written. When a read or write fails, the
+ *   rest of the run stays scheduled and is retried a minute later.
+ * - Other writers bracket their writes with {@link #taskWriting(int)} and {@link #taskWritten(int)};
+ *   a re-read task that someone else was writing before its batch was stored is left out of the
+ *   batch, so an edit is never overwritten with a stale copy.
+ */
+public final class RecurrenceScheduler {
+	/** Receives the tasks reopened by each written batch, in pairs of previous and new version. */
+	public interface Listener {
+		/**
+		 * Called on the scheduler thread after a batch was written.
+		 *
+		 * @param before previous versions
+		 * @param after reopened versions (same order)
+		 */
+		void rolled(List<ITask> before, List<ITask> after);
+	}
+
+	private record Entry(long day, int id) {
+	}
+
+	private static final long MAX_SLEEP_MILLIS = TimeUnit.HOURS.toMillis(1);
+	private static final long RETRY_MILLIS = TimeUnit.MINUTES.toMillis(1);
+	private final CompletableFuture<? extends ITasksDAO> dao;
+	private final Clock clock;
+	private final Listener listener;
+	private final Lock writeLock;
+	private final int batchSize = Integer.getInteger("tasks.recurrence.batchSize", 500);
+	private final PriorityQueue<Entry> queue = new PriorityQueue<>((a, b) -> a.day != b.day ? Long.compare(a.day, b.day) : Integer.compare(a.id, b.id));
+	/** Reopen day of each scheduled task; queue entries with another day are stale. */
+	private final Map<Integer, Long> scheduled = new HashMap<>();
+	/** Writes by others that have started and not finished yet, counted per id. */
+	private final Map<Integer, Integer> writing = new HashMap<>();
+	/** Ids written by others since the current batch was re-read; null when no batch is in flight. */
+	private Set<Integer> writtenMeanwhile;
+	/** Due tasks left out of a batch for a concurrent write; queued again once that write ends. */
+	private final Set<Integer> leftOut = new HashSet<>();
+	private final ScheduledExecutorService timer;
+	private ScheduledFuture<?> wakeUp;
+	private long wakeUpDay = Long.MAX_VALUE;
+
+	/**
+	 * Creates a scheduler writing to the given DAO once it is available.
+	 *
+	 * @param dao DAO (may still be booting)
+	 * @param clock clock deciding what "today" is
+	 * @param listener receives the reopened tasks
+	 */
+	public RecurrenceScheduler(CompletableFuture<? extends ITasksDAO> dao, Clock clock, Listener listener) {
+		this(dao, clock, listener, new ReentrantLock());
+	}
+
+	/**
+	 * Creates a scheduler that writes each batch and reports it to the listener while holding
+	 * the given lock, so the owner can keep its own bookkeeping of writes atomic.
+	 * Owners that also call {@link #taskWriting(int)} must do so while holding the same lock.
+	 *
+	 * @param dao DAO (may still be booting)
+	 * @param clock clock deciding what "today" is
+	 * @param listener receives the reopened tasks
+	 * @param writeLock held around each batch write and its listener call
+	 */
+	public RecurrenceScheduler(CompletableFuture<? extends ITasksDAO> dao, Clock clock, Listener listener, Lock writeLock) {
+		this.dao = dao;
+		this.clock = clock;
+		this.listener = listener;
+		this.writeLock = writeLock;
+		this.timer = Executors.newSingleThreadScheduledExecutor(r -> {
+			Thread t = new Thread(r, "tasks-recurrence");
+			t.setDaemon(true);
+			return t;
+		});
+	}
+
+	/**
+	 * Returns the day a task should reopen, or null if it is not a completed recurring task.
+	 *
+	 * @param task task to examine
+	 * @param today the current date
+	 * @return reopen (new due) date or null
+	 */
+	static LocalDate nextOccurrence(ITask task, LocalDate today) {
+		if (!(task instanceof RecurringTask r) || !TaskStates.COMPLETED.name().equals(r.state().name())) {
+			return null;
+		}
+		if (r.dueDate() == null) {
+			return today.plusDays(r.interval());
+		}
+		long due = r.dueDate().toEpochDay();
+		long periods = Math.max(1, Math.floorDiv(today.toEpochDay() - due + r.interval() - 1, r.interval()));
+		return LocalDate.ofEpochDay(due + periods * r.interval());
+	}
+
+	/**
+	 * Replaces the schedule with the completed recurring tasks among {@code tasks}
+	 * (called after a full load).
+	 *
+	 * @param tasks all tasks
+	 */
+	public void rebuild(ITask[] tasks) {
+		rebuild(Arrays.asList(tasks));
+	}
+
+	/**
+	 * Replaces the schedule with the completed recurring tasks among {@code tasks}
+	 * (called after a full load).
+	 *
+	 * @param tasks all tasks
+	 */
+	public synchronized void rebuild(Iterable<? extends ITask> tasks) {
+		queue.clear();
+		scheduled.clear();
+		leftOut.clear();
+		LocalDate today = LocalDate.now(clock);
+		for (ITask task : tasks) {
+			LocalDate next = nextOccurrence(task, today);
+			if (next != null) {
+				scheduled.put(task.getId(), next.toEpochDay());
+				queue.add(new Entry(next.toEpochDay(), task.getId()));
+			}
+		}
+		wakeUpDay = Long.MAX_VALUE;
+		armTimer();
+	}
+
+	/**
+	 * Schedules, moves or cancels a task after it was added or updated.
+	 *
+	 * @param task new version of the task
+	 */
+	public synchronized void taskChanged(ITask task) {
+		LocalDate next = nextOccurrence(task, LocalDate.now(clock));
+		if (next == null) {
+			scheduled.remove(task.getId());
+			return;
+		}
+		Long previous = scheduled.put(task.getId(), next.toEpochDay());
+		if (previous == null || previous != next.toEpochDay()) {
+			queue.add(new Entry(next.toEpochDay(), task.getId()));
+			armTimer();
+		}
+	}
+
+	/**
+	 * Announces that a task is about to be updated or deleted by someone else; a reopen of the
+	 * same task that is in flight is then either stored before this returns or left out.
+	 * Must be followed by {@link #taskWritten(int)}, also when the write fails.
+	 *
+	 * @param id task id
+	 */
+	public synchronized void taskWriting(int id) {
+		writing.merge(id, 1, Integer::sum);
+		if (writtenMeanwhile != null) {
+			writtenMeanwhile.add(id);
+		}
+	}
+
+	/**
+	 * Ends a write announced with {@link #taskWriting(int)}.
+	 *
+	 * @param id task id
+	 */
+	public synchronized void taskWritten(int id) {
+		if (writing.computeIfPresent(id, (k, n) -> n == 1 ? null : n - 1) == null && leftOut.remove(id)) {
+			Long day = scheduled.get(id);
+			if (day != null) {
+				queue.add(new Entry(day, id));
+				armTimer();
+			}
+		}
+	}
+
+	/**
+	 * Cancels a deleted task.
+	 *
+	 * @param id task id
+	 */
+	public synchronized void taskDeleted(int id) {
+		scheduled.remove(id);
+	}
+
+	/** Returns the number of tasks waiting to reopen. */
+	public synchronized int size() {
+		return scheduled.size();
+	}
+
+	/** Stops the timer; pending occurrences are rebuilt from the tasks on the next start. */
+	public void shutdown() {
+		timer.shutdownNow();
+	}
+
+	/** (Re)arms the timer for the earliest scheduled day if it is earlier than the current wake-up. */
+	private void armTimer() {
+		Entry head = queue.peek();
+		if (head == null || head.day >= wakeUpDay || timer.isShutdown()) {
+			return;
+		}
+		if (wakeUp != null) {
+			wakeUp.cancel(false);
+		}
+		long millis = Duration.between(clock.instant(), LocalDate.ofEpochDay(head.day).atStartOfDay(clock.getZone())).toMillis();
+		wakeUpDay = head.day;
+		wakeUp = timer.schedule(this::runScheduled, Math.max(0, Math.min(millis, MAX_SLEEP_MILLIS)), TimeUnit.MILLISECONDS);
+	}
+
+	private void runScheduled() {
+		try {
+			runDue();
+		} catch (TasksDAOException | RuntimeException e) {
+			System.err.println("Error reopening recurring tasks: " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Reopens every task whose day has arrived and re-arms the timer.
+	 *
+	 * @return number of tasks reopened
+	 * @throws TasksDAOException when the tasks cannot be read or written (the tasks not yet
+	 *         written stay scheduled and are retried)
+	 */
+	int runDue() throws TasksDAOException {
+		LocalDate today = LocalDate.now(clock);
+		List<Entry> due = new ArrayList<>();
+		synchronized (this) {
+			Set<Integer> seen = new HashSet<>();
+			while (!queue.isEmpty() && queue.peek().day <= today.toEpochDay()) {
+				Entry e = queue.poll();
+				Long current = scheduled.get(e.id);
+				if (current != null && current == e.day && seen.add(e.id)) {
+					due.add(e);
+				}
+			}
+		}
+		int reopened = 0;
+		int done = 0;
+		boolean failed = true;
+		try {
+			ITasksDAO target;
+			try {
+				target = dao.join();
+			} catch (CompletionException e) {
+				throw new TasksDAOException("DAO failed to start", e.getCause());
+			}
+			for (; done < due.size(); done += batchSize) {
+				reopened += runBatch(target, due.subList(done, Math.min(due.size(), done + batchSize)), today);
+			}
+			failed = false;
+		} finally {
+			synchronized (this) {
+				writtenMeanwhile = null;
+				// put back what was not handled, for the retry below or the next run
+				for (Entry e : due.subList(Math.min(done, due.size()), due.size())) {
+					Long current = scheduled.get(e.id);
+					if (current != null && current == e.day) {
+						queue.add(e);
+					}
+				}
+				wakeUpDay = Long.MAX_VALUE;
+				if (failed && !timer.isShutdown()) {
+					if (wakeUp != null) {
+						wakeUp.cancel(false);
+					}
+					wakeUpDay = today.toEpochDay();
+					wakeUp = timer.schedule(this::runScheduled, RETRY_MILLIS, TimeUnit.MILLISECONDS);
+				} else {
+					armTimer();
+				}
+			}
+		}
+		if (reopened > 0) {
+			System.err.println("Reopened " + reopened + " recurring tasks");
+		}
+		return reopened;
+	}
+
+	/**
+	 * Re-reads, rolls forward and writes one batch of due tasks, then reports it to the listener;
+	 * the write and the report happen under the write lock.
+	 *
+	 * @return number of tasks reopened
+	 */
+	private int runBatch(ITasksDAO target, List<Entry> entries, LocalDate today) throws TasksDAOException {
+		synchronized (this) {
+			// a write already in progress may land after the re-read below
+			writtenMeanwhile = new HashSet<>(writing.keySet());
+		}
+		List<ITask> before = new ArrayList<>(entries.size());
+		List<ITask> after = new ArrayList<>(entries.size());
+		for (Entry e : entries) {
+			// re-read: the task may have been edited since it was scheduled
+			ITask task = target.getTask(e.id);
+			LocalDate next = nextOccurrence(task, today);
+			if (next == null) {
+				synchronized (this) {
+					scheduled.remove(e.id, e.day);
+				}
+				continue;
+			}
+			if (next.isAfter(today)) {
+				taskChanged(task);
+				continue;
+			}
+			RecurringTask r = (RecurringTask) task;
+			before.add(task);
+			after.add(new RecurringTask(r.id(), r.title(), r.description(), TaskStates.TODO, next, r.interval()));
+		}
+		writeLock.lock();
+		try {
+			storeBatch(target, entries, before, after);
+			if (!after.isEmpty()) {
+				listener.rolled(before, after);
+			}
+		} finally {
+			writeLock.unlock();
+		}
+		return after.size();
+	}
+
+	/** Writes the re-read batch, leaving out tasks written meanwhile, and updates the schedule. */
+	private synchronized void storeBatch(ITasksDAO target, List<Entry> entries, List<ITask> before, List<ITask> after)
+			throws TasksDAOException {
+		// holding the monitor makes new writers wait in taskWriting until the batch is stored
+		for (int i = after.size() - 1; i >= 0; i--) {
+			if (writtenMeanwhile.contains(after.get(i).getId())) {
+				before.remove(i);
+				after.remove(i);
+			}
+		}
+		if (!after.isEmpty()) {
+			target.upsertTasks(after);
+		}
+		Set<Integer> stored = new HashSet<>();
+		for (ITask task : after) {
+			stored.add(task.getId());
+		}
+		for (Entry e : entries) {
+			Long current = scheduled.get(e.id);
+			if (current == null || current != e.day) {
+				continue;
+			}
+			if (stored.contains(e.id)) {
+				scheduled.remove(e.id);
+			} else if (writtenMeanwhile.contains(e.id)) {
+				if (writing.containsKey(e.id)) {
+					leftOut.add(e.id);
+				} else {
+					// the write has ended: look at the task again on the next run
+					queue.add(e);
+				}
+			}
+		}
+		writtenMeanwhile = null;
+	}
+}
@@ -0,0 +1,21 @@
+package il.ac.hit.tasksmanager.model;
+
+import java.time.LocalDate;
+
+/**
+ * A due-date reminder for one task.
+ *
+ * @param taskId task id
+ * @param title task title
+ * @param dueDate due date of the task
+ * @param kind whether the task is about to be due or already overdue
+ */
+public record ReminderEvent(int taskId, String title, LocalDate dueDate, Kind kind) {
+	/** Reminder kinds, in the order they occur for a task. */
+	public enum Kind {
+		/** The due date is within the reminder lead time. */
+		DUE_SOON,
+		/** The due date has passed and the task is still open. */
+		OVERDUE
+	}
+}
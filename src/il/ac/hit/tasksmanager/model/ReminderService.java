@@ -0,0 +1,268 @@
+package il.ac.hit.tasksmanager.model;
+
+import il.ac.hit.tasksmanager.model.dao.ITasksDAO;
+import il.ac.hit.tasksmanager.model.dao.TasksDAOException;
+import il.ac.hit.tasksmanager.model.entities.ITask;
+import il.ac.hit.tasksmanager.model.entities.state.TaskStates;
+import il.ac.hit.tasksmanager.model.observer.ReminderObserver;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * ReminderService tells {@link ReminderObserver}s when open tasks become due soon or overdue,
+ * without rescanning the tasks on a timer.
+ * - Every open task with a due date {@code D} has two pending reminders in a {@link DelayQueue}:
+ *   DUE_SOON at the start of {@code D} minus the lead time ({@code tasks.reminder.leadHours},
+ *   default 24) and OVERDUE at the start of {@code D + 1}. A single thread takes them as they expire.
+ * - Adds, updates and deletes only touch the changed task: it gets a new generation number and
+ *   queued reminders of older generations are dropped when they expire (lazy cancellation).
+ * - At startup, {@link #catchUp(ITasksDAO)} reports the tasks that became due while the
+ *   application was not running with one indexed query ({@link ITasksDAO#getOpenTasksDueBefore});
+ *   {@link #rebuild(ITask[], Instant)} then queues only the reminders after that moment.
+ */
+public final class ReminderService {
+	private final Clock clock;
+	private final Duration lead;
+	private final DelayQueue<Reminder> queue = new DelayQueue<>();
+	/** Current generation of each task with pending reminders; queued reminders of other generations are stale. */
+	private final Map<Integer, Integer> generations = new ConcurrentHashMap<>();
+	private final AtomicInteger nextGeneration = new AtomicInteger();
+	private final List<ReminderObserver> observers = new CopyOnWriteArrayList<>();
+	private Thread dispatcher;
+	private volatile boolean stopped;
+
+	/** A queued reminder; expires at {@code atMillis} on the service clock. */
+	private final class Reminder implements Delayed {
+		final int generation;
+		final long atMillis;
+		final ReminderEvent event;
+
+		Reminder(int generation, long atMillis, ReminderEvent event) {
+			this.generation = generation;
+			this.atMillis = atMillis;
+			this.event = event;
+		}
+
+		@Override
+		public long getDelay(TimeUnit unit) {
+			return unit.convert(atMillis - clock.millis(), TimeUnit.MILLISECONDS);
+		}
+
+		@Override
+		public int compareTo(Delayed other) {
+			return Long.compare(atMillis, ((Reminder) other).atMillis);
+		}
+	}
+
+	/**
+	 * Creates the service with the lead time from {@code tasks.reminder.leadHours} (default 24).
+	 */
+	public ReminderService() {
+		this(Clock.systemDefaultZone(), Duration.ofHours(Long.getLong("tasks.reminder.leadHours", 24L)));
+	}
+
+	/**
+	 * Creates the service.
+	 *
+	 * @param clock clock and time zone deciding when a due date starts
+	 * @param lead how long before the due date the DUE_SOON reminder fires
+	 */
+	public ReminderService(Clock clock, Duration lead) {
+		this.clock = clock;
+		this.lead = lead;
+	}
+
+	/** Registers an observer for reminder events. */
+	public void register(ReminderObserver observer) {
+		observers.add(observer);
+	}
+
+	/** Unregisters a reminder observer. */
+	public void remove(ReminderObserver observer) {
+		observers.remove(observer);
+	}
+
+	/**
+	 * Reports the open tasks that are already due soon or overdue, using one indexed query.
+	 * Call once at startup, before the first {@link #rebuild(ITask[], Instant)}.
+	 *
+	 * @param dao source of the tasks
+	 * @return the moment the query covers; pass it to {@link #rebuild(ITask[], Instant)}
+	 * @throws TasksDAOException when the query fails
+	 */
+	public Instant catchUp(ITasksDAO dao) throws TasksDAOException {
+		Instant now = clock.instant();
+		LocalDate today = LocalDate.ofInstant(now, clock.getZone());
+		// DUE_SOON has fired for every due date up to the day (now + lead) falls on
+		LocalDate cutoff = LocalDate.ofInstant(now.plus(lead), clock.getZone()).plusDays(1);
+		ITask[] due = dao.getOpenTasksDueBefore(cutoff);
+		for (ITask task : due) {
+			LocalDate date = ((Task) task).dueDate();
+			ReminderEvent.Kind kind = date.isBefore(today) ? ReminderEvent.Kind.OVERDUE : ReminderEvent.Kind.DUE_SOON;
+			deliver(new ReminderEvent(task.getId(), task.getTitle(), date, kind));
+		}
+		if (due.length > 0) {
+			System.err.println("Reminders at startup: " + due.length + " tasks due before " + cutoff);
+		}
+		return now;
+	}
+
+	/**
+	 * Replaces all pending reminders with those of {@code tasks} that fire after {@code since}.
+	 *
+	 * @param tasks all tasks
+	 * @param since reminders up to this moment are considered delivered
+	 */
+	public void rebuild(ITask[] tasks, Instant since) {
+		rebuild(Arrays.asList(tasks), since);
+	}
+
+	/**
+	 * Replaces all pending reminders with those of {@code tasks} that fire after {@code since}.
+	 *
+	 * @param tasks all tasks
+	 * @param since reminders up to this moment are considered delivered
+	 */
+	public synchronized void rebuild(Iterable<? extends ITask> tasks, Instant since) {
+		queue.clear();
+		generations.clear();
+		for (ITask task : tasks) {
+			schedule(task, since.toEpochMilli(), false);
+		}
+	}
+
+	/**
+	 * Replaces all pending reminders with the future reminders of {@code tasks}.
+	 *
+	 * @param tasks all tasks
+	 */
+	public void rebuild(ITask[] tasks) {
+		rebuild(tasks, clock.instant());
+	}
+
+	/**
+	 * Updates the reminders of one task after it was added ({@code before} null) or updated.
+	 * When the due date or state changed, the most recent reminder that already applies is
+	 * delivered right away (e.g. a due date moved into the past reports OVERDUE).
+	 *
+	 * @param before previous version, or null for a new task
+	 * @param after new version
+	 */
+	public synchronized void taskChanged(ITask before, ITask after) {
+		boolean deadlineChanged = before == null || !Objects.equals(deadline(before), deadline(after));
+		if (!deadlineChanged && Objects.equals(before.getTitle(), after.getTitle())) {
+			return;
+		}
+		// a title-only edit refreshes the queued reminders without repeating delivered ones
+		schedule(after, clock.millis(), deadlineChanged);
+	}
+
+	/**
+	 * Drops the pending reminders of a deleted task.
+	 *
+	 * @param id task id
+	 */
+	public void taskDeleted(int id) {
+		generations.remove(id);
+	}
+
+	/** Returns the number of tasks with pending reminders. */
+	public int size() {
+		return generations.size();
+	}
+
+	/** Stops the reminder thread. */
+	public synchronized void shutdown() {
+		stopped = true;
+		if (dispatcher != null) {
+			dispatcher.interrupt();
+		}
+	}
+
+	/** Returns the due date of an open task, or null when it gets no reminders. */
+	private static LocalDate deadline(ITask task) {
+		if (!(task instanceof Task t) || t.dueDate() == null || TaskStates.COMPLETED.name().equals(task.getState().name())) {
+			return null;
+		}
+		return t.dueDate();
+	}
+
+	private void schedule(ITask task, long sinceMillis, boolean deliverLatestPassed) {
+		LocalDate due = deadline(task);
+		if (due == null) {
+			generations.remove(task.getId());
+			return;
+		}
+		long overdueAt = due.plusDays(1).atStartOfDay(clock.getZone()).toInstant().toEpochMilli();
+		long soonAt = due.atStartOfDay(clock.getZone()).toInstant().minus(lead).toEpochMilli();
+		long now = clock.millis();
+		boolean overdue = overdueAt > sinceMillis || (deliverLatestPassed && overdueAt <= now);
+		boolean soon = soonAt > sinceMillis || (deliverLatestPassed && soonAt <= now && overdueAt > now);
+		if (!overdue && !soon) {
+			generations.remove(task.getId());
+			return;
+		}
+		int generation = nextGeneration.incrementAndGet();
+		generations.put(task.getId(), generation);
+		if (overdue) {
+			queue.add(new Reminder(generation, overdueAt, new ReminderEvent(task.getId(), task.getTitle(), due, ReminderEvent.Kind.OVERDUE)));
+		}
+		if (soon) {
+			queue.add(new Reminder(generation, soonAt, new ReminderEvent(task.getId(), task.getTitle(), due, ReminderEvent.Kind.DUE_SOON)));
+		}
+		startDispatcher();
+	}
+
+	private void startDispatcher() {
+		if (dispatcher != null || stopped) {
+			return;
+		}
+		dispatcher = new Thread(this::dispatch, "tasks-reminders");
+		dispatcher.setDaemon(true);
+		dispatcher.start();
+	}
+
+	/** Takes reminders as they expire and delivers the current ones. */
+	private void dispatch() {
+		while (!stopped) {
+			Reminder r;
+			try {
+				r = queue.take();
+			} catch (InterruptedException e) {
+				return;
+			}
+			Integer current = generations.get(r.event.taskId());
+			if (current == null || current != r.generation) {
+				continue;
+			}
+			if (r.event.kind() == ReminderEvent.Kind.OVERDUE) {
+				// last reminder of this generation
+				generations.remove(r.event.taskId(), r.generation);
+			}
+			deliver(r.event);
+		}
+	}
+
+	private void deliver(ReminderEvent event) {
+		for (ReminderObserver o : observers) {
+			try {
+				o.onReminder(event);
+			} catch (RuntimeException e) {
+				System.err.println("Reminder observer failed: " + e);
+			}
+		}
+	}
+}
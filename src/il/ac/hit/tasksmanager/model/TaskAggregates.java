@@ -0,0 +1,194 @@
+package il.ac.hit.tasksmanager.model;
+
+import il.ac.hit.tasksmanager.model.entities.ITask;
+import il.ac.hit.tasksmanager.model.entities.state.TaskStates;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * TaskAggregates keeps dashboard figures up to date as tasks change, so reading them
+ * never scans the task list:
+ * - number of tasks in total and per state name;
+ * - open (not COMPLETED) tasks per due date, i.e. the load of each day;
+ * - overdue tasks: open tasks due before today.
+ * {@link Model} applies each successful mutation as a delta ({@link #added}, {@link #removed},
+ * {@link #replaced}) and re-bases the figures on the database's GROUP BY queries when it loads
+ * ({@link #reset}). The Model applies each write and its delta, and each reset, under one lock,
+ * so deltas are never applied twice or against a stale previous version.
+ * The overdue count is kept for the day it was last read; when the date changes it is moved
+ * forward by the days that went by, so reads stay independent of the number of tasks.
+ * All methods are thread-safe.
+ */
+public final class TaskAggregates {
+	private static final String COMPLETED = TaskStates.COMPLETED.name();
+	private final Clock clock;
+	private final Map<String, int[]> byState = new HashMap<>();
+	/** Open tasks per due epoch day. */
+	private final TreeMap<Long, int[]> openByDay = new TreeMap<>();
+	private int total;
+	private long overdueAsOf = Long.MIN_VALUE;
+	private int overdue;
+
+	/** Creates empty aggregates using the system clock and time zone. */
+	public TaskAggregates() {
+		this(Clock.systemDefaultZone());
+	}
+
+	/**
+	 * Creates empty aggregates using the given clock to decide what "today" is.
+	 *
+	 * @param clock clock for overdue and due-today figures
+	 */
+	public TaskAggregates(Clock clock) {
+		this.clock = clock;
+	}
+
+	/**
+	 * Replaces all figures with counts computed by the storage.
+	 *
+	 * @param countsByState number of tasks per state name
+	 * @param openByDueDate number of open tasks per due date
+	 */
+	public synchronized void reset(Map<String, Integer> countsByState, Map<LocalDate, Integer> openByDueDate) {
+		byState.clear();
+		openByDay.clear();
+		total = 0;
+		countsByState.forEach((state, n) -> {
+			byState.put(state, new int[] { n });
+			total += n;
+		});
+		openByDueDate.forEach((day, n) -> openByDay.put(day.toEpochDay(), new int[] { n }));
+		overdueAsOf = Long.MIN_VALUE;
+	}
+
+	/**
+	 * Replaces all figures with counts over the given tasks.
+	 *
+	 * @param tasks all tasks
+	 */
+	public synchronized void reset(ITask[] tasks) {
+		byState.clear();
+		openByDay.clear();
+		total = 0;
+		overdueAsOf = Long.MIN_VALUE;
+		for (ITask task : tasks) {
+			apply(task, 1);
+		}
+	}
+
+	/** Counts a task that was added. */
+	public synchronized void added(ITask task) {
+		apply(task, 1);
+	}
+
+	/** Uncounts a task that was deleted. */
+	public synchronized void removed(ITask task) {
+		apply(task, -1);
+	}
+
+	/** Moves a task from its previous values to its new ones. */
+	public synchronized void replaced(ITask before, ITask after) {
+		apply(before, -1);
+		apply(after, 1);
+	}
+
+	private void apply(ITask task, int delta) {
+		total += delta;
+		byState.computeIfAbsent(task.getState().name(), k -> new int[1])[0] += delta;
+		LocalDate due = task instanceof Task t ? t.dueDate() : null;
+		if (due == null || COMPLETED.equals(task.getState().name())) {
+			return;
+		}
+		long day = due.toEpochDay();
+		int[] open = openByDay.computeIfAbsent(day, k -> new int[1]);
+		open[0] += delta;
+		if (open[0] == 0) {
+			openByDay.remove(day);
+		}
+		if (day < overdueAsOf) {
+			overdue += delta;
+		}
+	}
+
+	/** Returns the total number of tasks. */
+	public synchronized int total() {
+		return total;
+	}
+
+	/**
+	 * Returns the number of tasks in a state.
+	 *
+	 * @param stateName state name such as "TODO"
+	 * @return task count (0 for unknown states)
+	 */
+	public synchronized int countInState(String stateName) {
+		int[] n = byState.get(stateName);
+		return n == null ? 0 : n[0];
+	}
+
+	/** Returns the number of tasks per state name (a copy, in name order). */
+	public synchronized Map<String, Integer> countsByState() {
+		Map<String, Integer> copy = new TreeMap<>();
+		byState.forEach((state, n) -> {
+			if (n[0] != 0) {
+				copy.put(state, n[0]);
+			}
+		});
+		return copy;
+	}
+
+	/** Returns the number of open tasks due before today. */
+	public synchronized int overdue() {
+		long today = LocalDate.now(clock).toEpochDay();
+		if (overdueAsOf == Long.MIN_VALUE || today < overdueAsOf) {
+			overdue = sum(Long.MIN_VALUE, today);
+		} else if (today > overdueAsOf) {
+			// only the days that went by since the last read become overdue
+			overdue += sum(overdueAsOf, today);
+		}
+		overdueAsOf = today;
+		return overdue;
+	}
+
+	/**
+	 * Returns the number of open tasks due on a day.
+	 *
+	 * @param day due date
+	 * @return open task count
+	 */
+	public synchronized int openDueOn(LocalDate day) {
+		int[] n = openByDay.get(day.toEpochDay());
+		return n == null ? 0 : n[0];
+	}
+
+	/**
+	 * Returns the load of each day from today on: open tasks due per day.
+	 *
+	 * @param days number of days (including today)
+	 * @return day to open task count, in date order
+	 */
+	public synchronized Map<LocalDate, Integer> openDueByDay(int days) {
+		LocalDate today = LocalDate.now(clock);
+		Map<LocalDate, Integer> load = new LinkedHashMap<>();
+		for (int i = 0; i < days; i++) {
+			LocalDate day = today.plusDays(i);
+			int[] n = openByDay.get(day.toEpochDay());
+			load.put(day, n == null ? 0 : n[0]);
+		}
+		return Collections.unmodifiableMap(load);
+	}
+
+	private int sum(long fromInclusive, long toExclusive) {
+		int n = 0;
+		for (int[] count : openByDay.subMap(fromInclusive, true, toExclusive, false).values()) {
+			n += count[0];
+		}
+		return n;
+	}
+}
@@ -0,0 +1,159 @@
+package il.ac.hit.tasksmanager.model;
+
+import il.ac.hit.tasksmanager.model.combinator.TaskFilter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * TaskColumnScan evaluates predicates over the packed columns of a {@link TaskColumnStore}
+ * into result bitmaps (one bit per row, 64 rows per {@code long}).
+ * The kernels are branch-free loops over primitive arrays: each row contributes
+ * {@code (condition as 0/1) << bit} to the current word, so the JIT can unroll and
+ * vectorize them and a full scan costs a few cycles per row regardless of selectivity.
+ * Bitmaps can be combined with {@link #and(long[], long[])} and {@link #or(long[], long[])}
+ * and materialized with {@link #select(TaskColumnStore, long[], TaskFilter)}.
+ */
+public final class TaskColumnScan {
+	private TaskColumnScan() {
+	}
+
+	/**
+	 * Returns the bitmap of rows whose state code is in the given mask.
+	 *
+	 * @param columns column store
+	 * @param stateMask bit {@code 1 << code} set for every accepted state code
+	 * @return row bitmap
+	 */
+	public static long[] statesIn(TaskColumnStore columns, int stateMask) {
+		byte[] states = columns.stateColumn();
+		int n = columns.size();
+		long[] bits = new long[words(n)];
+		for (int w = 0, base = 0; base < n; w++, base += 64) {
+			int end = Math.min(n, base + 64);
+			long word = 0;
+			for (int i = base; i < end; i++) {
+				word |= (long) ((stateMask >>> states[i]) & 1) << (i - base);
+			}
+			bits[w] = word;
+		}
+		return bits;
+	}
+
+	/**
+	 * Returns the bitmap of rows due strictly before the given epoch day; rows without a due date never match.
+	 *
+	 * @param columns column store
+	 * @param epochDay exclusive upper bound
+	 * @return row bitmap
+	 */
+	public static long[] dueBefore(TaskColumnStore columns, int epochDay) {
+		int[] due = columns.dueColumn();
+		int n = columns.size();
+		long[] bits = new long[words(n)];
+		for (int w = 0, base = 0; base < n; w++, base += 64) {
+			int end = Math.min(n, base + 64);
+			long word = 0;
+			for (int i = base; i < end; i++) {
+				long d = due[i];
+				// sign bit of (d - epochDay) is set when d < epochDay; of (NO_DUE_DATE - d) when a date is present
+				long hit = ((d - epochDay) & ((long) TaskColumnStore.NO_DUE_DATE - d)) >>> 63;
+				word |= hit << (i - base);
+			}
+			bits[w] = word;
+		}
+		return bits;
+	}
+
+	/**
+	 * Returns the bitmap of rows due exactly on the given epoch day.
+	 *
+	 * @param columns column store
+	 * @param epochDay due date as epoch day
+	 * @return row bitmap
+	 */
+	public static long[] dueOn(TaskColumnStore columns, int epochDay) {
+		int[] due = columns.dueColumn();
+		int n = columns.size();
+		long[] bits = new long[words(n)];
+		for (int w = 0, base = 0; base < n; w++, base += 64) {
+			int end = Math.min(n, base + 64);
+			long word = 0;
+			for (int i = base; i < end; i++) {
+				long diff = (long) due[i] - epochDay;
+				// (diff | -diff) has the sign bit set for every non-zero diff
+				long hit = ~(diff | -diff) >>> 63;
+				word |= hit << (i - base);
+			}
+			bits[w] = word;
+		}
+		return bits;
+	}
+
+	/**
+	 * Intersects two bitmaps of the same store, writing the result into {@code a}.
+	 *
+	 * @return {@code a}
+	 */
+	public static long[] and(long[] a, long[] b) {
+		for (int i = 0; i < a.length; i++) {
+			a[i] &= b[i];
+		}
+		return a;
+	}
+
+	/**
+	 * Unites two bitmaps of the same store, writing the result into {@code a}.
+	 *
+	 * @return {@code a}
+	 */
+	public static long[] or(long[] a, long[] b) {
+		for (int i = 0; i < a.length; i++) {
+			a[i] |= b[i];
+		}
+		return a;
+	}
+
+	/**
+	 * Returns the number of rows set in a bitmap.
+	 *
+	 * @param bits row bitmap
+	 * @return number of matching rows
+	 */
+	public static int cardinality(long[] bits) {
+		int count = 0;
+		for (long word : bits) {
+			count += Long.bitCount(word);
+		}
+		return count;
+	}
+
+	/**
+	 * Creates the task records of the rows set in a bitmap, in row order.
+	 *
+	 * @param columns column store the bitmap was computed on
+	 * @param bits row bitmap
+	 * @param residual additional filter applied to each candidate record, or null
+	 * @return matching tasks
+	 */
+	public static List<Task> select(TaskColumnStore columns, long[] bits, TaskFilter residual) {
+		List<Task> out = new ArrayList<>(residual == null ? cardinality(bits) : 16);
+		for (int w = 0; w < bits.length; w++) {
+			long word = bits[w];
+			while (word != 0) {
+				int row = (w << 6) + Long.numberOfTrailingZeros(word);
+				word &= word - 1;
+				Task task = columns.get(row);
+				if (residual == null || residual.matches(task)) {
+					out.add(task);
+				}
+			}
+		}
+		return out;
+	}
+
+	/** Returns the number of 64-bit words needed for {@code n} rows. */
+	private static int words(int n) {
+		return (n + 63) >>> 6;
+	}
+}
@@ -0,0 +1,405 @@
+package il.ac.hit.tasksmanager.model;
+
+import il.ac.hit.tasksmanager.model.entities.ITask;
+import il.ac.hit.tasksmanager.model.entities.state.TaskStates;
+
+import java.time.LocalDate;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+
+/**
+ * TaskColumnStore is an immutable struct-of-arrays snapshot of the tasks held by {@link Model}.
+ * Instead of one record (plus state, date and string objects) per task it keeps:
+ * - ids in an {@code int[]}
+ * - state codes ({@link TaskStates#codeOf}) in a {@code byte[]}
+ * - due dates as epoch days in an {@code int[]} ({@link #NO_DUE_DATE} when absent)
+ * - recurrence intervals in an {@code int[]} (0 for a basic task)
+ * - titles and descriptions as indexes into a deduplicated string table
+ * {@link Task} records are created on demand by {@link #get(int)} and by the list view
+ * returned from {@link #asList()}; callers that only need one column should use the
+ * primitive accessors instead.
+ */
+public final class TaskColumnStore {
+	/** Epoch-day marker for a task without a due date. */
+	public static final int NO_DUE_DATE = Integer.MIN_VALUE;
+	/** String-table index marker for a null title or description. */
+	private static final int NO_STRING = -1;
+	/** Shared empty store. */
+	public static final TaskColumnStore EMPTY = new TaskColumnStore(0, new int[0], new byte[0], new int[0], new int[0],
+		new int[0], new int[0], new String[0], true);
+
+	private final int size;
+	private final int[] ids;
+	private final byte[] states;
+	private final int[] dueEpochDays;
+	private final int[] intervals;
+	private final int[] titles;
+	private final int[] descriptions;
+	private final String[] strings;
+	private final boolean sortedById;
+	private final List<Task> view = new ColumnList();
+	private long fingerprint;
+	private boolean fingerprinted;
+
+	private TaskColumnStore(int size, int[] ids, byte[] states, int[] dueEpochDays, int[] intervals,
+							int[] titles, int[] descriptions, String[] strings, boolean sortedById) {
+		this.size = size;
+		this.ids = ids;
+		this.states = states;
+		this.dueEpochDays = dueEpochDays;
+		this.intervals = intervals;
+		this.titles = titles;
+		this.descriptions = descriptions;
+		this.strings = strings;
+		this.sortedById = sortedById;
+	}
+
+	/**
+	 * Packs the given tasks into columns, preserving their order.
+	 * Due dates and intervals are taken from {@link Task} instances; other ITask
+	 * implementations are stored without them.
+	 *
+	 * @param tasks tasks to pack (null elements are not allowed)
+	 * @return column store
+	 */
+	public static TaskColumnStore of(ITask[] tasks) {
+		Builder builder = new Builder(tasks.length);
+		for (ITask t : tasks) {
+			builder.add(t);
+		}
+		return builder.build();
+	}
+
+	/**
+	 * Packs tasks into columns one at a time, so a store can be filled from a DAO cursor
+	 * ({@code dao.forEachTask(builder::add)}) without an intermediate record array.
+	 */
+	public static final class Builder {
+		private int size;
+		private int[] ids;
+		private byte[] states;
+		private int[] due;
+		private int[] intervals;
+		private int[] titles;
+		private int[] descriptions;
+		private final StringTable table = new StringTable();
+		private boolean sorted = true;
+
+		/** Creates a builder with a small initial capacity. */
+		public Builder() {
+			this(64);
+		}
+
+		private Builder(int capacity) {
+			capacity = Math.max(1, capacity);
+			ids = new int[capacity];
+			states = new byte[capacity];
+			due = new int[capacity];
+			intervals = new int[capacity];
+			titles = new int[capacity];
+			descriptions = new int[capacity];
+		}
+
+		/**
+		 * Appends a task as the next row.
+		 *
+		 * @param t task to pack (not null)
+		 */
+		public void add(ITask t) {
+			if (size == ids.length) {
+				int capacity = size * 2;
+				ids = Arrays.copyOf(ids, capacity);
+				states = Arrays.copyOf(states, capacity);
+				due = Arrays.copyOf(due, capacity);
+				intervals = Arrays.copyOf(intervals, capacity);
+				titles = Arrays.copyOf(titles, capacity);
+				descriptions = Arrays.copyOf(descriptions, capacity);
+			}
+			int i = size++;
+			ids[i] = t.getId();
+			if (i > 0 && ids[i] <= ids[i - 1]) {
+				sorted = false;
+			}
+			states[i] = (byte) TaskStates.codeOf(t.getState());
+			titles[i] = table.index(t.getTitle());
+			descriptions[i] = table.index(t.getDescription());
+			due[i] = NO_DUE_DATE;
+			if (t instanceof Task task) {
+				LocalDate d = task.dueDate();
+				if (d != null) {
+					due[i] = Math.toIntExact(d.toEpochDay());
+				}
+				if (task instanceof RecurringTask r) {
+					intervals[i] = r.interval();
+				}
+			}
+		}
+
+		/**
+		 * Returns the packed store, with the columns trimmed to the number of rows.
+		 *
+		 * @return column store
+		 */
+		public TaskColumnStore build() {
+			if (size == 0) {
+				return EMPTY;
+			}
+			if (size < ids.length) {
+				ids = Arrays.copyOf(ids, size);
+				states = Arrays.copyOf(states, size);
+				due = Arrays.copyOf(due, size);
+				intervals = Arrays.copyOf(intervals, size);
+				titles = Arrays.copyOf(titles, size);
+				descriptions = Arrays.copyOf(descriptions, size);
+			}
+			return new TaskColumnStore(size, ids, states, due, intervals, titles, descriptions, table.toArray(), sorted);
+		}
+	}
+
+	/**
+	 * Rebuilds a store from raw columns (e.g. read from a snapshot file); the arrays are not copied.
+	 */
+	static TaskColumnStore fromColumns(int[] ids, byte[] states, int[] dueEpochDays, int[] intervals,
+									   int[] titles, int[] descriptions, String[] strings) {
+		int n = ids.length;
+		if (n == 0) {
+			return EMPTY;
+		}
+		boolean sorted = true;
+		for (int i = 1; i < n && sorted; i++) {
+			sorted = ids[i] > ids[i - 1];
+		}
+		return new TaskColumnStore(n, ids, states, dueEpochDays, intervals, titles, descriptions, strings, sorted);
+	}
+
+	/** Returns the number of tasks. */
+	public int size() {
+		return size;
+	}
+
+	/** Returns the id of the task at the given row. */
+	public int idAt(int row) {
+		return ids[checkRow(row)];
+	}
+
+	/** Returns the state code of the task at the given row (see {@link TaskStates#ofCode}). */
+	public byte stateCodeAt(int row) {
+		return states[checkRow(row)];
+	}
+
+	/** Returns the due date of the task at the given row as an epoch day, or {@link #NO_DUE_DATE}. */
+	public int dueEpochDayAt(int row) {
+		return dueEpochDays[checkRow(row)];
+	}
+
+	/** Returns the recurrence interval of the task at the given row, or 0 for a basic task. */
+	public int intervalAt(int row) {
+		return intervals[checkRow(row)];
+	}
+
+	/** Returns the title of the task at the given row. */
+	public String titleAt(int row) {
+		return string(titles[checkRow(row)]);
+	}
+
+	/** Returns the description of the task at the given row, or null. */
+	public String descriptionAt(int row) {
+		return string(descriptions[checkRow(row)]);
+	}
+
+	/**
+	 * Returns the row of the task with the given id.
+	 * Uses binary search when the rows are in ascending id order (as loaded by the DAO).
+	 *
+	 * @param id task id
+	 * @return row index, or -1 if absent
+	 */
+	public int rowOf(int id) {
+		if (sortedById) {
+			int row = Arrays.binarySearch(ids, 0, size, id);
+			return row >= 0 ? row : -1;
+		}
+		for (int i = 0; i < size; i++) {
+			if (ids[i] == id) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Creates the task record for a row.
+	 *
+	 * @param row row index
+	 * @return a new BasicTask or RecurringTask view of the row
+	 */
+	public Task get(int row) {
+		checkRow(row);
+		int d = dueEpochDays[row];
+		LocalDate due = d == NO_DUE_DATE ? null : LocalDate.ofEpochDay(d);
+		if (intervals[row] > 0) {
+			return new RecurringTask(ids[row], string(titles[row]), string(descriptions[row]),
+				TaskStates.ofCode(states[row]), due, intervals[row]);
+		}
+		return new BasicTask(ids[row], string(titles[row]), string(descriptions[row]), TaskStates.ofCode(states[row]), due);
+	}
+
+	/**
+	 * Returns an unmodifiable, random-access list view whose elements are created on access.
+	 *
+	 * @return list view of all rows
+	 */
+	public List<Task> asList() {
+		return view;
+	}
+
+	/** Returns the number of distinct strings held in the string table. */
+	public int distinctStrings() {
+		return strings.length;
+	}
+
+	/**
+	 * Estimates the heap used by the columns and the string table, in bytes.
+	 *
+	 * @return approximate retained size
+	 */
+	public long estimatedBytes() {
+		long bytes = 5L * 4 * ids.length + states.length;
+		for (String s : strings) {
+			bytes += 40 + s.length();
+		}
+		return bytes + 8L * strings.length;
+	}
+
+	/**
+	 * Returns a 64-bit fingerprint of the contents (all columns and every string character, in row order).
+	 * Two stores with the same tasks in the same order have the same fingerprint; it is used
+	 * as the version stamp of snapshot files.
+	 *
+	 * @return content fingerprint
+	 */
+	public synchronized long fingerprint() {
+		if (!fingerprinted) {
+			long h = mix(0x9E3779B97F4A7C15L, size);
+			for (int i = 0; i < size; i++) {
+				h = mix(h, ids[i]);
+				h = mix(h, states[i]);
+				h = mix(h, dueEpochDays[i]);
+				h = mix(h, intervals[i]);
+				h = mix(h, titles[i] == NO_STRING ? null : strings[titles[i]]);
+				h = mix(h, descriptions[i] == NO_STRING ? null : strings[descriptions[i]]);
+			}
+			fingerprint = h;
+			fingerprinted = true;
+		}
+		return fingerprint;
+	}
+
+	private static long mix(long h, long v) {
+		h ^= v;
+		h *= 0xBF58476D1CE4E5B9L;
+		return h ^ (h >>> 31);
+	}
+
+	/** Mixes every character of a string (not its 32-bit hash code) into the fingerprint. */
+	private static long mix(long h, String s) {
+		if (s == null) {
+			return mix(h, -1);
+		}
+		h = mix(h, s.length());
+		for (int i = 0; i < s.length(); i++) {
+			h = mix(h, s.charAt(i));
+		}
+		return h;
+	}
+
+	/** Returns the id column; shared with {@link TaskSnapshotFile}, must not be modified. */
+	int[] idColumn() {
+		return ids;
+	}
+
+	/** Returns the interval column; shared with {@link TaskSnapshotFile}, must not be modified. */
+	int[] intervalColumn() {
+		return intervals;
+	}
+
+	/** Returns the title index column; shared with {@link TaskSnapshotFile}, must not be modified. */
+	int[] titleColumn() {
+		return titles;
+	}
+
+	/** Returns the description index column; shared with {@link TaskSnapshotFile}, must not be modified. */
+	int[] descriptionColumn() {
+		return descriptions;
+	}
+
+	/** Returns the deduplicated string table; shared with {@link TaskSnapshotFile}, must not be modified. */
+	String[] stringTable() {
+		return strings;
+	}
+
+	/** Returns the state-code column; shared with {@link TaskColumnScan}, must not be modified. */
+	byte[] stateColumn() {
+		return states;
+	}
+
+	/** Returns the epoch-day column; shared with {@link TaskColumnScan}, must not be modified. */
+	int[] dueColumn() {
+		return dueEpochDays;
+	}
+
+	private String string(int index) {
+		return index == NO_STRING ? null : strings[index];
+	}
+
+	private int checkRow(int row) {
+		if (row < 0 || row >= size) {
+			throw new IndexOutOfBoundsException("row " + row + " out of " + size);
+		}
+		return row;
+	}
+
+	/** List view over the columns; each access creates a task record. */
+	private final class ColumnList extends AbstractList<Task> implements RandomAccess {
+		@Override
+		public Task get(int index) {
+			return TaskColumnStore.this.get(index);
+		}
+
+		@Override
+		public int size() {
+			return size;
+		}
+	}
+
+	/** Deduplicating string table used while packing. */
+	private static final class StringTable {
+		private final Map<String, Integer> indexes = new HashMap<>();
+		private String[] values = new String[16];
+		private int count;
+
+		int index(String s) {
+			if (s == null) {
+				return NO_STRING;
+			}
+			Integer existing = indexes.get(s);
+			if (existing != null) {
+				return existing;
+			}
+			if (count == values.length) {
+				values = Arrays.copyOf(values, count * 2);
+			}
+			values[count] = s;
+			indexes.put(s, count);
+			return count++;
+		}
+
+		String[] toArray() {
+			return Arrays.copyOf(values, count);
+		}
+	}
+}
@@ -0,0 +1,282 @@
+package il.ac.hit.tasksmanager.model;
+
+import il.ac.hit.tasksmanager.model.dao.ITasksDAO;
+import il.ac.hit.tasksmanager.model.dao.TasksDAOException;
+import il.ac.hit.tasksmanager.model.entities.ITask;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * TaskExporter writes all tasks to a CSV or JSON Lines file (optionally gzip-compressed) with
+ * memory use bounded independently of the number of tasks.
+ * Pipeline:
+ * - the calling thread reads tasks from the DAO's forward-only cursor
+ *   ({@link ITasksDAO#forEachTask}) and cuts them into chunks of {@link #chunkSize(int)} rows;
+ * - each chunk is formatted to UTF-8 bytes on a worker pool ({@link #parallelism(int)} threads);
+ * - the formatted chunks are written in submission order (so the file stays in id order) through
+ *   a {@link FileChannel}, wrapped in a gzip stream when requested.
+ * Ordering and the {@code 2 × parallelism} in-flight bound come from {@link OrderedChunkWriter}:
+ * when that many chunks are pending the reader waits for the oldest to be written.
+ * The file is written under a temporary name and moved into place when complete.
+ * The output uses the field names read by {@link TaskImporter}.
+ */
+public final class TaskExporter {
+	/**
+	 * Outcome of an export.
+	 *
+	 * @param rows tasks written
+	 * @param bytes bytes written to the file (compressed size when gzipped)
+	 */
+	public record Result(long rows, long bytes) {
+	}
+
+	private static final String CSV_HEADER = "id,title,description,state,dueDate,recurrenceDays\n";
+	private final ITasksDAO dao;
+	private int chunkSize = 2000;
+	private int parallelism = Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+
+	/**
+	 * Creates an exporter reading from the given DAO.
+	 *
+	 * @param dao source DAO
+	 */
+	public TaskExporter(ITasksDAO dao) {
+		this.dao = dao;
+	}
+
+	/**
+	 * Sets the number of rows formatted per chunk (default 2000).
+	 *
+	 * @param chunkSize rows per chunk
+	 * @return this exporter
+	 */
+	public TaskExporter chunkSize(int chunkSize) {
+		if (chunkSize <= 0) {
+			throw new IllegalArgumentException("chunkSize must be positive");
+		}
+		this.chunkSize = chunkSize;
+		return this;
+	}
+
+	/**
+	 * Sets the number of formatting threads (default: available processors minus one).
+	 *
+	 * @param parallelism formatting threads
+	 * @return this exporter
+	 */
+	public TaskExporter parallelism(int parallelism) {
+		if (parallelism <= 0) {
+			throw new IllegalArgumentException("parallelism must be positive");
+		}
+		this.parallelism = parallelism;
+		return this;
+	}
+
+	/**
+	 * Exports to a file, picking the format from its name and compressing when it ends in {@code .gz}.
+	 *
+	 * @param file target file
+	 * @return export result
+	 * @throws IOException when the file cannot be written
+	 * @throws TasksDAOException when the tasks cannot be read
+	 */
+	public Result export(Path file) throws IOException, TasksDAOException {
+		return export(file, TaskImporter.Format.of(file), file.getFileName().toString().endsWith(".gz"));
+	}
+
+	/**
+	 * Exports all tasks in id order.
+	 *
+	 * @param file target file (replaced atomically when the export completes)
+	 * @param format output format
+	 * @param gzip compress the output
+	 * @return export result
+	 * @throws IOException when the file cannot be written
+	 * @throws TasksDAOException when the tasks cannot be read
+	 */
+	public Result export(Path file, TaskImporter.Format format, boolean gzip) throws IOException, TasksDAOException {
+		long start = System.nanoTime();
+		Path tmp = file.resolveSibling(file.getFileName() + ".part");
+		long rows;
+		try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+				Pipeline pipeline = new Pipeline(gzip ? Channels.newChannel(new GZIPOutputStream(Channels.newOutputStream(channel), 1 << 16)) : channel, format)) {
+			if (format == TaskImporter.Format.CSV) {
+				pipeline.write(StandardCharsets.UTF_8.encode(CSV_HEADER));
+			}
+			try {
+				dao.forEachTask(pipeline::add);
+			} catch (UncheckedIOException e) {
+				throw e.getCause();
+			}
+			pipeline.finish();
+			rows = pipeline.rows;
+			// closing the gzip channel writes the trailer; the file channel itself is closed below
+			pipeline.out.close();
+		} catch (IOException | TasksDAOException | RuntimeException e) {
+			Files.deleteIfExists(tmp);
+			throw e;
+		}
+		Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		long bytes = Files.size(file);
+		System.err.println("Exported " + rows + " tasks to " + file + " (" + bytes + " bytes) in "
+			+ TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) + " ms");
+		return new Result(rows, bytes);
+	}
+
+	/** Cuts the task stream into chunks, formats them in parallel and writes them in order. */
+	private final class Pipeline implements AutoCloseable {
+		private final WritableByteChannel out;
+		private final TaskImporter.Format format;
+		private final OrderedChunkWriter<ByteBuffer> chunks;
+		private ITask[] chunk = new ITask[chunkSize];
+		private int filled;
+		long rows;
+
+		Pipeline(WritableByteChannel out, TaskImporter.Format format) {
+			this.out = out;
+			this.format = format;
+			this.chunks = new OrderedChunkWriter<>("tasks-export", parallelism, "export", this::write);
+		}
+
+		/** Adds a task from the cursor; may block until the oldest pending chunk is written. */
+		void add(ITask task) {
+			chunk[filled++] = task;
+			rows++;
+			if (filled == chunk.length) {
+				try {
+					submit();
+				} catch (IOException e) {
+					throw new UncheckedIOException(e);
+				}
+			}
+		}
+
+		private void submit() throws IOException {
+			ITask[] rowsToFormat = chunk;
+			int count = filled;
+			chunk = new ITask[chunkSize];
+			filled = 0;
+			chunks.submit(() -> format(rowsToFormat, count));
+		}
+
+		void finish() throws IOException {
+			if (filled > 0) {
+				submit();
+			}
+			chunks.finish();
+		}
+
+		@Override
+		public void close() {
+			chunks.close();
+		}
+
+		void write(ByteBuffer bytes) throws IOException {
+			while (bytes.hasRemaining()) {
+				out.write(bytes);
+			}
+		}
+
+		private ByteBuffer format(ITask[] tasks, int count) {
+			StringBuilder sb = new StringBuilder(count * 96);
+			for (int i = 0; i < count; i++) {
+				if (format == TaskImporter.Format.CSV) {
+					appendCsv(sb, tasks[i]);
+				} else {
+					appendJson(sb, tasks[i]);
+				}
+			}
+			return StandardCharsets.UTF_8.encode(CharBuffer.wrap(sb));
+		}
+	}
+
+	// ---- row formatting ----
+
+	private static LocalDate dueDate(ITask task) {
+		return task instanceof Task t ? t.dueDate() : null;
+	}
+
+	private static int recurrenceDays(ITask task) {
+		return task instanceof RecurringTask r ? r.interval() : 0;
+	}
+
+	static void appendCsv(StringBuilder sb, ITask task) {
+		sb.append(task.getId()).append(',');
+		CsvFields.append(sb, task.getTitle());
+		sb.append(',');
+		CsvFields.append(sb, task.getDescription());
+		sb.append(',').append(task.getState().name()).append(',');
+		LocalDate due = dueDate(task);
+		if (due != null) {
+			sb.append(due);
+		}
+		sb.append(',');
+		int days = recurrenceDays(task);
+		if (days > 0) {
+			sb.append(days);
+		}
+		sb.append('\n');
+	}
+
+	static void appendJson(StringBuilder sb, ITask task) {
+		sb.append("{\"id\":").append(task.getId()).append(",\"title\":");
+		jsonString(sb, task.getTitle());
+		sb.append(",\"description\":");
+		jsonString(sb, task.getDescription());
+		sb.append(",\"state\":\"").append(task.getState().name()).append("\",\"dueDate\":");
+		LocalDate due = dueDate(task);
+		if (due != null) {
+			sb.append('"').append(due).append('"');
+		} else {
+			sb.append("null");
+		}
+		int days = recurrenceDays(task);
+		sb.append(",\"recurrenceDays\":");
+		if (days > 0) {
+			sb.append(days);
+		} else {
+			sb.append("null");
+		}
+		sb.append("}\n");
+	}
+
+	private static void jsonString(StringBuilder sb, String value) {
+		if (value == null) {
+			sb.append("null");
+			return;
+		}
+		sb.append('"');
+		for (int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+			switch (c) {
+				case '"' -> sb.append("\\\"");
+				case '\\' -> sb.append("\\\\");
+				case '\n' -> sb.append("\\n");
+				case '\r' -> sb.append("\\r");
+				case '\t' -> sb.append("\\t");
+				default -> {
+					if (c < 0x20) {
+						sb.append(String.format("\\u%04x", (int) c));
+					} else {
+						sb.append(c);
+					}
+				}
+			}
+		}
+		sb.append('"');
+	}
+}
@@ -0,0 +1,569 @@
+package il.ac.hit.tasksmanager.model;
+
+import il.ac.hit.tasksmanager.model.dao.ITasksDAO;
+import il.ac.hit.tasksmanager.model.dao.TasksDAOException;
+import il.ac.hit.tasksmanager.model.entities.ITask;
+import il.ac.hit.tasksmanager.model.entities.state.TaskState;
+import il.ac.hit.tasksmanager.model.entities.state.TaskStates;
+
+import java.io.BufferedReader;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * TaskImporter streams tasks from a CSV or JSON Lines file (optionally gzip-compressed, {@code .gz})
+ * into an {@link ITasksDAO}. It reads the files written by {@link TaskExporter}.
+ * - Parsing is incremental: one record is held in memory at a time, plus the current batch.
+ * - Each record is validated by building a {@link BasicTask} or {@link RecurringTask}, and its
+ *   title and description are checked against the schema limits ({@link ITasksDAO#MAX_TITLE_LENGTH});
+ *   invalid records are counted and reported (first {@value #MAX_ERRORS}) but do not stop the import.
+ * - Valid tasks are written in batches through {@link ITasksDAO#upsertTasks}, which the Derby
+ *   DAO runs as one batched {@code MERGE} transaction: a record with an id updates that task or
+ *   is inserted under it, a record without an id is added under a new id.
+ * - After every committed batch the position is saved in {@code <file>.import-progress}; a later
+ *   import of the same (unchanged) file continues after the last committed batch. Records with ids
+ *   are idempotent; records without ids of a batch that committed just before a crash, but whose
+ *   position was not yet saved, are added again.
+ * Fields (CSV header names or JSON keys, case-insensitive, {@code _} ignored): {@code id},
+ * {@code title} (required), {@code description}, {@code state} (TODO, IN_PROGRESS, COMPLETED;
+ * default TODO), {@code dueDate} (ISO date), {@code recurrenceDays} (or {@code interval}).
+ */
+public final class TaskImporter {
+	/** Supported file formats. */
+	public enum Format {
+		CSV, JSONL;
+
+		/**
+		 * Picks the format from the file extension ({@code .jsonl}/{@code .ndjson}/{@code .json} or CSV),
+		 * ignoring a trailing {@code .gz}.
+		 *
+		 * @param file file to import
+		 * @return format of the file
+		 */
+		public static Format of(Path file) {
+			String name = file.getFileName().toString().toLowerCase(Locale.ROOT);
+			if (name.endsWith(".gz")) {
+				name = name.substring(0, name.length() - 3);
+			}
+			return name.endsWith(".jsonl") || name.endsWith(".ndjson") || name.endsWith(".json") ? JSONL : CSV;
+		}
+	}
+
+	/**
+	 * Import progress, reported after every committed batch.
+	 *
+	 * @param records records consumed so far (including skipped and rejected ones)
+	 * @param imported tasks written
+	 * @param rejected invalid records
+	 * @param bytesRead bytes of the file read so far
+	 * @param totalBytes file size
+	 */
+	public record Progress(long records, long imported, long rejected, long bytesRead, long totalBytes) {
+		/** Returns the fraction of the file read, between 0 and 1. */
+		public double fraction() {
+			return totalBytes == 0 ? 1.0 : Math.min(1.0, (double) bytesRead / totalBytes);
+		}
+	}
+
+	/**
+	 * Outcome of an import.
+	 *
+	 * @param imported tasks written by this run
+	 * @param rejected invalid records found by this run
+	 * @param skipped records skipped because an earlier run had already committed them
+	 * @param errors messages for the first rejected records
+	 */
+	public record Result(long imported, long rejected, long skipped, List<String> errors) {
+	}
+
+	private static final int MAX_ERRORS = 100;
+	private static final String PROGRESS_SUFFIX = ".import-progress";
+	private final ITasksDAO dao;
+	private int batchSize = 5000;
+	private Consumer<Progress> progress = p -> { };
+
+	/**
+	 * Creates an importer writing to the given DAO.
+	 *
+	 * @param dao target DAO
+	 */
+	public TaskImporter(ITasksDAO dao) {
+		this.dao = dao;
+	}
+
+	/**
+	 * Sets the number of tasks written per transaction (default 5000).
+	 *
+	 * @param batchSize tasks per batch
+	 * @return this importer
+	 */
+	public TaskImporter batchSize(int batchSize) {
+		if (batchSize <= 0) {
+			throw new IllegalArgumentException("batchSize must be positive");
+		}
+		this.batchSize = batchSize;
+		return this;
+	}
+
+	/**
+	 * Sets the listener called after every committed batch (on the importing thread).
+	 *
+	 * @param listener progress listener
+	 * @return this importer
+	 */
+	public TaskImporter onProgress(Consumer<Progress> listener) {
+		this.progress = listener;
+		return this;
+	}
+
+	/**
+	 * Imports a file, picking the format from its extension.
+	 *
+	 * @param file CSV or JSON Lines file
+	 * @return import result
+	 * @throws IOException when the file cannot be read
+	 * @throws TasksDAOException when a batch cannot be written (rerun to resume)
+	 */
+	public Result importFile(Path file) throws IOException, TasksDAOException {
+		return importFile(file, Format.of(file));
+	}
+
+	/**
+	 * Imports a file in the given format, resuming after the last committed batch of an earlier run.
+	 *
+	 * @param file file to import
+	 * @param format file format
+	 * @return import result
+	 * @throws IOException when the file cannot be read
+	 * @throws TasksDAOException when a batch cannot be written (rerun to resume)
+	 */
+	public Result importFile(Path file, Format format) throws IOException, TasksDAOException {
+		long totalBytes = Files.size(file);
+		long modified = Files.getLastModifiedTime(file).toMillis();
+		Path progressFile = file.resolveSibling(file.getFileName() + PROGRESS_SUFFIX);
+		long resumeAt = resumePosition(progressFile, totalBytes, modified);
+		long records = 0;
+		long imported = 0;
+		long rejected = 0;
+		List<String> errors = new ArrayList<>();
+		List<ITask> batch = new ArrayList<>(Math.min(batchSize, 65536));
+		long start = System.nanoTime();
+		try (CountingInputStream in = new CountingInputStream(Files.newInputStream(file))) {
+			InputStream raw = file.getFileName().toString().endsWith(".gz") ? new GZIPInputStream(in, 1 << 16) : in;
+			BufferedReader reader = new BufferedReader(new InputStreamReader(raw, StandardCharsets.UTF_8), 1 << 16);
+			RecordReader source = format == Format.CSV ? new CsvReader(reader) : new JsonLinesReader(reader);
+			while (source.advance()) {
+				records++;
+				if (records <= resumeAt) {
+					continue;
+				}
+				try {
+					batch.add(toTask(source.fields()));
+				} catch (IllegalArgumentException | DateTimeParseException e) {
+					rejected++;
+					if (errors.size() < MAX_ERRORS) {
+						errors.add("record " + records + " (line " + source.line() + "): " + e.getMessage());
+					}
+				}
+				if (batch.size() >= batchSize) {
+					imported += dao.upsertTasks(batch);
+					batch.clear();
+					saveProgress(progressFile, totalBytes, modified, records);
+					progress.accept(new Progress(records, imported, rejected, in.count, totalBytes));
+				}
+			}
+			if (!batch.isEmpty()) {
+				imported += dao.upsertTasks(batch);
+			}
+			progress.accept(new Progress(records, imported, rejected, totalBytes, totalBytes));
+		}
+		Files.deleteIfExists(progressFile);
+		long skipped = Math.min(resumeAt, records);
+		System.err.println("Imported " + imported + " tasks from " + file + " (" + rejected + " rejected"
+			+ (skipped > 0 ? ", resumed after " + skipped : "") + ") in "
+			+ TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) + " ms");
+		return new Result(imported, rejected, skipped, List.copyOf(errors));
+	}
+
+	/** Validates a record by building the task it describes. */
+	static ITask toTask(Map<String, String> fields) {
+		String idText = blankToNull(fields.get("id"));
+		int id = idText == null ? 0 : Integer.parseInt(idText);
+		if (id < 0) {
+			throw new IllegalArgumentException("id must not be negative");
+		}
+		TaskState state = parseState(blankToNull(fields.get("state")));
+		String due = blankToNull(fields.get("duedate"));
+		LocalDate dueDate = due == null ? null : LocalDate.parse(due);
+		String recurrence = blankToNull(fields.getOrDefault("recurrencedays", fields.get("interval")));
+		int interval = recurrence == null ? 0 : Integer.parseInt(recurrence);
+		String title = fields.get("title");
+		String description = blankToNull(fields.get("description"));
+		// over-length fields would fail the whole batch in the database, so reject the record here
+		if (title != null && title.length() > ITasksDAO.MAX_TITLE_LENGTH) {
+			throw new IllegalArgumentException("title longer than " + ITasksDAO.MAX_TITLE_LENGTH + " characters");
+		}
+		if (description != null && description.length() > ITasksDAO.MAX_DESCRIPTION_LENGTH) {
+			throw new IllegalArgumentException("description longer than " + ITasksDAO.MAX_DESCRIPTION_LENGTH + " characters");
+		}
+		if (interval != 0) {
+			return new RecurringTask(id, title, description, state, dueDate, interval);
+		}
+		return new BasicTask(id, title, description, state, dueDate);
+	}
+
+	private static TaskState parseState(String name) {
+		if (name == null) {
+			return TaskStates.TODO;
+		}
+		String canonical = name.trim().toUpperCase(Locale.ROOT).replace(' ', '_').replace('-', '_');
+		return switch (canonical) {
+			case "TODO", "TO_DO" -> TaskStates.TODO;
+			case "IN_PROGRESS" -> TaskStates.IN_PROGRESS;
+			case "COMPLETED", "DONE" -> TaskStates.COMPLETED;
+			default -> throw new IllegalArgumentException("unknown state " + name);
+		};
+	}
+
+	private static String blankToNull(String s) {
+		return s == null || s.isBlank() ? null : s.trim();
+	}
+
+	/** Normalizes a field name: lower case, without underscores, dashes or spaces. */
+	static String key(String name) {
+		StringBuilder sb = new StringBuilder(name.length());
+		for (int i = 0; i < name.length(); i++) {
+			char c = name.charAt(i);
+			if (c != '_' && c != '-' && !Character.isWhitespace(c)) {
+				sb.append(Character.toLowerCase(c));
+			}
+		}
+		return sb.toString();
+	}
+
+	// ---- resume checkpoint ----
+
+	/** Returns the number of records an earlier run committed, or 0 when the file changed or none ran. */
+	private static long resumePosition(Path progressFile, long size, long modified) throws IOException {
+		if (!Files.exists(progressFile)) {
+			return 0;
+		}
+		Properties p = new Properties();
+		try (InputStream in = Files.newInputStream(progressFile)) {
+			p.load(in);
+		}
+		if (!Long.toString(size).equals(p.getProperty("size")) || !Long.toString(modified).equals(p.getProperty("modified"))) {
+			System.err.println("Ignoring " + progressFile + ": the file changed since the interrupted import");
+			return 0;
+		}
+		return Long.parseLong(p.getProperty("records", "0"));
+	}
+
+	private static void saveProgress(Path progressFile, long size, long modified, long records) throws IOException {
+		Properties p = new Properties();
+		p.setProperty("size", Long.toString(size));
+		p.setProperty("modified", Long.toString(modified));
+		p.setProperty("records", Long.toString(records));
+		Path tmp = progressFile.resolveSibling(progressFile.getFileName() + ".tmp");
+		try (OutputStream out = Files.newOutputStream(tmp)) {
+			p.store(out, "records committed by an interrupted task import");
+		}
+		Files.move(tmp, progressFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+	}
+
+	// ---- record readers ----
+
+	/** Reads one raw record at a time; fields are only parsed when asked for. */
+	private abstract static class RecordReader {
+		final BufferedReader reader;
+		long line;
+
+		RecordReader(BufferedReader reader) {
+			this.reader = reader;
+		}
+
+		/** Moves to the next record; returns false at the end of the file. */
+		abstract boolean advance() throws IOException;
+
+		/** Parses the current record into normalized field names and values. */
+		abstract Map<String, String> fields();
+
+		long line() {
+			return line;
+		}
+	}
+
+	/** RFC 4180 CSV with a header row; quoted fields may contain commas, quotes ({@code ""}) and line breaks. */
+	private static final class CsvReader extends RecordReader {
+		private final String[] header;
+		private String record;
+
+		CsvReader(BufferedReader reader) throws IOException {
+			super(reader);
+			if (!advance()) {
+				throw new IOException("CSV file has no header row");
+			}
+			List<String> names = split(record);
+			header = new String[names.size()];
+			for (int i = 0; i < header.length; i++) {
+				header[i] = key(names.get(i));
+			}
+		}
+
+		@Override
+		boolean advance() throws IOException {
+			String text;
+			do {
+				text = reader.readLine();
+				line++;
+				if (text == null) {
+					return false;
+				}
+			} while (text.isBlank());
+			// a record continues while a quoted field is open
+			while (quoteCount(text) % 2 != 0) {
+				String next = reader.readLine();
+				if (next == null) {
+					break;
+				}
+				line++;
+				text = text + "\n" + next;
+			}
+			record = text;
+			return true;
+		}
+
+		@Override
+		Map<String, String> fields() {
+			List<String> values = split(record);
+			if (values.size() != header.length) {
+				throw new IllegalArgumentException("expected " + header.length + " fields but found " + values.size());
+			}
+			Map<String, String> fields = new HashMap<>(header.length * 2);
+			for (int i = 0; i < header.length; i++) {
+				fields.put(header[i], values.get(i));
+			}
+			return fields;
+		}
+
+		private static int quoteCount(String s) {
+			int n = 0;
+			for (int i = 0; i < s.length(); i++) {
+				if (s.charAt(i) == '"') {
+					n++;
+				}
+			}
+			return n;
+		}
+
+		private static List<String> split(String record) {
+			List<String> values = new ArrayList<>();
+			StringBuilder field = new StringBuilder();
+			boolean quoted = false;
+			for (int i = 0; i < record.length(); i++) {
+				char c = record.charAt(i);
+				if (quoted) {
+					if (c == '"') {
+						if (i + 1 < record.length() && record.charAt(i + 1) == '"') {
+							field.append('"');
+							i++;
+						} else {
+							quoted = false;
+						}
+					} else {
+						field.append(c);
+					}
+				} else if (c == '"') {
+					quoted = true;
+				} else if (c == ',') {
+					values.add(field.toString());
+					field.setLength(0);
+				} else {
+					field.append(c);
+				}
+			}
+			values.add(field.toString());
+			return values;
+		}
+	}
+
+	/** One flat JSON object per line; string, number, boolean and null values are accepted. */
+	private static final class JsonLinesReader extends RecordReader {
+		private String record;
+		private int pos;
+
+		JsonLinesReader(BufferedReader reader) {
+			super(reader);
+		}
+
+		@Override
+		boolean advance() throws IOException {
+			String text;
+			do {
+				text = reader.readLine();
+				line++;
+				if (text == null) {
+					return false;
+				}
+			} while (text.isBlank());
+			record = text;
+			return true;
+		}
+
+		@Override
+		Map<String, String> fields() {
+			pos = 0;
+			Map<String, String> fields = new HashMap<>();
+			expect('{');
+			skipSpace();
+			if (peek() == '}') {
+				pos++;
+				return fields;
+			}
+			while (true) {
+				skipSpace();
+				String name = string();
+				skipSpace();
+				expect(':');
+				skipSpace();
+				fields.put(key(name), value());
+				skipSpace();
+				char c = next();
+				if (c == '}') {
+					break;
+				}
+				if (c != ',') {
+					throw new IllegalArgumentException("malformed JSON at column " + pos);
+				}
+			}
+			skipSpace();
+			if (pos != record.length()) {
+				throw new IllegalArgumentException("trailing characters after JSON object");
+			}
+			return fields;
+		}
+
+		private String value() {
+			char c = peek();
+			if (c == '"') {
+				return string();
+			}
+			if (c == '{' || c == '[') {
+				throw new IllegalArgumentException("nested JSON values are not supported");
+			}
+			int start = pos;
+			while (pos < record.length() && ",} \t".indexOf(record.charAt(pos)) < 0) {
+				pos++;
+			}
+			String literal = record.substring(start, pos);
+			if (literal.equals("null")) {
+				return null;
+			}
+			if (literal.isEmpty()) {
+				throw new IllegalArgumentException("missing JSON value at column " + start);
+			}
+			return literal;
+		}
+
+		private String string() {
+			expect('"');
+			StringBuilder sb = new StringBuilder();
+			while (true) {
+				char c = next();
+				if (c == '"') {
+					return sb.toString();
+				}
+				if (c != '\\') {
+					sb.append(c);
+					continue;
+				}
+				char e = next();
+				switch (e) {
+					case 'n' -> sb.append('\n');
+					case 't' -> sb.append('\t');
+					case 'r' -> sb.append('\r');
+					case 'b' -> sb.append('\b');
+					case 'f' -> sb.append('\f');
+					case 'u' -> {
+						if (pos + 4 > record.length()) {
+							throw new IllegalArgumentException("truncated \\u escape");
+						}
+						sb.append((char) Integer.parseInt(record.substring(pos, pos + 4), 16));
+						pos += 4;
+					}
+					default -> sb.append(e);
+				}
+			}
+		}
+
+		private void skipSpace() {
+			while (pos < record.length() && Character.isWhitespace(record.charAt(pos))) {
+				pos++;
+			}
+		}
+
+		private char peek() {
+			if (pos >= record.length()) {
+				throw new IllegalArgumentException("unexpected end of JSON");
+			}
+			return record.charAt(pos);
+		}
+
+		private char next() {
+			char c = peek();
+			pos++;
+			return c;
+		}
+
+		private void expect(char c) {
+			if (next() != c) {
+				throw new IllegalArgumentException("expected '" + c + "' at column " + pos);
+			}
+		}
+	}
+
+	/** Counts the bytes read from the file, for progress reporting. */
+	private static final class CountingInputStream extends FilterInputStream {
+		long count;
+
+		CountingInputStream(InputStream in) {
+			super(in);
+		}
+
+		@Override
+		public int read() throws IOException {
+			int b = super.read();
+			if (b >= 0) {
+				count++;
+			}
+			return b;
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len) throws IOException {
+			int n = super.read(b, off, len);
+			if (n > 0) {
+				count += n;
+			}
+			return n;
+		}
+	}
+}
@@ -0,0 +1,223 @@
+package il.ac.hit.tasksmanager.model;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * TaskOccurrences lists the dated occurrences of the tasks in a {@link TaskColumnStore} within a
+ * window, for calendar and planning views, without materializing them:
+ * - a {@link RecurringTask} occurs on its due date and every {@code interval} days after it;
+ *   a basic task occurs once, on its due date; tasks without a due date never occur;
+ * - the first occurrence in the window is computed arithmetically from the due date and the
+ *   interval (no day-by-day stepping);
+ * - every task with an occurrence in the window is a sorted run; the runs are merged with a k-way
+ *   binary heap over primitive arrays (row, next epoch day), ordered by date and then task id;
+ * - the stream is lazy: each element pops one heap entry and the task record is created only then,
+ *   so memory is one heap slot per task regardless of the window length;
+ * - {@link #page} gives keyset pagination: the token is the (date, task id) of the last element,
+ *   and the next page restarts the merge at that date instead of skipping earlier pages.
+ */
+public final class TaskOccurrences {
+	/**
+	 * One occurrence of a task.
+	 *
+	 * @param task the task
+	 * @param date the day it occurs
+	 */
+	public record Occurrence(Task task, LocalDate date) {
+	}
+
+	/**
+	 * Position after which a page continues: the last occurrence of the previous page.
+	 *
+	 * @param date date of the last occurrence returned
+	 * @param taskId task id of the last occurrence returned
+	 */
+	public record PageToken(LocalDate date, int taskId) {
+	}
+
+	/**
+	 * A page of occurrences.
+	 *
+	 * @param items occurrences in date, task id order
+	 * @param next token for the following page, or null when this is the last one
+	 */
+	public record Page(List<Occurrence> items, PageToken next) {
+	}
+
+	private final TaskColumnStore columns;
+
+	/**
+	 * Creates an occurrence view over a task snapshot.
+	 *
+	 * @param columns tasks (for example {@link Model#getTaskColumns()})
+	 */
+	public TaskOccurrences(TaskColumnStore columns) {
+		this.columns = columns;
+	}
+
+	/**
+	 * Returns the first occurrence on or after {@code from}, as an epoch day.
+	 *
+	 * @param due due date as an epoch day
+	 * @param interval recurrence interval in days, or 0 for a single occurrence
+	 * @param from first day of interest as an epoch day
+	 * @return epoch day of the first occurrence not before {@code from}, or {@link Long#MAX_VALUE} if none
+	 */
+	static long firstOnOrAfter(long due, int interval, long from) {
+		if (due >= from) {
+			return due;
+		}
+		if (interval <= 0) {
+			return Long.MAX_VALUE;
+		}
+		// ceil((from - due) / interval) whole intervals after the due date
+		return due + ((from - due + interval - 1) / interval) * interval;
+	}
+
+	/**
+	 * Streams every occurrence in {@code [from, to]} in date order (task id within a day).
+	 *
+	 * @param from first day (inclusive)
+	 * @param to last day (inclusive)
+	 * @return lazy ordered stream
+	 */
+	public Stream<Occurrence> between(LocalDate from, LocalDate to) {
+		return StreamSupport.stream(new Merge(from.toEpochDay(), to.toEpochDay()), false);
+	}
+
+	/**
+	 * Returns one page of the occurrences in {@code [from, to]}.
+	 *
+	 * @param from first day (inclusive)
+	 * @param to last day (inclusive)
+	 * @param after token of the previous page, or null for the first page
+	 * @param limit maximum number of occurrences in the page
+	 * @return page with the token of the next page
+	 */
+	public Page page(LocalDate from, LocalDate to, PageToken after, int limit) {
+		if (limit <= 0) {
+			throw new IllegalArgumentException("limit must be positive");
+		}
+		long start = from.toEpochDay();
+		if (after != null) {
+			start = Math.max(start, after.date().toEpochDay());
+		}
+		Merge merge = new Merge(start, to.toEpochDay());
+		if (after != null) {
+			merge.skipThrough(after.date().toEpochDay(), after.taskId());
+		}
+		List<Occurrence> items = new ArrayList<>(Math.min(limit, 1024));
+		while (items.size() < limit && merge.tryAdvance(items::add)) {
+			// filled by tryAdvance
+		}
+		PageToken next = null;
+		if (items.size() == limit && merge.hasNext()) {
+			Occurrence last = items.get(limit - 1);
+			next = new PageToken(last.date(), last.task().id());
+		}
+		return new Page(items, next);
+	}
+
+	/** K-way merge of the per-task occurrence runs over a primitive min-heap. */
+	private final class Merge extends Spliterators.AbstractSpliterator<Occurrence> {
+		private final long to;
+		private final int[] rows;
+		private final long[] days;
+		private int size;
+
+		Merge(long from, long to) {
+			super(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL);
+			this.to = to;
+			int n = columns.size();
+			int[] r = new int[n];
+			long[] d = new long[n];
+			for (int row = 0; row < n; row++) {
+				int due = columns.dueEpochDayAt(row);
+				if (due == TaskColumnStore.NO_DUE_DATE) {
+					continue;
+				}
+				long first = firstOnOrAfter(due, columns.intervalAt(row), from);
+				if (first <= to) {
+					r[size] = row;
+					d[size] = first;
+					size++;
+				}
+			}
+			this.rows = r;
+			this.days = d;
+			for (int i = size / 2 - 1; i >= 0; i--) {
+				siftDown(i);
+			}
+		}
+
+		boolean hasNext() {
+			return size > 0;
+		}
+
+		/** Drops the occurrences up to and including (day, taskId); they are at the front of the heap order. */
+		void skipThrough(long day, int taskId) {
+			while (size > 0 && (days[0] < day || (days[0] == day && columns.idAt(rows[0]) <= taskId))) {
+				advanceTop();
+			}
+		}
+
+		@Override
+		public boolean tryAdvance(Consumer<? super Occurrence> action) {
+			if (size == 0) {
+				return false;
+			}
+			Occurrence o = new Occurrence(columns.get(rows[0]), LocalDate.ofEpochDay(days[0]));
+			advanceTop();
+			action.accept(o);
+			return true;
+		}
+
+		/** Moves the top run to its next occurrence, or removes it when it leaves the window. */
+		private void advanceTop() {
+			int interval = columns.intervalAt(rows[0]);
+			long next = interval > 0 ? days[0] + interval : Long.MAX_VALUE;
+			if (next <= to) {
+				days[0] = next;
+			} else {
+				size--;
+				rows[0] = rows[size];
+				days[0] = days[size];
+			}
+			siftDown(0);
+		}
+
+		private boolean less(int a, int b) {
+			if (days[a] != days[b]) {
+				return days[a] < days[b];
+			}
+			return columns.idAt(rows[a]) < columns.idAt(rows[b]);
+		}
+
+		private void siftDown(int i) {
+			while (true) {
+				int left = 2 * i + 1;
+				if (left >= size) {
+					return;
+				}
+				int smallest = left + 1 < size && less(left + 1, left) ? left + 1 : left;
+				if (!less(smallest, i)) {
+					return;
+				}
+				int r = rows[i];
+				rows[i] = rows[smallest];
+				rows[smallest] = r;
+				long d = days[i];
+				days[i] = days[smallest];
+				days[smallest] = d;
+				i = smallest;
+			}
+		}
+	}
+}
@@ -0,0 +1,159 @@
+package il.ac.hit.tasksmanager.model;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * TaskSnapshotFile stores a {@link TaskColumnStore} in a compact binary file, so the task
+ * list can be shown at startup before Derby has booted. The file is written and read with
+ * plain {@link FileChannel} transfers; it is never mapped, so it can be replaced on every platform.
+ * Layout (big-endian): magic, format version, stamp, row count, string count, then the
+ * id, state, due, interval, title and description columns, then the UTF-8 string table.
+ * The stamp is the store's {@link TaskColumnStore#fingerprint() fingerprint}; it is checked
+ * on read and compared with the database contents when the Model reconciles.
+ * Files are written to a temporary sibling and atomically moved into place.
+ * The location is read from {@code tasks.snapshot.file} (default {@code tasks.snapshot};
+ * {@code none} disables the snapshot).
+ */
+public final class TaskSnapshotFile {
+	private static final int MAGIC = 0x54534E50; // "TSNP"
+	private static final int FORMAT_VERSION = 2;
+	private static final int HEADER_BYTES = 4 + 4 + 8 + 4 + 4;
+
+	private TaskSnapshotFile() {
+	}
+
+	/**
+	 * Returns the configured snapshot location.
+	 *
+	 * @return snapshot path, or null when snapshots are disabled
+	 */
+	public static Path configuredPath() {
+		String file = System.getProperty("tasks.snapshot.file", "tasks.snapshot");
+		if (file.isBlank() || "none".equalsIgnoreCase(file)) {
+			return null;
+		}
+		return Path.of(file);
+	}
+
+	/**
+	 * Writes the store to the given file, replacing any previous snapshot.
+	 *
+	 * @param file snapshot path
+	 * @param store tasks to persist
+	 * @throws IOException if the file cannot be written
+	 */
+	public static void write(Path file, TaskColumnStore store) throws IOException {
+		int n = store.size();
+		String[] strings = store.stringTable();
+		byte[][] encoded = new byte[strings.length][];
+		long bytes = HEADER_BYTES + n * (4L * 5 + 1);
+		for (int i = 0; i < strings.length; i++) {
+			encoded[i] = strings[i].getBytes(StandardCharsets.UTF_8);
+			bytes += 4 + encoded[i].length;
+		}
+		if (bytes > Integer.MAX_VALUE) {
+			throw new IOException("snapshot of " + n + " tasks is too large");
+		}
+		ByteBuffer buf = ByteBuffer.allocate((int) bytes);
+		buf.putInt(MAGIC).putInt(FORMAT_VERSION).putLong(store.fingerprint()).putInt(n).putInt(strings.length);
+		putInts(buf, store.idColumn(), n);
+		buf.put(store.stateColumn(), 0, n);
+		putInts(buf, store.dueColumn(), n);
+		putInts(buf, store.intervalColumn(), n);
+		putInts(buf, store.titleColumn(), n);
+		putInts(buf, store.descriptionColumn(), n);
+		for (byte[] s : encoded) {
+			buf.putInt(s.length).put(s);
+		}
+		buf.flip();
+		Path dir = file.toAbsolutePath().getParent();
+		if (dir != null) {
+			Files.createDirectories(dir);
+		}
+		Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+		try (FileChannel ch = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+				StandardOpenOption.WRITE)) {
+			while (buf.hasRemaining()) {
+				ch.write(buf);
+			}
+			ch.force(false);
+		}
+		Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+	}
+
+	/**
+	 * Reads a snapshot file.
+	 *
+	 * @param file snapshot path
+	 * @return the stored tasks, or null if the file is missing, from another format version or corrupt
+	 */
+	public static TaskColumnStore read(Path file) {
+		try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+			long size = ch.size();
+			if (size < HEADER_BYTES || size > Integer.MAX_VALUE) {
+				return null;
+			}
+			ByteBuffer buf = ByteBuffer.allocate((int) size);
+			while (buf.hasRemaining()) {
+				if (ch.read(buf) < 0) {
+					return null;
+				}
+			}
+			buf.flip();
+			if (buf.getInt() != MAGIC || buf.getInt() != FORMAT_VERSION) {
+				return null;
+			}
+			long stamp = buf.getLong();
+			int n = buf.getInt();
+			int stringCount = buf.getInt();
+			if (n < 0 || stringCount < 0 || HEADER_BYTES + n * (4L * 5 + 1) + 4L * stringCount > size) {
+				return null;
+			}
+			int[] ids = getInts(buf, n);
+			byte[] states = new byte[n];
+			buf.get(states);
+			int[] due = getInts(buf, n);
+			int[] intervals = getInts(buf, n);
+			int[] titles = getInts(buf, n);
+			int[] descriptions = getInts(buf, n);
+			String[] strings = new String[stringCount];
+			for (int i = 0; i < stringCount; i++) {
+				byte[] s = new byte[buf.getInt()];
+				buf.get(s);
+				strings[i] = new String(s, StandardCharsets.UTF_8);
+			}
+			TaskColumnStore store = TaskColumnStore.fromColumns(ids, states, due, intervals, titles, descriptions, strings);
+			if (store.fingerprint() != stamp) {
+				System.err.println("Ignoring snapshot " + file + ": stamp mismatch");
+				return null;
+			}
+			return store;
+		} catch (NoSuchFileException e) {
+			return null;
+		} catch (IOException | RuntimeException e) {
+			// a truncated or foreign file is treated as "no snapshot"
+			System.err.println("Ignoring snapshot " + file + ": " + e);
+			return null;
+		}
+	}
+
+	private static void putInts(ByteBuffer buf, int[] values, int n) {
+		buf.asIntBuffer().put(values, 0, n);
+		buf.position(buf.position() + 4 * n);
+	}
+
+	private static int[] getInts(ByteBuffer buf, int n) {
+		int[] values = new int[n];
+		buf.asIntBuffer().get(values);
+		buf.position(buf.position() + 4 * n);
+		return values;
+	}
+}
@@ -0,0 +1,44 @@
+package il.ac.hit.tasksmanager.model.combinator;
+
+import il.ac.hit.tasksmanager.model.TaskColumnStore;
+
+/**
+ * ScanFilter is a {@link TaskFilter} that can also be evaluated column-wise over a
+ * {@link TaskColumnStore}, producing a bitmap of candidate rows instead of testing
+ * one task record at a time.
+ * Combinator: AND/OR of two scan filters is again a scan filter (bitmaps are combined);
+ * AND with an ordinary filter keeps the scan and applies the other filter as a
+ * {@link #residual()} to the candidates only.
+ */
+public interface ScanFilter extends TaskFilter {
+    /**
+     * Computes the bitmap of candidate rows (one bit per row).
+     * When {@link #residual()} is null the bitmap is exact.
+     *
+     * @param columns column store to scan
+     * @return row bitmap, owned by the caller
+     */
+    long[] scan(TaskColumnStore columns);
+
+    /**
+     * Returns the part of this filter that must still be applied to each candidate task, or null.
+     *
+     * @return residual filter or null
+     */
+    default TaskFilter residual() {
+        return null;
+    }
+
+    @Override
+    default TaskFilter and(TaskFilter other) {
+        return ScanFilters.and(this, other);
+    }
+
+    @Override
+    default TaskFilter or(TaskFilter other) {
+        if (other instanceof ScanFilter s && residual() == null && s.residual() == null) {
+            return ScanFilters.or(this, s);
+        }
+        return TaskFilter.super.or(other);
+    }
+}
@@ -0,0 +1,149 @@
+package il.ac.hit.tasksmanager.model.combinator;
+
+import il.ac.hit.tasksmanager.model.Task;
+import il.ac.hit.tasksmanager.model.TaskColumnScan;
+import il.ac.hit.tasksmanager.model.TaskColumnStore;
+import il.ac.hit.tasksmanager.model.entities.state.TaskState;
+import il.ac.hit.tasksmanager.model.entities.state.TaskStates;
+
+import java.time.LocalDate;
+import java.util.Locale;
+
+/**
+ * Column-aware implementations behind the {@link ScanFilter} factories of {@link TaskFilter}.
+ */
+final class ScanFilters {
+    private ScanFilters() {
+    }
+
+    /** Creates a filter matching any of the given state names (case-insensitive). */
+    static ScanFilter states(String... stateNames) {
+        int mask = 0;
+        for (String name : stateNames) {
+            TaskState state = name == null ? null : TaskStates.of(name.toUpperCase(Locale.ROOT));
+            if (state != null && state.name().equalsIgnoreCase(name)) {
+                // unknown names match nothing instead of falling back to TODO
+                mask |= 1 << TaskStates.codeOf(state);
+            }
+        }
+        return new StatesIn(mask);
+    }
+
+    /** Creates a filter matching tasks due strictly before the given date. */
+    static ScanFilter dueBefore(LocalDate date) {
+        return new DueBefore(date);
+    }
+
+    /** Creates a filter matching tasks due on the given date. */
+    static ScanFilter dueOn(LocalDate date) {
+        return new DueOn(date);
+    }
+
+    /** AND of a scan filter with any filter. */
+    static ScanFilter and(ScanFilter left, TaskFilter right) {
+        if (right instanceof ScanFilter r) {
+            return new And(left, r);
+        }
+        TaskFilter residual = left.residual() == null ? right : both(left.residual(), right);
+        return new Refined(left, residual);
+    }
+
+    /** OR of two exact scan filters. */
+    static ScanFilter or(ScanFilter left, ScanFilter right) {
+        return new Or(left, right);
+    }
+
+    private static TaskFilter both(TaskFilter a, TaskFilter b) {
+        return task -> a.matches(task) && b.matches(task);
+    }
+
+    private static TaskFilter residualOf(ScanFilter a, ScanFilter b) {
+        if (a.residual() == null) {
+            return b.residual();
+        }
+        return b.residual() == null ? a.residual() : both(a.residual(), b.residual());
+    }
+
+    /** State code in a fixed set. */
+    private record StatesIn(int mask) implements ScanFilter {
+        @Override
+        public boolean matches(Task task) {
+            return task.state() != null && (mask & (1 << TaskStates.codeOf(task.state()))) != 0;
+        }
+
+        @Override
+        public long[] scan(TaskColumnStore columns) {
+            return TaskColumnScan.statesIn(columns, mask);
+        }
+    }
+
+    /** Due date strictly before a bound. */
+    private record DueBefore(LocalDate date) implements ScanFilter {
+        @Override
+        public boolean matches(Task task) {
+            return task.dueDate() != null && task.dueDate().isBefore(date);
+        }
+
+        @Override
+        public long[] scan(TaskColumnStore columns) {
+            return TaskColumnScan.dueBefore(columns, Math.toIntExact(date.toEpochDay()));
+        }
+    }
+
+    /** Due date equal to a day. */
+    private record DueOn(LocalDate date) implements ScanFilter {
+        @Override
+        public boolean matches(Task task) {
+            return task.dueDate() != null && task.dueDate().equals(date);
+        }
+
+        @Override
+        public long[] scan(TaskColumnStore columns) {
+            return TaskColumnScan.dueOn(columns, Math.toIntExact(date.toEpochDay()));
+        }
+    }
+
+    /** Intersection of two scan filters. */
+    private record And(ScanFilter left, ScanFilter right) implements ScanFilter {
+        @Override
+        public boolean matches(Task task) {
+            return left.matches(task) && right.matches(task);
+        }
+
+        @Override
+        public long[] scan(TaskColumnStore columns) {
+            return TaskColumnScan.and(left.scan(columns), right.scan(columns));
+        }
+
+        @Override
+        public TaskFilter residual() {
+            return residualOf(left, right);
+        }
+    }
+
+    /** Union of two exact scan filters. */
+    private record Or(ScanFilter left, ScanFilter right) implements ScanFilter {
+        @Override
+        public boolean matches(Task task) {
+            return left.matches(task) || right.matches(task);
+        }
+
+        @Override
+        public long[] scan(TaskColumnStore columns) {
+            return TaskColumnScan.or(left.scan(columns), right.scan(columns));
+        }
+    }
+
+    /** Scan filter whose candidates are narrowed by an ordinary filter. */
+    private record Refined(ScanFilter scan, TaskFilter residual) implements ScanFilter {
+        @Override
+        public boolean matches(Task task) {
+            return scan.matches(task) && residual.matches(task);
+        }
+
+        @Override
+        public long[] scan(TaskColumnStore columns) {
+            return scan.scan(columns);
+        }
+    }
+}
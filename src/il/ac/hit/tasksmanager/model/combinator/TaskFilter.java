@@ -7,6 +7,8 @@ import java.time.LocalDate;
  * TaskFilter implements the Combinator pattern for flexible search.
  * It composes small predicate-like filters with AND/OR to create
  * rich filtering logic at runtime.
+ * State and due-date filters are {@link ScanFilter}s, which the Model evaluates over its
+ * packed task columns instead of testing each task record.
  */
 @FunctionalInterface
 public interface TaskFilter {
@@ -31,6 +33,10 @@ public interface TaskFilter {
          * This represents the essence of the Combinator pattern,
          * composing small functions into larger behavior.
          */
+        if (other instanceof ScanFilter scan) {
+            // keep the column scan; this filter is applied to its candidates only
+            return scan.and(this);
+        }
         return task -> this.matches(task) && other.matches(task);
     }
 
@@ -69,12 +75,32 @@ public interface TaskFilter {
      * @param stateName the name of the state to match
      * @return a TaskFilter that matches tasks with the given state
      */
-    static TaskFilter byState(String stateName) {
+    static ScanFilter byState(String stateName) {
         /*
          * Returns a filter that checks if the task is in a specific state.
          * Enables filtering by workflow or status.
          */
-        return task -> task.state() != null && task.state().name().equalsIgnoreCase(stateName);
+        return ScanFilters.states(stateName);
+    }
+
+    /**
+     * Matches tasks in any of the given states; evaluated column-wise on the Model cache.
+     *
+     * @param stateNames state names such as "TODO" or "IN_PROGRESS" (case-insensitive)
+     * @return a ScanFilter that matches tasks in one of the states
+     */
+    static ScanFilter byStates(String... stateNames) {
+        return ScanFilters.states(stateNames);
+    }
+
+    /**
+     * Matches tasks due strictly before the given date; tasks without a due date never match.
+     *
+     * @param date exclusive upper bound
+     * @return a ScanFilter that matches tasks due before the date
+     */
+    static ScanFilter dueBefore(LocalDate date) {
+        return ScanFilters.dueBefore(date);
     }
 
     /**
@@ -83,11 +109,11 @@ public interface TaskFilter {
      * @param date the due date to match
      * @return a TaskFilter that matches tasks due on the given date
      */
-    static TaskFilter byDueDate(LocalDate date) {
+    static ScanFilter byDueDate(LocalDate date) {
         /*
          * Returns a filter that checks if the task is due on a specific date.
          * Useful for time-based filtering or scheduling views.
          */
-        return task -> task.dueDate() != null && task.dueDate().equals(date);
+        return ScanFilters.dueOn(date);
     }
 }
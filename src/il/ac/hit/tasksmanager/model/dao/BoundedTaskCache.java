@@ -0,0 +1,255 @@
+package il.ac.hit.tasksmanager.model.dao;
+
+import il.ac.hit.tasksmanager.model.entities.ITask;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * BoundedTaskCache is the by-id cache used by {@link TasksDAOProxy}.
+ * - Size bound: at most {@code maxSize} entries, kept in access (LRU) order.
+ * - TTL: entries expire {@code ttl} after they were loaded; misses (negative entries)
+ *   use a shorter {@code negativeTtl} so ids created later become visible quickly.
+ * - Eviction policy: plain {@link EvictionPolicy#LRU}, or {@link EvictionPolicy#TINY_LFU}
+ *   where a new entry only replaces the LRU victim if a frequency sketch says it has been
+ *   requested more often, so one-off lookups cannot flush the hot set.
+ * - Statistics: hits, negative hits, misses, evictions and expirations.
+ * All operations hold the cache's own monitor for a few map operations only.
+ * Defaults are read from system properties:
+ * - {@code tasks.cache.maxSize} (default 10000)
+ * - {@code tasks.cache.ttlSeconds} (default 300)
+ * - {@code tasks.cache.negativeTtlSeconds} (default 30)
+ * - {@code tasks.cache.policy} (LRU or TINY_LFU, default TINY_LFU)
+ */
+public final class BoundedTaskCache {
+	/** Eviction policy applied when the cache is full. */
+	public enum EvictionPolicy { LRU, TINY_LFU }
+
+	/**
+	 * Cache statistics.
+	 *
+	 * @param hits lookups answered with a cached task
+	 * @param negativeHits lookups answered with a cached "not found"
+	 * @param misses lookups that had to go to the delegate
+	 * @param evictions entries removed (or rejected) because of the size bound
+	 * @param expirations entries dropped because their TTL elapsed
+	 * @param size current number of entries
+	 */
+	public record CacheStats(long hits, long negativeHits, long misses, long evictions, long expirations, int size) {
+		/** Returns the fraction of lookups served from the cache (positive or negative). */
+		public double hitRate() {
+			long total = hits + negativeHits + misses;
+			return total == 0 ? 0.0 : (hits + negativeHits) / (double) total;
+		}
+	}
+
+	/**
+	 * A cached lookup result; {@code task} is null for a negative (not found) entry.
+	 *
+	 * @param task cached task or null
+	 * @param expiresAt clock value after which the entry is stale
+	 */
+	public record Entry(ITask task, long expiresAt) {
+		/** Returns true if this entry records that the id does not exist. */
+		public boolean isNegative() {
+			return task == null;
+		}
+	}
+
+	private final int maxSize;
+	private final long ttlNanos;
+	private final long negativeTtlNanos;
+	private final EvictionPolicy policy;
+	private final LongSupplier clock;
+	private final LinkedHashMap<Integer, Entry> entries;
+	private final FrequencySketch sketch;
+	private long hits;
+	private long negativeHits;
+	private long misses;
+	private long evictions;
+	private long expirations;
+
+	/**
+	 * Creates a bounded cache.
+	 *
+	 * @param maxSize maximum number of entries (positive)
+	 * @param ttlMillis lifetime of a positive entry
+	 * @param negativeTtlMillis lifetime of a negative entry (0 disables negative caching)
+	 * @param policy eviction policy
+	 */
+	public BoundedTaskCache(int maxSize, long ttlMillis, long negativeTtlMillis, EvictionPolicy policy) {
+		this(maxSize, ttlMillis, negativeTtlMillis, policy, System::nanoTime);
+	}
+
+	/** Creates a bounded cache with an explicit nanosecond clock (for tests). */
+	BoundedTaskCache(int maxSize, long ttlMillis, long negativeTtlMillis, EvictionPolicy policy, LongSupplier clock) {
+		if (maxSize <= 0) {
+			throw new IllegalArgumentException("maxSize must be positive");
+		}
+		if (policy == null) {
+			throw new IllegalArgumentException("policy must not be null");
+		}
+		this.maxSize = maxSize;
+		this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMillis);
+		this.negativeTtlNanos = TimeUnit.MILLISECONDS.toNanos(negativeTtlMillis);
+		this.policy = policy;
+		this.clock = clock;
+		this.entries = new LinkedHashMap<>(16, 0.75f, true);
+		this.sketch = policy == EvictionPolicy.TINY_LFU ? new FrequencySketch(maxSize) : null;
+	}
+
+	/**
+	 * Creates a cache configured from the {@code tasks.cache.*} system properties.
+	 *
+	 * @return configured cache
+	 */
+	public static BoundedTaskCache fromSystemProperties() {
+		return new BoundedTaskCache(
+			Integer.getInteger("tasks.cache.maxSize", 10_000),
+			TimeUnit.SECONDS.toMillis(Long.getLong("tasks.cache.ttlSeconds", 300L)),
+			TimeUnit.SECONDS.toMillis(Long.getLong("tasks.cache.negativeTtlSeconds", 30L)),
+			EvictionPolicy.valueOf(System.getProperty("tasks.cache.policy", EvictionPolicy.TINY_LFU.name())));
+	}
+
+	/**
+	 * Looks up an id.
+	 *
+	 * @param id task id
+	 * @return the cached entry (possibly negative), or null on a miss
+	 */
+	public synchronized Entry lookup(int id) {
+		if (sketch != null) {
+			sketch.increment(id);
+		}
+		Entry e = entries.get(id);
+		if (e != null && clock.getAsLong() - e.expiresAt() > 0) {
+			entries.remove(id);
+			expirations++;
+			e = null;
+		}
+		if (e == null) {
+			misses++;
+		} else if (e.isNegative()) {
+			negativeHits++;
+		} else {
+			hits++;
+		}
+		return e;
+	}
+
+	/**
+	 * Caches the result of a delegate lookup.
+	 *
+	 * @param id task id
+	 * @param task the task, or null to cache "not found"
+	 */
+	public synchronized void put(int id, ITask task) {
+		if (task == null && negativeTtlNanos <= 0) {
+			return;
+		}
+		Entry entry = new Entry(task, clock.getAsLong() + (task == null ? negativeTtlNanos : ttlNanos));
+		if (entries.containsKey(id) || entries.size() < maxSize) {
+			entries.put(id, entry);
+			return;
+		}
+		Iterator<Map.Entry<Integer, Entry>> it = entries.entrySet().iterator();
+		Map.Entry<Integer, Entry> victim = it.next();
+		if (sketch != null && sketch.frequency(id) <= sketch.frequency(victim.getKey())) {
+			// TinyLFU admission: the candidate is not hotter than the victim, keep the victim
+			evictions++;
+			return;
+		}
+		it.remove();
+		evictions++;
+		entries.put(id, entry);
+	}
+
+	/** Removes the entry for an id (positive or negative). */
+	public synchronized void invalidate(int id) {
+		entries.remove(id);
+	}
+
+	/** Removes all negative entries, e.g. after an insert that may create a previously missing id. */
+	public synchronized void invalidateNegatives() {
+		entries.values().removeIf(Entry::isNegative);
+	}
+
+	/** Removes all entries; statistics are kept. */
+	public synchronized void clear() {
+		entries.clear();
+	}
+
+	/**
+	 * Returns the current statistics.
+	 *
+	 * @return statistics snapshot
+	 */
+	public synchronized CacheStats stats() {
+		return new CacheStats(hits, negativeHits, misses, evictions, expirations, entries.size());
+	}
+
+	/** Returns the eviction policy. */
+	public EvictionPolicy getPolicy() {
+		return policy;
+	}
+
+	/**
+	 * Count-min sketch with four rows of small saturating counters, used by TinyLFU
+	 * to estimate how often an id was requested recently. All counters are halved
+	 * after {@code 10 * maxSize} increments so the estimate follows the workload.
+	 */
+	private static final class FrequencySketch {
+		private static final int ROWS = 4;
+		private static final int MAX_COUNT = 15;
+		private static final int[] SEEDS = {0x9E3779B1, 0x85EBCA77, 0xC2B2AE3D, 0x27D4EB2F};
+		private final byte[][] table;
+		private final int mask;
+		private final int sampleSize;
+		private int additions;
+
+		FrequencySketch(int maxSize) {
+			int width = Integer.highestOneBit(Math.max(16, maxSize * 2 - 1)) << 1;
+			this.table = new byte[ROWS][width];
+			this.mask = width - 1;
+			this.sampleSize = 10 * maxSize;
+		}
+
+		void increment(int key) {
+			for (int r = 0; r < ROWS; r++) {
+				int i = index(key, r);
+				if (table[r][i] < MAX_COUNT) {
+					table[r][i]++;
+				}
+			}
+			if (++additions >= sampleSize) {
+				reset();
+			}
+		}
+
+		int frequency(int key) {
+			int min = MAX_COUNT;
+			for (int r = 0; r < ROWS; r++) {
+				min = Math.min(min, table[r][index(key, r)]);
+			}
+			return min;
+		}
+
+		private int index(int key, int row) {
+			int h = key * SEEDS[row];
+			h ^= h >>> 16;
+			return h & mask;
+		}
+
+		private void reset() {
+			for (byte[] row : table) {
+				for (int i = 0; i < row.length; i++) {
+					row[i] = (byte) (row[i] >> 1);
+				}
+			}
+			additions /= 2;
+		}
+	}
+}
@@ -0,0 +1,71 @@
+package il.ac.hit.tasksmanager.model.dao;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * DurabilityMode selects how hard the Derby store works to keep committed data on a crash,
+ * together with page-cache and log-buffer sizes that suit the profile.
+ * The mode is read from {@code tasks.durability} and applied as Derby system properties
+ * when {@link TasksDAOImpl} boots (before the Derby engine starts). Derby properties that
+ * are already set explicitly (e.g. {@code -Dderby.storage.pageCacheSize=...}) win.
+ * Crash-loss windows:
+ * - {@link #STRICT}: none. Every commit is synced to the transaction log before it returns.
+ * - {@link #GROUP_COMMIT}: none. Commits are still synced, but a larger log buffer lets one
+ *   log flush cover all transactions committing at the same time, so concurrent writers
+ *   share syncs instead of queuing for one each.
+ * - {@link #RELAXED}: unbounded. Derby does not sync the log or data files at all
+ *   ({@code derby.system.durability=test}); after an OS crash or power loss recent commits
+ *   may be lost and the database may be unrecoverable. Only for scratch or bulk-processing
+ *   stores that can be rebuilt. A clean {@link TasksDAOImpl#shutdown()} still writes everything.
+ */
+public enum DurabilityMode {
+	/** Derby defaults: sync on every commit, 1000-page cache, 32 KB log buffer. */
+	STRICT(Map.of()),
+	/** Sync on commit with a 1 MB log buffer and a 4000-page cache for concurrent writers. */
+	GROUP_COMMIT(Map.of(
+		"derby.storage.logBufferSize", "1048576",
+		"derby.storage.pageCacheSize", "4000")),
+	/** No syncs ({@code derby.system.durability=test}), 1 MB log buffer, 4000-page cache. */
+	RELAXED(Map.of(
+		"derby.system.durability", "test",
+		"derby.storage.logBufferSize", "1048576",
+		"derby.storage.pageCacheSize", "4000"));
+
+	private final Map<String, String> derbyProperties;
+
+	DurabilityMode(Map<String, String> derbyProperties) {
+		this.derbyProperties = derbyProperties;
+	}
+
+	/**
+	 * Returns the mode named by {@code tasks.durability} (case-insensitive; default STRICT).
+	 *
+	 * @return configured mode
+	 * @throws IllegalArgumentException for an unknown mode name
+	 */
+	public static DurabilityMode fromSystemProperties() {
+		String name = System.getProperty("tasks.durability", STRICT.name());
+		return valueOf(name.trim().toUpperCase(Locale.ROOT).replace('-', '_'));
+	}
+
+	/** Returns the Derby properties this mode sets. */
+	public Map<String, String> derbyProperties() {
+		return derbyProperties;
+	}
+
+	/**
+	 * Sets this mode's Derby properties in {@code target}, keeping values already present.
+	 * Must run before the Derby engine boots to take effect.
+	 *
+	 * @param target property set, normally {@link System#getProperties()}
+	 */
+	public void apply(Properties target) {
+		for (Map.Entry<String, String> e : derbyProperties.entrySet()) {
+			if (target.getProperty(e.getKey()) == null) {
+				target.setProperty(e.getKey(), e.getValue());
+			}
+		}
+	}
+}
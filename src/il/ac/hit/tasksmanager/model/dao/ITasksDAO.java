@@ -1,12 +1,27 @@
 package il.ac.hit.tasksmanager.model.dao;
 
+import il.ac.hit.tasksmanager.model.Task;
 import il.ac.hit.tasksmanager.model.entities.ITask;
+import il.ac.hit.tasksmanager.model.entities.state.TaskStates;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
 
 /**
  * ITasksDAO defines CRUD operations for tasks persisted in Derby.
  * Matches the lecturer's required interface signatures.
  */
 public interface ITasksDAO {
+    /** Longest title, in characters, the TASKS table stores. */
+    int MAX_TITLE_LENGTH = 255;
+
+    /** Longest description, in characters, the TASKS table stores. */
+    int MAX_DESCRIPTION_LENGTH = 1024;
 
     /**
      * Returns all tasks sorted by ID.
@@ -16,6 +31,19 @@ public interface ITasksDAO {
      */
     ITask[] getTasks() throws TasksDAOException;
 
+    /**
+     * Returns the tasks matching a filter, sorted by ID.
+     * The default implementation filters {@link #getTasks()}; storage split across
+     * several databases can evaluate the filter next to each part.
+     *
+     * @param filter condition a task must satisfy
+     * @return array of matching tasks
+     * @throws TasksDAOException if a database access error occurs
+     */
+    default ITask[] getTasks(Predicate<? super ITask> filter) throws TasksDAOException {
+        return Arrays.stream(getTasks()).filter(filter).toArray(ITask[]::new);
+    }
+
     /**
      * Returns a single task by ID or null if not found.
      *
@@ -33,6 +61,20 @@ public interface ITasksDAO {
      */
     void addTask(ITask task) throws TasksDAOException;
 
+    /**
+     * Adds a new task and returns it as stored, with the id the DAO assigned to it.
+     * The default implementation adds the task and returns null, because it cannot tell
+     * which id was assigned; DAOs that assign ids override it.
+     *
+     * @param task the task to add (its id is ignored)
+     * @return the stored task, or null when the assigned id is unknown
+     * @throws TasksDAOException if a database access error occurs
+     */
+    default ITask addAndGetTask(ITask task) throws TasksDAOException {
+        addTask(task);
+        return null;
+    }
+
     /**
      * Updates an existing task.
      *
@@ -55,4 +97,97 @@ public interface ITasksDAO {
      * @throws TasksDAOException if a database access error occurs
      */
     void deleteTasks() throws TasksDAOException;
+
+    /**
+     * Passes every task to {@code action} in ID order, one at a time.
+     * Implementations stream from a forward-only cursor so memory use does not grow with
+     * the number of tasks; the default implementation iterates {@link #getTasks()}.
+     * Unchecked exceptions thrown by {@code action} stop the iteration and are rethrown.
+     *
+     * @param action receives each task
+     * @throws TasksDAOException if a database access error occurs
+     */
+    default void forEachTask(Consumer<? super ITask> action) throws TasksDAOException {
+        for (ITask task : getTasks()) {
+            action.accept(task);
+        }
+    }
+
+    /**
+     * Inserts or replaces a batch of tasks, in one transaction where the storage supports it.
+     * A task with a positive id replaces the task with that id, or is inserted under that id;
+     * a task with id 0 is added under a new id.
+     * The default implementation writes task by task and cannot keep the id of a task that
+     * does not exist yet (it is added under a new id).
+     *
+     * @param tasks tasks to write
+     * @return number of tasks written
+     * @throws TasksDAOException if a database access error occurs
+     */
+    default int upsertTasks(List<? extends ITask> tasks) throws TasksDAOException {
+        for (ITask task : tasks) {
+            if (task.getId() > 0 && getTask(task.getId()) != null) {
+                updateTask(task);
+            } else {
+                addTask(task);
+            }
+        }
+        return tasks.size();
+    }
+
+    /**
+     * Returns the open (not COMPLETED) tasks due before a day, sorted by ID
+     * ({@code ... WHERE DUEDATE < ? AND STATE <> 'COMPLETED'}, an index range scan on Derby).
+     * The default implementation filters {@link #getTasks(Predicate)}.
+     *
+     * @param day exclusive upper bound of the due date
+     * @return open tasks due before {@code day}
+     * @throws TasksDAOException if a database access error occurs
+     */
+    default ITask[] getOpenTasksDueBefore(LocalDate day) throws TasksDAOException {
+        String completed = TaskStates.COMPLETED.name();
+        return getTasks(task -> task instanceof Task t && t.dueDate() != null && t.dueDate().isBefore(day)
+            && !completed.equals(task.getState().name()));
+    }
+
+    /**
+     * Counts the tasks in each state ({@code SELECT STATE, COUNT(*) ... GROUP BY STATE}).
+     * The default implementation counts {@link #forEachTask} in memory.
+     *
+     * @return state name to number of tasks
+     * @throws TasksDAOException if a database access error occurs
+     */
+    default Map<String, Integer> countTasksByState() throws TasksDAOException {
+        Map<String, Integer> counts = new TreeMap<>();
+        forEachTask(task -> counts.merge(task.getState().name(), 1, Integer::sum));
+        return counts;
+    }
+
+    /**
+     * Counts the open (not COMPLETED) tasks per due date, skipping tasks without one
+     * ({@code SELECT DUEDATE, COUNT(*) ... GROUP BY DUEDATE}).
+     * The default implementation counts {@link #forEachTask} in memory.
+     *
+     * @return due date to number of open tasks, in date order
+     * @throws TasksDAOException if a database access error occurs
+     */
+    default Map<LocalDate, Integer> countOpenTasksByDueDate() throws TasksDAOException {
+        Map<LocalDate, Integer> counts = new TreeMap<>();
+        String completed = TaskStates.COMPLETED.name();
+        forEachTask(task -> {
+            if (task instanceof Task t && t.dueDate() != null && !completed.equals(task.getState().name())) {
+                counts.merge(t.dueDate(), 1, Integer::sum);
+            }
+        });
+        return counts;
+    }
+
+    /**
+     * Releases the underlying storage cleanly (e.g. checkpoint and stop the database).
+     * The default implementation does nothing.
+     *
+     * @throws TasksDAOException if the storage cannot be shut down cleanly
+     */
+    default void shutdown() throws TasksDAOException {
+    }
 }
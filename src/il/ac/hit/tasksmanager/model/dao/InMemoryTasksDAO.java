@@ -0,0 +1,234 @@
+package il.ac.hit.tasksmanager.model.dao;
+
+import il.ac.hit.tasksmanager.model.entities.ITask;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * InMemoryTasksDAO runs the Derby DAO on an in-memory database ({@code jdbc:derby:memory:})
+ * and keeps an on-disk copy up to date with periodic checkpoints (Singleton).
+ * - Boot: the on-disk database is bulk-copied into memory with Derby's {@code createFrom}
+ *   attribute (a file copy, no row-by-row load); without one an empty database is created.
+ * - Checkpoints: {@code SYSCS_BACKUP_DATABASE} writes a transactionally consistent copy
+ *   while reads and writes continue; the copy then replaces the on-disk database by
+ *   directory renames, so a crash leaves either the old or the new copy in place.
+ *   Checkpoints run on a background thread every {@code tasks.memory.checkpointSeconds}
+ *   (default 30) when something changed, and once more at {@link #shutdown()}.
+ * - Crash-loss window: writes since the last completed checkpoint.
+ * The on-disk location is {@code tasks.memory.disk} (default {@code tasksdb}, the same
+ * database the Derby backend uses). It must not be open in another Derby backend at the same time.
+ */
+public final class InMemoryTasksDAO extends TasksDAOImpl {
+	private static final String MEMORY_NAME = "tasksmem";
+	private static final String BACKUP_SQL = "CALL SYSCS_UTIL.SYSCS_BACKUP_DATABASE(?)";
+	private static InMemoryTasksDAO instance;
+	private final String memoryName;
+	private final Path diskDatabase;
+	private final ScheduledExecutorService checkpointer;
+	private final AtomicLong writes = new AtomicLong();
+	private final Object checkpointLock = new Object();
+	private long checkpointedWrites;
+	private volatile boolean closed;
+
+	/**
+	 * Creates the DAO, loading {@code diskDatabase} into the in-memory database {@code memoryName}.
+	 *
+	 * @param memoryName name of the in-memory database
+	 * @param diskDatabase on-disk database directory to load from and checkpoint to
+	 * @param checkpointMillis checkpoint interval (0 checkpoints only on demand and at shutdown)
+	 * @throws TasksDAOException when loading or schema initialization fails
+	 */
+	InMemoryTasksDAO(String memoryName, Path diskDatabase, long checkpointMillis) throws TasksDAOException {
+		super(load(memoryName, diskDatabase), null);
+		this.memoryName = memoryName;
+		this.diskDatabase = diskDatabase;
+		this.checkpointer = Executors.newSingleThreadScheduledExecutor(r -> {
+			Thread t = new Thread(r, "tasks-memory-checkpoint");
+			t.setDaemon(true);
+			return t;
+		});
+		if (checkpointMillis > 0) {
+			checkpointer.scheduleWithFixedDelay(this::scheduledCheckpoint, checkpointMillis, checkpointMillis, TimeUnit.MILLISECONDS);
+		}
+	}
+
+	/**
+	 * Returns the singleton instance configured from the {@code tasks.memory.*} system properties.
+	 *
+	 * @return singleton instance
+	 * @throws TasksDAOException when initialization fails
+	 */
+	public static synchronized InMemoryTasksDAO getInstance() throws TasksDAOException {
+		if (instance == null) {
+			instance = new InMemoryTasksDAO(MEMORY_NAME,
+				Path.of(System.getProperty("tasks.memory.disk", "tasksdb")),
+				TimeUnit.SECONDS.toMillis(Long.getLong("tasks.memory.checkpointSeconds", 30L)));
+		}
+		return instance;
+	}
+
+	/**
+	 * Creates the in-memory database from the on-disk copy (or empty) and returns its URL.
+	 */
+	private static String load(String memoryName, Path disk) throws TasksDAOException {
+		try {
+			Class.forName("org.apache.derby.jdbc.EmbeddedDriver");
+		} catch (ClassNotFoundException e) {
+			throw new TasksDAOException("Derby EmbeddedDriver not found in classpath", e);
+		}
+		String url = "jdbc:derby:memory:" + memoryName;
+		long start = System.nanoTime();
+		try {
+			finishInterruptedSwap(disk);
+			boolean fromDisk = Files.isDirectory(disk);
+			String attributes = fromDisk ? ";createFrom=" + disk.toAbsolutePath() : ";create=true";
+			DriverManager.getConnection(url + attributes).close();
+			System.err.println((fromDisk ? "Loaded " + disk + " into memory" : "Created empty in-memory database")
+				+ " in " + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) + " ms");
+			return url;
+		} catch (SQLException | IOException e) {
+			throw new TasksDAOException("Failed to load in-memory database from " + disk, e);
+		}
+	}
+
+	/** Restores the previous on-disk copy if a checkpoint was interrupted between its two renames. */
+	private static void finishInterruptedSwap(Path disk) throws IOException {
+		Path old = sibling(disk, ".old");
+		if (!Files.exists(disk) && Files.isDirectory(old)) {
+			Files.move(old, disk);
+		}
+	}
+
+	@Override
+	public ITask addAndGetTask(ITask task) throws TasksDAOException {
+		ITask stored = super.addAndGetTask(task);
+		writes.incrementAndGet();
+		return stored;
+	}
+
+	@Override
+	public void updateTask(ITask task) throws TasksDAOException {
+		super.updateTask(task);
+		writes.incrementAndGet();
+	}
+
+	@Override
+	public void deleteTask(int id) throws TasksDAOException {
+		super.deleteTask(id);
+		writes.incrementAndGet();
+	}
+
+	@Override
+	public int upsertTasks(List<? extends ITask> tasks) throws TasksDAOException {
+		int written = super.upsertTasks(tasks);
+		writes.incrementAndGet();
+		return written;
+	}
+
+	@Override
+	public void deleteTasks() throws TasksDAOException {
+		super.deleteTasks();
+		writes.incrementAndGet();
+	}
+
+	/**
+	 * Writes a consistent copy of the in-memory database to disk if anything changed
+	 * since the last checkpoint. Reads and writes continue while the backup runs.
+	 *
+	 * @return true if a checkpoint was written
+	 * @throws TasksDAOException when the backup or the directory swap fails
+	 */
+	public boolean checkpoint() throws TasksDAOException {
+		synchronized (checkpointLock) {
+			long seen = writes.get();
+			if (seen == checkpointedWrites && Files.isDirectory(diskDatabase)) {
+				return false;
+			}
+			long start = System.nanoTime();
+			Path staging = sibling(diskDatabase, ".checkpoint");
+			Path old = sibling(diskDatabase, ".old");
+			try {
+				deleteRecursively(staging);
+				try (Connection conn = getConnection(); PreparedStatement ps = conn.prepareStatement(BACKUP_SQL); StatementProbe probe = probe(conn, "CALL", BACKUP_SQL)) {
+					probe.bind(ps, staging.toAbsolutePath().toString());
+					ps.execute();
+				}
+				// backup wrote staging/<memoryName>; swap it in with two renames
+				deleteRecursively(old);
+				if (Files.exists(diskDatabase)) {
+					Files.move(diskDatabase, old);
+				}
+				Files.move(staging.resolve(memoryName), diskDatabase);
+				deleteRecursively(old);
+				deleteRecursively(staging);
+			} catch (SQLException | IOException e) {
+				throw new TasksDAOException("Failed to checkpoint in-memory database to " + diskDatabase, e);
+			}
+			checkpointedWrites = seen;
+			System.err.println("Checkpointed in-memory database to " + diskDatabase + " in "
+				+ TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) + " ms");
+			return true;
+		}
+	}
+
+	/** Background checkpoint; failures are logged and retried at the next interval. */
+	private void scheduledCheckpoint() {
+		try {
+			checkpoint();
+		} catch (TasksDAOException e) {
+			System.err.println(e.getMessage() + ": " + e.getCause());
+		}
+	}
+
+	/**
+	 * Stops the checkpoint schedule, writes a final checkpoint and drops the in-memory database.
+	 * The DAO cannot be used afterwards. Calling it twice is harmless.
+	 *
+	 * @throws TasksDAOException when the final checkpoint fails (the in-memory data is kept)
+	 */
+	@Override
+	public synchronized void shutdown() throws TasksDAOException {
+		if (closed) {
+			return;
+		}
+		checkpointer.shutdownNow();
+		checkpoint();
+		try {
+			DriverManager.getConnection(baseUrl() + ";drop=true").close();
+		} catch (SQLException e) {
+			// Derby reports a successful drop as SQLState 08006
+			if (!"08006".equals(e.getSQLState())) {
+				throw new TasksDAOException("Failed to drop in-memory database", e);
+			}
+		}
+		closed = true;
+	}
+
+	private static Path sibling(Path path, String suffix) {
+		return path.resolveSibling(path.getFileName() + suffix);
+	}
+
+	private static void deleteRecursively(Path dir) throws IOException {
+		if (!Files.exists(dir)) {
+			return;
+		}
+		try (Stream<Path> paths = Files.walk(dir)) {
+			for (Path p : paths.sorted(Comparator.reverseOrder()).toList()) {
+				Files.delete(p);
+			}
+		}
+	}
+}
@@ -0,0 +1,67 @@
+package il.ac.hit.tasksmanager.model.dao;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Properties;
+
+/**
+ * LifecycleRecord persists how the database was last stopped and how long the last boot took,
+ * so the cost of a restart after an unclean exit (crash recovery and log replay) is visible.
+ * A boot marks the record "running"; a clean {@link TasksDAOImpl#shutdown()} marks it "clean".
+ * If the process dies in between, the next boot finds it still "running".
+ *
+ * @param cleanShutdown whether the previous run ended with a clean shutdown
+ * @param shutdownAt time of the last clean shutdown, or null
+ * @param bootMillis duration of the last boot in milliseconds (-1 if unknown)
+ */
+record LifecycleRecord(boolean cleanShutdown, Instant shutdownAt, long bootMillis) {
+	/** Record used when no file exists yet (first run). */
+	static final LifecycleRecord NONE = new LifecycleRecord(true, null, -1);
+
+	/**
+	 * Reads the record; a missing or unreadable file yields {@link #NONE}.
+	 *
+	 * @param file record file
+	 * @return stored record
+	 */
+	static LifecycleRecord read(Path file) {
+		Properties p = new Properties();
+		try (InputStream in = Files.newInputStream(file)) {
+			p.load(in);
+			String at = p.getProperty("shutdownAt");
+			return new LifecycleRecord(
+				Boolean.parseBoolean(p.getProperty("cleanShutdown", "false")),
+				at == null ? null : Instant.parse(at),
+				Long.parseLong(p.getProperty("bootMillis", "-1")));
+		} catch (NoSuchFileException e) {
+			return NONE;
+		} catch (IOException | RuntimeException e) {
+			System.err.println("Ignoring lifecycle record " + file + ": " + e.getMessage());
+			return NONE;
+		}
+	}
+
+	/**
+	 * Writes the record, logging (not throwing) on failure since it is informational only.
+	 *
+	 * @param file record file
+	 */
+	void write(Path file) {
+		Properties p = new Properties();
+		p.setProperty("cleanShutdown", Boolean.toString(cleanShutdown));
+		if (shutdownAt != null) {
+			p.setProperty("shutdownAt", shutdownAt.toString());
+		}
+		p.setProperty("bootMillis", Long.toString(bootMillis));
+		try (OutputStream out = Files.newOutputStream(file)) {
+			p.store(out, "Tasks database lifecycle");
+		} catch (IOException e) {
+			System.err.println("Failed to write lifecycle record " + file + ": " + e.getMessage());
+		}
+	}
+}
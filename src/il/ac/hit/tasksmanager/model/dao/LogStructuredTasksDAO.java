@@ -0,0 +1,741 @@
+package il.ac.hit.tasksmanager.model.dao;
+
+import il.ac.hit.tasksmanager.model.BasicTask;
+import il.ac.hit.tasksmanager.model.RecurringTask;
+import il.ac.hit.tasksmanager.model.Task;
+import il.ac.hit.tasksmanager.model.entities.ITask;
+import il.ac.hit.tasksmanager.model.entities.state.TaskState;
+import il.ac.hit.tasksmanager.model.entities.state.TaskStates;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.zip.CRC32C;
+
+/**
+ * LogStructuredTasksDAO is an append-only storage engine for write-heavy deployments (Singleton).
+ * - Writes: every mutation is appended as a checksummed record (put, delete or reset) to the
+ *   active segment file through a {@link FileChannel}; segments roll over at a size limit.
+ * - Index: an in-memory hash map from task id to the position of its latest put record.
+ * - Reads: records are read with positional {@link FileChannel} reads. Segments are not
+ *   memory-mapped, so sealed segments can be replaced and deleted on every platform.
+ * - Recovery: on open the segments are replayed in order; a torn record at the end of the
+ *   newest segment (crash mid-append) is cut off.
+ * - Compaction: a background thread rewrites the live records of all sealed segments into one
+ *   segment that starts with a reset record, then deletes the old ones. Because of the reset
+ *   record, a crash before the old segments are deleted still replays to the same state.
+ * - Durability: records are forced to disk by a background flush every second (crash-loss
+ *   window of about one second), or after every write when {@code tasks.log.syncEachWrite=true}.
+ * Configuration: {@code tasks.log.dir} (default {@code taskslog}), {@code tasks.log.segmentBytes}
+ * (default 64 MB), {@code tasks.log.compactSeconds} (default 30), {@code tasks.log.compactMinSegments}
+ * (default 4), {@code tasks.log.syncEachWrite} (default false).
+ */
+public final class LogStructuredTasksDAO implements ITasksDAO {
+	private static final byte PUT = 1;
+	private static final byte DELETE = 2;
+	private static final byte RESET = 3;
+	/** Record header: payload length and CRC32C of the payload. */
+	private static final int HEADER_BYTES = 8;
+	private static final int MAX_RECORD_BYTES = 1 << 20;
+	private static final int NO_DUE_DATE = Integer.MIN_VALUE;
+	private static final int OFFSET_BITS = 40;
+	private static final String SEGMENT_PREFIX = "segment-";
+	private static final String SEGMENT_SUFFIX = ".log";
+	private static final String COMPACT_SUFFIX = ".compact";
+	private static LogStructuredTasksDAO instance;
+
+	private final Path dir;
+	private final long segmentBytes;
+	private final boolean syncEachWrite;
+	private final int compactMinSegments;
+	private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+	private final ReentrantLock compactLock = new ReentrantLock();
+	private final TreeMap<Long, Segment> segments = new TreeMap<>();
+	/** Task id → packed (segment number, offset) of its latest put record. */
+	private final Map<Integer, Long> index = new HashMap<>();
+	private final ScheduledExecutorService background;
+	private ByteBuffer writeBuffer = ByteBuffer.allocateDirect(4096);
+	private Segment active;
+	private int maxId;
+	private boolean dirty;
+	private volatile boolean closed;
+
+	/**
+	 * Opens (or creates) the store in {@code dir} and replays its segments.
+	 *
+	 * @param dir directory holding the segment files
+	 * @param segmentBytes size after which the active segment is sealed
+	 * @param compactMillis compaction check interval (0 compacts only via {@link #compact()})
+	 * @param compactMinSegments number of sealed segments that triggers a background compaction
+	 * @param syncEachWrite force every record to disk before the write returns
+	 * @throws TasksDAOException when the directory or a segment cannot be read
+	 */
+	LogStructuredTasksDAO(Path dir, long segmentBytes, long compactMillis, int compactMinSegments, boolean syncEachWrite) throws TasksDAOException {
+		this.dir = dir;
+		this.segmentBytes = segmentBytes;
+		this.syncEachWrite = syncEachWrite;
+		this.compactMinSegments = Math.max(1, compactMinSegments);
+		long start = System.nanoTime();
+		try {
+			Files.createDirectories(dir);
+			open();
+		} catch (IOException e) {
+			throw new TasksDAOException("Failed to open task log in " + dir, e);
+		}
+		System.err.println("Opened task log " + dir + " (" + segments.size() + " segments, " + index.size() + " tasks) in "
+			+ TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) + " ms");
+		background = Executors.newSingleThreadScheduledExecutor(r -> {
+			Thread t = new Thread(r, "tasks-log");
+			t.setDaemon(true);
+			return t;
+		});
+		if (!syncEachWrite) {
+			background.scheduleWithFixedDelay(this::flush, 1, 1, TimeUnit.SECONDS);
+		}
+		if (compactMillis > 0) {
+			background.scheduleWithFixedDelay(this::compactIfNeeded, compactMillis, compactMillis, TimeUnit.MILLISECONDS);
+		}
+	}
+
+	/**
+	 * Returns the singleton instance configured from the {@code tasks.log.*} system properties.
+	 *
+	 * @return singleton instance
+	 * @throws TasksDAOException when the store cannot be opened
+	 */
+	public static synchronized LogStructuredTasksDAO getInstance() throws TasksDAOException {
+		if (instance == null) {
+			instance = new LogStructuredTasksDAO(
+				Path.of(System.getProperty("tasks.log.dir", "taskslog")),
+				Long.getLong("tasks.log.segmentBytes", 64L * 1024 * 1024),
+				TimeUnit.SECONDS.toMillis(Long.getLong("tasks.log.compactSeconds", 30L)),
+				Integer.getInteger("tasks.log.compactMinSegments", 4),
+				Boolean.getBoolean("tasks.log.syncEachWrite"));
+		}
+		return instance;
+	}
+
+	@Override
+	public ITask[] getTasks() throws TasksDAOException {
+		lock.readLock().lock();
+		try {
+			checkOpen();
+			int[] ids = new int[index.size()];
+			int n = 0;
+			for (Integer id : index.keySet()) {
+				ids[n++] = id;
+			}
+			Arrays.sort(ids);
+			ITask[] tasks = new ITask[n];
+			for (int i = 0; i < n; i++) {
+				tasks[i] = read(index.get(ids[i]));
+			}
+			return tasks;
+		} catch (IOException e) {
+			throw new TasksDAOException("Failed to fetch tasks", e);
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Streams the tasks in id order, decoding one record at a time. The id list is taken up
+	 * front; each record is read under a short read lock, so writers are not blocked for the
+	 * whole iteration (tasks deleted meanwhile are skipped).
+	 *
+	 * @param action receives each task
+	 * @throws TasksDAOException when a record cannot be read
+	 */
+	@Override
+	public void forEachTask(Consumer<? super ITask> action) throws TasksDAOException {
+		int[] ids;
+		lock.readLock().lock();
+		try {
+			checkOpen();
+			ids = new int[index.size()];
+			int n = 0;
+			for (Integer id : index.keySet()) {
+				ids[n++] = id;
+			}
+		} finally {
+			lock.readLock().unlock();
+		}
+		Arrays.sort(ids);
+		for (int id : ids) {
+			ITask task = getTask(id);
+			if (task != null) {
+				action.accept(task);
+			}
+		}
+	}
+
+	@Override
+	public ITask getTask(int id) throws TasksDAOException {
+		if (id <= 0) { throw new TasksDAOException("id must be positive"); }
+		lock.readLock().lock();
+		try {
+			checkOpen();
+			Long location = index.get(id);
+			return location == null ? null : read(location);
+		} catch (IOException e) {
+			throw new TasksDAOException("Failed to get task id=" + id, e);
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	@Override
+	public void addTask(ITask task) throws TasksDAOException {
+		addAndGetTask(task);
+	}
+
+	@Override
+	public ITask addAndGetTask(ITask task) throws TasksDAOException {
+		if (task == null) {
+			throw new TasksDAOException("task must not be null");
+		}
+		lock.writeLock().lock();
+		try {
+			checkOpen();
+			// same id policy as the Derby DAO: MAX(ID) + 1
+			int id = maxId + 1;
+			index.put(id, append(encodePut(id, task)));
+			maxId = id;
+			return TaskRowMapper.withId(task, id);
+		} catch (IOException e) {
+			throw new TasksDAOException("Failed to add task", e);
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	@Override
+	public void updateTask(ITask task) throws TasksDAOException {
+		if (task == null) { throw new TasksDAOException("task must not be null"); }
+		lock.writeLock().lock();
+		try {
+			checkOpen();
+			if (index.containsKey(task.getId())) {
+				index.put(task.getId(), append(encodePut(task.getId(), task)));
+			}
+		} catch (IOException e) {
+			throw new TasksDAOException("Failed to update task id=" + task.getId(), e);
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Appends one put record per task under a single lock hold; tasks with id 0 get new ids.
+	 *
+	 * @param tasks tasks to write
+	 * @return number of tasks written
+	 * @throws TasksDAOException when an append fails (earlier tasks of the batch stay written)
+	 */
+	@Override
+	public int upsertTasks(List<? extends ITask> tasks) throws TasksDAOException {
+		lock.writeLock().lock();
+		try {
+			checkOpen();
+			for (ITask task : tasks) {
+				int id = task.getId() > 0 ? task.getId() : maxId + 1;
+				index.put(id, append(encodePut(id, task)));
+				maxId = Math.max(maxId, id);
+			}
+			return tasks.size();
+		} catch (IOException e) {
+			throw new TasksDAOException("Failed to upsert tasks", e);
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	@Override
+	public void deleteTask(int id) throws TasksDAOException {
+		if (id <= 0) { throw new TasksDAOException("id must be positive"); }
+		lock.writeLock().lock();
+		try {
+			checkOpen();
+			if (index.containsKey(id)) {
+				append(encodeHeaderOnly(DELETE, id));
+				index.remove(id);
+				if (id == maxId) {
+					maxId = maxLiveId();
+				}
+			}
+		} catch (IOException e) {
+			throw new TasksDAOException("Failed to delete task id=" + id, e);
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	@Override
+	public void deleteTasks() throws TasksDAOException {
+		lock.writeLock().lock();
+		try {
+			checkOpen();
+			append(encodeHeaderOnly(RESET, 0));
+			index.clear();
+			maxId = 0;
+		} catch (IOException e) {
+			throw new TasksDAOException("Failed to delete all tasks", e);
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Forces outstanding records to disk and closes the segment files. The DAO cannot be used afterwards.
+	 *
+	 * @throws TasksDAOException when the final flush fails
+	 */
+	@Override
+	public void shutdown() throws TasksDAOException {
+		// no shutdownNow: interrupting a force() would close the active channel
+		background.shutdown();
+		try {
+			if (!background.awaitTermination(30, TimeUnit.SECONDS)) {
+				System.err.println("Task log background work still running at shutdown");
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		compactLock.lock();
+		lock.writeLock().lock();
+		try {
+			if (closed) {
+				return;
+			}
+			closed = true;
+			if (active != null) {
+				active.channel.force(false);
+			}
+			for (Segment s : segments.values()) {
+				s.channel.close();
+			}
+		} catch (IOException e) {
+			throw new TasksDAOException("Failed to close task log", e);
+		} finally {
+			lock.writeLock().unlock();
+			compactLock.unlock();
+		}
+	}
+
+	/**
+	 * Returns the number of segment files currently in use (sealed plus active).
+	 *
+	 * @return segment count
+	 */
+	public int segmentCount() {
+		lock.readLock().lock();
+		try {
+			return segments.size();
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Rewrites the live records of all sealed segments into a single segment and deletes the rest.
+	 *
+	 * @return true if a compaction ran (there were sealed segments)
+	 * @throws TasksDAOException when the rewrite fails (the old segments stay in use)
+	 */
+	public boolean compact() throws TasksDAOException {
+		compactLock.lock();
+		try {
+			List<Segment> sealed;
+			Map<Long, Segment> sources = new HashMap<>();
+			List<long[]> live = new ArrayList<>();
+			lock.readLock().lock();
+			try {
+				checkOpen();
+				sealed = new ArrayList<>(segments.headMap(active.number).values());
+				if (sealed.isEmpty()) {
+					return false;
+				}
+				for (Segment s : sealed) {
+					sources.put(s.number, s);
+				}
+				long activeNumber = active.number;
+				for (Map.Entry<Integer, Long> e : index.entrySet()) {
+					if (segmentOf(e.getValue()) < activeNumber) {
+						live.add(new long[] {e.getKey(), e.getValue(), 0});
+					}
+				}
+			} finally {
+				lock.readLock().unlock();
+			}
+			long start = System.nanoTime();
+			long target = sealed.get(sealed.size() - 1).number;
+			Path tmp = dir.resolve(SEGMENT_PREFIX + target + COMPACT_SUFFIX);
+			/*
+			 * Copy phase, without blocking readers or writers: sealed segments are immutable.
+			 * The output starts with a reset record so that leftovers of older segments are
+			 * superseded even if the process dies before they are deleted.
+			 */
+			try (FileChannel out = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+				// a buffer of its own: the shared write buffer belongs to writers holding the write lock
+				long position = writeFully(out, frame(headerOnly(RESET, 0), ByteBuffer.allocate(HEADER_BYTES + 5)), 0);
+				for (long[] entry : live) {
+					Segment source = sources.get(segmentOf(entry[1]));
+					ByteBuffer record = source.record(offsetOf(entry[1]));
+					entry[2] = position;
+					position = writeFully(out, record, position);
+				}
+				out.force(true);
+			} catch (IOException e) {
+				throw new TasksDAOException("Failed to compact task log", e);
+			}
+			lock.writeLock().lock();
+			try {
+				for (Segment s : sealed) {
+					s.channel.close();
+				}
+				Files.move(tmp, segmentPath(target), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+				for (Segment s : sealed) {
+					segments.remove(s.number);
+					if (s.number != target) {
+						Files.deleteIfExists(s.path);
+					}
+				}
+				segments.put(target, Segment.open(target, segmentPath(target)));
+				for (long[] entry : live) {
+					int id = (int) entry[0];
+					Long current = index.get(id);
+					// only repoint ids that were not rewritten or deleted during the copy
+					if (current != null && current == entry[1]) {
+						index.put(id, pack(target, entry[2]));
+					}
+				}
+			} catch (IOException e) {
+				closed = true;
+				throw new TasksDAOException("Task log compaction failed during swap; reopen the store", e);
+			} finally {
+				lock.writeLock().unlock();
+			}
+			System.err.println("Compacted " + sealed.size() + " task log segments (" + live.size() + " live tasks) in "
+				+ TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) + " ms");
+			return true;
+		} finally {
+			compactLock.unlock();
+		}
+	}
+
+	/** Background compaction once enough sealed segments have accumulated. */
+	private void compactIfNeeded() {
+		try {
+			if (segmentCount() - 1 >= compactMinSegments) {
+				compact();
+			}
+		} catch (TasksDAOException e) {
+			System.err.println(e.getMessage() + ": " + e.getCause());
+		}
+	}
+
+	/** Background flush of records written since the last flush. */
+	private void flush() {
+		lock.writeLock().lock();
+		try {
+			if (dirty && !closed) {
+				active.channel.force(false);
+				dirty = false;
+			}
+		} catch (IOException e) {
+			System.err.println("Failed to flush task log: " + e.getMessage());
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	private void checkOpen() throws TasksDAOException {
+		if (closed) {
+			throw new TasksDAOException("task log is closed");
+		}
+	}
+
+	private int maxLiveId() {
+		int max = 0;
+		for (Integer id : index.keySet()) {
+			max = Math.max(max, id);
+		}
+		return max;
+	}
+
+	/**
+	 * Appends a record to the active segment, rolling over to a new segment when it is full.
+	 *
+	 * @return packed location of the record
+	 */
+	private long append(ByteBuffer record) throws IOException {
+		long offset = active.size;
+		active.size = writeFully(active.channel, record, offset);
+		if (syncEachWrite) {
+			active.channel.force(false);
+		} else {
+			dirty = true;
+		}
+		long location = pack(active.number, offset);
+		if (active.size >= segmentBytes) {
+			active.channel.force(false);
+			long next = active.number + 1;
+			active = Segment.open(next, segmentPath(next));
+			segments.put(next, active);
+		}
+		return location;
+	}
+
+	private static long writeFully(FileChannel channel, ByteBuffer buf, long position) throws IOException {
+		while (buf.hasRemaining()) {
+			position += channel.write(buf, position);
+		}
+		return position;
+	}
+
+	/** Decodes the put record at a packed location. */
+	private ITask read(long location) throws IOException {
+		ByteBuffer payload = segments.get(segmentOf(location)).record(offsetOf(location));
+		payload.position(HEADER_BYTES);
+		return decodePut(payload);
+	}
+
+	// ---- record encoding ----
+
+	private ByteBuffer encodeHeaderOnly(byte type, int id) {
+		return frame(headerOnly(type, id));
+	}
+
+	private static ByteBuffer headerOnly(byte type, int id) {
+		ByteBuffer payload = ByteBuffer.allocate(5);
+		payload.put(type).putInt(id).flip();
+		return payload;
+	}
+
+	private ByteBuffer encodePut(int id, ITask task) throws TasksDAOException {
+		byte[] title = bytes(task.getTitle());
+		byte[] description = bytes(task.getDescription());
+		int due = NO_DUE_DATE;
+		int interval = 0;
+		if (task instanceof Task t) {
+			if (t.dueDate() != null) {
+				due = Math.toIntExact(t.dueDate().toEpochDay());
+			}
+			if (t instanceof RecurringTask r) {
+				interval = r.interval();
+			}
+		}
+		int length = 1 + 4 + 1 + 4 + 4 + 4 + (title == null ? 0 : title.length) + 4 + (description == null ? 0 : description.length);
+		if (length > MAX_RECORD_BYTES) {
+			// replay treats longer records as corrupt, so they must never be written
+			throw new TasksDAOException("Task id=" + id + " needs " + length + " bytes; records are limited to " + MAX_RECORD_BYTES);
+		}
+		ByteBuffer payload = ByteBuffer.allocate(length);
+		payload.put(PUT).putInt(id).put((byte) TaskStates.codeOf(task.getState())).putInt(due).putInt(interval);
+		putString(payload, title);
+		putString(payload, description);
+		payload.flip();
+		return frame(payload);
+	}
+
+	/** Prefixes the payload with its length and checksum, reusing the write buffer (callers hold the write lock). */
+	private ByteBuffer frame(ByteBuffer payload) {
+		int length = payload.remaining();
+		if (writeBuffer.capacity() < HEADER_BYTES + length) {
+			writeBuffer = ByteBuffer.allocateDirect(Integer.highestOneBit(HEADER_BYTES + length) << 1);
+		}
+		return frame(payload, writeBuffer);
+	}
+
+	/** Writes the framed payload into {@code out} and returns it flipped for writing. */
+	private static ByteBuffer frame(ByteBuffer payload, ByteBuffer out) {
+		CRC32C crc = new CRC32C();
+		crc.update(payload.duplicate());
+		out.clear();
+		out.putInt(payload.remaining()).putInt((int) crc.getValue()).put(payload).flip();
+		return out;
+	}
+
+	private static ITask decodePut(ByteBuffer payload) {
+		payload.get(); // record type
+		int id = payload.getInt();
+		TaskState state = TaskStates.ofCode(payload.get());
+		int due = payload.getInt();
+		int interval = payload.getInt();
+		String title = getString(payload);
+		String description = getString(payload);
+		LocalDate dueDate = due == NO_DUE_DATE ? null : LocalDate.ofEpochDay(due);
+		if (interval > 0) {
+			return new RecurringTask(id, title, description, state, dueDate, interval);
+		}
+		return new BasicTask(id, title, description, state, dueDate);
+	}
+
+	private static byte[] bytes(String s) {
+		return s == null ? null : s.getBytes(StandardCharsets.UTF_8);
+	}
+
+	private static void putString(ByteBuffer buf, byte[] s) {
+		if (s == null) {
+			buf.putInt(-1);
+		} else {
+			buf.putInt(s.length).put(s);
+		}
+	}
+
+	private static String getString(ByteBuffer buf) {
+		int length = buf.getInt();
+		if (length < 0) {
+			return null;
+		}
+		byte[] s = new byte[length];
+		buf.get(s);
+		return new String(s, StandardCharsets.UTF_8);
+	}
+
+	// ---- segments and recovery ----
+
+	private static long pack(long segment, long offset) {
+		return (segment << OFFSET_BITS) | offset;
+	}
+
+	private static long segmentOf(long location) {
+		return location >>> OFFSET_BITS;
+	}
+
+	private static long offsetOf(long location) {
+		return location & ((1L << OFFSET_BITS) - 1);
+	}
+
+	private Path segmentPath(long number) {
+		return dir.resolve(SEGMENT_PREFIX + number + SEGMENT_SUFFIX);
+	}
+
+	/** Loads all segments in order, rebuilding the index, and opens the active segment. */
+	private void open() throws IOException {
+		List<Long> numbers = new ArrayList<>();
+		try (DirectoryStream<Path> files = Files.newDirectoryStream(dir, SEGMENT_PREFIX + "*")) {
+			for (Path p : files) {
+				String name = p.getFileName().toString();
+				if (name.endsWith(COMPACT_SUFFIX)) {
+					Files.delete(p); // unfinished compaction
+				} else if (name.endsWith(SEGMENT_SUFFIX)) {
+					numbers.add(Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length())));
+				}
+			}
+		}
+		numbers.sort(null);
+		for (int i = 0; i < numbers.size(); i++) {
+			Segment s = Segment.open(numbers.get(i), segmentPath(numbers.get(i)));
+			segments.put(s.number, s);
+			replay(s, i == numbers.size() - 1);
+		}
+		if (segments.isEmpty()) {
+			segments.put(1L, Segment.open(1, segmentPath(1)));
+		}
+		active = segments.lastEntry().getValue();
+		maxId = maxLiveId();
+	}
+
+	/** Applies the records of a segment to the index; a torn tail of the last segment is truncated. */
+	private void replay(Segment s, boolean last) throws IOException {
+		long offset = 0;
+		while (offset < s.size) {
+			ByteBuffer record = s.validRecord(offset);
+			if (record == null) {
+				if (!last) {
+					throw new IOException("corrupt record in " + s.path + " at offset " + offset);
+				}
+				System.err.println("Truncating torn record at " + s.path + ":" + offset);
+				s.channel.truncate(offset);
+				s.size = offset;
+				break;
+			}
+			byte type = record.get(HEADER_BYTES);
+			int id = record.getInt(HEADER_BYTES + 1);
+			switch (type) {
+				case PUT -> index.put(id, pack(s.number, offset));
+				case DELETE -> index.remove(id);
+				case RESET -> index.clear();
+				default -> throw new IOException("unknown record type " + type + " in " + s.path);
+			}
+			offset += record.limit();
+		}
+	}
+
+	/** A segment file, read with positional reads so that no mapping keeps it open. */
+	private static final class Segment {
+		final long number;
+		final Path path;
+		final FileChannel channel;
+		volatile long size;
+
+		private Segment(long number, Path path, FileChannel channel) throws IOException {
+			this.number = number;
+			this.path = path;
+			this.channel = channel;
+			this.size = channel.size();
+		}
+
+		static Segment open(long number, Path path) throws IOException {
+			return new Segment(number, path, FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE));
+		}
+
+		/** Returns the whole record (header and payload) at an offset. */
+		ByteBuffer record(long offset) throws IOException {
+			return read(offset, HEADER_BYTES + length(offset));
+		}
+
+		/** Returns the record at an offset if it is complete and its checksum matches, otherwise null. */
+		ByteBuffer validRecord(long offset) throws IOException {
+			if (size - offset < HEADER_BYTES) {
+				return null;
+			}
+			int length = length(offset);
+			if (length < 5 || length > MAX_RECORD_BYTES || offset + HEADER_BYTES + length > size) {
+				return null;
+			}
+			ByteBuffer record = read(offset, HEADER_BYTES + length);
+			CRC32C crc = new CRC32C();
+			crc.update(record.slice(HEADER_BYTES, length));
+			return (int) crc.getValue() == record.getInt(4) ? record : null;
+		}
+
+		private int length(long offset) throws IOException {
+			return read(offset, 4).getInt(0);
+		}
+
+		/** Reads {@code count} bytes at {@code offset} into a new buffer positioned at 0. */
+		private ByteBuffer read(long offset, int count) throws IOException {
+			if (offset + count > size) {
+				throw new IOException("record beyond end of " + path);
+			}
+			ByteBuffer buf = ByteBuffer.allocate(count);
+			while (buf.hasRemaining()) {
+				if (channel.read(buf, offset + buf.position()) < 0) {
+					throw new IOException("unexpected end of " + path);
+				}
+			}
+			return buf.flip();
+		}
+	}
+}
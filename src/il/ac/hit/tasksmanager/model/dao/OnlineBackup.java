@@ -0,0 +1,550 @@
+package il.ac.hit.tasksmanager.model.dao;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * OnlineBackup keeps a restorable archive of a running Derby database without stopping it.
+ * - Base backups: {@code SYSCS_BACKUP_DATABASE_AND_ENABLE_LOG_ARCHIVE_MODE} writes a consistent
+ *   copy while transactions continue and switches the database to log archive mode, so the
+ *   transaction log files are kept after checkpoints. A new base is taken every
+ *   {@code tasks.backup.fullEveryHours} (default 24); it also lets Derby delete log files that
+ *   are already archived.
+ * - Incremental archiving: every {@code tasks.backup.archiveSeconds} (default 60) the completed
+ *   log files not archived yet are copied to {@code logs/}, and a snapshot of the log file being
+ *   written goes to {@code tail/}. Copies run on a minimum-priority thread and are paced to
+ *   {@code tasks.backup.maxBytesPerSecond} (default 8 MB/s) so foreground statements keep their
+ *   disk bandwidth. The base backup itself runs inside Derby and is not paced.
+ * - Every step is appended to {@code manifest.log} with its time; {@link #restore} uses it to
+ *   pick the files for a point in time. The restore granularity is one archive interval.
+ * - Pruning: once a log file is archived complete its {@code tail/} snapshots are deleted, so a
+ *   point inside a completed log file restores to the end of the previous one. Only the newest
+ *   {@code tasks.backup.keepBases} (default 2) base backups are kept, together with the log files
+ *   they need; older bases, logs and their manifest lines are removed after each new base.
+ * Enabled for the on-disk Derby backend by {@code tasks.backup.dir}.
+ * Restore (application stopped): {@code java -cp ... il.ac.hit.tasksmanager.model.dao.OnlineBackup
+ * restore <archive dir> <new database dir> [<time: 2026-10-19T09:30 or an ISO instant>]}.
+ */
+public final class OnlineBackup {
+	private static final String BACKUP_SQL = "CALL SYSCS_UTIL.SYSCS_BACKUP_DATABASE_AND_ENABLE_LOG_ARCHIVE_MODE(?, 1)";
+	private static final String DISABLE_ARCHIVE_SQL = "CALL SYSCS_UTIL.SYSCS_DISABLE_LOG_ARCHIVE_MODE(0)";
+	private static final String MANIFEST = "manifest.log";
+	private static final int COPY_CHUNK = 256 * 1024;
+
+	/**
+	 * One manifest line: a base backup, an archived complete log file or a snapshot of the active one.
+	 *
+	 * @param kind "base", "log" or "tail"
+	 * @param at when the step completed
+	 * @param logNumber log file number (for a base: the first log file it needs)
+	 * @param file base directory or tail file name, relative to the archive ("-" for logs)
+	 */
+	record Entry(String kind, Instant at, long logNumber, String file) {
+		String line() {
+			return kind + " " + at.toEpochMilli() + " " + logNumber + " " + file + "\n";
+		}
+
+		static Entry parse(String line) {
+			String[] f = line.trim().split(" ", 4);
+			return new Entry(f[0], Instant.ofEpochMilli(Long.parseLong(f[1])), Long.parseLong(f[2]), f[3]);
+		}
+	}
+
+	private final TasksDAOImpl dao;
+	private final Path database;
+	private final Path archive;
+	private final long maxBytesPerSecond;
+	private final int keepBases;
+	private ScheduledExecutorService scheduler;
+	private long lastTailSize = -1;
+	private long lastTailNumber = -1;
+	private long lastTailModified = -1;
+
+	/**
+	 * Creates a backup for an on-disk Derby DAO.
+	 *
+	 * @param dao DAO of the database to back up
+	 * @param archive archive directory (created if missing)
+	 * @param maxBytesPerSecond pacing of log copies (0 = unpaced)
+	 * @throws TasksDAOException when the DAO runs on an in-memory database
+	 */
+	OnlineBackup(TasksDAOImpl dao, Path archive, long maxBytesPerSecond) throws TasksDAOException {
+		this(dao, archive, maxBytesPerSecond, 2);
+	}
+
+	/**
+	 * Creates a backup for an on-disk Derby DAO that keeps the given number of base backups.
+	 *
+	 * @param dao DAO of the database to back up
+	 * @param archive archive directory (created if missing)
+	 * @param maxBytesPerSecond pacing of log copies (0 = unpaced)
+	 * @param keepBases newest base backups to keep (at least 1)
+	 * @throws TasksDAOException when the DAO runs on an in-memory database
+	 */
+	OnlineBackup(TasksDAOImpl dao, Path archive, long maxBytesPerSecond, int keepBases) throws TasksDAOException {
+		if (keepBases < 1) {
+			throw new TasksDAOException("keepBases must be at least 1");
+		}
+		this.dao = dao;
+		this.database = dao.databaseDirectory();
+		this.archive = archive;
+		this.maxBytesPerSecond = maxBytesPerSecond;
+		this.keepBases = keepBases;
+	}
+
+	/**
+	 * Attaches a scheduled backup to the DAO when {@code tasks.backup.dir} is set.
+	 *
+	 * @param dao on-disk Derby DAO
+	 */
+	static void startIfConfigured(TasksDAOImpl dao) {
+		String dir = System.getProperty("tasks.backup.dir");
+		if (dir == null || dir.isBlank()) {
+			return;
+		}
+		try {
+			OnlineBackup backup = new OnlineBackup(dao, Path.of(dir), Long.getLong("tasks.backup.maxBytesPerSecond", 8L * 1024 * 1024),
+				Integer.getInteger("tasks.backup.keepBases", 2));
+			backup.start(TimeUnit.SECONDS.toMillis(Long.getLong("tasks.backup.archiveSeconds", 60L)),
+				TimeUnit.HOURS.toMillis(Long.getLong("tasks.backup.fullEveryHours", 24L)));
+			dao.attachBackup(backup);
+		} catch (TasksDAOException e) {
+			System.err.println("Online backup disabled: " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Starts the background schedule: a base backup when the last one is older than
+	 * {@code fullEveryMillis} (or missing), otherwise an incremental log archive pass.
+	 *
+	 * @param archiveMillis interval between passes
+	 * @param fullEveryMillis maximum age of the newest base backup
+	 */
+	synchronized void start(long archiveMillis, long fullEveryMillis) {
+		if (scheduler != null) {
+			return;
+		}
+		scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+			Thread t = new Thread(r, "tasks-backup");
+			t.setDaemon(true);
+			t.setPriority(Thread.MIN_PRIORITY);
+			return t;
+		});
+		scheduler.scheduleWithFixedDelay(() -> {
+			try {
+				Entry base = latest("base", Instant.now());
+				if (base == null || base.at().plusMillis(fullEveryMillis).isBefore(Instant.now())) {
+					baseBackup();
+				} else {
+					archiveLogs();
+				}
+			} catch (TasksDAOException e) {
+				System.err.println(e.getMessage() + ": " + e.getCause());
+			}
+		}, 0, archiveMillis, TimeUnit.MILLISECONDS);
+	}
+
+	/** Stops the schedule, waiting for a running pass to finish. */
+	void stop() {
+		ScheduledExecutorService running;
+		synchronized (this) {
+			running = scheduler;
+			scheduler = null;
+		}
+		if (running == null) {
+			return;
+		}
+		// wait outside the monitor: the running pass holds it
+		running.shutdown();
+		try {
+			running.awaitTermination(1, TimeUnit.MINUTES);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * Archives pending log files, then takes a new base backup while the database stays online.
+	 *
+	 * @throws TasksDAOException when the backup fails
+	 */
+	public synchronized void baseBackup() throws TasksDAOException {
+		long start = System.nanoTime();
+		Instant at = Instant.now();
+		// archive first: the backup call deletes log files older than the new base from the database
+		archiveLogs();
+		String name = "base-" + at.toEpochMilli();
+		try (Connection conn = dao.getConnection(); PreparedStatement ps = conn.prepareStatement(BACKUP_SQL); StatementProbe probe = dao.probe(conn, "CALL", BACKUP_SQL)) {
+			probe.bind(ps, archive.resolve(name).toAbsolutePath().toString());
+			ps.execute();
+		} catch (SQLException e) {
+			throw new TasksDAOException("Failed to back up " + database, e);
+		}
+		long firstLog = firstLogNumber(archive.resolve(name).resolve(database.getFileName()).resolve("log"));
+		append(new Entry("base", Instant.now(), firstLog, name));
+		prune();
+		System.err.println("Base backup of " + database + " to " + archive.resolve(name) + " in "
+			+ TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) + " ms");
+	}
+
+	/**
+	 * Copies completed log files that are not archived yet and snapshots the active log file.
+	 * Does nothing before the first base backup (log archive mode is not enabled then).
+	 *
+	 * @return bytes copied
+	 * @throws TasksDAOException when a copy fails
+	 */
+	public synchronized long archiveLogs() throws TasksDAOException {
+		if (latest("base", Instant.now()) == null) {
+			return 0;
+		}
+		long start = System.nanoTime();
+		long copied = 0;
+		boolean completed = false;
+		try {
+			long[] numbers = logNumbers(database.resolve("log"));
+			if (numbers.length == 0) {
+				return 0;
+			}
+			Path logs = Files.createDirectories(archive.resolve("logs"));
+			long active = numbers[numbers.length - 1];
+			for (long n : numbers) {
+				if (n == active || Files.exists(logs.resolve(logFile(n)))) {
+					continue;
+				}
+				copied += copyPaced(database.resolve("log").resolve(logFile(n)), logs.resolve(logFile(n)), start, copied);
+				append(new Entry("log", Instant.now(), n, "-"));
+				completed = true;
+			}
+			Path activeFile = database.resolve("log").resolve(logFile(active));
+			long size = Files.size(activeFile);
+			long modified = Files.getLastModifiedTime(activeFile).toMillis();
+			// snapshot the active file only when it changed since the last pass
+			if (active != lastTailNumber || size != lastTailSize || modified != lastTailModified) {
+				Instant at = Instant.now();
+				String name = "log" + active + "-" + at.toEpochMilli() + ".dat";
+				copied += copyPaced(activeFile, Files.createDirectories(archive.resolve("tail")).resolve(name), start, copied);
+				append(new Entry("tail", at, active, "tail/" + name));
+				lastTailNumber = active;
+				lastTailSize = size;
+				lastTailModified = modified;
+			}
+		} catch (IOException e) {
+			throw new TasksDAOException("Failed to archive transaction log of " + database, e);
+		}
+		if (completed) {
+			prune();
+		}
+		return copied;
+	}
+
+	/**
+	 * Drops tail snapshots of completed log files, and base backups beyond the newest
+	 * {@code keepBases} together with the log files only they need. The manifest is rewritten
+	 * first, so a crash can leave unreferenced files behind but never a line without its file.
+	 *
+	 * @throws TasksDAOException when the manifest cannot be rewritten
+	 */
+	synchronized void prune() throws TasksDAOException {
+		List<Entry> manifest = readManifest(archive);
+		List<Entry> bases = new ArrayList<>();
+		Set<Long> complete = new HashSet<>();
+		for (Entry e : manifest) {
+			if (e.kind().equals("base")) {
+				bases.add(e);
+			} else if (e.kind().equals("log")) {
+				complete.add(e.logNumber());
+			}
+		}
+		bases.sort(Comparator.comparing(Entry::at));
+		List<Entry> oldBases = bases.subList(0, Math.max(0, bases.size() - keepBases));
+		long firstNeeded = oldBases.isEmpty() ? Long.MIN_VALUE : bases.get(oldBases.size()).logNumber();
+		List<Entry> kept = new ArrayList<>();
+		List<Entry> dropped = new ArrayList<>();
+		for (Entry e : manifest) {
+			boolean drop = switch (e.kind()) {
+				case "base" -> oldBases.contains(e);
+				case "log" -> e.logNumber() < firstNeeded;
+				default -> e.logNumber() < firstNeeded || complete.contains(e.logNumber());
+			};
+			(drop ? dropped : kept).add(e);
+		}
+		if (dropped.isEmpty()) {
+			return;
+		}
+		StringBuilder lines = new StringBuilder();
+		for (Entry e : kept) {
+			lines.append(e.line());
+		}
+		try {
+			Path tmp = archive.resolve(MANIFEST + ".tmp");
+			try (FileChannel ch = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+				ch.write(ByteBuffer.wrap(lines.toString().getBytes(StandardCharsets.US_ASCII)));
+				ch.force(false);
+			}
+			Files.move(tmp, archive.resolve(MANIFEST), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} catch (IOException e) {
+			throw new TasksDAOException("Failed to prune backup manifest in " + archive, e);
+		}
+		for (Entry e : dropped) {
+			Path file = switch (e.kind()) {
+				case "log" -> archive.resolve("logs").resolve(logFile(e.logNumber()));
+				default -> archive.resolve(e.file());
+			};
+			try {
+				deleteRecursively(file);
+			} catch (IOException ex) {
+				System.err.println("Failed to delete pruned backup file " + file + ": " + ex.getMessage());
+			}
+		}
+	}
+
+	private static void deleteRecursively(Path path) throws IOException {
+		if (!Files.exists(path)) {
+			return;
+		}
+		try (Stream<Path> files = Files.walk(path)) {
+			for (Path p : files.sorted(Comparator.reverseOrder()).toList()) {
+				Files.delete(p);
+			}
+		}
+	}
+
+	/**
+	 * Copies a file chunk by chunk, sleeping as needed to stay under the byte rate
+	 * (measured over the whole pass), then moves it into place.
+	 */
+	private long copyPaced(Path from, Path to, long passStart, long passBytes) throws IOException {
+		Path tmp = to.resolveSibling(to.getFileName() + ".tmp");
+		long position = 0;
+		try (FileChannel in = FileChannel.open(from, StandardOpenOption.READ);
+			 FileChannel out = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+			long size = in.size();
+			while (position < size) {
+				position += in.transferTo(position, Math.min(COPY_CHUNK, size - position), out);
+				pace(passStart, passBytes + position);
+			}
+			out.force(true);
+		}
+		Files.move(tmp, to, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		return position;
+	}
+
+	private void pace(long passStart, long bytes) throws IOException {
+		if (maxBytesPerSecond <= 0) {
+			return;
+		}
+		long dueNanos = bytes * 1_000_000_000L / maxBytesPerSecond;
+		long aheadNanos = dueNanos - (System.nanoTime() - passStart);
+		if (aheadNanos > 0) {
+			try {
+				TimeUnit.NANOSECONDS.sleep(aheadNanos);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new IOException("Interrupted while archiving", e);
+			}
+		}
+	}
+
+	private void append(Entry entry) throws TasksDAOException {
+		try {
+			Files.createDirectories(archive);
+			try (FileChannel ch = FileChannel.open(archive.resolve(MANIFEST), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+				ch.write(ByteBuffer.wrap(entry.line().getBytes(StandardCharsets.US_ASCII)));
+				ch.force(false);
+			}
+		} catch (IOException e) {
+			throw new TasksDAOException("Failed to update backup manifest in " + archive, e);
+		}
+	}
+
+	private Entry latest(String kind, Instant notAfter) throws TasksDAOException {
+		return latest(readManifest(archive), kind, -1, notAfter);
+	}
+
+	// ---- restore ----
+
+	/**
+	 * Command-line entry point: {@code restore <archive dir> <new database dir> [<time>]}.
+	 *
+	 * @param args command arguments
+	 */
+	public static void main(String[] args) {
+		if (args.length < 3 || args.length > 4 || !args[0].equals("restore")) {
+			System.err.println("usage: OnlineBackup restore <archive dir> <new database dir> [<time, e.g. 2026-10-19T09:30 or 2026-10-19T07:30:00Z>]");
+			System.exit(2);
+		}
+		try {
+			Instant at = args.length == 4 ? parseTime(args[3]) : Instant.now();
+			Instant restored = restore(Path.of(args[1]), Path.of(args[2]), at);
+			System.err.println("Restored " + args[2] + " to its state at " + restored);
+		} catch (TasksDAOException | DateTimeParseException e) {
+			System.err.println("Restore failed: " + e.getMessage());
+			System.exit(1);
+		}
+	}
+
+	static Instant parseTime(String text) {
+		try {
+			return Instant.parse(text);
+		} catch (DateTimeParseException e) {
+			return LocalDateTime.parse(text).atZone(ZoneId.systemDefault()).toInstant();
+		}
+	}
+
+	/**
+	 * Restores the archive into a new database directory as of a point in time: the newest base
+	 * backup taken at or before {@code pointInTime} is rolled forward with the archived log files
+	 * whose contents all precede it. The restored database has log archive mode switched off.
+	 *
+	 * @param archive archive directory
+	 * @param target directory for the restored database (must not exist)
+	 * @param pointInTime time to restore to
+	 * @return time of the newest archived step included, i.e. the state the database now has
+	 * @throws TasksDAOException when no base backup precedes the time, the target exists or roll-forward fails
+	 */
+	public static Instant restore(Path archive, Path target, Instant pointInTime) throws TasksDAOException {
+		if (Files.exists(target)) {
+			throw new TasksDAOException("Restore target " + target + " already exists");
+		}
+		long start = System.nanoTime();
+		List<Entry> manifest = readManifest(archive);
+		Entry base = latest(manifest, "base", -1, pointInTime);
+		if (base == null) {
+			throw new TasksDAOException("No base backup at or before " + pointInTime + " in " + archive);
+		}
+		Instant reached = base.at();
+		Path log = target.toAbsolutePath().resolve("log");
+		Path backup;
+		try {
+			Files.createDirectories(log);
+			try (Stream<Path> dirs = Files.list(archive.resolve(base.file()))) {
+				backup = dirs.filter(Files::isDirectory).findFirst()
+					.orElseThrow(() -> new IOException("empty base backup " + base.file()));
+			}
+			/*
+			 * Complete log files archived before the point in time hold only earlier records.
+			 * The first file that does not qualify is replaced by its newest snapshot taken
+			 * before the point in time, and the roll-forward stops there.
+			 */
+			for (long n = base.logNumber(); ; n++) {
+				Entry complete = latest(manifest, "log", n, pointInTime);
+				if (complete != null) {
+					Files.copy(archive.resolve("logs").resolve(logFile(n)), log.resolve(logFile(n)));
+					reached = max(reached, complete.at());
+					continue;
+				}
+				Entry tail = latest(manifest, "tail", n, pointInTime);
+				if (tail != null) {
+					Files.copy(archive.resolve(tail.file()), log.resolve(logFile(n)));
+					reached = max(reached, tail.at());
+				}
+				break;
+			}
+		} catch (IOException e) {
+			throw new TasksDAOException("Failed to stage log files for restore into " + target, e);
+		}
+		String url = "jdbc:derby:" + target.toAbsolutePath();
+		try (Connection conn = DriverManager.getConnection(url + ";rollForwardRecoveryFrom=" + backup.toAbsolutePath()
+			+ ";logDevice=" + target.toAbsolutePath()); Statement stmt = conn.createStatement()) {
+			stmt.execute(DISABLE_ARCHIVE_SQL);
+		} catch (SQLException e) {
+			throw new TasksDAOException("Roll-forward recovery into " + target + " failed", e);
+		}
+		try {
+			DriverManager.getConnection(url + ";shutdown=true").close();
+		} catch (SQLException e) {
+			if (!"08006".equals(e.getSQLState())) {
+				throw new TasksDAOException("Failed to shut down restored database", e);
+			}
+		}
+		System.err.println("Rolled " + target + " forward from " + base.file() + " to " + reached + " in "
+			+ TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) + " ms");
+		return reached;
+	}
+
+	private static Instant max(Instant a, Instant b) {
+		return a.isAfter(b) ? a : b;
+	}
+
+	/** Returns the newest entry of a kind (and log number, unless -1) at or before a time. */
+	private static Entry latest(List<Entry> manifest, String kind, long logNumber, Instant notAfter) {
+		Entry best = null;
+		for (Entry e : manifest) {
+			if (e.kind().equals(kind) && (logNumber < 0 || e.logNumber() == logNumber) && !e.at().isAfter(notAfter)
+				&& (best == null || !e.at().isBefore(best.at()))) {
+				best = e;
+			}
+		}
+		return best;
+	}
+
+	private static List<Entry> readManifest(Path archive) throws TasksDAOException {
+		Path file = archive.resolve(MANIFEST);
+		List<Entry> entries = new ArrayList<>();
+		if (!Files.exists(file)) {
+			return entries;
+		}
+		try {
+			for (String line : Files.readAllLines(file, StandardCharsets.US_ASCII)) {
+				if (!line.isBlank()) {
+					entries.add(Entry.parse(line));
+				}
+			}
+		} catch (IOException | RuntimeException e) {
+			throw new TasksDAOException("Failed to read backup manifest " + file, e);
+		}
+		return entries;
+	}
+
+	private static String logFile(long n) {
+		return "log" + n + ".dat";
+	}
+
+	/** Returns the numbers of the {@code logN.dat} files in a log directory, ascending. */
+	private static long[] logNumbers(Path logDir) throws IOException {
+		if (!Files.isDirectory(logDir)) {
+			return new long[0];
+		}
+		try (Stream<Path> files = Files.list(logDir)) {
+			return files.map(p -> p.getFileName().toString())
+				.filter(n -> n.matches("log\\d+\\.dat"))
+				.mapToLong(n -> Long.parseLong(n.substring(3, n.length() - 4)))
+				.sorted()
+				.toArray();
+		}
+	}
+
+	private static long firstLogNumber(Path logDir) throws TasksDAOException {
+		try {
+			long[] numbers = logNumbers(logDir);
+			return numbers.length == 0 ? 1 : numbers[0];
+		} catch (IOException e) {
+			throw new TasksDAOException("Failed to inspect backup log directory " + logDir, e);
+		}
+	}
+}
@@ -0,0 +1,155 @@
+package il.ac.hit.tasksmanager.model.dao;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * SchemaMigrations brings the Derby schema up to date with an ordered list of migrations.
+ * The applied version is kept in the SCHEMA_VERSION table, so an up-to-date database
+ * costs a single version query at startup and every migration runs exactly once,
+ * in its own transaction, with its duration logged and stored.
+ * To change the schema, append a migration with the next version number; never edit
+ * or reorder migrations that have already shipped.
+ */
+final class SchemaMigrations {
+	/** A single schema change. */
+	@FunctionalInterface
+	interface Step {
+		void apply(Connection conn, Statement stmt) throws SQLException;
+	}
+
+	/**
+	 * A numbered migration.
+	 *
+	 * @param version schema version reached after applying the step
+	 * @param description short description stored in SCHEMA_VERSION
+	 * @param step the change itself
+	 */
+	record Migration(int version, String description, Step step) {}
+
+	private static final String VERSION_SQL = "SELECT MAX(VERSION) FROM SCHEMA_VERSION";
+	private static final String RECORD_SQL = "INSERT INTO SCHEMA_VERSION (VERSION, DESCRIPTION, APPLIED_AT, DURATION_MS) VALUES (?, ?, ?, ?)";
+
+	/** All migrations in version order. */
+	static final List<Migration> MIGRATIONS = List.of(
+		new Migration(1, "create TASKS", SchemaMigrations::createTasks),
+		new Migration(2, "index TASKS(DUEDATE, STATE)", (conn, stmt) ->
+			stmt.executeUpdate("CREATE INDEX TASKS_DUE_STATE ON TASKS (DUEDATE, STATE)"))
+	);
+
+	private SchemaMigrations() {
+	}
+
+	/** Returns the version of the newest known migration. */
+	static int latestVersion() {
+		return MIGRATIONS.get(MIGRATIONS.size() - 1).version();
+	}
+
+	/**
+	 * Applies all migrations newer than the database's schema version.
+	 *
+	 * @param conn connection in auto-commit mode; restored to auto-commit on return
+	 * @return versions applied by this call (empty when the schema was up to date)
+	 * @throws SQLException when a migration fails (it is rolled back)
+	 */
+	static List<Integer> migrate(Connection conn) throws SQLException {
+		List<Integer> applied = new ArrayList<>();
+		try (Statement stmt = conn.createStatement()) {
+			int current = currentVersion(stmt);
+			if (current >= latestVersion()) {
+				return applied;
+			}
+			conn.setAutoCommit(false);
+			try {
+				for (Migration m : MIGRATIONS) {
+					if (m.version() <= current) {
+						continue;
+					}
+					long start = System.nanoTime();
+					try {
+						m.step().apply(conn, stmt);
+						long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+						try (PreparedStatement ps = conn.prepareStatement(RECORD_SQL)) {
+							ps.setInt(1, m.version());
+							ps.setString(2, m.description());
+							ps.setTimestamp(3, Timestamp.from(Instant.now()));
+							ps.setLong(4, millis);
+							ps.executeUpdate();
+						}
+						conn.commit();
+						applied.add(m.version());
+						System.err.println("Schema migration " + m.version() + " (" + m.description() + ") applied in " + millis + " ms");
+					} catch (SQLException e) {
+						conn.rollback();
+						throw e;
+					}
+				}
+			} finally {
+				conn.setAutoCommit(true);
+			}
+		}
+		return applied;
+	}
+
+	/**
+	 * Returns the current schema version, creating an empty SCHEMA_VERSION table (version 0) if missing.
+	 */
+	private static int currentVersion(Statement stmt) throws SQLException {
+		try (ResultSet rs = stmt.executeQuery(VERSION_SQL)) {
+			rs.next();
+			return rs.getInt(1);
+		} catch (SQLException e) {
+			// table does not exist (42X05) → first run with migrations
+			if (!"42X05".equals(e.getSQLState())) {
+				throw e;
+			}
+		}
+		stmt.executeUpdate("CREATE TABLE SCHEMA_VERSION (" +
+			"VERSION INT PRIMARY KEY, " +
+			"DESCRIPTION VARCHAR(255) NOT NULL, " +
+			"APPLIED_AT TIMESTAMP NOT NULL, " +
+			"DURATION_MS BIGINT NOT NULL)");
+		return 0;
+	}
+
+	/**
+	 * Migration 1: creates TASKS, or completes a TASKS table created by a release
+	 * before migrations (which added DUEDATE and RECURRENCE_DAYS later).
+	 */
+	private static void createTasks(Connection conn, Statement stmt) throws SQLException {
+		DatabaseMetaData meta = conn.getMetaData();
+		if (!exists(meta.getTables(null, null, "TASKS", null))) {
+			stmt.executeUpdate(
+				"CREATE TABLE TASKS (" +
+				"ID INT PRIMARY KEY, " +
+				"TITLE VARCHAR(" + ITasksDAO.MAX_TITLE_LENGTH + ") NOT NULL, " +
+				"DESCRIPTION VARCHAR(" + ITasksDAO.MAX_DESCRIPTION_LENGTH + "), " +
+				"STATE VARCHAR(32) NOT NULL, " +
+				"DUEDATE DATE, " +
+				"RECURRENCE_DAYS INT)"
+			);
+			return;
+		}
+		if (!exists(meta.getColumns(null, null, "TASKS", "DUEDATE"))) {
+			stmt.executeUpdate("ALTER TABLE TASKS ADD COLUMN DUEDATE DATE");
+		}
+		if (!exists(meta.getColumns(null, null, "TASKS", "RECURRENCE_DAYS"))) {
+			stmt.executeUpdate("ALTER TABLE TASKS ADD COLUMN RECURRENCE_DAYS INT");
+		}
+	}
+
+	private static boolean exists(ResultSet rs) throws SQLException {
+		try (rs) {
+			return rs.next();
+		}
+	}
+}
@@ -0,0 +1,119 @@
+package il.ac.hit.tasksmanager.model.dao;
+
+import il.ac.hit.tasksmanager.model.entities.ITask;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * ShardRebalancer moves tasks between the databases of a {@link ShardedTasksDAO} after the
+ * shard count changes. Run it offline (the application must not have the shards open):
+ * {@code java -cp ... il.ac.hit.tasksmanager.model.dao.ShardRebalancer <shards dir> <new count>}.
+ * - Every row whose owning shard changes is inserted into its new shard, then deleted from the
+ *   old one, so a task is never missing; extra shards left after shrinking are removed.
+ * - The target count is recorded before any row moves and the new count only at the end, so an
+ *   interrupted run is finished by running the tool again with the same count (rows already
+ *   copied are not inserted twice). Until then the shards refuse to open.
+ */
+public final class ShardRebalancer {
+	private ShardRebalancer() {
+	}
+
+	/**
+	 * Command-line entry point.
+	 *
+	 * @param args shard directory and new shard count
+	 */
+	public static void main(String[] args) {
+		if (args.length != 2) {
+			System.err.println("usage: ShardRebalancer <shards dir> <new shard count>");
+			System.exit(2);
+		}
+		try {
+			rebalance(Path.of(args[0]), Integer.parseInt(args[1]));
+		} catch (TasksDAOException | NumberFormatException e) {
+			System.err.println("Rebalance failed: " + e.getMessage());
+			System.exit(1);
+		}
+	}
+
+	/**
+	 * Redistributes the tasks in {@code dir} over {@code newCount} shards.
+	 *
+	 * @param dir shard directory
+	 * @param newCount new number of shards
+	 * @return number of tasks moved
+	 * @throws TasksDAOException when a shard cannot be read or written, or another rebalance is unfinished
+	 */
+	public static int rebalance(Path dir, int newCount) throws TasksDAOException {
+		if (newCount < 1) {
+			throw new TasksDAOException("shard count must be positive");
+		}
+		long start = System.nanoTime();
+		Properties meta = ShardedTasksDAO.readMeta(dir);
+		String pending = meta.getProperty(ShardedTasksDAO.TARGET_KEY);
+		if (pending != null && Integer.parseInt(pending) != newCount) {
+			throw new TasksDAOException("An earlier rebalance to " + pending + " shards is unfinished; rerun it with " + pending);
+		}
+		String stored = meta.getProperty(ShardedTasksDAO.COUNT_KEY);
+		int oldCount = stored == null ? newCount : Integer.parseInt(stored);
+		meta.setProperty(ShardedTasksDAO.TARGET_KEY, Integer.toString(newCount));
+		ShardedTasksDAO.writeMeta(dir, meta);
+
+		int span = Math.max(oldCount, newCount);
+		TasksDAOImpl[] shards = new TasksDAOImpl[span];
+		int moved = 0;
+		try {
+			for (int i = 0; i < span; i++) {
+				shards[i] = ShardedTasksDAO.openShard(dir, i);
+			}
+			for (int i = 0; i < span; i++) {
+				for (ITask task : shards[i].getTasks()) {
+					int target = ShardedTasksDAO.shardOf(task.getId(), newCount);
+					if (target == i) {
+						continue;
+					}
+					// copy first, so an interruption leaves the task in both shards rather than none
+					if (shards[target].getTask(task.getId()) == null) {
+						shards[target].insert(task.getId(), task);
+					}
+					shards[i].deleteTask(task.getId());
+					moved++;
+				}
+			}
+		} finally {
+			for (TasksDAOImpl shard : shards) {
+				if (shard != null) {
+					shard.shutdown();
+				}
+			}
+		}
+		for (int i = newCount; i < oldCount; i++) {
+			deleteRecursively(dir.resolve("shard-" + i));
+		}
+		meta.setProperty(ShardedTasksDAO.COUNT_KEY, Integer.toString(newCount));
+		meta.remove(ShardedTasksDAO.TARGET_KEY);
+		ShardedTasksDAO.writeMeta(dir, meta);
+		System.err.println("Rebalanced " + dir + " from " + oldCount + " to " + newCount + " shards, moved " + moved
+			+ " tasks in " + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) + " ms");
+		return moved;
+	}
+
+	private static void deleteRecursively(Path dir) throws TasksDAOException {
+		if (!Files.exists(dir)) {
+			return;
+		}
+		try (Stream<Path> paths = Files.walk(dir)) {
+			for (Path p : paths.sorted(Comparator.reverseOrder()).toList()) {
+				Files.delete(p);
+			}
+		} catch (IOException e) {
+			throw new TasksDAOException("Failed to remove drained shard " + dir, e);
+		}
+	}
+}
@@ -0,0 +1,499 @@
+package il.ac.hit.tasksmanager.model.dao;
+
+import il.ac.hit.tasksmanager.model.entities.ITask;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * ShardedTasksDAO splits tasks across several embedded Derby databases by id hash (Singleton),
+ * so writes to different shards do not queue on one transaction log.
+ * - Point operations ({@link #getTask}, {@link #updateTask}, {@link #deleteTask}) go to the
+ *   single shard owning the id; {@link #addTask} allocates the id globally, then inserts there.
+ * - {@link #getTasks()} and filtered scans run on every shard in parallel (the filter is
+ *   evaluated on the shard threads) and the per-shard results, each sorted by id, are merged.
+ * - The shard count is recorded in {@code shards.properties}; opening with a different count
+ *   fails until {@link ShardRebalancer} has moved the rows.
+ * Configuration: {@code tasks.shards} (default 4) and {@code tasks.shards.dir} (default {@code tasksshards}).
+ */
+public final class ShardedTasksDAO implements ITasksDAO {
+	static final String META_FILE = "shards.properties";
+	static final String COUNT_KEY = "count";
+	static final String TARGET_KEY = "rebalancingTo";
+	/** Tasks buffered per shard while streaming. */
+	static final int STREAM_BUFFER = 1024;
+	private static ShardedTasksDAO instance;
+
+	private final TasksDAOImpl[] shards;
+	private final ExecutorService pool;
+	private final AtomicInteger lastId = new AtomicInteger();
+
+	/**
+	 * Opens {@code shardCount} shard databases under {@code dir}, booting them in parallel.
+	 *
+	 * @param dir directory holding the shard databases and the shard metadata
+	 * @param shardCount number of shards
+	 * @throws TasksDAOException when a shard fails to boot or the count differs from the stored one
+	 */
+	ShardedTasksDAO(Path dir, int shardCount) throws TasksDAOException {
+		if (shardCount < 1) {
+			throw new TasksDAOException("shard count must be positive");
+		}
+		Properties meta = readMeta(dir);
+		if (meta.getProperty(TARGET_KEY) != null) {
+			throw new TasksDAOException("Shards in " + dir + " are being rebalanced to " + meta.getProperty(TARGET_KEY)
+				+ "; finish with ShardRebalancer first");
+		}
+		String stored = meta.getProperty(COUNT_KEY);
+		if (stored != null && Integer.parseInt(stored) != shardCount) {
+			throw new TasksDAOException("Shard count changed from " + stored + " to " + shardCount
+				+ "; run ShardRebalancer " + dir + " " + shardCount);
+		}
+		pool = Executors.newFixedThreadPool(shardCount, new ThreadFactory() {
+			private final AtomicInteger n = new AtomicInteger();
+
+			@Override
+			public Thread newThread(Runnable r) {
+				Thread t = new Thread(r, "tasks-shard-" + n.getAndIncrement());
+				t.setDaemon(true);
+				return t;
+			}
+		});
+		shards = new TasksDAOImpl[shardCount];
+		List<Callable<Integer>> boots = new ArrayList<>();
+		for (int i = 0; i < shardCount; i++) {
+			int shard = i;
+			boots.add(() -> {
+				shards[shard] = openShard(dir, shard);
+				return shards[shard].maxId();
+			});
+		}
+		try {
+			for (int max : fanOut(boots)) {
+				lastId.accumulateAndGet(max, Math::max);
+			}
+		} catch (TasksDAOException e) {
+			pool.shutdownNow();
+			throw e;
+		}
+		if (stored == null) {
+			meta.setProperty(COUNT_KEY, Integer.toString(shardCount));
+			writeMeta(dir, meta);
+		}
+	}
+
+	/**
+	 * Returns the singleton instance configured from {@code tasks.shards} and {@code tasks.shards.dir}.
+	 *
+	 * @return singleton instance
+	 * @throws TasksDAOException when a shard fails to boot or the shard count changed
+	 */
+	public static synchronized ShardedTasksDAO getInstance() throws TasksDAOException {
+		if (instance == null) {
+			instance = new ShardedTasksDAO(Path.of(System.getProperty("tasks.shards.dir", "tasksshards")),
+				Integer.getInteger("tasks.shards", 4));
+		}
+		return instance;
+	}
+
+	/**
+	 * Returns the shard that owns an id. The id is mixed first so that consecutive ids spread evenly.
+	 *
+	 * @param id task id
+	 * @param shardCount number of shards
+	 * @return shard index in {@code [0, shardCount)}
+	 */
+	static int shardOf(int id, int shardCount) {
+		int h = id * 0x9E3779B9;
+		h ^= h >>> 16;
+		return Math.floorMod(h, shardCount);
+	}
+
+	/** Opens (creating if needed) shard {@code index} of the shard set in {@code dir}. */
+	static TasksDAOImpl openShard(Path dir, int index) throws TasksDAOException {
+		return new TasksDAOImpl("jdbc:derby:" + dir.resolve("shard-" + index).toAbsolutePath() + ";create=true", null);
+	}
+
+	/**
+	 * Returns the number of shards.
+	 *
+	 * @return shard count
+	 */
+	public int shardCount() {
+		return shards.length;
+	}
+
+	@Override
+	public ITask[] getTasks() throws TasksDAOException {
+		return getTasks(task -> true);
+	}
+
+	@Override
+	public ITask[] getTasks(Predicate<? super ITask> filter) throws TasksDAOException {
+		List<Callable<ITask[]>> scans = new ArrayList<>(shards.length);
+		for (TasksDAOImpl shard : shards) {
+			scans.add(() -> {
+				ITask[] all = shard.getTasks();
+				List<ITask> matching = new ArrayList<>(all.length);
+				for (ITask t : all) {
+					if (filter.test(t)) {
+						matching.add(t);
+					}
+				}
+				return matching.toArray(new ITask[0]);
+			});
+		}
+		return merge(fanOut(scans));
+	}
+
+	/**
+	 * Streams every shard's cursor on its own thread into a small bounded queue and merges
+	 * the queue heads in id order, so memory stays bounded by the queue sizes.
+	 *
+	 * @param action receives each task
+	 * @throws TasksDAOException when a shard cursor fails
+	 */
+	@Override
+	public void forEachTask(Consumer<? super ITask> action) throws TasksDAOException {
+		int n = shards.length;
+		List<BlockingQueue<Object>> queues = new ArrayList<>(n);
+		Throwable[] failures = new Throwable[n];
+		Object end = new Object();
+		List<Thread> producers = new ArrayList<>(n);
+		for (int i = 0; i < n; i++) {
+			BlockingQueue<Object> queue = new ArrayBlockingQueue<>(STREAM_BUFFER);
+			queues.add(queue);
+			TasksDAOImpl shard = shards[i];
+			int index = i;
+			Thread producer = new Thread(() -> {
+				boolean cancelled = false;
+				try {
+					shard.forEachTask(task -> {
+						try {
+							queue.put(task);
+						} catch (InterruptedException e) {
+							throw new CancellationException();
+						}
+					});
+				} catch (CancellationException e) {
+					cancelled = true;
+				} catch (Throwable e) {
+					// any failure (also from the row mapper or the driver) must still end the stream
+					failures[index] = e;
+				} finally {
+					if (!cancelled) {
+						try {
+							// put, not offer: a full queue must not drop the end marker
+							queue.put(end);
+						} catch (InterruptedException e) {
+							// the consumer stopped reading
+						}
+					}
+				}
+			}, "tasks-shard-stream-" + i);
+			producer.setDaemon(true);
+			producers.add(producer);
+			producer.start();
+		}
+		try {
+			ITask[] heads = new ITask[n];
+			for (int i = 0; i < n; i++) {
+				heads[i] = nextOf(queues.get(i), end);
+			}
+			while (true) {
+				int best = -1;
+				for (int i = 0; i < n; i++) {
+					if (heads[i] != null && (best < 0 || heads[i].getId() < heads[best].getId())) {
+						best = i;
+					}
+				}
+				if (best < 0) {
+					break;
+				}
+				action.accept(heads[best]);
+				heads[best] = nextOf(queues.get(best), end);
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new TasksDAOException("Interrupted while streaming shards", e);
+		} finally {
+			for (Thread producer : producers) {
+				producer.interrupt();
+			}
+		}
+		for (Throwable failure : failures) {
+			if (failure instanceof TasksDAOException e) {
+				throw e;
+			}
+			if (failure != null) {
+				throw new TasksDAOException("Shard stream failed", failure);
+			}
+		}
+	}
+
+	/** Takes the next task from a shard stream, or null at its end (a failed stream also ends). */
+	private static ITask nextOf(BlockingQueue<Object> queue, Object end) throws InterruptedException {
+		Object next = queue.take();
+		return next == end ? null : (ITask) next;
+	}
+
+	@Override
+	public ITask getTask(int id) throws TasksDAOException {
+		if (id <= 0) { throw new TasksDAOException("id must be positive"); }
+		return shardFor(id).getTask(id);
+	}
+
+	@Override
+	public void addTask(ITask task) throws TasksDAOException {
+		addAndGetTask(task);
+	}
+
+	@Override
+	public ITask addAndGetTask(ITask task) throws TasksDAOException {
+		if (task == null) {
+			throw new TasksDAOException("task must not be null");
+		}
+		int id = lastId.incrementAndGet();
+		shardFor(id).insert(id, task);
+		return TaskRowMapper.withId(task, id);
+	}
+
+	@Override
+	public void updateTask(ITask task) throws TasksDAOException {
+		if (task == null) { throw new TasksDAOException("task must not be null"); }
+		shardFor(task.getId()).updateTask(task);
+	}
+
+	/**
+	 * Splits the batch by owning shard and upserts the parts in parallel, one transaction per shard.
+	 * Tasks with id 0 are given new global ids first.
+	 *
+	 * @param tasks tasks to write
+	 * @return number of tasks written
+	 * @throws TasksDAOException when a shard fails (other shards may have committed their part)
+	 */
+	@Override
+	public int upsertTasks(List<? extends ITask> tasks) throws TasksDAOException {
+		List<List<ITask>> parts = new ArrayList<>(shards.length);
+		for (int i = 0; i < shards.length; i++) {
+			parts.add(new ArrayList<>());
+		}
+		for (ITask task : tasks) {
+			lastId.accumulateAndGet(task.getId(), Math::max);
+		}
+		for (ITask task : tasks) {
+			ITask withId = task.getId() > 0 ? task : TaskRowMapper.withId(task, lastId.incrementAndGet());
+			parts.get(shardOf(withId.getId(), shards.length)).add(withId);
+		}
+		List<Callable<Integer>> writes = new ArrayList<>(shards.length);
+		for (int i = 0; i < shards.length; i++) {
+			TasksDAOImpl shard = shards[i];
+			List<ITask> part = parts.get(i);
+			writes.add(() -> shard.upsertTasks(part));
+		}
+		int written = 0;
+		for (int n : fanOut(writes)) {
+			written += n;
+		}
+		return written;
+	}
+
+	@Override
+	public void deleteTask(int id) throws TasksDAOException {
+		if (id <= 0) { throw new TasksDAOException("id must be positive"); }
+		shardFor(id).deleteTask(id);
+	}
+
+	/**
+	 * Runs the index range query on every shard in parallel and merges the results by id.
+	 *
+	 * @param day exclusive upper bound of the due date
+	 * @return open tasks due before {@code day}, sorted by id
+	 * @throws TasksDAOException when a shard fails
+	 */
+	@Override
+	public ITask[] getOpenTasksDueBefore(LocalDate day) throws TasksDAOException {
+		List<Callable<ITask[]>> scans = new ArrayList<>(shards.length);
+		for (TasksDAOImpl shard : shards) {
+			scans.add(() -> shard.getOpenTasksDueBefore(day));
+		}
+		return merge(fanOut(scans));
+	}
+
+	/**
+	 * Runs the GROUP BY on every shard in parallel and adds up the counts.
+	 *
+	 * @return state name to number of tasks
+	 * @throws TasksDAOException when a shard fails
+	 */
+	@Override
+	public Map<String, Integer> countTasksByState() throws TasksDAOException {
+		List<Callable<Map<String, Integer>>> counts = new ArrayList<>(shards.length);
+		for (TasksDAOImpl shard : shards) {
+			counts.add(shard::countTasksByState);
+		}
+		return sum(fanOut(counts));
+	}
+
+	/**
+	 * Runs the GROUP BY on every shard in parallel and adds up the counts.
+	 *
+	 * @return due date to number of open tasks, in date order
+	 * @throws TasksDAOException when a shard fails
+	 */
+	@Override
+	public Map<LocalDate, Integer> countOpenTasksByDueDate() throws TasksDAOException {
+		List<Callable<Map<LocalDate, Integer>>> counts = new ArrayList<>(shards.length);
+		for (TasksDAOImpl shard : shards) {
+			counts.add(shard::countOpenTasksByDueDate);
+		}
+		return sum(fanOut(counts));
+	}
+
+	private static <K> Map<K, Integer> sum(List<Map<K, Integer>> parts) {
+		Map<K, Integer> total = new TreeMap<>();
+		for (Map<K, Integer> part : parts) {
+			part.forEach((k, n) -> total.merge(k, n, Integer::sum));
+		}
+		return total;
+	}
+
+	@Override
+	public void deleteTasks() throws TasksDAOException {
+		List<Callable<Void>> deletes = new ArrayList<>(shards.length);
+		for (TasksDAOImpl shard : shards) {
+			deletes.add(() -> {
+				shard.deleteTasks();
+				return null;
+			});
+		}
+		fanOut(deletes);
+		// same id policy as a single database: numbering restarts on an empty store
+		lastId.set(0);
+	}
+
+	/**
+	 * Checkpoints and stops every shard database in parallel, then stops the shard pool.
+	 *
+	 * @throws TasksDAOException when a shard fails to shut down cleanly
+	 */
+	@Override
+	public void shutdown() throws TasksDAOException {
+		List<Callable<Void>> stops = new ArrayList<>(shards.length);
+		for (TasksDAOImpl shard : shards) {
+			stops.add(() -> {
+				shard.shutdown();
+				return null;
+			});
+		}
+		try {
+			fanOut(stops);
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	private TasksDAOImpl shardFor(int id) {
+		return shards[shardOf(id, shards.length)];
+	}
+
+	/**
+	 * Runs one job per shard on the shard pool and returns their results in shard order.
+	 * The first failure is rethrown after all jobs have finished.
+	 */
+	private <T> List<T> fanOut(List<Callable<T>> jobs) throws TasksDAOException {
+		List<T> results = new ArrayList<>(jobs.size());
+		TasksDAOException failure = null;
+		try {
+			for (Future<T> f : pool.invokeAll(jobs)) {
+				try {
+					results.add(f.get());
+				} catch (ExecutionException e) {
+					if (failure == null) {
+						failure = e.getCause() instanceof TasksDAOException dao ? dao
+							: new TasksDAOException("Shard operation failed", e.getCause());
+					}
+				}
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new TasksDAOException("Interrupted while waiting for shards", e);
+		} catch (RejectedExecutionException e) {
+			throw new TasksDAOException("Sharded DAO is shut down", e);
+		}
+		if (failure != null) {
+			throw failure;
+		}
+		return results;
+	}
+
+	/** Merges per-shard arrays that are each sorted by id into one array sorted by id. */
+	static ITask[] merge(List<ITask[]> parts) {
+		int total = 0;
+		for (ITask[] part : parts) {
+			total += part.length;
+		}
+		ITask[] merged = new ITask[total];
+		int[] cursor = new int[parts.size()];
+		for (int out = 0; out < total; out++) {
+			int best = -1;
+			for (int p = 0; p < cursor.length; p++) {
+				ITask[] part = parts.get(p);
+				if (cursor[p] < part.length && (best < 0 || part[cursor[p]].getId() < parts.get(best)[cursor[best]].getId())) {
+					best = p;
+				}
+			}
+			merged[out] = parts.get(best)[cursor[best]++];
+		}
+		return merged;
+	}
+
+	static Properties readMeta(Path dir) throws TasksDAOException {
+		Properties meta = new Properties();
+		Path file = dir.resolve(META_FILE);
+		if (Files.exists(file)) {
+			try (InputStream in = Files.newInputStream(file)) {
+				meta.load(in);
+			} catch (IOException e) {
+				throw new TasksDAOException("Failed to read " + file, e);
+			}
+		}
+		return meta;
+	}
+
+	static void writeMeta(Path dir, Properties meta) throws TasksDAOException {
+		try {
+			Files.createDirectories(dir);
+			Path tmp = dir.resolve(META_FILE + ".tmp");
+			try (OutputStream out = Files.newOutputStream(tmp)) {
+				meta.store(out, "task shard layout");
+			}
+			Files.move(tmp, dir.resolve(META_FILE), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} catch (IOException e) {
+			throw new TasksDAOException("Failed to write shard metadata in " + dir, e);
+		}
+	}
+}
@@ -0,0 +1,229 @@
+package il.ac.hit.tasksmanager.model.dao;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.FileHandler;
+import java.util.logging.Formatter;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+
+/**
+ * SlowQueryLog keeps the most recent statements that exceeded a configurable threshold.
+ * Entries are held in a fixed-size ring buffer and can optionally be appended to
+ * a rotating file sink. When plan capture is enabled, the Derby runtime statistics
+ * (execution plan) of each slow statement are stored with the entry.
+ * Defaults are read from system properties:
+ * - {@code tasks.slowQuery.thresholdMs} (default 200)
+ * - {@code tasks.slowQuery.capturePlans} (default false)
+ * - {@code tasks.slowQuery.file} (rotating file pattern, disabled when absent)
+ */
+public final class SlowQueryLog {
+	/** Default number of entries kept in memory. */
+	public static final int DEFAULT_CAPACITY = 256;
+	/** Size limit of a single log file before it rotates. */
+	private static final int FILE_LIMIT_BYTES = 1024 * 1024;
+	/** Number of rotated log files kept. */
+	private static final int FILE_COUNT = 5;
+
+	/**
+	 * A single slow statement.
+	 *
+	 * @param at when the statement finished
+	 * @param sql statement text
+	 * @param params bind parameters in order
+	 * @param rowCount rows read or affected
+	 * @param elapsedNanos execution time
+	 * @param plan Derby runtime statistics, or null when not captured
+	 */
+	public record Entry(Instant at, String sql, List<Object> params, int rowCount, long elapsedNanos, String plan) {
+		/** Returns the elapsed time in milliseconds. */
+		public long elapsedMillis() {
+			return TimeUnit.NANOSECONDS.toMillis(elapsedNanos);
+		}
+	}
+
+	private final Entry[] ring;
+	private int next;
+	private int size;
+	private volatile long thresholdNanos;
+	private volatile boolean capturePlans;
+	private FileHandler fileSink;
+	private String sinkPattern;
+
+	/**
+	 * Creates a slow-query log.
+	 *
+	 * @param thresholdMillis statements taking at least this long are recorded
+	 * @param capacity number of entries kept in the ring buffer
+	 */
+	public SlowQueryLog(long thresholdMillis, int capacity) {
+		if (capacity <= 0) {
+			throw new IllegalArgumentException("capacity must be positive");
+		}
+		this.ring = new Entry[capacity];
+		setThresholdMillis(thresholdMillis);
+	}
+
+	/**
+	 * Creates a slow-query log configured from the {@code tasks.slowQuery.*} system properties.
+	 *
+	 * @return configured log
+	 */
+	public static SlowQueryLog fromSystemProperties() {
+		SlowQueryLog log = new SlowQueryLog(Long.getLong("tasks.slowQuery.thresholdMs", 200L), DEFAULT_CAPACITY);
+		log.setCapturePlans(Boolean.getBoolean("tasks.slowQuery.capturePlans"));
+		String file = System.getProperty("tasks.slowQuery.file");
+		if (file != null && !file.isBlank()) {
+			try {
+				log.setFileSink(Path.of(file));
+			} catch (IOException e) {
+				System.err.println("Slow-query file sink disabled: " + e.getMessage());
+			}
+		}
+		return log;
+	}
+
+	/** Sets the slow-statement threshold in milliseconds (0 records every statement). */
+	public void setThresholdMillis(long thresholdMillis) {
+		if (thresholdMillis < 0) {
+			throw new IllegalArgumentException("thresholdMillis must not be negative");
+		}
+		this.thresholdNanos = TimeUnit.MILLISECONDS.toNanos(thresholdMillis);
+	}
+
+	/** Returns the slow-statement threshold in milliseconds. */
+	public long getThresholdMillis() {
+		return TimeUnit.NANOSECONDS.toMillis(thresholdNanos);
+	}
+
+	/** Enables or disables capturing Derby runtime statistics for slow statements. */
+	public void setCapturePlans(boolean capturePlans) {
+		this.capturePlans = capturePlans;
+	}
+
+	/** Returns true when execution plans are captured for slow statements. */
+	public boolean isCapturePlans() {
+		return capturePlans;
+	}
+
+	/**
+	 * Appends every recorded entry to a rotating set of files.
+	 * The pattern follows {@link FileHandler} syntax; a plain path gets a {@code .%g} suffix.
+	 *
+	 * @param pattern file name pattern
+	 * @throws IOException if the file cannot be opened
+	 */
+	public synchronized void setFileSink(Path pattern) throws IOException {
+		String p = pattern.toString();
+		if (!p.contains("%g")) {
+			p = p + ".%g";
+		}
+		FileHandler handler = openHandler(p);
+		closeFileSink();
+		this.fileSink = handler;
+		this.sinkPattern = p;
+	}
+
+	/** Closes the file sink if one is open; later entries are kept in memory only. */
+	public synchronized void closeFileSink() {
+		releaseFileSink();
+		sinkPattern = null;
+	}
+
+	/**
+	 * Closes the open file handle but keeps the sink configured; the next recorded entry
+	 * opens the files again. Used when the owning DAO shuts its database down.
+	 */
+	public synchronized void releaseFileSink() {
+		if (fileSink != null) {
+			fileSink.close();
+			fileSink = null;
+		}
+	}
+
+	/** Opens a rotating handler that writes each message on its own line. */
+	private static FileHandler openHandler(String pattern) throws IOException {
+		FileHandler handler = new FileHandler(pattern, FILE_LIMIT_BYTES, FILE_COUNT, true);
+		handler.setFormatter(new Formatter() {
+			@Override
+			public String format(LogRecord record) {
+				return record.getMessage() + System.lineSeparator();
+			}
+		});
+		return handler;
+	}
+
+	/**
+	 * Returns true if the given execution time reaches the threshold.
+	 *
+	 * @param elapsedNanos execution time
+	 * @return whether the statement counts as slow
+	 */
+	public boolean isSlow(long elapsedNanos) {
+		return elapsedNanos >= thresholdNanos;
+	}
+
+	/**
+	 * Adds an entry to the ring buffer (overwriting the oldest) and to the file sink.
+	 *
+	 * @param entry slow statement
+	 */
+	public synchronized void record(Entry entry) {
+		ring[next] = entry;
+		next = (next + 1) % ring.length;
+		if (size < ring.length) {
+			size++;
+		}
+		if (fileSink == null && sinkPattern != null) {
+			try {
+				fileSink = openHandler(sinkPattern);
+			} catch (IOException e) {
+				System.err.println("Slow-query file sink disabled: " + e.getMessage());
+				sinkPattern = null;
+			}
+		}
+		if (fileSink != null) {
+			fileSink.publish(new LogRecord(Level.INFO, format(entry)));
+			fileSink.flush();
+		}
+	}
+
+	/**
+	 * Returns the recorded entries, oldest first.
+	 *
+	 * @return snapshot of the ring buffer
+	 */
+	public synchronized List<Entry> recent() {
+		List<Entry> out = new ArrayList<>(size);
+		int start = (next - size + ring.length) % ring.length;
+		for (int i = 0; i < size; i++) {
+			out.add(ring[(start + i) % ring.length]);
+		}
+		return out;
+	}
+
+	/** Removes all entries from the ring buffer. */
+	public synchronized void clear() {
+		Arrays.fill(ring, null);
+		next = 0;
+		size = 0;
+	}
+
+	/** Formats an entry as a single log line, followed by the plan when present. */
+	private static String format(Entry e) {
+		StringBuilder sb = new StringBuilder()
+			.append(e.at()).append(' ')
+			.append(e.elapsedMillis()).append("ms rows=").append(e.rowCount())
+			.append(" sql=").append(e.sql())
+			.append(" params=").append(e.params());
+		if (e.plan() != null) {
+			sb.append(System.lineSeparator()).append(e.plan());
+		}
+		return sb.toString();
+	}
+}
@@ -0,0 +1,173 @@
+package il.ac.hit.tasksmanager.model.dao;
+
+import il.ac.hit.tasksmanager.diagnostics.DaoStatementEvent;
+
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * StatementProbe wraps the execution of a single SQL statement on a connection.
+ * It times the statement, reports it to JFR as a {@link DaoStatementEvent}, and records
+ * it in the {@link SlowQueryLog} (with the Derby execution plan when enabled) if it was slow.
+ * When plans are captured, Derby runtime statistics are on only while the probe is open; a
+ * failure to switch them or read the plan is logged and never fails the probed statement.
+ * Probes may nest on one connection (e.g. MAX(ID) inside a MERGE): only the outermost probe
+ * switches statistics on and off, so an inner probe never leaves the outer statement unprofiled.
+ * Declare the probe in the try-with-resources block after the statement and before any
+ * result set, so it closes once the result set is done but before the connection is closed.
+ */
+final class StatementProbe implements AutoCloseable {
+	/**
+	 * Typed SQL NULL bind parameter.
+	 *
+	 * @param sqlType {@link java.sql.Types} constant
+	 */
+	record SqlNull(int sqlType) {
+		@Override
+		public String toString() {
+			return "NULL";
+		}
+	}
+
+	/** Statistics state of a connection with open probes; a connection is used by one thread at a time. */
+	private static final class Nesting {
+		int depth;
+		boolean statistics;
+	}
+
+	/** Connections with at least one open plan-capturing probe. */
+	private static final Map<Connection, Nesting> NESTING = new ConcurrentHashMap<>();
+
+	private final SlowQueryLog log;
+	private final Connection conn;
+	private final String sql;
+	private final DaoStatementEvent event;
+	private final long start;
+	private List<Object> params = Collections.emptyList();
+	private int rowCount;
+	private Nesting nesting;
+
+	private StatementProbe(SlowQueryLog log, Connection conn, String kind, String sql) {
+		this.log = log;
+		this.conn = conn;
+		this.sql = sql;
+		if (log.isCapturePlans()) {
+			nesting = NESTING.computeIfAbsent(conn, c -> new Nesting());
+			if (nesting.depth++ == 0) {
+				try {
+					setRuntimeStatistics(conn, true);
+					nesting.statistics = true;
+				} catch (SQLException e) {
+					System.err.println("Cannot enable runtime statistics for " + sql + ": " + e.getMessage());
+				}
+			}
+		}
+		this.event = DaoStatementEvent.start(kind);
+		this.start = System.nanoTime();
+	}
+
+	/**
+	 * Starts probing a statement about to run on the given connection.
+	 *
+	 * @param log slow-query log to report to
+	 * @param conn connection the statement runs on
+	 * @param kind SQL kind such as SELECT or INSERT
+	 * @param sql statement text
+	 * @return the started probe
+	 */
+	static StatementProbe start(SlowQueryLog log, Connection conn, String kind, String sql) {
+		return new StatementProbe(log, conn, kind, sql);
+	}
+
+	/**
+	 * Binds the parameters to the prepared statement in order and remembers them for the log.
+	 * Supports Integer, Long, String, LocalDate, {@link SqlNull} and null (as VARCHAR).
+	 *
+	 * @param ps statement to bind
+	 * @param values parameter values
+	 * @throws SQLException if binding fails
+	 */
+	void bind(PreparedStatement ps, Object... values) throws SQLException {
+		for (int i = 0; i < values.length; i++) {
+			Object v = values[i];
+			int index = i + 1;
+			switch (v) {
+				case null -> ps.setNull(index, java.sql.Types.VARCHAR);
+				case Integer n -> ps.setInt(index, n);
+				case Long n -> ps.setLong(index, n);
+				case String s -> ps.setString(index, s);
+				case LocalDate d -> ps.setDate(index, Date.valueOf(d));
+				case SqlNull n -> ps.setNull(index, n.sqlType());
+				default -> ps.setObject(index, v);
+			}
+		}
+		this.params = Arrays.asList(values);
+	}
+
+	/** Records the number of rows read or affected by the statement. */
+	void rows(int rowCount) {
+		this.rowCount = rowCount;
+		event.rows(rowCount);
+	}
+
+	/**
+	 * Stops timing, commits the JFR event, turns runtime statistics off again when this is the
+	 * outermost probe on the connection and records the statement if it was slow.
+	 */
+	@Override
+	public void close() {
+		long elapsed = System.nanoTime() - start;
+		event.finish();
+		boolean slow = log.isSlow(elapsed);
+		String plan = null;
+		if (nesting != null) {
+			if (nesting.statistics && slow) {
+				try {
+					plan = readRuntimeStatistics(conn);
+				} catch (SQLException e) {
+					System.err.println("Cannot read the plan of " + sql + ": " + e.getMessage());
+				}
+			}
+			if (--nesting.depth == 0) {
+				NESTING.remove(conn);
+				if (nesting.statistics) {
+					try {
+						setRuntimeStatistics(conn, false);
+					} catch (SQLException e) {
+						System.err.println("Cannot disable runtime statistics after " + sql + ": " + e.getMessage());
+					}
+				}
+			}
+		}
+		if (!slow) {
+			return;
+		}
+		log.record(new SlowQueryLog.Entry(Instant.now(), sql, params, rowCount, elapsed, plan));
+	}
+
+	/** Turns Derby runtime statistics collection on or off for the connection. */
+	private static void setRuntimeStatistics(Connection conn, boolean on) throws SQLException {
+		try (CallableStatement cs = conn.prepareCall("CALL SYSCS_UTIL.SYSCS_SET_RUNTIMESTATISTICS(" + (on ? 1 : 0) + ")")) {
+			cs.execute();
+		}
+	}
+
+	/** Returns the runtime statistics of the last statement executed on the connection. */
+	private static String readRuntimeStatistics(Connection conn) throws SQLException {
+		try (Statement stmt = conn.createStatement(); ResultSet rs = stmt.executeQuery("VALUES SYSCS_UTIL.SYSCS_GET_RUNTIMESTATISTICS()")) {
+			return rs.next() ? rs.getString(1) : null;
+		}
+	}
+}
@@ -0,0 +1,95 @@
+package il.ac.hit.tasksmanager.model.dao;
+
+import il.ac.hit.tasksmanager.model.BasicTask;
+import il.ac.hit.tasksmanager.model.RecurringTask;
+import il.ac.hit.tasksmanager.model.Task;
+import il.ac.hit.tasksmanager.model.entities.ITask;
+import il.ac.hit.tasksmanager.model.entities.state.TaskState;
+import il.ac.hit.tasksmanager.model.entities.state.TaskStates;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+
+/**
+ * TaskRowMapper maps TASKS rows selected with {@link #COLUMNS} into task records.
+ * It is shared by every TasksDAOImpl read path and keeps per-row allocation low:
+ * - columns are read by index, numeric columns as primitives checked with {@code wasNull()}
+ * - the state is encoded as a small integer by SQL and mapped to the shared
+ *   {@link TaskStates} flyweights (no state string or state object per row)
+ * - the due date is selected as YEAR/MONTH/DAY integers and turned into a LocalDate
+ *   directly (no {@code java.sql.Date} round-trip); recently seen dates are reused
+ * Instances are cheap and not thread-safe; create one per query.
+ */
+final class TaskRowMapper {
+	/** Select list matching the column indexes read by {@link #map(ResultSet)}. */
+	static final String COLUMNS = "ID, TITLE, DESCRIPTION, "
+		+ "CASE STATE WHEN 'IN_PROGRESS' THEN 1 WHEN 'COMPLETED' THEN 2 ELSE 0 END, "
+		+ "YEAR(DUEDATE), MONTH(DUEDATE), DAY(DUEDATE), RECURRENCE_DAYS";
+
+	private static final int ID = 1;
+	private static final int TITLE = 2;
+	private static final int DESCRIPTION = 3;
+	private static final int STATE = 4;
+	private static final int YEAR = 5;
+	private static final int MONTH = 6;
+	private static final int DAY = 7;
+	private static final int RECURRENCE_DAYS = 8;
+	private static final int DATE_CACHE_SIZE = 64;
+
+	private final int[] cachedDateKeys = new int[DATE_CACHE_SIZE];
+	private final LocalDate[] cachedDates = new LocalDate[DATE_CACHE_SIZE];
+
+	/**
+	 * Maps the current row of the result set.
+	 *
+	 * @param rs result set positioned on a row selected with {@link #COLUMNS}
+	 * @return a BasicTask, or a RecurringTask when RECURRENCE_DAYS is positive
+	 * @throws SQLException on read failure
+	 */
+	ITask map(ResultSet rs) throws SQLException {
+		int id = rs.getInt(ID);
+		String title = rs.getString(TITLE);
+		String description = rs.getString(DESCRIPTION);
+		TaskState state = TaskStates.ofCode(rs.getInt(STATE));
+		LocalDate due = null;
+		int year = rs.getInt(YEAR);
+		if (!rs.wasNull()) {
+			due = date(year, rs.getInt(MONTH), rs.getInt(DAY));
+		}
+		int recDays = rs.getInt(RECURRENCE_DAYS);
+		if (!rs.wasNull() && recDays > 0) {
+			return new RecurringTask(id, title, description, state, due, recDays);
+		}
+		return new BasicTask(id, title, description, state, due);
+	}
+
+	/**
+	 * Returns a copy of a task record under another id.
+	 *
+	 * @param task task to copy
+	 * @param id id of the copy
+	 * @return a BasicTask or RecurringTask with the given id
+	 */
+	static ITask withId(ITask task, int id) {
+		if (task instanceof RecurringTask r) {
+			return new RecurringTask(id, r.title(), r.description(), r.state(), r.dueDate(), r.interval());
+		}
+		LocalDate due = task instanceof Task t ? t.dueDate() : null;
+		return new BasicTask(id, task.getTitle(), task.getDescription(), task.getState(), due);
+	}
+
+	/** Returns a LocalDate for the given fields, reusing a recently created equal instance. */
+	private LocalDate date(int year, int month, int day) {
+		int key = (year << 9) | (month << 5) | day;
+		int slot = (key ^ (key >>> 7)) & (DATE_CACHE_SIZE - 1);
+		LocalDate cached = cachedDates[slot];
+		if (cached != null && cachedDateKeys[slot] == key) {
+			return cached;
+		}
+		LocalDate d = LocalDate.of(year, month, day);
+		cachedDates[slot] = d;
+		cachedDateKeys[slot] = key;
+		return d;
+	}
+}
@@ -0,0 +1,83 @@
+package il.ac.hit.tasksmanager.model.dao;
+
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * TasksDAOFactory selects the storage configuration from {@code tasks.backend}:
+ * - {@code derby} (default): {@link TasksDAOImpl} on the on-disk database
+ * - {@code memory}: {@link InMemoryTasksDAO} with periodic checkpoints to disk
+ * - {@code log}: {@link LogStructuredTasksDAO}, an append-only store for write-heavy use
+ * - {@code sharded}: {@link ShardedTasksDAO}, tasks split across several Derby databases by id hash
+ */
+public final class TasksDAOFactory {
+	/** Available storage configurations. */
+	public enum Backend { DERBY, MEMORY, LOG, SHARDED }
+
+	private static CompletableFuture<ITasksDAO> booting;
+	private static boolean backupStarted;
+
+	private TasksDAOFactory() {
+	}
+
+	/**
+	 * Returns the backend named by {@code tasks.backend} (case-insensitive; default DERBY).
+	 *
+	 * @return configured backend
+	 * @throws TasksDAOException for an unknown backend name
+	 */
+	public static Backend configuredBackend() throws TasksDAOException {
+		String name = System.getProperty("tasks.backend", Backend.DERBY.name());
+		try {
+			return Backend.valueOf(name.trim().toUpperCase(Locale.ROOT));
+		} catch (IllegalArgumentException e) {
+			throw new TasksDAOException("Unknown tasks.backend: " + name, e);
+		}
+	}
+
+	/**
+	 * Returns the singleton DAO of the configured backend, booting it on the calling thread.
+	 *
+	 * @return DAO instance
+	 * @throws TasksDAOException when the backend is unknown or fails to start
+	 */
+	public static ITasksDAO getInstance() throws TasksDAOException {
+		return switch (configuredBackend()) {
+			case DERBY -> withBackup(TasksDAOImpl.getInstance());
+			case MEMORY -> InMemoryTasksDAO.getInstance();
+			case LOG -> LogStructuredTasksDAO.getInstance();
+			case SHARDED -> ShardedTasksDAO.getInstance();
+		};
+	}
+
+	/** Starts the online backup of the on-disk database when {@code tasks.backup.dir} is set. */
+	private static synchronized TasksDAOImpl withBackup(TasksDAOImpl dao) {
+		if (!backupStarted) {
+			backupStarted = true;
+			OnlineBackup.startIfConfigured(dao);
+		}
+		return dao;
+	}
+
+	/**
+	 * Boots the configured backend on a background thread; repeated calls return the same future.
+	 *
+	 * @return future completing with the DAO, or exceptionally with a {@link TasksDAOException}
+	 */
+	public static synchronized CompletableFuture<ITasksDAO> bootAsync() {
+		if (booting == null) {
+			booting = new CompletableFuture<>();
+			CompletableFuture<ITasksDAO> future = booting;
+			Thread boot = new Thread(() -> {
+				try {
+					future.complete(getInstance());
+				} catch (TasksDAOException | RuntimeException e) {
+					future.completeExceptionally(e);
+				}
+			}, "tasks-dao-boot");
+			boot.setDaemon(true);
+			boot.start();
+		}
+		return booting;
+	}
+}
@@ -1,47 +1,108 @@
 package il.ac.hit.tasksmanager.model.dao;
 
-import il.ac.hit.tasksmanager.model.BasicTask;
 import il.ac.hit.tasksmanager.model.RecurringTask;
 import il.ac.hit.tasksmanager.model.Task;
 import il.ac.hit.tasksmanager.model.entities.ITask;
-import il.ac.hit.tasksmanager.model.entities.state.CompletedState;
-import il.ac.hit.tasksmanager.model.entities.state.InProgressState;
-import il.ac.hit.tasksmanager.model.entities.state.TaskState;
-import il.ac.hit.tasksmanager.model.entities.state.ToDoState;
 
+import java.nio.file.Path;
 import java.sql.Connection;
-import java.sql.Date;
 import java.sql.DriverManager;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.sql.Types;
+import java.time.Instant;
+import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 
 /**
  * TasksDAOImpl is a Derby-backed DAO (Singleton) that persists tasks.
  *
  * DAO Pattern: encapsulates all persistence concerns and exposes
  * a small CRUD API defined by {@link ITasksDAO}.
+ * Every statement runs through a {@link StatementProbe}, which reports it to Java Flight
+ * Recorder and records it in the {@link SlowQueryLog} when it exceeds the threshold.
  */
 public class TasksDAOImpl implements ITasksDAO {
 	private static final String DB_URL = "jdbc:derby:tasksdb;create=true";
+	private static final String CHECKPOINT_SQL = "CALL SYSCS_UTIL.SYSCS_CHECKPOINT_DATABASE()";
+	private static final Path LIFECYCLE_FILE = Path.of("tasksdb.lifecycle");
+	private static final String SELECT_ALL_SQL = "SELECT " + TaskRowMapper.COLUMNS + " FROM TASKS ORDER BY ID";
+	private static final String SELECT_BY_ID_SQL = "SELECT " + TaskRowMapper.COLUMNS + " FROM TASKS WHERE ID = ?";
+	private static final String INSERT_SQL = "INSERT INTO TASKS (ID, TITLE, DESCRIPTION, STATE, DUEDATE, RECURRENCE_DAYS) VALUES (?, ?, ?, ?, ?, ?)";
+	private static final String UPDATE_SQL = "UPDATE TASKS SET TITLE = ?, DESCRIPTION = ?, STATE = ?, DUEDATE = ?, RECURRENCE_DAYS = ? WHERE ID = ?";
+	private static final String DELETE_BY_ID_SQL = "DELETE FROM TASKS WHERE ID = ?";
+	private static final String DELETE_ALL_SQL = "DELETE FROM TASKS";
+	private static final String MERGE_SQL = "MERGE INTO TASKS T USING SYSIBM.SYSDUMMY1 ON T.ID = ? "
+		+ "WHEN MATCHED THEN UPDATE SET TITLE = ?, DESCRIPTION = ?, STATE = ?, DUEDATE = ?, RECURRENCE_DAYS = ? "
+		+ "WHEN NOT MATCHED THEN INSERT (ID, TITLE, DESCRIPTION, STATE, DUEDATE, RECURRENCE_DAYS) VALUES (?, ?, ?, ?, ?, ?)";
+	private static final String MAX_ID_SQL = "SELECT MAX(ID) FROM TASKS";
+	private static final String LOCK_SQL = "LOCK TABLE TASKS IN EXCLUSIVE MODE";
+	private static final String SELECT_OPEN_DUE_BEFORE_SQL = "SELECT " + TaskRowMapper.COLUMNS + " FROM TASKS "
+		+ "WHERE DUEDATE < ? AND STATE <> 'COMPLETED' ORDER BY ID";
+	private static final String COUNT_BY_STATE_SQL = "SELECT STATE, COUNT(*) FROM TASKS GROUP BY STATE";
+	private static final String COUNT_OPEN_BY_DUE_SQL = "SELECT DUEDATE, COUNT(*) FROM TASKS "
+		+ "WHERE DUEDATE IS NOT NULL AND STATE <> 'COMPLETED' GROUP BY DUEDATE ORDER BY DUEDATE";
+	/** Rows fetched per round trip by streaming reads. */
+	private static final int FETCH_SIZE = 1000;
 	private static TasksDAOImpl instance;
+	private static CompletableFuture<TasksDAOImpl> booting;
+	private final SlowQueryLog slowQueryLog = SlowQueryLog.fromSystemProperties();
+	private final String dbUrl;
+	private final Path lifecycleFile;
+	private final DurabilityMode durability;
+	private final LifecycleRecord previousRun;
+	private final long bootMillis;
+	private volatile boolean shutDown;
+	private volatile OnlineBackup backup;
 
 	/**
 	 * Creates the DAO and ensures the database schema exists.
+	 * The boot time and whether the previous run shut down cleanly are logged and
+	 * kept in the lifecycle record next to the database. The {@link DurabilityMode} from
+	 * {@code tasks.durability} is applied before the Derby engine starts.
 	 *
-	 * @throws TasksDAOException when the embedded driver is missing or schema init fails
+	 * @throws TasksDAOException when the embedded driver is missing, the durability mode is unknown or schema init fails
 	 */
 	private TasksDAOImpl() throws TasksDAOException {
+		this(DB_URL, LIFECYCLE_FILE);
+	}
+
+	/**
+	 * Creates a DAO on the given Derby database (used by other storage configurations).
+	 *
+	 * @param dbUrl JDBC URL every operation connects to
+	 * @param lifecycleFile lifecycle record location, or null to keep none
+	 * @throws TasksDAOException when the embedded driver is missing, the durability mode is unknown or schema init fails
+	 */
+	TasksDAOImpl(String dbUrl, Path lifecycleFile) throws TasksDAOException {
+		long start = System.nanoTime();
+		this.dbUrl = dbUrl;
+		this.lifecycleFile = lifecycleFile;
+		previousRun = lifecycleFile == null ? LifecycleRecord.NONE : LifecycleRecord.read(lifecycleFile);
+		try {
+			durability = DurabilityMode.fromSystemProperties();
+		} catch (IllegalArgumentException e) {
+			throw new TasksDAOException("Unknown tasks.durability mode: " + System.getProperty("tasks.durability"), e);
+		}
+		durability.apply(System.getProperties());
 		try {
 			Class.forName("org.apache.derby.jdbc.EmbeddedDriver");
 			initSchema();
 		} catch (ClassNotFoundException e) {
 			throw new TasksDAOException("Derby EmbeddedDriver not found in classpath", e);
 		}
+		bootMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+		System.err.println("Derby boot took " + bootMillis + " ms, durability " + durability + " (previous run "
+			+ (previousRun.cleanShutdown() ? "shut down cleanly" : "did not shut down cleanly, recovery ran") + ")");
+		writeLifecycle(new LifecycleRecord(false, previousRun.shutdownAt(), bootMillis));
 	}
 
 	/**
@@ -57,45 +118,182 @@ public class TasksDAOImpl implements ITasksDAO {
 		return instance;
 	}
 
+	/**
+	 * Boots the singleton on a background thread (loading the driver, starting Derby and
+	 * migrating the schema) so callers such as the Swing EDT do not wait for it.
+	 * Repeated calls return the same future.
+	 *
+	 * @return future completing with the DAO, or exceptionally with a {@link TasksDAOException}
+	 */
+	public static synchronized CompletableFuture<TasksDAOImpl> bootAsync() {
+		if (booting == null) {
+			booting = new CompletableFuture<>();
+			CompletableFuture<TasksDAOImpl> future = booting;
+			Thread boot = new Thread(() -> {
+				try {
+					future.complete(getInstance());
+				} catch (TasksDAOException | RuntimeException e) {
+					future.completeExceptionally(e);
+				}
+			}, "tasks-dao-boot");
+			boot.setDaemon(true);
+			boot.start();
+		}
+		return booting;
+	}
+
+	/**
+	 * Returns how long the last boot (driver load, Derby start incl. recovery, schema check) took.
+	 *
+	 * @return boot time in milliseconds
+	 */
+	public long getBootMillis() {
+		return bootMillis;
+	}
+
+	/**
+	 * Returns the durability profile applied when this DAO booted.
+	 *
+	 * @return durability mode
+	 */
+	public DurabilityMode getDurabilityMode() {
+		return durability;
+	}
+
+	/**
+	 * Returns whether the run before this boot ended with a clean {@link #shutdown()}.
+	 *
+	 * @return true if no crash recovery was needed
+	 */
+	public boolean wasPreviousShutdownClean() {
+		return previousRun.cleanShutdown();
+	}
+
+	/**
+	 * Checkpoints the database and shuts Derby down cleanly, so the next boot skips log replay.
+	 * Later operations transparently boot the database again. Calling it twice is harmless.
+	 *
+	 * @throws TasksDAOException when the checkpoint or shutdown fails
+	 */
+	@Override
+	public synchronized void shutdown() throws TasksDAOException {
+		if (shutDown) {
+			return;
+		}
+		long start = System.nanoTime();
+		OnlineBackup running = backup;
+		if (running != null) {
+			running.stop();
+		}
+		try (Connection conn = getConnection(); Statement stmt = conn.createStatement(); StatementProbe probe = probe(conn, "CALL", CHECKPOINT_SQL)) {
+			stmt.execute(CHECKPOINT_SQL);
+			probe.rows(0);
+		} catch (SQLException e) {
+			throw new TasksDAOException("Failed to checkpoint database", e);
+		}
+		try {
+			DriverManager.getConnection(baseUrl() + ";shutdown=true").close();
+		} catch (SQLException e) {
+			// Derby reports a successful single-database shutdown as SQLState 08006
+			if (!"08006".equals(e.getSQLState())) {
+				throw new TasksDAOException("Failed to shut down database", e);
+			}
+		}
+		shutDown = true;
+		// every DAO opens its own handler on the same pattern; release it with the database
+		slowQueryLog.releaseFileSink();
+		if (running != null) {
+			// with Derby stopped the active log file is complete; archive everything up to the shutdown
+			try {
+				running.archiveLogs();
+			} catch (TasksDAOException e) {
+				System.err.println(e.getMessage() + ": " + e.getCause());
+			}
+		}
+		writeLifecycle(new LifecycleRecord(true, Instant.now(), bootMillis));
+		System.err.println("Derby shut down cleanly in " + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) + " ms");
+	}
+
+	/**
+	 * Returns the slow-statement log of this DAO, used to tune the threshold and plan capture.
+	 *
+	 * @return slow-query log
+	 */
+	public SlowQueryLog getSlowQueryLog() {
+		return slowQueryLog;
+	}
+
+	/**
+	 * Starts a probe for a statement about to run on the given connection.
+	 */
+	StatementProbe probe(Connection conn, String kind, String sql) {
+		return StatementProbe.start(slowQueryLog, conn, kind, sql);
+	}
+
 	/**
 	 * Opens a new JDBC connection to the embedded Derby database.
 	 *
 	 * @return a JDBC connection
 	 * @throws SQLException if the connection cannot be established
 	 */
-	private Connection getConnection() throws SQLException {
+	Connection getConnection() throws SQLException {
 		/* new connection per op to avoid leaks */
-		return DriverManager.getConnection(DB_URL);
+		if (shutDown) {
+			reopened();
+		}
+		return DriverManager.getConnection(dbUrl);
+	}
+
+	/** Marks the database as running again after a {@link #shutdown()} (the next connection reboots it). */
+	private synchronized void reopened() {
+		if (shutDown) {
+			shutDown = false;
+			writeLifecycle(new LifecycleRecord(false, Instant.now(), bootMillis));
+		}
+	}
+
+	/** Writes the lifecycle record if this DAO keeps one. */
+	private void writeLifecycle(LifecycleRecord record) {
+		if (lifecycleFile != null) {
+			record.write(lifecycleFile);
+		}
 	}
 
 	/**
-	 * Ensures the required TASKS table and columns exist.
-	 * Creates the table when missing and adds columns when the table exists.
+	 * Returns the directory of the on-disk database.
+	 *
+	 * @return database directory
+	 * @throws TasksDAOException for an in-memory database
+	 */
+	Path databaseDirectory() throws TasksDAOException {
+		String name = baseUrl().substring("jdbc:derby:".length());
+		if (name.startsWith("memory:")) {
+			throw new TasksDAOException("in-memory database " + name + " has no files to back up");
+		}
+		return Path.of(name.startsWith("directory:") ? name.substring("directory:".length()) : name);
+	}
+
+	/** Attaches the online backup that {@link #shutdown()} stops and finishes. */
+	void attachBackup(OnlineBackup backup) {
+		this.backup = backup;
+	}
+
+	/** Returns the database URL without connection attributes. */
+	String baseUrl() {
+		int attributes = dbUrl.indexOf(';');
+		return attributes < 0 ? dbUrl : dbUrl.substring(0, attributes);
+	}
+
+	/**
+	 * Brings the schema up to date via {@link SchemaMigrations}.
+	 * An up-to-date database costs a single SCHEMA_VERSION query.
 	 *
 	 * @throws TasksDAOException on schema initialization failure
 	 */
 	private void initSchema() throws TasksDAOException {
 		// schema bootstrap
-		try (Connection conn = getConnection(); Statement stmt = conn.createStatement()) {
-			try {
-				stmt.executeUpdate(
-					"CREATE TABLE TASKS (" +
-					"ID INT PRIMARY KEY, " +
-					"TITLE VARCHAR(255) NOT NULL, " +
-					"DESCRIPTION VARCHAR(1024), " +
-					"STATE VARCHAR(32) NOT NULL, " +
-					"DUEDATE DATE, " +
-					"RECURRENCE_DAYS INT)"
-				);
-			} catch (SQLException e) {
-				// table exists (X0Y32) → ignore
-				if (!"X0Y32".equals(e.getSQLState())) {
-					throw e;
-				}
-			}
-			// attempt additive DDL (idempotent)
-			try { stmt.executeUpdate("ALTER TABLE TASKS ADD COLUMN DUEDATE DATE"); } catch (SQLException ignore) { }
-			try { stmt.executeUpdate("ALTER TABLE TASKS ADD COLUMN RECURRENCE_DAYS INT"); } catch (SQLException ignore) { }
+		try (Connection conn = getConnection(); StatementProbe probe = probe(conn, "DDL", "migrateSchema")) {
+			probe.rows(SchemaMigrations.migrate(conn).size());
 		} catch (SQLException e) {
 			throw new TasksDAOException("Failed to initialize schema", e);
 		}
@@ -109,9 +307,19 @@ public class TasksDAOImpl implements ITasksDAO {
 	 * @throws TasksDAOException when the query fails
 	 */
 	private int nextId() throws TasksDAOException {
+		try (Connection conn = getConnection()) {
+			return nextId(conn);
+		} catch (SQLException e) {
+			throw new TasksDAOException("Failed to generate next ID", e);
+		}
+	}
+
+	/** Computes MAX(ID)+1 on an open connection (inside the caller's transaction). */
+	private int nextId(Connection conn) throws SQLException {
 		// id generation via MAX(ID)+1
-		try (Connection conn = getConnection(); Statement stmt = conn.createStatement(); ResultSet rs = stmt.executeQuery("SELECT MAX(ID) FROM TASKS")) {
+		try (Statement stmt = conn.createStatement(); StatementProbe probe = probe(conn, "SELECT", MAX_ID_SQL); ResultSet rs = stmt.executeQuery(MAX_ID_SQL)) {
 			if (rs.next()) {
+				probe.rows(1);
 				int max = rs.getInt(1);
 				if (rs.wasNull()) {
 					return 1;
@@ -119,11 +327,19 @@ public class TasksDAOImpl implements ITasksDAO {
 				return max + 1;
 			}
 			return 1;
-		} catch (SQLException e) {
-			throw new TasksDAOException("Failed to generate next ID", e);
 		}
 	}
 
+	/**
+	 * Returns the largest task id in the table, or 0 when it is empty.
+	 *
+	 * @return highest id in use
+	 * @throws TasksDAOException when the query fails
+	 */
+	int maxId() throws TasksDAOException {
+		return nextId() - 1;
+	}
+
 	/**
 	 * Inserts a new task into the TASKS table.
 	 *
@@ -132,66 +348,259 @@ public class TasksDAOImpl implements ITasksDAO {
 	 */
     @Override
 	public void addTask(ITask task) throws TasksDAOException {
+		addAndGetTask(task);
+	}
+
+	/**
+	 * Inserts a new task with id MAX(ID) + 1 and returns it. The table is locked before
+	 * MAX(ID) is read, so concurrent adds and numbered upserts never pick the same id.
+	 *
+	 * @param task task to persist
+	 * @return the task with its new id
+	 * @throws TasksDAOException when the insert fails
+	 */
+	@Override
+	public ITask addAndGetTask(ITask task) throws TasksDAOException {
 		if (task == null) {
 			throw new TasksDAOException("task must not be null");
 		}
+		try (Connection conn = getConnection()) {
+			conn.setAutoCommit(false);
+			try {
+				lockTasks(conn);
+				int id = nextId(conn);
+				insert(conn, id, task);
+				conn.commit();
+				return TaskRowMapper.withId(task, id);
+			} catch (SQLException e) {
+				conn.rollback();
+				throw e;
+			}
+		} catch (SQLException e) {
+			throw new TasksDAOException("Failed to add task", e);
+		}
+	}
+
+	/** Locks the TASKS table until the connection's transaction ends. */
+	private void lockTasks(Connection conn) throws SQLException {
+		try (Statement stmt = conn.createStatement(); StatementProbe probe = probe(conn, "LOCK", LOCK_SQL)) {
+			stmt.execute(LOCK_SQL);
+		}
+	}
+
+
+	/**
+	 * Inserts a task under an id chosen by the caller (used when ids are allocated across databases).
+	 *
+	 * @param id id of the new row
+	 * @param task task to persist
+	 * @throws TasksDAOException when the insert fails (e.g. the id is taken)
+	 */
+	void insert(int id, ITask task) throws TasksDAOException {
+		try (Connection conn = getConnection()) {
+			insert(conn, id, task);
+		} catch (SQLException e) {
+			throw new TasksDAOException("Failed to add task", e);
+		}
+	}
+
+	private void insert(Connection conn, int id, ITask task) throws SQLException {
 		// insert row
-		int id = nextId();
-		try (Connection conn = getConnection(); PreparedStatement ps = conn.prepareStatement("INSERT INTO TASKS (ID, TITLE, DESCRIPTION, STATE, DUEDATE, RECURRENCE_DAYS) VALUES (?, ?, ?, ?, ?, ?)")) {
-			ps.setInt(1, id);
-			ps.setString(2, task.getTitle());
-			ps.setString(3, task.getDescription());
-			ps.setString(4, task.getState().name());
+		try (PreparedStatement ps = conn.prepareStatement(INSERT_SQL); StatementProbe probe = probe(conn, "INSERT", INSERT_SQL)) {
 			java.time.LocalDate due = null;
 			int recurrenceDays = 0;
 			if (task instanceof Task mt) {
 				due = mt.dueDate();
 				if (mt instanceof RecurringTask rtask) { recurrenceDays = rtask.interval(); }
 			}
-			if (due != null) { ps.setDate(5, Date.valueOf(due)); } else { ps.setNull(5, Types.DATE); }
-			if (recurrenceDays > 0) { ps.setInt(6, recurrenceDays); } else { ps.setNull(6, Types.INTEGER); }
-			ps.executeUpdate();
+			probe.bind(ps, id, task.getTitle(), task.getDescription(), task.getState().name(),
+				due != null ? due : new StatementProbe.SqlNull(Types.DATE),
+				recurrenceDays > 0 ? recurrenceDays : new StatementProbe.SqlNull(Types.INTEGER));
+			probe.rows(ps.executeUpdate());
+		}
+	}
+
+	/**
+	 * Upserts the batch with one batched {@code MERGE} in a single transaction: a row is
+	 * updated when its id exists and inserted under that id otherwise. Tasks with id 0 get
+	 * ids after the current maximum; for such batches the table is locked before MAX(ID) is
+	 * read, so concurrent adds wait instead of being overwritten. Either the whole batch is
+	 * written or none of it.
+	 *
+	 * @param tasks tasks to write
+	 * @return number of tasks written
+	 * @throws TasksDAOException when the batch fails (it is rolled back)
+	 */
+	@Override
+	public int upsertTasks(List<? extends ITask> tasks) throws TasksDAOException {
+		if (tasks.isEmpty()) {
+			return 0;
+		}
+		int nextNew = -1;
+		int maxExplicit = 0;
+		boolean numbers = false;
+		for (ITask task : tasks) {
+			maxExplicit = Math.max(maxExplicit, task.getId());
+			numbers |= task.getId() <= 0;
+		}
+		try (Connection conn = getConnection()) {
+			conn.setAutoCommit(false);
+			if (numbers) {
+				// hold MAX(ID) until commit, so a concurrent add cannot take a new id and be overwritten by the MERGE
+				try {
+					lockTasks(conn);
+				} catch (SQLException e) {
+					conn.rollback();
+					throw e;
+				}
+			}
+			try (PreparedStatement ps = conn.prepareStatement(MERGE_SQL); StatementProbe probe = probe(conn, "MERGE", MERGE_SQL)) {
+				for (ITask task : tasks) {
+					int id = task.getId();
+					if (id <= 0) {
+						if (nextNew < 0) {
+							// new ids follow both the table and the explicit ids of this batch
+							nextNew = Math.max(nextId(conn), maxExplicit + 1);
+						}
+						id = nextNew++;
+					}
+					LocalDate due = task instanceof Task mt ? mt.dueDate() : null;
+					int recurrenceDays = task instanceof RecurringTask rtask ? rtask.interval() : 0;
+					Object dueValue = due != null ? due : new StatementProbe.SqlNull(Types.DATE);
+					Object recurrenceValue = recurrenceDays > 0 ? recurrenceDays : new StatementProbe.SqlNull(Types.INTEGER);
+					probe.bind(ps, id, task.getTitle(), task.getDescription(), task.getState().name(), dueValue, recurrenceValue,
+						id, task.getTitle(), task.getDescription(), task.getState().name(), dueValue, recurrenceValue);
+					ps.addBatch();
+				}
+				ps.executeBatch();
+				probe.rows(tasks.size());
+				conn.commit();
+				return tasks.size();
+			} catch (SQLException e) {
+				conn.rollback();
+				throw e;
+			}
 		} catch (SQLException e) {
-			throw new TasksDAOException("Failed to add task", e);
+			throw new TasksDAOException("Failed to upsert " + tasks.size() + " tasks", e);
 		}
 	}
 
 	/**
-	 * Reads all tasks ordered by ID and maps each row into a Task record.
+	 * Reads all tasks ordered by ID and maps each row into a Task record via {@link TaskRowMapper}.
 	 *
 	 * @return array of tasks (possibly empty)
 	 * @throws TasksDAOException when the query fails
 	 */
     @Override
 	public ITask[] getTasks() throws TasksDAOException {
-		List<Task> tasks = new ArrayList<>();
+		List<ITask> tasks = new ArrayList<>();
 		// query and map rows
-		try (Connection conn = getConnection(); Statement stmt = conn.createStatement(); ResultSet rs = stmt.executeQuery("SELECT ID, TITLE, DESCRIPTION, STATE, DUEDATE, RECURRENCE_DAYS FROM TASKS ORDER BY ID")) {
+		try (Connection conn = getConnection(); Statement stmt = conn.createStatement(); StatementProbe probe = probe(conn, "SELECT", SELECT_ALL_SQL); ResultSet rs = stmt.executeQuery(SELECT_ALL_SQL)) {
+			TaskRowMapper mapper = new TaskRowMapper();
 			while (rs.next()) {
-				int id = rs.getInt("ID");
-				String title = rs.getString("TITLE");
-				String description = rs.getString("DESCRIPTION");
-				String stateStr = rs.getString("STATE");
-				Date dueSql = rs.getDate("DUEDATE");
-				Integer recDays = (Integer) rs.getObject("RECURRENCE_DAYS");
-				TaskState state = switch (stateStr) {
-					case "TODO" -> new ToDoState();
-					case "IN_PROGRESS" -> new InProgressState();
-					case "COMPLETED" -> new CompletedState();
-					default -> new ToDoState();
-				};
-				if (recDays != null && recDays > 0) {
-					tasks.add(new RecurringTask(id, title, description, state, dueSql == null ? null : dueSql.toLocalDate(), recDays));
-				} else {
-					tasks.add(new BasicTask(id, title, description, state, dueSql == null ? null : dueSql.toLocalDate()));
-				}
+				tasks.add(mapper.map(rs));
 			}
+			probe.rows(tasks.size());
 			return tasks.toArray(new ITask[0]);
 		} catch (SQLException e) {
 			throw new TasksDAOException("Failed to fetch tasks", e);
 		}
 	}
 
+	/**
+	 * Streams all tasks ordered by ID from a forward-only, read-only cursor, mapping one row at a time.
+	 *
+	 * @param action receives each task
+	 * @throws TasksDAOException when the query fails
+	 */
+	@Override
+	public void forEachTask(Consumer<? super ITask> action) throws TasksDAOException {
+		try (Connection conn = getConnection();
+			 Statement stmt = conn.createStatement(ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+			 StatementProbe probe = probe(conn, "SELECT", SELECT_ALL_SQL)) {
+			stmt.setFetchSize(FETCH_SIZE);
+			try (ResultSet rs = stmt.executeQuery(SELECT_ALL_SQL)) {
+				TaskRowMapper mapper = new TaskRowMapper();
+				int rows = 0;
+				while (rs.next()) {
+					action.accept(mapper.map(rs));
+					rows++;
+				}
+				probe.rows(rows);
+			}
+		} catch (SQLException e) {
+			throw new TasksDAOException("Failed to stream tasks", e);
+		}
+	}
+
+	/**
+	 * Reads the open tasks due before a day with a range scan of the TASKS(DUEDATE, STATE) index.
+	 *
+	 * @param day exclusive upper bound of the due date
+	 * @return open tasks due before {@code day}, sorted by id
+	 * @throws TasksDAOException when the query fails
+	 */
+	@Override
+	public ITask[] getOpenTasksDueBefore(LocalDate day) throws TasksDAOException {
+		List<ITask> due = new ArrayList<>();
+		try (Connection conn = getConnection(); PreparedStatement ps = conn.prepareStatement(SELECT_OPEN_DUE_BEFORE_SQL);
+			 StatementProbe probe = probe(conn, "SELECT", SELECT_OPEN_DUE_BEFORE_SQL)) {
+			probe.bind(ps, day);
+			try (ResultSet rs = ps.executeQuery()) {
+				TaskRowMapper mapper = new TaskRowMapper();
+				while (rs.next()) {
+					due.add(mapper.map(rs));
+				}
+				probe.rows(due.size());
+			}
+		} catch (SQLException e) {
+			throw new TasksDAOException("Failed to read tasks due before " + day, e);
+		}
+		return due.toArray(new ITask[0]);
+	}
+
+	/**
+	 * Counts tasks per state with a GROUP BY query.
+	 *
+	 * @return state name to number of tasks
+	 * @throws TasksDAOException when the query fails
+	 */
+	@Override
+	public Map<String, Integer> countTasksByState() throws TasksDAOException {
+		Map<String, Integer> counts = new TreeMap<>();
+		try (Connection conn = getConnection(); Statement stmt = conn.createStatement(); StatementProbe probe = probe(conn, "SELECT", COUNT_BY_STATE_SQL);
+			 ResultSet rs = stmt.executeQuery(COUNT_BY_STATE_SQL)) {
+			while (rs.next()) {
+				counts.put(rs.getString(1), rs.getInt(2));
+			}
+			probe.rows(counts.size());
+		} catch (SQLException e) {
+			throw new TasksDAOException("Failed to count tasks by state", e);
+		}
+		return counts;
+	}
+
+	/**
+	 * Counts open tasks per due date with a GROUP BY query (served by the TASKS(DUEDATE, STATE) index).
+	 *
+	 * @return due date to number of open tasks, in date order
+	 * @throws TasksDAOException when the query fails
+	 */
+	@Override
+	public Map<LocalDate, Integer> countOpenTasksByDueDate() throws TasksDAOException {
+		Map<LocalDate, Integer> counts = new TreeMap<>();
+		try (Connection conn = getConnection(); Statement stmt = conn.createStatement(); StatementProbe probe = probe(conn, "SELECT", COUNT_OPEN_BY_DUE_SQL);
+			 ResultSet rs = stmt.executeQuery(COUNT_OPEN_BY_DUE_SQL)) {
+			while (rs.next()) {
+				counts.put(rs.getDate(1).toLocalDate(), rs.getInt(2));
+			}
+			probe.rows(counts.size());
+		} catch (SQLException e) {
+			throw new TasksDAOException("Failed to count open tasks by due date", e);
+		}
+		return counts;
+	}
+
 	/**
 	 * Reads a single task by id.
 	 *
@@ -204,25 +613,12 @@ public class TasksDAOImpl implements ITasksDAO {
 		// validate
 		if (id <= 0) { throw new TasksDAOException("id must be positive"); }
 		// query single row
-		try (Connection conn = getConnection(); PreparedStatement ps = conn.prepareStatement("SELECT ID, TITLE, DESCRIPTION, STATE, DUEDATE, RECURRENCE_DAYS FROM TASKS WHERE ID = ?")) {
-			ps.setLong(1, id);
+		try (Connection conn = getConnection(); PreparedStatement ps = conn.prepareStatement(SELECT_BY_ID_SQL); StatementProbe probe = probe(conn, "SELECT", SELECT_BY_ID_SQL)) {
+			probe.bind(ps, (long) id);
 			try (ResultSet rs = ps.executeQuery()) {
 				if (rs.next()) {
-					String title = rs.getString("TITLE");
-					String description = rs.getString("DESCRIPTION");
-					String stateStr = rs.getString("STATE");
-					Date dueSql = rs.getDate("DUEDATE");
-					Integer recDays = (Integer) rs.getObject("RECURRENCE_DAYS");
-					TaskState state = switch (stateStr) {
-						case "TODO" -> new ToDoState();
-						case "IN_PROGRESS" -> new InProgressState();
-						case "COMPLETED" -> new CompletedState();
-						default -> new ToDoState();
-					};
-					int rid = rs.getInt("ID");
-					return (recDays != null && recDays > 0)
-						? new RecurringTask(rid, title, description, state, dueSql == null ? null : dueSql.toLocalDate(), recDays)
-						: new BasicTask(rid, title, description, state, dueSql == null ? null : dueSql.toLocalDate());
+					probe.rows(1);
+					return new TaskRowMapper().map(rs);
 				}
 				return null;
 			}
@@ -242,16 +638,14 @@ public class TasksDAOImpl implements ITasksDAO {
 		// validate
 		if (task == null) { throw new TasksDAOException("task must not be null"); }
 		// perform update
-		try (Connection conn = getConnection(); PreparedStatement ps = conn.prepareStatement("UPDATE TASKS SET TITLE = ?, DESCRIPTION = ?, STATE = ?, DUEDATE = ?, RECURRENCE_DAYS = ? WHERE ID = ?")) {
-			ps.setString(1, task.getTitle());
-			ps.setString(2, task.getDescription());
-			ps.setString(3, task.getState().name());
+		try (Connection conn = getConnection(); PreparedStatement ps = conn.prepareStatement(UPDATE_SQL); StatementProbe probe = probe(conn, "UPDATE", UPDATE_SQL)) {
 			java.time.LocalDate due = null; int recurrenceDays = 0;
 			if (task instanceof Task mt) { due = mt.dueDate(); if (mt instanceof RecurringTask rtask) { recurrenceDays = rtask.interval(); } }
-			if (due != null) { ps.setDate(4, Date.valueOf(due)); } else { ps.setNull(4, Types.DATE); }
-			if (recurrenceDays > 0) { ps.setInt(5, recurrenceDays); } else { ps.setNull(5, Types.INTEGER); }
-			ps.setLong(6, task.getId());
-			ps.executeUpdate();
+			probe.bind(ps, task.getTitle(), task.getDescription(), task.getState().name(),
+				due != null ? due : new StatementProbe.SqlNull(Types.DATE),
+				recurrenceDays > 0 ? recurrenceDays : new StatementProbe.SqlNull(Types.INTEGER),
+				(long) task.getId());
+			probe.rows(ps.executeUpdate());
 		} catch (SQLException e) {
 			throw new TasksDAOException("Failed to update task id=" + task.getId(), e);
 		}
@@ -267,9 +661,9 @@ public class TasksDAOImpl implements ITasksDAO {
     public void deleteTask(int id) throws TasksDAOException {
 		// validate and delete
 		if (id <= 0) { throw new TasksDAOException("id must be positive"); }
-		try (Connection conn = getConnection(); PreparedStatement ps = conn.prepareStatement("DELETE FROM TASKS WHERE ID = ?")) {
-			ps.setLong(1, id);
-			ps.executeUpdate();
+		try (Connection conn = getConnection(); PreparedStatement ps = conn.prepareStatement(DELETE_BY_ID_SQL); StatementProbe probe = probe(conn, "DELETE", DELETE_BY_ID_SQL)) {
+			probe.bind(ps, (long) id);
+			probe.rows(ps.executeUpdate());
 		} catch (SQLException e) {
 			throw new TasksDAOException("Failed to delete task id=" + id, e);
 		}
@@ -283,8 +677,8 @@ public class TasksDAOImpl implements ITasksDAO {
     @Override
     public void deleteTasks() throws TasksDAOException {
 		// bulk delete
-		try (Connection conn = getConnection(); Statement stmt = conn.createStatement()) {
-			stmt.executeUpdate("DELETE FROM TASKS");
+		try (Connection conn = getConnection(); Statement stmt = conn.createStatement(); StatementProbe probe = probe(conn, "DELETE", DELETE_ALL_SQL)) {
+			probe.rows(stmt.executeUpdate(DELETE_ALL_SQL));
 		} catch (SQLException e) {
 			throw new TasksDAOException("Failed to delete all tasks", e);
 		}
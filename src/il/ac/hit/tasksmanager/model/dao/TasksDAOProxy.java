@@ -1,28 +1,107 @@
 package il.ac.hit.tasksmanager.model.dao;
 
+import il.ac.hit.tasksmanager.diagnostics.ProxyLockEvent;
+import il.ac.hit.tasksmanager.diagnostics.ProxyReloadEvent;
 import il.ac.hit.tasksmanager.model.Task;
 import il.ac.hit.tasksmanager.model.entities.ITask;
 
-import java.util.Arrays;
+import java.time.LocalDate;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
 
 /**
  * Proxy pattern: wraps a concrete {@link ITasksDAO} to provide a simple
  * read-through cache for get operations and invalidates on write operations.
+ * Single-task lookups outside a loaded snapshot go through a {@link BoundedTaskCache}
+ * (size/TTL bound, frequency-aware eviction, negative caching of missing ids).
+ * Concurrency:
+ * - The task list is published as an immutable {@link Snapshot} through an atomic
+ *   reference, so reads that hit it take no lock and scale with cores.
+ * - Writers serialize among themselves on a write lock; a write replaces the snapshot
+ *   with a fresh empty one, so a reload that started before the write cannot publish
+ *   its (stale) result.
+ * - Concurrent misses share one reload (single-flight future).
+ * Stale-while-revalidate (optional, see {@link #setStaleWhileRevalidate(long)}):
+ * - A write marks the snapshot stale instead of dropping it. Readers keep getting the
+ *   stale snapshot while one background refresh replaces it.
+ * - Once the snapshot has been stale longer than the configured bound, readers block
+ *   on the (shared) refresh instead.
+ * - Read-your-writes: a thread that wrote through this proxy never gets a snapshot
+ *   older than its own last write; it waits for a refresh that includes it.
+ * Lock waits and delegate reloads are reported to Java Flight Recorder
+ * as {@link ProxyLockEvent} and {@link ProxyReloadEvent}.
  */
 public class TasksDAOProxy implements ITasksDAO {
-	private ITasksDAO target;
-	private List<ITask> cachedTasks;
-	private final Map<Integer, ITask> cachedById = new HashMap<>();
+	private volatile ITasksDAO target;
+	private final AtomicReference<Snapshot> snapshot = new AtomicReference<>(Snapshot.empty());
+	private final AtomicReference<CompletableFuture<Snapshot>> inFlight = new AtomicReference<>();
+	private final AtomicLong writeVersion = new AtomicLong();
+	private final ThreadLocal<long[]> lastWrite = ThreadLocal.withInitial(() -> new long[1]);
+	private final ReentrantLock writeLock = new ReentrantLock();
+	private final BoundedTaskCache cachedById;
+	private volatile long maxStalenessNanos;
+	private ExecutorService refresher;
 
 	/**
-	 * Creates a proxy around the given DAO.
+	 * Immutable view of the delegate's task list with an id index.
+	 * An empty snapshot ({@code tasks == null}) marks "not loaded"; each write installs
+	 * a new instance (empty or stale) so it can be told apart from earlier ones by identity.
+	 *
+	 * @param tasks tasks sorted by id, or null when not loaded
+	 * @param byId index of {@code tasks} by id, or null when not loaded
+	 * @param version write version the data was read at (includes all writes up to it)
+	 * @param stale true once a later write has made the data outdated
+	 * @param staleSince {@link System#nanoTime()} when the snapshot became stale
+	 */
+	private record Snapshot(ITask[] tasks, Map<Integer, ITask> byId, long version, boolean stale, long staleSince) {
+		static Snapshot empty() {
+			return new Snapshot(null, null, -1, false, 0);
+		}
+
+		boolean isLoaded() {
+			return tasks != null;
+		}
+
+		boolean isFresh() {
+			return tasks != null && !stale;
+		}
+
+		Snapshot markStale(long now) {
+			return new Snapshot(tasks, byId, version, true, stale ? staleSince : now);
+		}
+	}
+
+	/**
+	 * Creates a proxy around the given DAO with a by-id cache configured from system properties.
 	 *
 	 * @param target the underlying DAO to delegate to
 	 */
 	public TasksDAOProxy(ITasksDAO target) {
+		this(target, BoundedTaskCache.fromSystemProperties());
+	}
+
+	/**
+	 * Creates a proxy around the given DAO using the given by-id cache.
+	 *
+	 * @param target the underlying DAO to delegate to
+	 * @param cache by-id cache for lookups outside a loaded snapshot
+	 */
+	public TasksDAOProxy(ITasksDAO target, BoundedTaskCache cache) {
+		if (cache == null) {
+			throw new IllegalArgumentException("cache must not be null");
+		}
+		this.cachedById = cache;
+		this.maxStalenessNanos = TimeUnit.MILLISECONDS.toNanos(Long.getLong("tasks.cache.staleWhileRevalidateMs", 0L));
 		/*
 		 * Proxy constructor
 		 * - Delegates target assignment to setTarget(...) to centralize validation
@@ -37,7 +116,7 @@ public class TasksDAOProxy implements ITasksDAO {
 	 * @param target the DAO to delegate to (must not be null)
 	 * @throws IllegalArgumentException if target is null
 	 */
-	public synchronized void setTarget(ITasksDAO target) {
+	public void setTarget(ITasksDAO target) {
 		/*
 		 * Validation + cache reset
 		 * - Validate non-null delegate
@@ -48,8 +127,29 @@ public class TasksDAOProxy implements ITasksDAO {
 		if (target == null) {
 			throw new IllegalArgumentException("target DAO must not be null");
 		}
-		this.target = target;
-		invalidate();
+		writeLock.lock();
+		try {
+			this.target = target;
+			invalidate();
+		} finally {
+			writeLock.unlock();
+		}
+	}
+
+	/**
+	 * Enables stale-while-revalidate: after a write, readers may keep receiving the
+	 * previous snapshot for up to {@code maxStalenessMillis} while it is refreshed in
+	 * the background. Zero (the default) disables it, so reads after a write block
+	 * until the delegate has been read again.
+	 * Also configurable via {@code tasks.cache.staleWhileRevalidateMs}.
+	 *
+	 * @param maxStalenessMillis how long a stale snapshot may be served
+	 */
+	public void setStaleWhileRevalidate(long maxStalenessMillis) {
+		if (maxStalenessMillis < 0) {
+			throw new IllegalArgumentException("maxStalenessMillis must not be negative");
+		}
+		this.maxStalenessNanos = TimeUnit.MILLISECONDS.toNanos(maxStalenessMillis);
 	}
 
 	/**
@@ -59,22 +159,24 @@ public class TasksDAOProxy implements ITasksDAO {
 	 * @throws TasksDAOException on underlying DAO failure
 	 */
 	@Override
-	public synchronized ITask[] getTasks() throws TasksDAOException {
+	public ITask[] getTasks() throws TasksDAOException {
 		/*
 		 * Read-through list cache
+		 * - Fast path: a fresh snapshot (or an acceptable stale one) is returned
+		 *   as a copy without any lock.
 		 * - On first access (or after invalidation), delegate to the target DAO,
 		 *   snapshot the results in-memory, and build an ID index for O(1) lookups.
-		 * - Subsequent calls return the cached snapshot for fast reads until
-		 *   a write operation invalidates the cache.
 		 */
-		if (cachedTasks == null) {
-			cachedTasks = Arrays.asList(target.getTasks());
-			cachedById.clear();
-			for (ITask t : cachedTasks) {
-				cachedById.put(t.getId(), t);
-			}
+		Snapshot current = snapshot.get();
+		if (current.isFresh() || servesStale(current)) {
+			return current.tasks().clone();
 		}
-		return cachedTasks.toArray(new ITask[0]);
+		long mustInclude = lastWrite.get()[0];
+		Snapshot loaded = awaitRefresh();
+		while (loaded.version() < mustInclude) {
+			loaded = awaitRefresh();
+		}
+		return loaded.tasks().clone();
 	}
 
 	/**
@@ -85,34 +187,178 @@ public class TasksDAOProxy implements ITasksDAO {
 	 * @throws TasksDAOException on underlying DAO failure
 	 */
 	@Override
-	public synchronized ITask getTask(int id) throws TasksDAOException {
+	public ITask getTask(int id) throws TasksDAOException {
 		/*
 		 * By-ID cache with fallback
-		 * - Attempt O(1) lookup from the in-memory index.
-		 * - If missing, ask the delegate then cache the result (if found) to
-		 *   optimize subsequent accesses.
+		 * - While a full snapshot is loaded, its index is authoritative: an absent
+		 *   id does not exist and needs no delegate call.
+		 * - Otherwise consult the bounded cache, which may also remember misses.
+		 * - If missing, ask the delegate then cache the result (found or not) to
+		 *   optimize subsequent accesses, unless a write happened in the meantime.
 		 */
-		if (cachedById.containsKey(id)) {
-			return cachedById.get(id);
+		Snapshot current = snapshot.get();
+		if (current.isFresh() || servesStale(current)) {
+			return current.byId().get(id);
+		}
+		BoundedTaskCache.Entry cached = cachedById.lookup(id);
+		if (cached != null) {
+			return cached.task();
 		}
-		ITask t = target.getTask(id);
-		if (t != null) {
-			cachedById.put(id, t);
+		ITask t;
+		ProxyReloadEvent reload = ProxyReloadEvent.start("getTask");
+		try {
+			t = target.getTask(id);
+			reload.rows(t == null ? 0 : 1);
+		} finally {
+			reload.finish();
+		}
+		synchronized (cachedById) {
+			if (snapshot.get() == current) {
+				cachedById.put(id, t);
+			}
 		}
 		return t;
 	}
 
 	/**
-	 * Invalidates both the list and by-id caches after write operations.
+	 * Returns hit, miss and eviction statistics of the by-id cache.
+	 *
+	 * @return cache statistics
+	 */
+	public BoundedTaskCache.CacheStats getCacheStats() {
+		return cachedById.stats();
+	}
+
+	/**
+	 * Decides whether a stale snapshot may be served to the calling thread, and if so
+	 * makes sure a background refresh is running.
+	 */
+	private boolean servesStale(Snapshot s) {
+		if (!s.isLoaded() || !s.stale()) {
+			return false;
+		}
+		if (System.nanoTime() - s.staleSince() > maxStalenessNanos || lastWrite.get()[0] > s.version()) {
+			return false;
+		}
+		refreshInBackground();
+		return true;
+	}
+
+	/**
+	 * Joins the in-flight refresh, or runs one on the calling thread if none is running.
+	 */
+	private Snapshot awaitRefresh() throws TasksDAOException {
+		CompletableFuture<Snapshot> mine = new CompletableFuture<>();
+		CompletableFuture<Snapshot> running = inFlight.compareAndExchange(null, mine);
+		if (running == null) {
+			runRefresh(mine);
+			running = mine;
+		}
+		try {
+			return running.join();
+		} catch (CompletionException e) {
+			if (e.getCause() instanceof TasksDAOException dao) {
+				throw dao;
+			}
+			throw e;
+		}
+	}
+
+	/**
+	 * Starts a refresh on the background thread unless one is already running.
+	 */
+	private void refreshInBackground() {
+		CompletableFuture<Snapshot> mine = new CompletableFuture<>();
+		if (inFlight.compareAndSet(null, mine)) {
+			refresher().execute(() -> runRefresh(mine));
+		}
+	}
+
+	/** Lazily creates the daemon thread used for background refreshes. */
+	private synchronized ExecutorService refresher() {
+		if (refresher == null) {
+			refresher = Executors.newSingleThreadExecutor(r -> {
+				Thread t = new Thread(r, "tasks-proxy-refresh");
+				t.setDaemon(true);
+				return t;
+			});
+		}
+		return refresher;
+	}
+
+	/**
+	 * Loads a snapshot from the delegate and completes the given future with it.
+	 * The result is published only if no write replaced the current snapshot meanwhile.
 	 */
-	private synchronized void invalidate() {
+	private void runRefresh(CompletableFuture<Snapshot> future) {
+		try {
+			Snapshot expected = snapshot.get();
+			long version = writeVersion.get();
+			ITask[] tasks;
+			ProxyReloadEvent reload = ProxyReloadEvent.start("getTasks");
+			try {
+				tasks = target.getTasks();
+				reload.rows(tasks.length);
+			} finally {
+				reload.finish();
+			}
+			Map<Integer, ITask> byId = new HashMap<>(tasks.length * 2);
+			for (ITask t : tasks) {
+				byId.put(t.getId(), t);
+			}
+			Snapshot loaded = new Snapshot(tasks, byId, version, false, 0);
+			snapshot.compareAndSet(expected, loaded);
+			future.complete(loaded);
+		} catch (Throwable t) {
+			future.completeExceptionally(t);
+		} finally {
+			inFlight.compareAndSet(future, null);
+		}
+	}
+
+	/**
+	 * Invalidates both the list and by-id caches (target change or bulk delete).
+	 * Must be called with the write lock held.
+	 */
+	private void invalidate() {
 		/*
 		 * Cache invalidation policy
 		 * - Drop the list snapshot and the ID index so the next read will
 		 *   refresh from the authoritative data source (delegate DAO).
 		 */
-		cachedTasks = null;
-		cachedById.clear();
+		synchronized (cachedById) {
+			lastWrite.get()[0] = writeVersion.incrementAndGet();
+			snapshot.set(Snapshot.empty());
+			cachedById.clear();
+		}
+	}
+
+	/**
+	 * Drops (or, with stale-while-revalidate, marks stale) the list snapshot and
+	 * invalidates the by-id cache for a single write. Records the write version for
+	 * the calling thread's read-your-writes guarantee.
+	 * Must be called with the write lock held.
+	 *
+	 * @param id id written, or 0 for an insert (drops negative entries instead)
+	 */
+	private void invalidateAfterWrite(int id) {
+		synchronized (cachedById) {
+			lastWrite.get()[0] = writeVersion.incrementAndGet();
+			Snapshot current = snapshot.get();
+			snapshot.set(maxStalenessNanos > 0 && current.isLoaded() ? current.markStale(System.nanoTime()) : Snapshot.empty());
+			if (id == 0) {
+				cachedById.invalidateNegatives();
+			} else {
+				cachedById.invalidate(id);
+			}
+		}
+	}
+
+	/** Acquires the write lock, reporting the wait as a {@link ProxyLockEvent}. */
+	private void lockForWrite(String operation) {
+		ProxyLockEvent wait = ProxyLockEvent.start(operation);
+		writeLock.lock();
+		wait.acquired();
 	}
 
 	/**
@@ -123,14 +369,96 @@ public class TasksDAOProxy implements ITasksDAO {
 	 * @throws TasksDAOException on failure
 	 */
 	@Override
-	public synchronized void addTask(ITask task) throws TasksDAOException {
+	public void addTask(ITask task) throws TasksDAOException {
+		addAndGetTask(task);
+	}
+
+	/**
+	 * Delegates add to the target, invalidates caches and returns the stored task.
+	 *
+	 * @param task task to add
+	 * @return the task with the id the target assigned, or null if the target cannot tell
+	 * @throws TasksDAOException on failure
+	 */
+	@Override
+	public ITask addAndGetTask(ITask task) throws TasksDAOException {
 		/*
 		 * Write-through + invalidate
 		 * - Forward the mutation to the delegate DAO.
 		 * - Invalidate caches to prevent stale reads on subsequent get operations.
 		 */
-		target.addTask(task);
-		invalidate();
+		lockForWrite("addTask");
+		try {
+			ITask stored = target.addAndGetTask(task);
+			invalidateAfterWrite(0);
+			return stored;
+		} finally {
+			writeLock.unlock();
+		}
+	}
+
+	/**
+	 * Streams straight from the target, bypassing (and not filling) the cache, so a full
+	 * export does not pull every task into memory.
+	 *
+	 * @param action receives each task
+	 * @throws TasksDAOException on failure
+	 */
+	@Override
+	public void forEachTask(Consumer<? super ITask> action) throws TasksDAOException {
+		target.forEachTask(action);
+	}
+
+	/**
+	 * Delegates the due-date range query to the target (the cache is not filled).
+	 *
+	 * @param day exclusive upper bound of the due date
+	 * @return open tasks due before {@code day}
+	 * @throws TasksDAOException on failure
+	 */
+	@Override
+	public ITask[] getOpenTasksDueBefore(LocalDate day) throws TasksDAOException {
+		return target.getOpenTasksDueBefore(day);
+	}
+
+	/**
+	 * Delegates the per-state count to the target (aggregates are not cached).
+	 *
+	 * @return state name to number of tasks
+	 * @throws TasksDAOException on failure
+	 */
+	@Override
+	public Map<String, Integer> countTasksByState() throws TasksDAOException {
+		return target.countTasksByState();
+	}
+
+	/**
+	 * Delegates the per-day count of open tasks to the target (aggregates are not cached).
+	 *
+	 * @return due date to number of open tasks
+	 * @throws TasksDAOException on failure
+	 */
+	@Override
+	public Map<LocalDate, Integer> countOpenTasksByDueDate() throws TasksDAOException {
+		return target.countOpenTasksByDueDate();
+	}
+
+	/**
+	 * Delegates a batch upsert to the target and invalidates caches once for the whole batch.
+	 *
+	 * @param tasks tasks to write
+	 * @return number of tasks written
+	 * @throws TasksDAOException on failure
+	 */
+	@Override
+	public int upsertTasks(List<? extends ITask> tasks) throws TasksDAOException {
+		lockForWrite("upsertTasks");
+		try {
+			return target.upsertTasks(tasks);
+		} finally {
+			invalidate();
+			writeLock.unlock();
+		}
 	}
 
 	/**
@@ -140,14 +468,19 @@ public class TasksDAOProxy implements ITasksDAO {
 	 * @throws TasksDAOException on failure
 	 */
 	@Override
-	public synchronized void updateTask(ITask task) throws TasksDAOException {
+	public void updateTask(ITask task) throws TasksDAOException {
 		/*
 		 * Write-through + invalidate
 		 * - Forward the update to the delegate DAO.
 		 * - Invalidate caches to ensure follow-up reads observe the latest state.
 		 */
-		target.updateTask(task);
-		invalidate();
+		lockForWrite("updateTask");
+		try {
+			target.updateTask(task);
+			invalidateAfterWrite(task.getId());
+		} finally {
+			writeLock.unlock();
+		}
 	}
 
 	/**
@@ -157,14 +490,19 @@ public class TasksDAOProxy implements ITasksDAO {
 	 * @throws TasksDAOException on failure
 	 */
 	@Override
-	public synchronized void deleteTask(int id) throws TasksDAOException {
+	public void deleteTask(int id) throws TasksDAOException {
 		/*
 		 * Write-through + invalidate
 		 * - Forward deletion to the delegate DAO.
 		 * - Invalidate caches to avoid serving deleted items from memory.
 		 */
-		target.deleteTask(id);
-		invalidate();
+		lockForWrite("deleteTask");
+		try {
+			target.deleteTask(id);
+			invalidateAfterWrite(id);
+		} finally {
+			writeLock.unlock();
+		}
 	}
 
 	/**
@@ -173,14 +511,39 @@ public class TasksDAOProxy implements ITasksDAO {
 	 * @throws TasksDAOException on failure
 	 */
 	@Override
-	public synchronized void deleteTasks() throws TasksDAOException {
+	public void deleteTasks() throws TasksDAOException {
 		/*
 		 * Bulk delete + invalidate
 		 * - Forward mass deletion to the delegate DAO and clear caches.
 		 */
-		target.deleteTasks();
-		invalidate();
+		lockForWrite("deleteTasks");
+		try {
+			target.deleteTasks();
+			invalidate();
+		} finally {
+			writeLock.unlock();
+		}
 	}
-}
-
 
+	/**
+	 * Stops the background refresher, shuts the delegate down and drops all cached state.
+	 *
+	 * @throws TasksDAOException on failure
+	 */
+	@Override
+	public void shutdown() throws TasksDAOException {
+		lockForWrite("shutdown");
+		try {
+			synchronized (this) {
+				if (refresher != null) {
+					refresher.shutdown();
+					refresher = null;
+				}
+			}
+			target.shutdown();
+			invalidate();
+		} finally {
+			writeLock.unlock();
+		}
+	}
+}
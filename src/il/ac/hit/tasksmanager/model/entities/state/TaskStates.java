@@ -0,0 +1,68 @@
+package il.ac.hit.tasksmanager.model.entities.state;
+
+/**
+ * Shared (flyweight) instances of the built-in task states.
+ * The concrete states carry no data, so one instance of each can be shared by all
+ * tasks; code that maps persisted or encoded states should use these instead of
+ * allocating new state objects.
+ * Each state also has a small numeric code (its ordinal in {@link #ALL}) used by
+ * compact encodings.
+ */
+public final class TaskStates {
+	/** Shared TODO state. */
+	public static final TaskState TODO = new ToDoState();
+	/** Shared IN_PROGRESS state. */
+	public static final TaskState IN_PROGRESS = new InProgressState();
+	/** Shared COMPLETED state. */
+	public static final TaskState COMPLETED = new CompletedState();
+
+	/** All built-in states, indexed by code. */
+	private static final TaskState[] ALL = { TODO, IN_PROGRESS, COMPLETED };
+
+	private TaskStates() {
+	}
+
+	/**
+	 * Returns the shared state for a canonical name; unknown names map to TODO.
+	 *
+	 * @param name state name such as "TODO", "IN_PROGRESS" or "COMPLETED"
+	 * @return shared state instance
+	 */
+	public static TaskState of(String name) {
+		if (name == null) {
+			return TODO;
+		}
+		return switch (name) {
+			case "IN_PROGRESS" -> IN_PROGRESS;
+			case "COMPLETED" -> COMPLETED;
+			default -> TODO;
+		};
+	}
+
+	/**
+	 * Returns the shared state for a numeric code; unknown codes map to TODO.
+	 *
+	 * @param code 0 (TODO), 1 (IN_PROGRESS) or 2 (COMPLETED)
+	 * @return shared state instance
+	 */
+	public static TaskState ofCode(int code) {
+		return code >= 0 && code < ALL.length ? ALL[code] : TODO;
+	}
+
+	/**
+	 * Returns the numeric code of a state by its name; unknown states map to 0 (TODO).
+	 *
+	 * @param state any state instance
+	 * @return state code
+	 */
+	public static int codeOf(TaskState state) {
+		if (state == null) {
+			return 0;
+		}
+		return switch (state.name()) {
+			case "IN_PROGRESS" -> 1;
+			case "COMPLETED" -> 2;
+			default -> 0;
+		};
+	}
+}
@@ -0,0 +1,17 @@
+package il.ac.hit.tasksmanager.model.observer;
+
+import il.ac.hit.tasksmanager.model.ReminderEvent;
+
+/**
+ * Observer pattern: receives due-date reminders from the Model's
+ * {@link il.ac.hit.tasksmanager.model.ReminderService}.
+ * Called on the reminder thread (or the Model executor for reminders found at startup);
+ * implementations that touch Swing must re-dispatch to the EDT.
+ *
+ * @see il.ac.hit.tasksmanager.model.Model#registerReminderObserver(ReminderObserver)
+ */
+@FunctionalInterface
+public interface ReminderObserver {
+    /** Called when a task becomes due soon or overdue. */
+    void onReminder(ReminderEvent event);
+}
@@ -2,6 +2,7 @@ package il.ac.hit.tasksmanager.model.visitor;
 
 import il.ac.hit.tasksmanager.model.Task;
 import il.ac.hit.tasksmanager.model.BasicTask;
+import il.ac.hit.tasksmanager.model.CsvFields;
 import il.ac.hit.tasksmanager.model.RecurringTask;
 import il.ac.hit.tasksmanager.model.entities.state.TaskState;
 import java.time.LocalDate;
@@ -9,25 +10,107 @@ import java.time.LocalDate;
 /**
  * GUIReportVisitor implements the Visitor pattern using Java records and
  * pattern matching over the sealed hierarchy of {@link Task} records.
+ * Lines are appended to a caller-supplied {@link StringBuilder} field by field
+ * (no {@code String.format} parsing per task), so a report of any size can be
+ * built in chunks by {@link ReportWriter} or page by page in the viewer.
  */
 public final class GUIReportVisitor {
     /**
      * Formats a task into a single textual line for GUI reports.
      */
     public String format(Task task) {
+        StringBuilder sb = new StringBuilder(96);
+        appendText(sb, task);
+        return sb.toString();
+    }
+
+    /**
+     * Appends a task in the given report format, including the line terminator.
+     *
+     * @param sb target buffer
+     * @param task task to visit
+     * @param format output format
+     */
+    public void append(StringBuilder sb, Task task, ReportFormat format) {
+        switch (format) {
+            case TEXT -> appendText(sb, task);
+            case HTML -> appendHtml(sb, task);
+            case CSV -> appendCsv(sb, task);
+        }
+        sb.append('\n');
+    }
+
+    /**
+     * Appends the plain-text line of a task (without line terminator):
+     * {@code [id] title [STATE] - dueDate (Type: BASIC)}.
+     */
+    public void appendText(StringBuilder sb, Task task) {
         /*
          * Visitor (record pattern matching)
          * - Select concrete record by deconstructing patterns inside a switch
          * - Avoids classic double-dispatch by leveraging sealed interface + records
-         * - Each case extracts fields directly and composes the output string
+         * - Each case extracts fields directly and appends them to the buffer
          */
-        return switch (task) {
+        switch (task) {
             case BasicTask(int id, String title, String description, TaskState state, LocalDate dueDate) ->
-                String.format("[%d] %s [%s] - %s (Type: BASIC)", id, title, state, dueDate);
+                head(sb, id, title, state, dueDate).append(" (Type: BASIC)");
             case RecurringTask(int id, String title, String description, TaskState state, LocalDate dueDate, int interval) ->
-                String.format("[%d] %s [%s] - %s (Type: RECURRING, Interval: %d days)", id, title, state, dueDate, interval);
-        };
+                head(sb, id, title, state, dueDate).append(" (Type: RECURRING, Interval: ").append(interval).append(" days)");
+        }
+    }
+
+    private static StringBuilder head(StringBuilder sb, int id, String title, TaskState state, LocalDate dueDate) {
+        return sb.append('[').append(id).append("] ").append(title)
+                .append(" [").append(state).append("] - ").append(dueDate);
+    }
+
+    /** Appends a task as an HTML table row (without line terminator). */
+    public void appendHtml(StringBuilder sb, Task task) {
+        sb.append("<tr><td>").append(task.id()).append("</td><td>");
+        html(sb, task.title());
+        sb.append("</td><td>");
+        html(sb, task.description());
+        sb.append("</td><td>").append(task.state()).append("</td><td>");
+        if (task.dueDate() != null) {
+            sb.append(task.dueDate());
+        }
+        sb.append("</td><td>");
+        switch (task) {
+            case BasicTask b -> sb.append("BASIC</td><td>");
+            case RecurringTask r -> sb.append("RECURRING</td><td>").append(r.interval());
+        }
+        sb.append("</td></tr>");
     }
-}
 
+    /** Appends a task as a CSV record (without line terminator). */
+    public void appendCsv(StringBuilder sb, Task task) {
+        sb.append(task.id()).append(',');
+        CsvFields.append(sb, task.title());
+        sb.append(',');
+        CsvFields.append(sb, task.description());
+        sb.append(',').append(task.state()).append(',');
+        if (task.dueDate() != null) {
+            sb.append(task.dueDate());
+        }
+        switch (task) {
+            case BasicTask b -> sb.append(",BASIC,");
+            case RecurringTask r -> sb.append(",RECURRING,").append(r.interval());
+        }
+    }
 
+    private static void html(StringBuilder sb, String value) {
+        if (value == null) {
+            return;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '<' -> sb.append("&lt;");
+                case '>' -> sb.append("&gt;");
+                case '&' -> sb.append("&amp;");
+                case '"' -> sb.append("&quot;");
+                default -> sb.append(c);
+            }
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package il.ac.hit.tasksmanager.model.visitor;
+
+import java.nio.file.Path;
+import java.util.Locale;
+
+/**
+ * Output formats of a task report, each with the text written before and after the task lines.
+ */
+public enum ReportFormat {
+    /** One line per task, as shown in the report viewer. */
+    TEXT("", ""),
+    /** A standalone HTML page with one table row per task. */
+    HTML("<!DOCTYPE html>\n<html><head><meta charset=\"UTF-8\"><title>Task Report</title></head><body>\n"
+            + "<table border=\"1\">\n<tr><th>ID</th><th>Title</th><th>Description</th><th>State</th>"
+            + "<th>Due date</th><th>Type</th><th>Interval (days)</th></tr>\n",
+            "</table>\n</body></html>\n"),
+    /** Comma-separated values with a header record. */
+    CSV("id,title,description,state,dueDate,type,intervalDays\n", "");
+
+    private final String header;
+    private final String footer;
+
+    ReportFormat(String header, String footer) {
+        this.header = header;
+        this.footer = footer;
+    }
+
+    /** Returns the text written before the first task. */
+    public String header() {
+        return header;
+    }
+
+    /** Returns the text written after the last task. */
+    public String footer() {
+        return footer;
+    }
+
+    /**
+     * Picks the format from a file name: {@code .html}/{@code .htm}, {@code .csv}, otherwise text.
+     *
+     * @param file report file
+     * @return matching format
+     */
+    public static ReportFormat of(Path file) {
+        String name = file.getFileName().toString().toLowerCase(Locale.ROOT);
+        if (name.endsWith(".html") || name.endsWith(".htm")) {
+            return HTML;
+        }
+        return name.endsWith(".csv") ? CSV : TEXT;
+    }
+}
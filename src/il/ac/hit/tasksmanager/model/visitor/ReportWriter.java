@@ -0,0 +1,123 @@
+package il.ac.hit.tasksmanager.model.visitor;
+
+import il.ac.hit.tasksmanager.model.OrderedChunkWriter;
+import il.ac.hit.tasksmanager.model.Task;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ReportWriter streams a task report to a {@link Writer} sink (text, HTML or CSV, see
+ * {@link ReportFormat}) instead of building it as one string.
+ * - The task list is cut into chunks of {@link #chunkSize(int)} tasks.
+ * - Each chunk is formatted by {@link GUIReportVisitor} into its own buffer on a worker pool
+ *   ({@link #parallelism(int)} threads).
+ * - Chunks are written in list order through an {@link OrderedChunkWriter}; at most
+ *   {@code 2 × parallelism} are in flight, so memory stays at a few chunks regardless of the report size.
+ */
+public final class ReportWriter {
+    private final GUIReportVisitor visitor = new GUIReportVisitor();
+    private int chunkSize = 2000;
+    private int parallelism = Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+
+    /**
+     * Sets the number of tasks formatted per chunk (default 2000).
+     *
+     * @param chunkSize tasks per chunk
+     * @return this writer
+     */
+    public ReportWriter chunkSize(int chunkSize) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("chunkSize must be positive");
+        }
+        this.chunkSize = chunkSize;
+        return this;
+    }
+
+    /**
+     * Sets the number of formatting threads (default: available processors minus one).
+     *
+     * @param parallelism formatting threads
+     * @return this writer
+     */
+    public ReportWriter parallelism(int parallelism) {
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("parallelism must be positive");
+        }
+        this.parallelism = parallelism;
+        return this;
+    }
+
+    /**
+     * Writes the report to a UTF-8 file, picking the format from its name ({@link ReportFormat#of}).
+     * The file is written under a temporary name and moved into place when complete.
+     *
+     * @param tasks tasks in report order
+     * @param file target file
+     * @return number of tasks written
+     * @throws IOException when the file cannot be written
+     */
+    public int write(List<? extends Task> tasks, Path file) throws IOException {
+        long start = System.nanoTime();
+        Path tmp = file.resolveSibling(file.getFileName() + ".part");
+        try (Writer out = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+            write(tasks, ReportFormat.of(file), out);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(tmp);
+            throw e;
+        }
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        System.err.println("Wrote report of " + tasks.size() + " tasks to " + file + " in "
+                + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) + " ms");
+        return tasks.size();
+    }
+
+    /**
+     * Writes the report (header, one line per task, footer) to a sink; the sink is not closed.
+     *
+     * @param tasks tasks in report order
+     * @param format output format
+     * @param out sink
+     * @return number of tasks written
+     * @throws IOException when the sink fails
+     */
+    public int write(List<? extends Task> tasks, ReportFormat format, Writer out) throws IOException {
+        out.write(format.header());
+        if (tasks.size() <= chunkSize || parallelism == 1) {
+            // small reports (and single-threaded writers) are formatted on the calling thread
+            for (int from = 0; from < tasks.size(); from += chunkSize) {
+                out.write(format(tasks, from, Math.min(tasks.size(), from + chunkSize), format));
+            }
+        } else {
+            writeParallel(tasks, format, out);
+        }
+        out.write(format.footer());
+        out.flush();
+        return tasks.size();
+    }
+
+    private void writeParallel(List<? extends Task> tasks, ReportFormat format, Writer out) throws IOException {
+        try (OrderedChunkWriter<String> chunks = new OrderedChunkWriter<>("tasks-report", parallelism, "report", out::write)) {
+            for (int from = 0; from < tasks.size(); from += chunkSize) {
+                int lo = from;
+                int hi = Math.min(tasks.size(), from + chunkSize);
+                chunks.submit(() -> format(tasks, lo, hi, format));
+            }
+            chunks.finish();
+        }
+    }
+
+    private String format(List<? extends Task> tasks, int from, int to, ReportFormat format) {
+        StringBuilder sb = new StringBuilder((to - from) * 96);
+        for (int i = from; i < to; i++) {
+            visitor.append(sb, tasks.get(i), format);
+        }
+        return sb.toString();
+    }
+}
@@ -6,7 +6,7 @@ import java.awt.FlowLayout;
 
 /**
  * ActionsPanel presents the primary actions for tasks: Add, Edit, Delete,
- * and Generate Report. Each button triggers a corresponding
+ * Generate Report and Diagnostics. Each button triggers a corresponding
  * callback provided by the owning frame.
  */
 public class ActionsPanel extends JPanel {
@@ -16,24 +16,28 @@ public class ActionsPanel extends JPanel {
      * @param onEdit invoked when Edit is pressed
      * @param onDelete invoked when Delete is pressed
      * @param onReport invoked when Generate Report is pressed
+     * @param onDiagnostics invoked when Diagnostics is pressed
      */
-    public ActionsPanel(Runnable onAdd, Runnable onEdit, Runnable onDelete, Runnable onReport) {
+    public ActionsPanel(Runnable onAdd, Runnable onEdit, Runnable onDelete, Runnable onReport, Runnable onDiagnostics) {
         // build actions bar
         setLayout(new FlowLayout(FlowLayout.RIGHT, 8, 8));
         JButton addBtn = new JButton("Add");
         JButton editBtn = new JButton("Edit");
         JButton delBtn = new JButton("Delete");
         JButton reportBtn = new JButton("Generate Report");
+        JButton diagBtn = new JButton("Diagnostics");
         // add components
         add(addBtn);
         add(editBtn);
         add(delBtn);
         add(reportBtn);
+        add(diagBtn);
         // wire listeners
         addBtn.addActionListener(e -> onAdd.run());
         editBtn.addActionListener(e -> onEdit.run());
         delBtn.addActionListener(e -> onDelete.run());
         reportBtn.addActionListener(e -> onReport.run());
+        diagBtn.addActionListener(e -> onDiagnostics.run());
     }
 }
 
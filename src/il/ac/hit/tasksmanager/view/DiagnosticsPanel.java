@@ -0,0 +1,89 @@
+package il.ac.hit.tasksmanager.view;
+
+import il.ac.hit.tasksmanager.diagnostics.EdtMonitor;
+import il.ac.hit.tasksmanager.model.ExecutorStats;
+import il.ac.hit.tasksmanager.viewmodel.TasksListViewModel;
+
+import javax.swing.BorderFactory;
+import javax.swing.JLabel;
+import javax.swing.JPanel;
+import javax.swing.JScrollPane;
+import javax.swing.JTextArea;
+import javax.swing.Timer;
+import java.awt.BorderLayout;
+import java.awt.GridLayout;
+import java.util.List;
+
+/**
+ * DiagnosticsPanel shows live EDT responsiveness (from {@link EdtMonitor}) and
+ * Model executor saturation (from the view model). It refreshes once per second
+ * while it is displayed.
+ */
+public class DiagnosticsPanel extends JPanel {
+    private final TasksListViewModel viewModel;
+    private final JLabel latencyLabel = new JLabel();
+    private final JLabel eventsLabel = new JLabel();
+    private final JLabel executorLabel = new JLabel();
+    private final JLabel waitLabel = new JLabel();
+    private final JTextArea stallsArea = new JTextArea(15, 80);
+    private final Timer timer = new Timer(1000, e -> refresh());
+
+    /**
+     * Creates the diagnostics panel.
+     * @param viewModel view model providing executor statistics
+     */
+    public DiagnosticsPanel(TasksListViewModel viewModel) {
+        this.viewModel = viewModel;
+        setLayout(new BorderLayout(8, 8));
+        setBorder(BorderFactory.createEmptyBorder(8, 8, 8, 8));
+        // summary labels
+        JPanel summary = new JPanel(new GridLayout(0, 1, 4, 4));
+        summary.add(latencyLabel);
+        summary.add(eventsLabel);
+        summary.add(executorLabel);
+        summary.add(waitLabel);
+        add(summary, BorderLayout.NORTH);
+        // recent stall stack traces
+        stallsArea.setEditable(false);
+        add(new JScrollPane(stallsArea), BorderLayout.CENTER);
+        refresh();
+    }
+
+    @Override
+    public void addNotify() {
+        super.addNotify();
+        timer.start();
+    }
+
+    @Override
+    public void removeNotify() {
+        timer.stop();
+        super.removeNotify();
+    }
+
+    /** Reads the current statistics and updates the labels and the stall list. */
+    private void refresh() {
+        EdtMonitor monitor = EdtMonitor.current();
+        if (monitor == null) {
+            latencyLabel.setText("EDT monitor not installed");
+            eventsLabel.setText("");
+            stallsArea.setText("");
+        } else {
+            EdtMonitor.EdtStats s = monitor.getStats();
+            latencyLabel.setText("EDT dispatch latency: last " + s.lastLatencyMillis() + " ms, max " + s.maxLatencyMillis() + " ms");
+            eventsLabel.setText("Events over " + s.stallThresholdMillis() + " ms: " + s.slowEvents() + " (longest " + s.maxEventMillis() + " ms)");
+            List<EdtMonitor.Stall> stalls = s.recentStalls();
+            StringBuilder sb = new StringBuilder();
+            for (int i = stalls.size() - 1; i >= 0; i--) {
+                EdtMonitor.Stall st = stalls.get(i);
+                sb.append(st.at()).append("  ").append(st.event()).append("  ").append(st.runningMillis()).append(" ms\n")
+                  .append(st.stackTrace()).append('\n');
+            }
+            stallsArea.setText(sb.length() == 0 ? "No EDT stalls captured." : sb.toString());
+            stallsArea.setCaretPosition(0);
+        }
+        ExecutorStats x = viewModel.getExecutorStats();
+        executorLabel.setText("Model executor: " + x.activeThreads() + "/" + x.poolSize() + " active, " + x.queueLength() + " queued, " + x.completedJobs() + " completed");
+        waitLabel.setText(String.format("Job queue wait: avg %.1f ms, max %d ms", x.avgWaitMillis(), x.maxWaitMillis()));
+    }
+}
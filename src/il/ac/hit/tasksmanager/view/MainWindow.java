@@ -4,16 +4,22 @@ import il.ac.hit.tasksmanager.model.Task;
 import il.ac.hit.tasksmanager.model.BasicTask;
 import il.ac.hit.tasksmanager.model.RecurringTask;
 import il.ac.hit.tasksmanager.model.ModelException;
+import il.ac.hit.tasksmanager.model.ReminderEvent;
 import il.ac.hit.tasksmanager.viewmodel.TasksListViewModel;
 import il.ac.hit.tasksmanager.viewmodel.observer.ViewModelObserver;
 import il.ac.hit.tasksmanager.model.combinator.TaskFilter;
-import il.ac.hit.tasksmanager.model.visitor.GUIReportVisitor;
 import il.ac.hit.tasksmanager.view.dto.TaskInput;
 
+import javax.swing.BorderFactory;
+import javax.swing.JDialog;
 import javax.swing.JFrame;
 import javax.swing.JOptionPane;
+import javax.swing.JLabel;
 import javax.swing.JPanel;
+import javax.swing.SwingUtilities;
 import java.awt.BorderLayout;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
 import java.util.List;
 
 /**
@@ -26,6 +32,10 @@ public class MainWindow extends JFrame implements ViewModelObserver {
     private final TasksListViewModel viewModel;
     private final TasksTablePanel tablePanel = new TasksTablePanel();
     private final FilterPanel filterPanel;
+    private final JLabel statusLabel = new JLabel("Loading tasks...");
+    private final SummaryBar summaryBar;
+    private final JLabel reminderLabel = new JLabel();
+    private int reminders;
 
     private TaskFilter currentFilter = task -> true;
 
@@ -35,7 +45,13 @@ public class MainWindow extends JFrame implements ViewModelObserver {
         this.viewModel.registerObserver(this);
 
         setTitle("Tasks Manager");
-        setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+        setDefaultCloseOperation(JFrame.DO_NOTHING_ON_CLOSE);
+        addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosing(WindowEvent e) {
+                onClose();
+            }
+        });
         setLayout(new BorderLayout());
 
         filterPanel = new FilterPanel(filter -> {
@@ -49,11 +65,24 @@ public class MainWindow extends JFrame implements ViewModelObserver {
                 this::onAdd,
                 this::onEdit,
                 this::onDelete,
-                this::onReport
+                this::onReport,
+                this::onDiagnostics
         ), BorderLayout.EAST);
 
         add(top, BorderLayout.NORTH);
         add(tablePanel, BorderLayout.CENTER);
+        statusLabel.setBorder(BorderFactory.createEmptyBorder(4, 8, 4, 8));
+        summaryBar = new SummaryBar(viewModel);
+        JPanel bottom = new JPanel(new BorderLayout());
+        bottom.add(summaryBar, BorderLayout.CENTER);
+        reminderLabel.setBorder(BorderFactory.createEmptyBorder(2, 8, 2, 8));
+        reminderLabel.setForeground(new java.awt.Color(0xB35C00));
+        reminderLabel.setVisible(false);
+        bottom.add(reminderLabel, BorderLayout.NORTH);
+        bottom.add(statusLabel, BorderLayout.SOUTH);
+        add(bottom, BorderLayout.SOUTH);
+        /* Loading state: the database boots in the background while the window is shown */
+        viewModel.whenReady().whenComplete((ok, error) -> SwingUtilities.invokeLater(() -> onDatabaseReady(error)));
 
         pack();
         setMinimumSize(new java.awt.Dimension(1000, 700));
@@ -62,6 +91,37 @@ public class MainWindow extends JFrame implements ViewModelObserver {
         refreshTable();
     }
 
+    /**
+     * Replaces the loading indicator once the database has booted, or shows why it failed.
+     */
+    private void onDatabaseReady(Throwable error) {
+        if (error == null) {
+            statusLabel.setVisible(false);
+            return;
+        }
+        Throwable cause = (error.getCause() != null) ? error.getCause() : error;
+        statusLabel.setText("Database unavailable: " + cause.getMessage());
+        statusLabel.setForeground(java.awt.Color.RED);
+    }
+
+    /**
+     * Shuts the view model down off the EDT (drain writes, checkpoint Derby), then exits.
+     */
+    private void onClose() {
+        statusLabel.setText("Saving and closing...");
+        statusLabel.setForeground(java.awt.Color.DARK_GRAY);
+        statusLabel.setVisible(true);
+        setEnabled(false);
+        Thread closer = new Thread(() -> {
+            viewModel.shutdown();
+            SwingUtilities.invokeLater(() -> {
+                dispose();
+                System.exit(0);
+            });
+        }, "tasks-close");
+        closer.start();
+    }
+
     /**
      * Handles the Add action by opening the form dialog and delegating creation
      * to the view model according to the user's input.
@@ -141,18 +201,24 @@ public class MainWindow extends JFrame implements ViewModelObserver {
     }
 
     /**
-     * Generates and displays a simple textual report of all tasks using the Visitor.
+     * Opens the paged report viewer over the current task list; pages are formatted by the Visitor on demand.
      */
     private void onReport() {
-        /* Compose a simple report by visiting each task and showing the output. */
-        GUIReportVisitor visitor = new GUIReportVisitor();
-        StringBuilder sb = new StringBuilder();
-        for (Task t : viewModel.getTasks()) {
-            // Visit each task for formatting
-            sb.append(visitor.format(t)).append("\n");
-        }
-        String report = (sb.length() == 0) ? "No tasks." : sb.toString();
-        JOptionPane.showMessageDialog(this, report, "Task Report", JOptionPane.INFORMATION_MESSAGE);
+        /* The cached list is immutable, so the viewer can page through it and save it off the EDT. */
+        ReportViewerDialog dlg = new ReportViewerDialog(this, viewModel.getTasks());
+        dlg.setVisible(true);
+    }
+
+    /**
+     * Opens a non-modal window with live EDT and executor diagnostics.
+     */
+    private void onDiagnostics() {
+        JDialog dlg = new JDialog(this, "Diagnostics", false);
+        dlg.setDefaultCloseOperation(JDialog.DISPOSE_ON_CLOSE);
+        dlg.add(new DiagnosticsPanel(viewModel));
+        dlg.pack();
+        dlg.setLocationRelativeTo(this);
+        dlg.setVisible(true);
     }
 
     /**
@@ -164,9 +230,20 @@ public class MainWindow extends JFrame implements ViewModelObserver {
         tablePanel.setTasks(tasks);
     }
 
+    @Override
+    public void onReminder(ReminderEvent event) {
+        /* Reminder entry point from ViewModel (on the EDT): show the latest one and how many arrived */
+        reminders++;
+        String what = (event.kind() == ReminderEvent.Kind.OVERDUE) ? "is overdue" : "is due soon";
+        reminderLabel.setText("Reminder: \"" + event.title() + "\" " + what + " (due " + event.dueDate() + ")"
+                + (reminders > 1 ? "   [" + reminders + " reminders]" : ""));
+        reminderLabel.setVisible(true);
+    }
+
     @Override
     public void update() {
         /* Observer update entry point from ViewModel */
         refreshTable();
+        summaryBar.refresh();
     }
 }
@@ -0,0 +1,142 @@
+package il.ac.hit.tasksmanager.view;
+
+import il.ac.hit.tasksmanager.model.Task;
+import il.ac.hit.tasksmanager.model.visitor.GUIReportVisitor;
+import il.ac.hit.tasksmanager.model.visitor.ReportWriter;
+
+import javax.swing.BorderFactory;
+import javax.swing.JButton;
+import javax.swing.JDialog;
+import javax.swing.JFileChooser;
+import javax.swing.JFrame;
+import javax.swing.JLabel;
+import javax.swing.JOptionPane;
+import javax.swing.JPanel;
+import javax.swing.JScrollPane;
+import javax.swing.JTextArea;
+import javax.swing.SwingUtilities;
+import javax.swing.filechooser.FileNameExtensionFilter;
+import java.awt.BorderLayout;
+import java.awt.FlowLayout;
+import java.awt.Font;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * ReportViewerDialog shows the task report one page at a time in a scrollable text area:
+ * only the visible page is formatted by {@link GUIReportVisitor}, so opening the report costs
+ * the same for ten tasks or a million. "Save..." streams the whole report to a text, HTML
+ * or CSV file with {@link ReportWriter} on a background thread.
+ */
+public class ReportViewerDialog extends JDialog {
+    /** Tasks shown per page. */
+    static final int PAGE_SIZE = 500;
+
+    private final List<Task> tasks;
+    private final GUIReportVisitor visitor = new GUIReportVisitor();
+    private final JTextArea area = new JTextArea(30, 100);
+    private final JLabel pageLabel = new JLabel();
+    private final JButton first = new JButton("<<");
+    private final JButton prev = new JButton("<");
+    private final JButton next = new JButton(">");
+    private final JButton last = new JButton(">>");
+    private final JButton save = new JButton("Save...");
+    private int page;
+
+    /**
+     * Creates the viewer over a snapshot of the tasks.
+     *
+     * @param owner parent frame
+     * @param tasks tasks in report order (not copied; pass an immutable list)
+     */
+    public ReportViewerDialog(JFrame owner, List<Task> tasks) {
+        super(owner, "Task Report", false);
+        this.tasks = tasks;
+        setDefaultCloseOperation(JDialog.DISPOSE_ON_CLOSE);
+        setLayout(new BorderLayout(4, 4));
+        area.setEditable(false);
+        area.setFont(new Font(Font.MONOSPACED, Font.PLAIN, 12));
+        add(new JScrollPane(area), BorderLayout.CENTER);
+
+        JPanel nav = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        nav.setBorder(BorderFactory.createEmptyBorder(4, 4, 4, 4));
+        nav.add(first);
+        nav.add(prev);
+        nav.add(pageLabel);
+        nav.add(next);
+        nav.add(last);
+        nav.add(save);
+        add(nav, BorderLayout.SOUTH);
+
+        first.addActionListener(e -> showPage(0));
+        prev.addActionListener(e -> showPage(page - 1));
+        next.addActionListener(e -> showPage(page + 1));
+        last.addActionListener(e -> showPage(pageCount() - 1));
+        save.addActionListener(e -> onSave());
+
+        showPage(0);
+        pack();
+        setLocationRelativeTo(owner);
+    }
+
+    private int pageCount() {
+        return Math.max(1, (tasks.size() + PAGE_SIZE - 1) / PAGE_SIZE);
+    }
+
+    /** Formats and displays one page, clamping the index to the valid range. */
+    private void showPage(int index) {
+        page = Math.max(0, Math.min(index, pageCount() - 1));
+        if (tasks.isEmpty()) {
+            area.setText("No tasks.");
+        } else {
+            int from = page * PAGE_SIZE;
+            int to = Math.min(tasks.size(), from + PAGE_SIZE);
+            StringBuilder sb = new StringBuilder((to - from) * 96);
+            for (int i = from; i < to; i++) {
+                visitor.appendText(sb, tasks.get(i));
+                sb.append('\n');
+            }
+            area.setText(sb.toString());
+        }
+        area.setCaretPosition(0);
+        pageLabel.setText("Page " + (page + 1) + " of " + pageCount() + " (" + tasks.size() + " tasks)");
+        first.setEnabled(page > 0);
+        prev.setEnabled(page > 0);
+        next.setEnabled(page < pageCount() - 1);
+        last.setEnabled(page < pageCount() - 1);
+    }
+
+    /** Asks for a file and writes the full report to it off the EDT. */
+    private void onSave() {
+        JFileChooser chooser = new JFileChooser();
+        chooser.addChoosableFileFilter(new FileNameExtensionFilter("Text (*.txt)", "txt"));
+        chooser.addChoosableFileFilter(new FileNameExtensionFilter("HTML (*.html)", "html", "htm"));
+        chooser.addChoosableFileFilter(new FileNameExtensionFilter("CSV (*.csv)", "csv"));
+        if (chooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+        Path file = chooser.getSelectedFile().toPath();
+        save.setEnabled(false);
+        Thread writer = new Thread(() -> {
+            String message;
+            int type;
+            try {
+                int rows = new ReportWriter().write(tasks, file);
+                message = "Saved " + rows + " tasks to " + file;
+                type = JOptionPane.INFORMATION_MESSAGE;
+            } catch (IOException e) {
+                message = "Could not save report: " + e.getMessage();
+                type = JOptionPane.ERROR_MESSAGE;
+            }
+            String text = message;
+            int messageType = type;
+            SwingUtilities.invokeLater(() -> {
+                save.setEnabled(true);
+                JOptionPane.showMessageDialog(this, text, "Task Report", messageType);
+            });
+        }, "tasks-report-save");
+        writer.setDaemon(true);
+        writer.start();
+    }
+}
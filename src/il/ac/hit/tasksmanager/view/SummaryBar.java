@@ -0,0 +1,84 @@
+package il.ac.hit.tasksmanager.view;
+
+import il.ac.hit.tasksmanager.model.TaskAggregates;
+import il.ac.hit.tasksmanager.viewmodel.TasksListViewModel;
+
+import javax.swing.BorderFactory;
+import javax.swing.JLabel;
+import javax.swing.JPanel;
+import javax.swing.Timer;
+import java.awt.Color;
+import java.awt.FlowLayout;
+import java.time.LocalDate;
+import java.time.format.TextStyle;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * SummaryBar shows the dashboard counts (total, per state, overdue, due today and the open
+ * tasks due on each of the next days) from the view model's {@link TaskAggregates}.
+ * Reading the aggregates does not scan the tasks, so {@link #refresh()} is cheap enough to call
+ * on every view update; a timer also refreshes it once a minute so "overdue" follows the date.
+ */
+public class SummaryBar extends JPanel {
+    /** Number of days shown in the load strip, including today. */
+    static final int LOAD_DAYS = 7;
+
+    private final TasksListViewModel viewModel;
+    private final JLabel countsLabel = new JLabel();
+    private final JLabel overdueLabel = new JLabel();
+    private final JLabel loadLabel = new JLabel();
+    private final Timer timer = new Timer(60_000, e -> refresh());
+
+    /**
+     * Creates the summary bar.
+     * @param viewModel view model providing the aggregates
+     */
+    public SummaryBar(TasksListViewModel viewModel) {
+        this.viewModel = viewModel;
+        setLayout(new FlowLayout(FlowLayout.LEFT, 16, 2));
+        setBorder(BorderFactory.createEmptyBorder(2, 4, 2, 4));
+        add(countsLabel);
+        add(overdueLabel);
+        add(loadLabel);
+        refresh();
+    }
+
+    @Override
+    public void addNotify() {
+        super.addNotify();
+        timer.start();
+    }
+
+    @Override
+    public void removeNotify() {
+        timer.stop();
+        super.removeNotify();
+    }
+
+    /** Reads the current aggregates and updates the labels. */
+    public void refresh() {
+        TaskAggregates a = viewModel.getAggregates();
+        StringBuilder counts = new StringBuilder("Total: ").append(a.total());
+        for (Map.Entry<String, Integer> e : a.countsByState().entrySet()) {
+            counts.append("   ").append(e.getKey()).append(": ").append(e.getValue());
+        }
+        countsLabel.setText(counts.toString());
+
+        int overdue = a.overdue();
+        overdueLabel.setText("Overdue: " + overdue);
+        overdueLabel.setForeground(overdue > 0 ? Color.RED : Color.DARK_GRAY);
+
+        StringBuilder load = new StringBuilder("Due: ");
+        boolean first = true;
+        for (Map.Entry<LocalDate, Integer> e : a.openDueByDay(LOAD_DAYS).entrySet()) {
+            if (!first) {
+                load.append("  ");
+            }
+            load.append(first ? "today" : e.getKey().getDayOfWeek().getDisplayName(TextStyle.SHORT, Locale.getDefault()))
+                .append(' ').append(e.getValue());
+            first = false;
+        }
+        loadLabel.setText(load.toString());
+    }
+}
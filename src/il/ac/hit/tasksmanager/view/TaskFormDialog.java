@@ -2,9 +2,7 @@ package il.ac.hit.tasksmanager.view;
 
 import il.ac.hit.tasksmanager.model.Task;
 import il.ac.hit.tasksmanager.model.entities.state.TaskState;
-import il.ac.hit.tasksmanager.model.entities.state.ToDoState;
-import il.ac.hit.tasksmanager.model.entities.state.InProgressState;
-import il.ac.hit.tasksmanager.model.entities.state.CompletedState;
+import il.ac.hit.tasksmanager.model.entities.state.TaskStates;
 import il.ac.hit.tasksmanager.view.dto.TaskInput;
 
 import javax.swing.BorderFactory;
@@ -221,17 +219,7 @@ public class TaskFormDialog extends JDialog {
     }
 
     private TaskState parseState(String value) {
-        if (value == null) return new ToDoState();
-        switch (value.toUpperCase()) {
-            case "TODO":
-                return new ToDoState();
-            case "IN_PROGRESS":
-                return new InProgressState();
-            case "COMPLETED":
-                return new CompletedState();
-            default:
-                return new ToDoState();
-        }
+        return TaskStates.of(value == null ? null : value.toUpperCase());
     }
 
     // removed legacy recurrence pattern helpers (replaced by explicit Type + Interval)
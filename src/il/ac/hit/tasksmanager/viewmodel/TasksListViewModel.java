@@ -1,17 +1,25 @@
 package il.ac.hit.tasksmanager.viewmodel;
 
+import il.ac.hit.tasksmanager.diagnostics.EdtDispatchEvent;
+import il.ac.hit.tasksmanager.model.ExecutorStats;
 import il.ac.hit.tasksmanager.model.IModel;
 import il.ac.hit.tasksmanager.model.Model;
 import il.ac.hit.tasksmanager.model.ModelException;
+import il.ac.hit.tasksmanager.model.ReminderEvent;
 import il.ac.hit.tasksmanager.model.Task;
+import il.ac.hit.tasksmanager.model.TaskAggregates;
+import il.ac.hit.tasksmanager.model.TaskOccurrences;
+import il.ac.hit.tasksmanager.model.TaskSnapshotFile;
 import il.ac.hit.tasksmanager.model.combinator.TaskFilter;
+import il.ac.hit.tasksmanager.model.dao.ITasksDAO;
 import il.ac.hit.tasksmanager.model.entities.state.TaskState;
-import il.ac.hit.tasksmanager.model.entities.state.ToDoState;
+import il.ac.hit.tasksmanager.model.entities.state.TaskStates;
+import il.ac.hit.tasksmanager.model.observer.ReminderObserver;
 import il.ac.hit.tasksmanager.model.observer.TaskObserver;
 import il.ac.hit.tasksmanager.viewmodel.observer.ViewModelObserver;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.concurrent.CompletableFuture;
 import javax.swing.SwingUtilities;
 
 /**
@@ -35,20 +43,48 @@ import javax.swing.SwingUtilities;
  *   translating domain changes into UI updates.
  */
 
-public class TasksListViewModel implements TaskObserver {
+public class TasksListViewModel implements TaskObserver, ReminderObserver {
 	private IModel model;
 	private final List<ViewModelObserver> observers = new ArrayList<>();
 
 	public TasksListViewModel() throws ModelException {
+		init(new Model());
+	}
+
+	/**
+	 * Creates the ViewModel over a DAO that is still booting; nothing here waits for it.
+	 * Use {@link #whenReady()} to learn when the database is available.
+	 *
+	 * @param dao future completing with the DAO
+	 */
+	public TasksListViewModel(CompletableFuture<? extends ITasksDAO> dao) {
+		init(new Model(dao));
+	}
+
+	private void init(Model m) {
 		/*
 		 * Initialize ViewModel with a concrete Model using a setter
 		 * to centralize validation and future wiring.
 		 */
-		setModel(new Model());
+		// show the last snapshot immediately; loadData() reconciles it with Derby
+		m.enableSnapshot(TaskSnapshotFile.configuredPath());
+		setModel(m);
 		this.model.register(this);
+		// registered before the first load, which reports what came due while closed
+		this.model.registerReminderObserver(this);
 		this.model.loadData();
 	}
 
+	/**
+	 * Returns a future that completes once the model's database is ready
+	 * (exceptionally if it failed to start). Callbacks run off the EDT.
+	 *
+	 * @return readiness future
+	 */
+	public CompletableFuture<Void> whenReady() {
+		return model.whenReady();
+	}
+
 	/** Sets the backing model (must not be null). */
 	public synchronized void setModel(IModel model) {
 		/*
@@ -68,13 +104,13 @@ public class TasksListViewModel implements TaskObserver {
 
 	/** Returns tasks matching the provided filter. */
 	public List<Task> getFilteredTasks(TaskFilter filter) {
-		return model.getTasks().stream().filter(filter::matches).collect(Collectors.toList());
+		return model.getTasks(filter);
 	}
 
 	/** Adds a basic task with explicit state and due date. */
 	public void addTask(String title, String description, TaskState state, java.time.LocalDate dueDate) throws ModelException {
 		if (state == null) {
-			state = new ToDoState();
+			state = TaskStates.TODO;
 		}
 		model.addTask(title, description, state, dueDate);
 	}
@@ -82,7 +118,7 @@ public class TasksListViewModel implements TaskObserver {
 	/** Adds a recurring task with validation on interval and due date. */
 	public void addRecurringTask(String title, String description, TaskState state, java.time.LocalDate dueDate, int recurrenceDays) throws ModelException {
 		if (state == null) {
-			state = new ToDoState();
+			state = TaskStates.TODO;
 		}
 		if (recurrenceDays <= 0) {
 			throw new ModelException("recurrenceDays must be positive");
@@ -107,6 +143,34 @@ public class TasksListViewModel implements TaskObserver {
 		model.updateTask(task);
 	}
 
+	/**
+	 * Returns one page of task occurrences in a date window for calendar and planning views.
+	 *
+	 * @param from first day (inclusive)
+	 * @param to last day (inclusive)
+	 * @param after token of the previous page, or null for the first page
+	 * @param limit page size
+	 * @return occurrences in date order with the token of the next page
+	 */
+	public TaskOccurrences.Page getOccurrences(java.time.LocalDate from, java.time.LocalDate to, TaskOccurrences.PageToken after, int limit) {
+		return model.getOccurrences().page(from, to, after, limit);
+	}
+
+	/** Returns the model's task counts (by state, overdue, per-day load) for the summary bar. */
+	public TaskAggregates getAggregates() {
+		return model.getAggregates();
+	}
+
+	/** Returns statistics of the model's background executor for diagnostics. */
+	public ExecutorStats getExecutorStats() {
+		return model.getExecutorStats();
+	}
+
+	/** Shuts the model down (drains writes, checkpoints and stops the database); blocks until done. */
+	public void shutdown() {
+		model.shutdown();
+	}
+
 	/** Registers a view observer. */
 	public void registerObserver(ViewModelObserver observer) {
 		/*
@@ -129,9 +193,26 @@ public class TasksListViewModel implements TaskObserver {
 	public void onTasksChanged() {
 		/*
 		 * Observer callback from Model -> re-dispatch to views on EDT.
+		 * The time between posting and running on the EDT is reported to JFR.
 		 */
-		SwingUtilities.invokeLater(this::notifyObservers);
+		long posted = System.nanoTime();
+		SwingUtilities.invokeLater(() -> {
+			EdtDispatchEvent event = EdtDispatchEvent.start("onTasksChanged", System.nanoTime() - posted, observers.size());
+			try {
+				notifyObservers();
+			} finally {
+				event.finish();
+			}
+		});
 	}
-}
-
 
+	@Override
+	public void onReminder(ReminderEvent event) {
+		/* Reminder from the Model's reminder thread -> re-dispatch to views on the EDT. */
+		SwingUtilities.invokeLater(() -> {
+			for (ViewModelObserver o : observers) {
+				o.onReminder(event);
+			}
+		});
+	}
+}
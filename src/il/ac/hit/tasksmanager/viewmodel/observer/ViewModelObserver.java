@@ -1,5 +1,7 @@
 package il.ac.hit.tasksmanager.viewmodel.observer;
 
+import il.ac.hit.tasksmanager.model.ReminderEvent;
+
 /**
  * Observer interface on the View side for ViewModel updates.
  * Views implement this interface and register with the ViewModel to be
@@ -9,6 +11,10 @@ package il.ac.hit.tasksmanager.viewmodel.observer;
 public interface ViewModelObserver {
 	/** Called when the view model's data changes and the view should refresh. */
 	void update();
+
+	/** Called on the EDT when a task becomes due soon or overdue (ignored by default). */
+	default void onReminder(ReminderEvent event) {
+	}
 }
 
 
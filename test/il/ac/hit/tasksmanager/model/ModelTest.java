@@ -1,11 +1,28 @@
 package il.ac.hit.tasksmanager.model;
 
+import il.ac.hit.tasksmanager.model.dao.ITasksDAO;
+import il.ac.hit.tasksmanager.model.dao.TasksDAOException;
+import il.ac.hit.tasksmanager.model.dao.TasksDAOImpl;
+import il.ac.hit.tasksmanager.model.entities.ITask;
+import il.ac.hit.tasksmanager.model.entities.state.TaskStates;
 import il.ac.hit.tasksmanager.model.entities.state.ToDoState;
 import il.ac.hit.tasksmanager.model.observer.TaskObserver;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 public class ModelTest {
@@ -64,9 +81,136 @@ public class ModelTest {
 
         model.remove(obs);
     }
-}
 
+    @Test
+    public void aggregatesFollowMutationsWithoutReload() throws Exception {
+        model.loadData();
+        Thread.sleep(300);
+        TaskAggregates counts = model.getAggregates();
+        assertEquals(model.getTasks().size(), counts.total());
+        int todo = counts.countInState("TODO");
+
+        model.addTask("Aggregates Test", "desc");
+        Thread.sleep(300);
+        assertEquals(model.getTasks().size(), counts.total());
+        assertEquals(todo + 1, counts.countInState("TODO"));
+
+        Task added = model.getTasks().stream().filter(t -> "Aggregates Test".equals(t.title())).findFirst().orElseThrow();
+        model.deleteTask(added.id());
+        Thread.sleep(300);
+        assertEquals(todo, counts.countInState("TODO"));
+        assertEquals(model.getTasks().size(), counts.total());
+    }
+
+    @Test
+    public void jobsWaitForAsyncDaoBoot() throws Exception {
+        CompletableFuture<ITasksDAO> booting = new CompletableFuture<>();
+        Model pending = new Model(booting);
+        CountDownLatch loaded = new CountDownLatch(1);
+        pending.register(loaded::countDown);
+        pending.loadData();
+
+        assertFalse(pending.whenReady().isDone());
+        assertFalse(loaded.await(100, TimeUnit.MILLISECONDS));
+
+        booting.complete(TasksDAOImpl.getInstance());
+        pending.whenReady().get(5, TimeUnit.SECONDS);
+        assertTrue(loaded.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void failedDaoBootCompletesReadinessExceptionally() {
+        Model failed = new Model(CompletableFuture.failedFuture(new TasksDAOException("boot failed")));
+        failed.loadData();
 
+        ExecutionException e = assertThrows(ExecutionException.class, () -> failed.whenReady().get(5, TimeUnit.SECONDS));
+        assertInstanceOf(TasksDAOException.class, e.getCause());
+        assertTrue(failed.getTasks().isEmpty());
+    }
 
+    @Test
+    public void shutdownDrainsQueuedWritesAndShutsDaoDown() throws Exception {
+        List<String> calls = Collections.synchronizedList(new ArrayList<>());
+        ITasksDAO slow = new ITasksDAO() {
+            public ITask[] getTasks() { return new ITask[0]; }
+            public ITask getTask(int id) { return null; }
+            public void addTask(ITask task) throws TasksDAOException {
+                try {
+                    Thread.sleep(100);
+                } catch (InterruptedException e) {
+                    throw new TasksDAOException("interrupted", e);
+                }
+                calls.add("add " + task.getTitle());
+            }
+            public void updateTask(ITask task) { }
+            public void deleteTask(int id) { }
+            public void deleteTasks() { }
+            public void shutdown() { calls.add("shutdown"); }
+        };
+        Model m = new Model(CompletableFuture.completedFuture(slow));
+        m.addTask("queued", null);
+        m.shutdown();
+        m.shutdown();
+        m.addTask("after shutdown", null);
+
+        assertEquals(List.of("add queued", "shutdown"), calls);
+    }
 
+    @Test
+    public void loadBuildsTheCacheFromTheCursorWithoutARecordArray() throws Exception {
+        List<ITask> rows = List.of(
+            new BasicTask(1, "Streamed", null, TaskStates.TODO, null),
+            new RecurringTask(2, "Streamed weekly", null, TaskStates.COMPLETED, LocalDate.now().plusDays(3), 7));
+        ITasksDAO cursorOnly = new ITasksDAO() {
+            public ITask[] getTasks() { throw new UnsupportedOperationException("array read"); }
+            public void forEachTask(Consumer<? super ITask> action) { rows.forEach(action); }
+            public ITask[] getOpenTasksDueBefore(LocalDate day) { return new ITask[0]; }
+            public ITask getTask(int id) { return null; }
+            public void addTask(ITask task) { }
+            public void updateTask(ITask task) { }
+            public void deleteTask(int id) { }
+            public void deleteTasks() { }
+        };
+        Model m = new Model(CompletableFuture.completedFuture(cursorOnly));
+        m.loadData();
+        long deadline = System.currentTimeMillis() + 5000;
+        while (m.getTasks().size() < 2 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertEquals(List.of("Streamed", "Streamed weekly"), m.getTasks().stream().map(Task::title).toList());
+        m.shutdown();
+    }
 
+    @Test
+    public void overlappingEditsOfOneTaskKeepTheAggregatesExact() throws Exception {
+        Map<Integer, ITask> rows = new ConcurrentHashMap<>();
+        rows.put(1, new BasicTask(1, "Contended", null, TaskStates.TODO, null));
+        ITasksDAO slowWrites = new ITasksDAO() {
+            public ITask[] getTasks() { return rows.values().toArray(new ITask[0]); }
+            public ITask getTask(int id) { return rows.get(id); }
+            public void addTask(ITask task) { }
+            public void updateTask(ITask task) throws TasksDAOException {
+                try {
+                    // widen the window between the read of the previous version and the write
+                    Thread.sleep(5);
+                } catch (InterruptedException e) {
+                    throw new TasksDAOException("interrupted", e);
+                }
+                rows.put(task.getId(), task);
+            }
+            public void deleteTask(int id) { rows.remove(id); }
+            public void deleteTasks() { rows.clear(); }
+        };
+        Model m = new Model(CompletableFuture.completedFuture(slowWrites));
+        m.getAggregates().reset(slowWrites.getTasks());
+        for (int i = 0; i < 40; i++) {
+            m.updateTask(new BasicTask(1, "Contended", null, i % 2 == 0 ? TaskStates.IN_PROGRESS : TaskStates.TODO, null));
+        }
+        m.shutdown();
+
+        TaskAggregates counts = m.getAggregates();
+        assertEquals(1, counts.total());
+        assertEquals(1, counts.countInState(rows.get(1).getState().name()));
+        assertEquals(0, counts.countInState(rows.get(1).getState() == TaskStates.TODO ? "IN_PROGRESS" : "TODO"));
+    }
+}
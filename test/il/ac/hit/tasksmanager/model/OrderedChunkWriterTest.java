@@ -0,0 +1,56 @@
+package il.ac.hit.tasksmanager.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OrderedChunkWriterTest {
+    @Test
+    void chunksReachTheSinkInSubmissionOrderWithBoundedInFlight() throws IOException {
+        List<Integer> written = new ArrayList<>();
+        try (OrderedChunkWriter<Integer> chunks = new OrderedChunkWriter<>("test-chunks", 3, "test", written::add)) {
+            for (int i = 0; i < 50; i++) {
+                int n = i;
+                chunks.submit(() -> {
+                    // later chunks finish first
+                    LockSupport.parkNanos((50 - n) * 20_000L);
+                    return n;
+                });
+                assertTrue(n + 1 - written.size() < 6, "in flight after chunk " + n);
+            }
+            chunks.finish();
+        }
+        assertEquals(50, written.size());
+        for (int i = 0; i < 50; i++) {
+            assertEquals(i, written.get(i));
+        }
+    }
+
+    @Test
+    void formattingFailureIsReportedAsIOException() throws IOException {
+        try (OrderedChunkWriter<String> chunks = new OrderedChunkWriter<>("test-chunks", 2, "test", s -> { })) {
+            chunks.submit(() -> {
+                throw new IllegalStateException("boom");
+            });
+            IOException e = assertThrows(IOException.class, chunks::finish);
+            assertEquals("Failed to format test", e.getMessage());
+            assertInstanceOf(IllegalStateException.class, e.getCause());
+        }
+    }
+
+    @Test
+    void csvFieldsAreQuotedOnlyWhenNeeded() {
+        StringBuilder sb = new StringBuilder();
+        CsvFields.append(sb, "plain");
+        sb.append('|');
+        CsvFields.append(sb, "a,\"b\"");
+        sb.append('|');
+        CsvFields.append(sb, null);
+        assertEquals("plain|\"a,\"\"b\"\"\"|", sb.toString());
+    }
+}
@@ -0,0 +1,211 @@
+package il.ac.hit.tasksmanager.model;
+
+import il.ac.hit.tasksmanager.model.dao.ITasksDAO;
+import il.ac.hit.tasksmanager.model.dao.TasksDAOException;
+import il.ac.hit.tasksmanager.model.entities.ITask;
+import il.ac.hit.tasksmanager.model.entities.state.TaskStates;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RecurrenceSchedulerTest {
+    private static final LocalDate TODAY = LocalDate.of(2030, 6, 10);
+
+    /** Clock whose date can be moved. */
+    private static final class MovableClock extends Clock {
+        LocalDate date = TODAY;
+
+        @Override public ZoneId getZone() { return ZoneOffset.UTC; }
+        @Override public Clock withZone(ZoneId zone) { return this; }
+        @Override public Instant instant() { return date.atStartOfDay(ZoneOffset.UTC).plusHours(12).toInstant(); }
+    }
+
+    /** Map-backed DAO counting batched writes. */
+    private static final class MapDAO implements ITasksDAO {
+        final TreeMap<Integer, ITask> tasks = new TreeMap<>();
+        final List<Integer> batches = new ArrayList<>();
+        /** Number of the batch whose write fails, or -1. */
+        int failingBatch = -1;
+
+        @Override public ITask[] getTasks() { return tasks.values().toArray(new ITask[0]); }
+        @Override public ITask getTask(int id) { return tasks.get(id); }
+        @Override public void addTask(ITask task) { throw new UnsupportedOperationException(); }
+        @Override public void updateTask(ITask task) { tasks.put(task.getId(), task); }
+        @Override public void deleteTask(int id) { tasks.remove(id); }
+        @Override public void deleteTasks() { tasks.clear(); }
+
+        @Override
+        public int upsertTasks(List<? extends ITask> batch) throws TasksDAOException {
+            if (batches.size() == failingBatch) {
+                throw new TasksDAOException("disk full");
+            }
+            batches.add(batch.size());
+            batch.forEach(t -> tasks.put(t.getId(), t));
+            return batch.size();
+        }
+    }
+
+    private final MovableClock clock = new MovableClock();
+    private final MapDAO dao = new MapDAO();
+    private final List<ITask> reopened = Collections.synchronizedList(new ArrayList<>());
+    private final RecurrenceScheduler scheduler = new RecurrenceScheduler(CompletableFuture.completedFuture(dao), clock,
+            (before, after) -> reopened.addAll(after));
+
+    /** Creates a scheduler with a small batch size whose runs are driven by the test. */
+    private RecurrenceScheduler manual(int batchSize) {
+        System.setProperty("tasks.recurrence.batchSize", Integer.toString(batchSize));
+        try {
+            RecurrenceScheduler s = new RecurrenceScheduler(CompletableFuture.completedFuture(dao), clock, (before, after) -> reopened.addAll(after));
+            s.shutdown();
+            return s;
+        } finally {
+            System.clearProperty("tasks.recurrence.batchSize");
+        }
+    }
+
+    @AfterEach
+    void stop() {
+        scheduler.shutdown();
+    }
+
+    private void put(ITask task) {
+        dao.tasks.put(task.getId(), task);
+    }
+
+    @Test
+    void nextOccurrenceSkipsWholeIntervalsUpToToday() {
+        RecurringTask weekly = new RecurringTask(1, "Weekly", null, TaskStates.COMPLETED, TODAY.minusDays(10), 7);
+        assertEquals(TODAY.plusDays(4), RecurrenceScheduler.nextOccurrence(weekly, TODAY));
+        RecurringTask early = new RecurringTask(2, "Early", null, TaskStates.COMPLETED, TODAY.plusDays(3), 7);
+        assertEquals(TODAY.plusDays(10), RecurrenceScheduler.nextOccurrence(early, TODAY));
+        RecurringTask onTime = new RecurringTask(3, "On time", null, TaskStates.COMPLETED, TODAY.minusDays(14), 7);
+        assertEquals(TODAY, RecurrenceScheduler.nextOccurrence(onTime, TODAY));
+        RecurringTask undated = new RecurringTask(4, "Undated", null, TaskStates.COMPLETED, null, 3);
+        assertEquals(TODAY.plusDays(3), RecurrenceScheduler.nextOccurrence(undated, TODAY));
+        assertNull(RecurrenceScheduler.nextOccurrence(new RecurringTask(5, "Open", null, TaskStates.TODO, TODAY, 7), TODAY));
+        assertNull(RecurrenceScheduler.nextOccurrence(new BasicTask(6, "Basic", null, TaskStates.COMPLETED, TODAY), TODAY));
+    }
+
+    @Test
+    void reopensDueTasksInBatchesWhenTheirDayArrives() throws Exception {
+        System.setProperty("tasks.recurrence.batchSize", "2");
+        RecurrenceScheduler small;
+        try {
+            small = new RecurrenceScheduler(CompletableFuture.completedFuture(dao), clock, (before, after) -> reopened.addAll(after));
+        } finally {
+            System.clearProperty("tasks.recurrence.batchSize");
+        }
+        // runs are driven by the test instead of the timer
+        small.shutdown();
+        try {
+            for (int id = 1; id <= 5; id++) {
+                put(new RecurringTask(id, "Daily " + id, null, TaskStates.COMPLETED, TODAY.minusDays(1), 1));
+            }
+            put(new RecurringTask(6, "Later", null, TaskStates.COMPLETED, TODAY, 3));
+            put(new RecurringTask(7, "Open", null, TaskStates.IN_PROGRESS, TODAY.minusDays(1), 1));
+            small.rebuild(dao.getTasks());
+            assertEquals(6, small.size());
+
+            assertEquals(5, small.runDue());
+            assertEquals(List.of(2, 2, 1), dao.batches);
+            RecurringTask first = (RecurringTask) dao.getTask(1);
+            assertEquals(TaskStates.TODO.name(), first.state().name());
+            assertEquals(TODAY, first.dueDate());
+            assertEquals(TaskStates.IN_PROGRESS.name(), dao.getTask(7).getState().name());
+            assertEquals(1, small.size());
+
+            clock.date = TODAY.plusDays(3);
+            assertEquals(1, small.runDue());
+            assertEquals(TODAY.plusDays(3), ((RecurringTask) dao.getTask(6)).dueDate());
+            assertEquals(6, reopened.size());
+        } finally {
+            small.shutdown();
+        }
+    }
+
+    @Test
+    void editedAndDeletedTasksAreSkipped() throws Exception {
+        scheduler.shutdown();
+        put(new RecurringTask(1, "Edited", null, TaskStates.COMPLETED, TODAY.minusDays(1), 1));
+        put(new RecurringTask(2, "Deleted", null, TaskStates.COMPLETED, TODAY.minusDays(1), 1));
+        put(new RecurringTask(3, "Moved", null, TaskStates.COMPLETED, TODAY.minusDays(1), 1));
+        scheduler.rebuild(dao.getTasks());
+
+        RecurringTask reopenedByHand = new RecurringTask(1, "Edited", null, TaskStates.TODO, TODAY, 1);
+        put(reopenedByHand);
+        scheduler.taskChanged(reopenedByHand);
+        dao.deleteTask(2);
+        scheduler.taskDeleted(2);
+        RecurringTask moved = new RecurringTask(3, "Moved", null, TaskStates.COMPLETED, TODAY.plusDays(5), 1);
+        put(moved);
+        scheduler.taskChanged(moved);
+
+        assertEquals(0, scheduler.runDue());
+        assertTrue(dao.batches.isEmpty());
+        assertEquals(1, scheduler.size());
+    }
+
+    @Test
+    void timerFiresForTasksAlreadyDue() throws Exception {
+        put(new RecurringTask(1, "Due", null, TaskStates.COMPLETED, TODAY.minusDays(2), 2));
+        scheduler.rebuild(dao.getTasks());
+        long deadline = System.currentTimeMillis() + 5000;
+        while (reopened.isEmpty() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertEquals(1, reopened.size());
+        assertEquals(TODAY, ((RecurringTask) dao.getTask(1)).dueDate());
+    }
+
+    @Test
+    void failedWriteKeepsTheRestScheduledAndReportsWrittenBatches() throws Exception {
+        RecurrenceScheduler small = manual(2);
+        for (int id = 1; id <= 5; id++) {
+            put(new RecurringTask(id, "Daily " + id, null, TaskStates.COMPLETED, TODAY.minusDays(1), 1));
+        }
+        small.rebuild(dao.getTasks());
+        dao.failingBatch = 1;
+        assertThrows(TasksDAOException.class, small::runDue);
+        assertEquals(List.of(2), dao.batches);
+        assertEquals(2, reopened.size());
+        assertEquals(3, small.size());
+
+        dao.failingBatch = -1;
+        assertEquals(3, small.runDue());
+        assertEquals(5, reopened.size());
+        assertEquals(0, small.size());
+    }
+
+    @Test
+    void taskBeingWrittenIsLeftOutUntilTheWriteEnds() throws Exception {
+        RecurrenceScheduler manual = manual(500);
+        put(new RecurringTask(1, "Daily", null, TaskStates.COMPLETED, TODAY.minusDays(1), 1));
+        put(new RecurringTask(2, "Other", null, TaskStates.COMPLETED, TODAY.minusDays(1), 1));
+        manual.rebuild(dao.getTasks());
+
+        // an edit of task 1 is in progress: its stale copy must not be written over it
+        manual.taskWriting(1);
+        assertEquals(1, manual.runDue());
+        assertEquals(TaskStates.COMPLETED.name(), dao.getTask(1).getState().name());
+        RecurringTask renamed = new RecurringTask(1, "Renamed", null, TaskStates.COMPLETED, TODAY.minusDays(1), 1);
+        put(renamed);
+        manual.taskChanged(renamed);
+        manual.taskWritten(1);
+
+        assertEquals(1, manual.runDue());
+        assertEquals("Renamed", dao.getTask(1).getTitle());
+        assertEquals(TaskStates.TODO.name(), dao.getTask(1).getState().name());
+    }
+}
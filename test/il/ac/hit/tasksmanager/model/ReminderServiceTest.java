@@ -0,0 +1,122 @@
+package il.ac.hit.tasksmanager.model;
+
+import il.ac.hit.tasksmanager.model.dao.ITasksDAO;
+import il.ac.hit.tasksmanager.model.entities.ITask;
+import il.ac.hit.tasksmanager.model.entities.state.TaskStates;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ReminderServiceTest {
+    private final Clock clock = Clock.systemDefaultZone();
+    private final LocalDate today = LocalDate.now(clock);
+    private final LinkedBlockingQueue<ReminderEvent> events = new LinkedBlockingQueue<>();
+    private final List<ReminderService> services = new ArrayList<>();
+
+    /** Read-only map-backed DAO; the due-date query uses the interface default. */
+    private static final class MapDAO implements ITasksDAO {
+        final TreeMap<Integer, ITask> tasks = new TreeMap<>();
+
+        @Override public ITask[] getTasks() { return tasks.values().toArray(new ITask[0]); }
+        @Override public ITask getTask(int id) { return tasks.get(id); }
+        @Override public void addTask(ITask task) { throw new UnsupportedOperationException(); }
+        @Override public void updateTask(ITask task) { tasks.put(task.getId(), task); }
+        @Override public void deleteTask(int id) { tasks.remove(id); }
+        @Override public void deleteTasks() { tasks.clear(); }
+    }
+
+    private ReminderService service(Duration lead) {
+        ReminderService s = new ReminderService(clock, lead);
+        s.register(events::add);
+        services.add(s);
+        return s;
+    }
+
+    @AfterEach
+    void stop() {
+        services.forEach(ReminderService::shutdown);
+    }
+
+    private static ITask task(int id, String state, LocalDate due) {
+        return new BasicTask(id, "Task " + id, null, TaskStates.of(state), due);
+    }
+
+    private List<String> drain() throws InterruptedException {
+        List<String> got = new ArrayList<>();
+        ReminderEvent e;
+        while ((e = events.poll(300, TimeUnit.MILLISECONDS)) != null) {
+            got.add(e.taskId() + ":" + e.kind());
+        }
+        Collections.sort(got);
+        return got;
+    }
+
+    @Test
+    void catchUpReportsWhatCameDueWhileClosed() throws Exception {
+        MapDAO dao = new MapDAO();
+        for (ITask t : List.of(
+                task(1, "TODO", today.minusDays(3)),
+                task(2, "IN_PROGRESS", today),
+                task(3, "TODO", today.plusDays(1)),
+                task(4, "TODO", today.plusDays(10)),
+                task(5, "COMPLETED", today.minusDays(3)),
+                task(6, "TODO", null))) {
+            dao.tasks.put(t.getId(), t);
+        }
+        ReminderService reminders = service(Duration.ofHours(24));
+        Instant since = reminders.catchUp(dao);
+        assertEquals(List.of("1:OVERDUE", "2:DUE_SOON", "3:DUE_SOON"), drain());
+
+        // the full load queues only what is still ahead, without repeating the startup reminders
+        reminders.rebuild(dao.getTasks(), since);
+        assertEquals(List.of(), drain());
+        assertEquals(3, reminders.size());
+    }
+
+    @Test
+    void dueSoonFiresWhenTheLeadTimeStartsAndDeletesCancel() throws Exception {
+        LocalDate due = today.plusDays(1);
+        Instant soon = Instant.now().plusMillis(300);
+        Duration lead = Duration.between(soon, due.atStartOfDay(clock.getZone()));
+        ReminderService reminders = service(lead);
+        reminders.rebuild(new ITask[] { task(1, "TODO", due), task(2, "TODO", due) });
+        assertNull(events.poll(100, TimeUnit.MILLISECONDS));
+        reminders.taskDeleted(2);
+
+        ReminderEvent event = events.poll(5, TimeUnit.SECONDS);
+        assertNotNull(event);
+        assertEquals(1, event.taskId());
+        assertEquals(ReminderEvent.Kind.DUE_SOON, event.kind());
+        assertEquals(List.of(), drain());
+    }
+
+    @Test
+    void movingTheDueDateIntoThePastReportsOverdueOnce() throws Exception {
+        ReminderService reminders = service(Duration.ZERO);
+        ITask added = task(1, "TODO", today.plusDays(2));
+        reminders.taskChanged(null, added);
+        assertEquals(List.of(), drain());
+
+        ITask late = task(1, "TODO", today.minusDays(1));
+        reminders.taskChanged(added, late);
+        assertEquals(List.of("1:OVERDUE"), drain());
+
+        ITask renamed = new BasicTask(1, "Renamed", null, TaskStates.TODO, today.minusDays(1));
+        reminders.taskChanged(late, renamed);
+        reminders.taskChanged(renamed, task(1, "COMPLETED", today.minusDays(1)));
+        assertEquals(List.of(), drain());
+        assertEquals(0, reminders.size());
+    }
+}
@@ -0,0 +1,93 @@
+package il.ac.hit.tasksmanager.model;
+
+import il.ac.hit.tasksmanager.model.entities.ITask;
+import il.ac.hit.tasksmanager.model.entities.state.TaskStates;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TaskAggregatesTest {
+    private static final LocalDate TODAY = LocalDate.of(2030, 6, 10);
+
+    /** Clock whose date can be moved forward or back. */
+    private static final class MovableClock extends Clock {
+        LocalDate date = TODAY;
+
+        @Override public ZoneId getZone() { return ZoneOffset.UTC; }
+        @Override public Clock withZone(ZoneId zone) { return this; }
+        @Override public Instant instant() { return date.atStartOfDay(ZoneOffset.UTC).toInstant(); }
+    }
+
+    private static ITask basic(int id, String state, LocalDate due) {
+        return new BasicTask(id, "Task " + id, null, TaskStates.of(state), due);
+    }
+
+    @Test
+    void deltasKeepCountsByStateAndDay() {
+        TaskAggregates a = new TaskAggregates(new MovableClock());
+        ITask late = basic(1, "TODO", TODAY.minusDays(2));
+        ITask today = basic(2, "IN_PROGRESS", TODAY);
+        ITask doneLate = basic(3, "COMPLETED", TODAY.minusDays(5));
+        ITask undated = basic(4, "TODO", null);
+        for (ITask t : List.of(late, today, doneLate, undated)) {
+            a.added(t);
+        }
+        assertEquals(4, a.total());
+        assertEquals(2, a.countInState("TODO"));
+        assertEquals(1, a.overdue());
+        assertEquals(1, a.openDueOn(TODAY));
+
+        // completing the overdue task and deleting the undated one
+        a.replaced(late, basic(1, "COMPLETED", TODAY.minusDays(2)));
+        a.removed(undated);
+        assertEquals(0, a.overdue());
+        assertEquals(Map.of("COMPLETED", 2, "IN_PROGRESS", 1), a.countsByState());
+        assertEquals(3, a.total());
+
+        // moving a task's due date into the past counts it as overdue again
+        a.replaced(today, basic(2, "IN_PROGRESS", TODAY.minusDays(1)));
+        assertEquals(1, a.overdue());
+        assertEquals(0, a.openDueOn(TODAY));
+    }
+
+    @Test
+    void overdueFollowsTheDate() {
+        MovableClock clock = new MovableClock();
+        TaskAggregates a = new TaskAggregates(clock);
+        a.reset(new ITask[] {
+            basic(1, "TODO", TODAY),
+            basic(2, "TODO", TODAY.plusDays(1)),
+            basic(3, "TODO", TODAY.plusDays(3)),
+            basic(4, "COMPLETED", TODAY.plusDays(1))
+        });
+        assertEquals(0, a.overdue());
+        assertEquals(List.of(1, 1, 0, 1), List.copyOf(a.openDueByDay(4).values()));
+
+        clock.date = TODAY.plusDays(2);
+        assertEquals(2, a.overdue());
+        a.added(basic(5, "TODO", TODAY));
+        assertEquals(3, a.overdue());
+
+        clock.date = TODAY;
+        assertEquals(0, a.overdue());
+    }
+
+    @Test
+    void resetFromGroupByCounts() {
+        TaskAggregates a = new TaskAggregates(new MovableClock());
+        a.added(basic(1, "TODO", TODAY.minusDays(1)));
+        a.reset(Map.of("TODO", 5, "COMPLETED", 2), Map.of(TODAY.minusDays(3), 2, TODAY.plusDays(1), 3));
+        assertEquals(7, a.total());
+        assertEquals(5, a.countInState("TODO"));
+        assertEquals(2, a.overdue());
+        assertEquals(3, a.openDueOn(TODAY.plusDays(1)));
+    }
+}
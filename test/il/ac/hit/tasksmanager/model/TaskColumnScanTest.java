@@ -0,0 +1,80 @@
+package il.ac.hit.tasksmanager.model;
+
+import il.ac.hit.tasksmanager.model.combinator.ScanFilter;
+import il.ac.hit.tasksmanager.model.combinator.TaskFilter;
+import il.ac.hit.tasksmanager.model.entities.ITask;
+import il.ac.hit.tasksmanager.model.entities.state.TaskStates;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TaskColumnScanTest {
+    private static final LocalDate BASE = LocalDate.of(2025, 1, 1);
+
+    private static TaskColumnStore randomStore(int n) {
+        Random rnd = new Random(42);
+        ITask[] tasks = new ITask[n];
+        for (int i = 0; i < n; i++) {
+            LocalDate due = rnd.nextInt(5) == 0 ? null : BASE.plusDays(rnd.nextInt(200) - 100);
+            tasks[i] = new BasicTask(i + 1, "T" + (i % 7), null, TaskStates.ofCode(rnd.nextInt(3)), due);
+        }
+        return TaskColumnStore.of(tasks);
+    }
+
+    private static List<Task> scan(TaskColumnStore store, ScanFilter filter) {
+        return TaskColumnScan.select(store, filter.scan(store), filter.residual());
+    }
+
+    private static List<Task> naive(TaskColumnStore store, TaskFilter filter) {
+        return store.asList().stream().filter(filter::matches).toList();
+    }
+
+    @Test
+    public void bitmapScanMatchesRecordFiltering() {
+        TaskColumnStore store = randomStore(1000);
+        ScanFilter filter = (ScanFilter) TaskFilter.byStates("todo", "IN_PROGRESS").and(TaskFilter.dueBefore(BASE));
+
+        List<Task> expected = naive(store, filter);
+        assertFalse(expected.isEmpty());
+        assertEquals(expected, scan(store, filter));
+        assertEquals(expected.size(), TaskColumnScan.cardinality(filter.scan(store)));
+    }
+
+    @Test
+    public void dueOnAndOrCombineBitmaps() {
+        TaskColumnStore store = randomStore(333);
+        TaskFilter filter = TaskFilter.byDueDate(BASE).or(TaskFilter.byState("COMPLETED"));
+
+        assertInstanceOf(ScanFilter.class, filter);
+        assertEquals(naive(store, filter), scan(store, (ScanFilter) filter));
+    }
+
+    @Test
+    public void ordinaryFilterIsAppliedAsResidual() {
+        TaskColumnStore store = randomStore(500);
+        TaskFilter filter = TaskFilter.byTitle("t3").and(TaskFilter.byState("TODO"));
+
+        ScanFilter scan = assertInstanceOf(ScanFilter.class, filter);
+        assertNotNull(scan.residual());
+        List<Task> result = scan(store, scan);
+        assertEquals(naive(store, filter), result);
+        assertTrue(result.stream().allMatch(t -> t.title().equals("T3") && t.state() == TaskStates.TODO));
+    }
+
+    @Test
+    public void unknownStateMatchesNothingAndMissingDatesNeverMatch() {
+        TaskColumnStore store = TaskColumnStore.of(new ITask[] {
+            new BasicTask(1, "A", null, TaskStates.TODO, null),
+            new BasicTask(2, "B", null, TaskStates.TODO, LocalDate.of(1900, 1, 1))
+        });
+
+        assertTrue(scan(store, TaskFilter.byState("ARCHIVED")).isEmpty());
+        List<Task> due = scan(store, TaskFilter.dueBefore(LocalDate.of(2000, 1, 1)));
+        assertEquals(1, due.size());
+        assertEquals(2, due.get(0).id());
+    }
+}
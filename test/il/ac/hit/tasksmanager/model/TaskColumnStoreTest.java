@@ -0,0 +1,71 @@
+package il.ac.hit.tasksmanager.model;
+
+import il.ac.hit.tasksmanager.model.entities.ITask;
+import il.ac.hit.tasksmanager.model.entities.state.TaskStates;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TaskColumnStoreTest {
+
+    @Test
+    public void roundTripsBasicAndRecurringTasks() {
+        ITask[] tasks = {
+            new BasicTask(1, "Buy milk", null, TaskStates.TODO, null),
+            new RecurringTask(2, "Water plants", "balcony", TaskStates.IN_PROGRESS, LocalDate.of(2025, 3, 1), 7),
+            new BasicTask(5, "Pay bills", "rent", TaskStates.COMPLETED, LocalDate.of(1969, 12, 31))
+        };
+        TaskColumnStore store = TaskColumnStore.of(tasks);
+
+        assertEquals(3, store.size());
+        List<Task> view = store.asList();
+        for (int i = 0; i < tasks.length; i++) {
+            assertEquals(tasks[i], view.get(i));
+        }
+        assertSame(TaskStates.IN_PROGRESS, view.get(1).state());
+        assertEquals(7, store.intervalAt(1));
+        assertEquals(TaskColumnStore.NO_DUE_DATE, store.dueEpochDayAt(0));
+        assertEquals(-1, store.dueEpochDayAt(2));
+        assertThrows(UnsupportedOperationException.class, () -> view.add(tasks[0] instanceof Task t ? t : null));
+    }
+
+    @Test
+    public void deduplicatesStringsAndFindsRowsById() {
+        ITask[] tasks = new ITask[1000];
+        for (int i = 0; i < tasks.length; i++) {
+            tasks[i] = new BasicTask(i + 1, "Daily standup", i % 2 == 0 ? "team" : null, TaskStates.TODO, null);
+        }
+        TaskColumnStore store = TaskColumnStore.of(tasks);
+
+        assertEquals(2, store.distinctStrings());
+        assertEquals(499, store.rowOf(500));
+        assertEquals(-1, store.rowOf(5000));
+        assertNull(store.descriptionAt(1));
+        assertEquals("team", store.descriptionAt(2));
+    }
+
+    @Test
+    public void emptyInputSharesEmptyStore() {
+        assertSame(TaskColumnStore.EMPTY, TaskColumnStore.of(new ITask[0]));
+        assertTrue(TaskColumnStore.EMPTY.asList().isEmpty());
+    }
+
+    @Test
+    public void builderGrowsRowByRowAndMatchesOf() {
+        ITask[] tasks = new ITask[300];
+        TaskColumnStore.Builder builder = new TaskColumnStore.Builder();
+        for (int i = 0; i < tasks.length; i++) {
+            tasks[i] = i % 3 == 0
+                ? new RecurringTask(i + 1, "R" + (i % 7), null, TaskStates.TODO, LocalDate.of(2030, 1, 1).plusDays(i), 1 + i % 5)
+                : new BasicTask(i + 1, "B" + (i % 7), "d", TaskStates.COMPLETED, null);
+            builder.add(tasks[i]);
+        }
+        TaskColumnStore built = builder.build();
+        assertEquals(TaskColumnStore.of(tasks).asList(), built.asList());
+        assertEquals(TaskColumnStore.of(tasks).fingerprint(), built.fingerprint());
+        assertSame(TaskColumnStore.EMPTY, new TaskColumnStore.Builder().build());
+    }
+}
@@ -0,0 +1,92 @@
+package il.ac.hit.tasksmanager.model;
+
+import il.ac.hit.tasksmanager.model.dao.ITasksDAO;
+import il.ac.hit.tasksmanager.model.dao.TasksDAOException;
+import il.ac.hit.tasksmanager.model.entities.ITask;
+import il.ac.hit.tasksmanager.model.entities.state.TaskStates;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TaskExporterTest {
+    @TempDir
+    Path dir;
+
+    /** Read-only source; upserts keep their ids so exports can be re-imported for comparison. */
+    private static final class MapDAO implements ITasksDAO {
+        final TreeMap<Integer, ITask> tasks = new TreeMap<>();
+
+        @Override public ITask[] getTasks() { return tasks.values().toArray(new ITask[0]); }
+        @Override public ITask getTask(int id) { return tasks.get(id); }
+        @Override public void addTask(ITask task) { throw new UnsupportedOperationException(); }
+        @Override public void updateTask(ITask task) { tasks.put(task.getId(), task); }
+        @Override public void deleteTask(int id) { tasks.remove(id); }
+        @Override public void deleteTasks() { tasks.clear(); }
+
+        @Override
+        public int upsertTasks(List<? extends ITask> batch) {
+            batch.forEach(t -> tasks.put(t.getId(), t));
+            return batch.size();
+        }
+    }
+
+    private static MapDAO sample() {
+        MapDAO dao = new MapDAO();
+        for (int i = 1; i <= 23; i++) {
+            String title = switch (i % 4) {
+                case 0 -> "Comma, \"quoted\"";
+                case 1 -> "Line\nbreak\ttab \\ slash";
+                case 2 -> "Unicode שלום \u0001";
+                default -> "Plain " + i;
+            };
+            ITask task = i % 5 == 0
+                ? new RecurringTask(i, title, null, TaskStates.IN_PROGRESS, LocalDate.of(2030, 1, i), i)
+                : new BasicTask(i, title, i % 2 == 0 ? "desc " + i : null, TaskStates.COMPLETED, null);
+            dao.tasks.put(i, task);
+        }
+        return dao;
+    }
+
+    @Test
+    public void csvExportRoundTripsThroughImporterInIdOrder() throws IOException, TasksDAOException {
+        MapDAO source = sample();
+        Path csv = dir.resolve("tasks.csv");
+        TaskExporter.Result result = new TaskExporter(source).chunkSize(3).parallelism(2).export(csv);
+        assertEquals(23, result.rows());
+        assertEquals(Files.size(csv), result.bytes());
+        assertTrue(Files.readString(csv).startsWith("id,title,description,state,dueDate,recurrenceDays\n1,"));
+
+        MapDAO copy = new MapDAO();
+        TaskImporter.Result imported = new TaskImporter(copy).importFile(csv);
+        assertEquals(0, imported.rejected(), imported.errors().toString());
+        assertEquals(source.tasks, copy.tasks);
+        assertFalse(Files.exists(dir.resolve("tasks.csv.part")));
+    }
+
+    @Test
+    public void gzippedJsonLinesExportRoundTrips() throws IOException, TasksDAOException {
+        MapDAO source = sample();
+        Path jsonl = dir.resolve("tasks.jsonl.gz");
+        new TaskExporter(source).chunkSize(4).parallelism(3).export(jsonl);
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(jsonl))) {
+            String text = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+            assertEquals(23, text.lines().count());
+            assertTrue(text.startsWith("{\"id\":1,"));
+        }
+
+        MapDAO copy = new MapDAO();
+        new TaskImporter(copy).importFile(jsonl);
+        assertEquals(source.tasks, copy.tasks);
+    }
+}
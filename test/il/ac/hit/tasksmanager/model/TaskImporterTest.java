@@ -0,0 +1,126 @@
+package il.ac.hit.tasksmanager.model;
+
+import il.ac.hit.tasksmanager.model.dao.ITasksDAO;
+import il.ac.hit.tasksmanager.model.dao.TasksDAOException;
+import il.ac.hit.tasksmanager.model.entities.ITask;
+import il.ac.hit.tasksmanager.model.entities.state.TaskStates;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TaskImporterTest {
+    @TempDir
+    Path dir;
+
+    /** Keeps upserted tasks by id and can fail the n-th batch. */
+    private static final class BatchDAO implements ITasksDAO {
+        final TreeMap<Integer, ITask> tasks = new TreeMap<>();
+        final List<Integer> batchSizes = new ArrayList<>();
+        int failOnBatch = -1;
+
+        @Override public ITask[] getTasks() { return tasks.values().toArray(new ITask[0]); }
+        @Override public ITask getTask(int id) { return tasks.get(id); }
+        @Override public void addTask(ITask task) { throw new AssertionError("import must use batches"); }
+        @Override public void updateTask(ITask task) { throw new AssertionError("import must use batches"); }
+        @Override public void deleteTask(int id) { tasks.remove(id); }
+        @Override public void deleteTasks() { tasks.clear(); }
+
+        @Override
+        public int upsertTasks(List<? extends ITask> batch) throws TasksDAOException {
+            if (batchSizes.size() == failOnBatch) {
+                failOnBatch = -1;
+                throw new TasksDAOException("disk full");
+            }
+            batchSizes.add(batch.size());
+            for (ITask t : batch) {
+                int id = t.getId() > 0 ? t.getId() : (tasks.isEmpty() ? 1 : tasks.lastKey() + 1);
+                tasks.put(id, t);
+            }
+            return batch.size();
+        }
+    }
+
+    @Test
+    public void csvWithQuotesIsValidatedAndWrittenInBatches() throws IOException, TasksDAOException {
+        Path csv = dir.resolve("tasks.csv");
+        Files.writeString(csv, String.join("\n",
+            "id,title,description,state,due_date,recurrence_days",
+            "1,Plain,,TODO,,",
+            "2,\"Comma, and \"\"quotes\"\"\",\"two",
+            "lines\",in progress,2030-05-01,",
+            "3,Weekly,,COMPLETED,2030-01-01,7",
+            "4,,missing title,TODO,,",
+            "5,Bad state,,SOMEDAY,,",
+            "6,Bad date,,TODO,2030-13-01,",
+            "7,Last,,done,,"));
+        BatchDAO dao = new BatchDAO();
+        List<TaskImporter.Progress> reports = new ArrayList<>();
+        TaskImporter.Result result = new TaskImporter(dao).batchSize(2).onProgress(reports::add).importFile(csv);
+
+        assertEquals(4, result.imported());
+        assertEquals(3, result.rejected());
+        assertEquals(3, result.errors().size());
+        assertTrue(result.errors().get(0).startsWith("record 4"));
+        assertEquals(List.of(2, 2), dao.batchSizes);
+        assertEquals("Comma, and \"quotes\"", dao.getTask(2).getTitle());
+        assertEquals("two\nlines", dao.getTask(2).getDescription());
+        assertSame(TaskStates.IN_PROGRESS, dao.getTask(2).getState());
+        assertEquals(LocalDate.of(2030, 5, 1), ((Task) dao.getTask(2)).dueDate());
+        assertEquals(7, ((RecurringTask) dao.getTask(3)).interval());
+        assertSame(TaskStates.COMPLETED, dao.getTask(7).getState());
+        assertEquals(1.0, reports.get(reports.size() - 1).fraction());
+        assertFalse(Files.exists(dir.resolve("tasks.csv.import-progress")));
+    }
+
+    @Test
+    public void overLengthFieldsAreRejectedBeforeTheBatch() throws IOException, TasksDAOException {
+        Path csv = dir.resolve("long.csv");
+        Files.writeString(csv, String.join("\n",
+            "title,description",
+            "Fits," + "d".repeat(ITasksDAO.MAX_DESCRIPTION_LENGTH),
+            "x".repeat(ITasksDAO.MAX_TITLE_LENGTH + 1) + ",",
+            "Long description," + "d".repeat(ITasksDAO.MAX_DESCRIPTION_LENGTH + 1),
+            "After,"));
+        BatchDAO dao = new BatchDAO();
+        TaskImporter.Result result = new TaskImporter(dao).importFile(csv);
+
+        assertEquals(2, result.imported());
+        assertEquals(2, result.rejected());
+        assertTrue(result.errors().get(0).contains("title longer than"));
+        assertEquals("After", dao.getTask(2).getTitle());
+    }
+
+    @Test
+    public void jsonLinesImportResumesAfterFailedBatch() throws IOException, TasksDAOException {
+        Path jsonl = dir.resolve("tasks.jsonl");
+        StringBuilder sb = new StringBuilder();
+        for (int i = 1; i <= 10; i++) {
+            sb.append("{\"title\": \"Task \\u0041").append(i).append("\", \"state\": \"TODO\", \"dueDate\": null}\n");
+        }
+        sb.append("{\"title\": \"Nested\", \"tags\": [\"x\"]}\n");
+        Files.writeString(jsonl, sb);
+        BatchDAO dao = new BatchDAO();
+        dao.failOnBatch = 2;
+
+        TaskImporter importer = new TaskImporter(dao).batchSize(3);
+        assertThrows(TasksDAOException.class, () -> importer.importFile(jsonl));
+        assertEquals(6, dao.tasks.size());
+        assertTrue(Files.exists(dir.resolve("tasks.jsonl.import-progress")));
+
+        TaskImporter.Result resumed = importer.importFile(jsonl);
+        assertEquals(6, resumed.skipped());
+        assertEquals(4, resumed.imported());
+        assertEquals(1, resumed.rejected());
+        assertEquals(10, dao.tasks.size());
+        assertEquals("Task A10", dao.getTask(10).getTitle());
+    }
+}
@@ -0,0 +1,106 @@
+package il.ac.hit.tasksmanager.model;
+
+import il.ac.hit.tasksmanager.model.entities.ITask;
+import il.ac.hit.tasksmanager.model.entities.state.TaskStates;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TaskOccurrencesTest {
+    private static final LocalDate BASE = LocalDate.of(2030, 1, 1);
+
+    private static TaskColumnStore randomTasks(int n, long seed) {
+        Random random = new Random(seed);
+        ITask[] tasks = new ITask[n];
+        for (int i = 0; i < n; i++) {
+            LocalDate due = random.nextInt(10) == 0 ? null : BASE.plusDays(random.nextInt(120) - 40);
+            tasks[i] = random.nextBoolean()
+                    ? new RecurringTask(i + 1, "R" + i, null, TaskStates.TODO, due, 1 + random.nextInt(30))
+                    : new BasicTask(i + 1, "B" + i, null, TaskStates.TODO, due);
+        }
+        return TaskColumnStore.of(tasks);
+    }
+
+    /** Day-by-day expansion, sorted by date then id. */
+    private static List<String> bruteForce(TaskColumnStore columns, LocalDate from, LocalDate to) {
+        List<TaskOccurrences.Occurrence> all = new ArrayList<>();
+        for (Task t : columns.asList()) {
+            if (t.dueDate() == null) {
+                continue;
+            }
+            int interval = t instanceof RecurringTask r ? r.interval() : 0;
+            for (LocalDate d = from; !d.isAfter(to); d = d.plusDays(1)) {
+                long since = d.toEpochDay() - t.dueDate().toEpochDay();
+                if (since == 0 || (interval > 0 && since > 0 && since % interval == 0)) {
+                    all.add(new TaskOccurrences.Occurrence(t, d));
+                }
+            }
+        }
+        all.sort(Comparator.comparing(TaskOccurrences.Occurrence::date).thenComparingInt(o -> o.task().id()));
+        return all.stream().map(TaskOccurrencesTest::key).toList();
+    }
+
+    private static String key(TaskOccurrences.Occurrence o) {
+        return o.date() + "#" + o.task().id();
+    }
+
+    @Test
+    void firstOccurrenceIsComputedArithmetically() {
+        assertEquals(100, TaskOccurrences.firstOnOrAfter(100, 7, 50));
+        assertEquals(107, TaskOccurrences.firstOnOrAfter(100, 7, 101));
+        assertEquals(107, TaskOccurrences.firstOnOrAfter(100, 7, 107));
+        assertEquals(114, TaskOccurrences.firstOnOrAfter(100, 7, 108));
+        assertEquals(Long.MAX_VALUE, TaskOccurrences.firstOnOrAfter(100, 0, 101));
+    }
+
+    @Test
+    void mergedStreamMatchesDayByDayExpansion() {
+        TaskColumnStore columns = randomTasks(300, 42);
+        LocalDate from = BASE;
+        LocalDate to = BASE.plusDays(90);
+        List<String> merged = new TaskOccurrences(columns).between(from, to).map(TaskOccurrencesTest::key).toList();
+        assertEquals(bruteForce(columns, from, to), merged);
+    }
+
+    @Test
+    void streamIsLazyOverHugeWindows() {
+        ITask[] tasks = new ITask[10_000];
+        for (int i = 0; i < tasks.length; i++) {
+            tasks[i] = new RecurringTask(i + 1, "Daily " + i, null, TaskStates.TODO, BASE, 1);
+        }
+        // 10,000 daily tasks over a thousand years would be billions of occurrences
+        List<TaskOccurrences.Occurrence> first = new TaskOccurrences(TaskColumnStore.of(tasks))
+                .between(BASE.plusDays(3), BASE.plusYears(1000)).limit(10_001).toList();
+        assertEquals(10_001, first.size());
+        assertEquals(BASE.plusDays(3), first.get(9_999).date());
+        assertEquals(BASE.plusDays(4), first.get(10_000).date());
+        assertEquals(1, first.get(10_000).task().id());
+    }
+
+    @Test
+    void pagesConcatenateToTheFullStream() {
+        TaskColumnStore columns = randomTasks(200, 7);
+        TaskOccurrences occurrences = new TaskOccurrences(columns);
+        LocalDate from = BASE.minusDays(10);
+        LocalDate to = BASE.plusDays(60);
+        List<String> paged = new ArrayList<>();
+        TaskOccurrences.PageToken token = null;
+        int pages = 0;
+        do {
+            TaskOccurrences.Page page = occurrences.page(from, to, token, 37);
+            assertTrue(page.items().size() <= 37);
+            page.items().forEach(o -> paged.add(key(o)));
+            token = page.next();
+            pages++;
+        } while (token != null);
+        List<String> all = occurrences.between(from, to).map(TaskOccurrencesTest::key).toList();
+        assertEquals(all, paged);
+        assertEquals((all.size() + 36) / 37, pages);
+    }
+}
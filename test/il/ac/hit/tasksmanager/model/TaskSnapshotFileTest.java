@@ -0,0 +1,71 @@
+package il.ac.hit.tasksmanager.model;
+
+import il.ac.hit.tasksmanager.model.entities.ITask;
+import il.ac.hit.tasksmanager.model.entities.state.TaskStates;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TaskSnapshotFileTest {
+    @TempDir
+    Path dir;
+
+    private static TaskColumnStore sample() {
+        return TaskColumnStore.of(new ITask[] {
+            new BasicTask(1, "Buy milk", null, TaskStates.TODO, null),
+            new RecurringTask(3, "Water plants", "balcony é", TaskStates.IN_PROGRESS, LocalDate.of(2025, 3, 1), 7),
+            new BasicTask(4, "Buy milk", "again", TaskStates.COMPLETED, LocalDate.of(2024, 12, 31))
+        });
+    }
+
+    @Test
+    public void writeThenReadRestoresTasksAndStamp() throws Exception {
+        Path file = dir.resolve("tasks.snapshot");
+        TaskColumnStore store = sample();
+        TaskSnapshotFile.write(file, store);
+
+        TaskColumnStore read = TaskSnapshotFile.read(file);
+        assertNotNull(read);
+        assertEquals(store.asList(), read.asList());
+        assertEquals(store.fingerprint(), read.fingerprint());
+        assertEquals(2, read.rowOf(4));
+        assertFalse(Files.exists(dir.resolve("tasks.snapshot.tmp")));
+    }
+
+    @Test
+    public void fingerprintChangesWithContent() {
+        TaskColumnStore other = TaskColumnStore.of(new ITask[] {
+            new BasicTask(1, "Buy milk", null, TaskStates.COMPLETED, null)
+        });
+        assertNotEquals(sample().fingerprint(), other.fingerprint());
+        assertEquals(sample().fingerprint(), sample().fingerprint());
+    }
+
+    @Test
+    public void fingerprintSeparatesStringsWithEqualHashCodes() {
+        assertEquals("Aa".hashCode(), "BB".hashCode());
+        TaskColumnStore aa = TaskColumnStore.of(new ITask[] {new BasicTask(1, "Aa", "Aa", TaskStates.TODO, null)});
+        TaskColumnStore bb = TaskColumnStore.of(new ITask[] {new BasicTask(1, "BB", "BB", TaskStates.TODO, null)});
+        assertNotEquals(aa.fingerprint(), bb.fingerprint());
+    }
+
+    @Test
+    public void missingOrCorruptFilesAreIgnored() throws Exception {
+        Path file = dir.resolve("tasks.snapshot");
+        assertNull(TaskSnapshotFile.read(file));
+
+        TaskSnapshotFile.write(file, sample());
+        byte[] bytes = Files.readAllBytes(file);
+        bytes[bytes.length - 1] ^= 0x55;
+        Files.write(file, bytes);
+        assertNull(TaskSnapshotFile.read(file));
+
+        Files.write(file, new byte[] {1, 2, 3});
+        assertNull(TaskSnapshotFile.read(file));
+    }
+}
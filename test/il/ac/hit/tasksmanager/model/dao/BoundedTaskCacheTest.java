@@ -0,0 +1,86 @@
+package il.ac.hit.tasksmanager.model.dao;
+
+import il.ac.hit.tasksmanager.model.BasicTask;
+import il.ac.hit.tasksmanager.model.entities.state.ToDoState;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests size bound, TTL, admission and negative caching of BoundedTaskCache.
+ */
+public class BoundedTaskCacheTest {
+    private final long[] now = { 0 };
+
+    private static BasicTask task(int id) {
+        return new BasicTask(id, "T" + id, null, new ToDoState(), null);
+    }
+
+    private BoundedTaskCache cache(int maxSize, BoundedTaskCache.EvictionPolicy policy) {
+        return new BoundedTaskCache(maxSize, 1000, 100, policy, () -> now[0]);
+    }
+
+    @Test
+    public void lruEvictsLeastRecentlyUsed() {
+        BoundedTaskCache c = cache(2, BoundedTaskCache.EvictionPolicy.LRU);
+        c.put(1, task(1));
+        c.put(2, task(2));
+        assertNotNull(c.lookup(1));
+        c.put(3, task(3));
+        assertNull(c.lookup(2), "2 was least recently used");
+        assertNotNull(c.lookup(1));
+        assertNotNull(c.lookup(3));
+        assertEquals(1, c.stats().evictions());
+    }
+
+    @Test
+    public void tinyLfuKeepsFrequentEntriesAgainstOneOffs() {
+        BoundedTaskCache c = cache(2, BoundedTaskCache.EvictionPolicy.TINY_LFU);
+        c.put(1, task(1));
+        c.put(2, task(2));
+        for (int i = 0; i < 5; i++) {
+            c.lookup(1);
+            c.lookup(2);
+        }
+        assertNull(c.lookup(99));
+        c.put(99, task(99));
+        assertNull(c.lookup(99), "one-off id must not displace the hot set");
+        assertNotNull(c.lookup(1));
+        assertNotNull(c.lookup(2));
+    }
+
+    @Test
+    public void entriesExpireAfterTtlAndNegativesSooner() {
+        BoundedTaskCache c = cache(10, BoundedTaskCache.EvictionPolicy.LRU);
+        c.put(1, task(1));
+        c.put(2, null);
+        BoundedTaskCache.Entry negative = c.lookup(2);
+        assertNotNull(negative);
+        assertTrue(negative.isNegative());
+
+        now[0] = TimeUnit.MILLISECONDS.toNanos(500);
+        assertNull(c.lookup(2), "negative entry expired");
+        assertNotNull(c.lookup(1));
+
+        now[0] = TimeUnit.MILLISECONDS.toNanos(1500);
+        assertNull(c.lookup(1), "positive entry expired");
+
+        BoundedTaskCache.CacheStats stats = c.stats();
+        assertEquals(1, stats.hits());
+        assertEquals(1, stats.negativeHits());
+        assertEquals(2, stats.misses());
+        assertEquals(2, stats.expirations());
+    }
+
+    @Test
+    public void invalidateNegativesKeepsPositiveEntries() {
+        BoundedTaskCache c = cache(10, BoundedTaskCache.EvictionPolicy.LRU);
+        c.put(1, task(1));
+        c.put(2, null);
+        c.invalidateNegatives();
+        assertNull(c.lookup(2));
+        assertNotNull(c.lookup(1));
+    }
+}
@@ -0,0 +1,48 @@
+package il.ac.hit.tasksmanager.model.dao;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DurabilityModeTest {
+
+    @Test
+    public void strictKeepsDerbyDefaults() {
+        Properties props = new Properties();
+        DurabilityMode.STRICT.apply(props);
+        assertTrue(props.isEmpty());
+    }
+
+    @Test
+    public void relaxedDisablesSyncAndKeepsExplicitSettings() {
+        Properties props = new Properties();
+        props.setProperty("derby.storage.pageCacheSize", "250");
+        DurabilityMode.RELAXED.apply(props);
+
+        assertEquals("test", props.getProperty("derby.system.durability"));
+        assertEquals("1048576", props.getProperty("derby.storage.logBufferSize"));
+        assertEquals("250", props.getProperty("derby.storage.pageCacheSize"));
+    }
+
+    @Test
+    public void groupCommitNeverRelaxesDurability() {
+        assertFalse(DurabilityMode.GROUP_COMMIT.derbyProperties().containsKey("derby.system.durability"));
+    }
+
+    @Test
+    public void modeIsReadFromSystemProperty() {
+        String old = System.getProperty("tasks.durability");
+        try {
+            System.setProperty("tasks.durability", "group-commit");
+            assertEquals(DurabilityMode.GROUP_COMMIT, DurabilityMode.fromSystemProperties());
+            System.clearProperty("tasks.durability");
+            assertEquals(DurabilityMode.STRICT, DurabilityMode.fromSystemProperties());
+        } finally {
+            if (old != null) {
+                System.setProperty("tasks.durability", old);
+            }
+        }
+    }
+}
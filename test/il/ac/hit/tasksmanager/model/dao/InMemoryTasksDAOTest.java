@@ -0,0 +1,66 @@
+package il.ac.hit.tasksmanager.model.dao;
+
+import il.ac.hit.tasksmanager.model.BasicTask;
+import il.ac.hit.tasksmanager.model.entities.ITask;
+import il.ac.hit.tasksmanager.model.entities.state.TaskStates;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class InMemoryTasksDAOTest {
+    @TempDir
+    Path dir;
+
+    @Test
+    public void checkpointsSurviveRestartAndShutdown() throws TasksDAOException {
+        Path disk = dir.resolve("db");
+        InMemoryTasksDAO first = new InMemoryTasksDAO("memCheckpointA", disk, 0);
+        first.addTask(new BasicTask(0, "Persist me", null, TaskStates.TODO, LocalDate.of(2030, 1, 1)));
+        assertTrue(first.checkpoint());
+        assertFalse(first.checkpoint());
+        first.addTask(new BasicTask(0, "Written at shutdown", null, TaskStates.TODO, null));
+        first.shutdown();
+        first.shutdown();
+        assertTrue(Files.isDirectory(disk));
+
+        InMemoryTasksDAO second = new InMemoryTasksDAO("memCheckpointB", disk, 0);
+        ITask[] tasks = second.getTasks();
+        assertEquals(2, tasks.length);
+        assertEquals("Persist me", tasks[0].getTitle());
+        second.shutdown();
+    }
+
+    @Test
+    public void bulkLoadsExistingDiskDatabase() throws TasksDAOException {
+        Path disk = dir.resolve("diskdb");
+        TasksDAOImpl onDisk = new TasksDAOImpl("jdbc:derby:" + disk.toAbsolutePath() + ";create=true", null);
+        for (int i = 0; i < 50; i++) {
+            onDisk.addTask(new BasicTask(0, "Row " + i, null, TaskStates.IN_PROGRESS, null));
+        }
+        onDisk.shutdown();
+
+        InMemoryTasksDAO memory = new InMemoryTasksDAO("memBulkLoad", disk, 0);
+        assertEquals(50, memory.getTasks().length);
+        assertSame(TaskStates.IN_PROGRESS, memory.getTask(1).getState());
+        memory.shutdown();
+    }
+
+    @Test
+    public void interruptedSwapFallsBackToPreviousCopy() throws Exception {
+        Path disk = dir.resolve("swap");
+        InMemoryTasksDAO first = new InMemoryTasksDAO("memSwapA", disk, 0);
+        first.addTask(new BasicTask(0, "Kept", null, TaskStates.TODO, null));
+        first.shutdown();
+        // simulate a crash after the first rename of a later checkpoint
+        Files.move(disk, dir.resolve("swap.old"));
+
+        InMemoryTasksDAO second = new InMemoryTasksDAO("memSwapB", disk, 0);
+        assertEquals(1, second.getTasks().length);
+        second.shutdown();
+    }
+}
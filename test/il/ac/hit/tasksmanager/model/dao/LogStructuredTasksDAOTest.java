@@ -0,0 +1,133 @@
+package il.ac.hit.tasksmanager.model.dao;
+
+import il.ac.hit.tasksmanager.model.BasicTask;
+import il.ac.hit.tasksmanager.model.RecurringTask;
+import il.ac.hit.tasksmanager.model.entities.ITask;
+import il.ac.hit.tasksmanager.model.entities.state.TaskStates;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LogStructuredTasksDAOTest extends TasksDAOContractTest {
+    @TempDir
+    static Path dir;
+
+    @Override
+    protected ITasksDAO createDao() throws TasksDAOException {
+        return new LogStructuredTasksDAO(dir.resolve("contract"), 1024, 0, 4, false);
+    }
+
+    @AfterAll
+    public void close() throws TasksDAOException {
+        dao.shutdown();
+    }
+
+    @Test
+    @Order(10)
+    public void reopenReplaysSegmentsAndCompactionKeepsLiveTasks() throws TasksDAOException {
+        Path store = dir.resolve("replay");
+        LogStructuredTasksDAO log = new LogStructuredTasksDAO(store, 256, 0, 1, false);
+        for (int i = 0; i < 40; i++) {
+            log.addTask(new BasicTask(0, "Task " + i, "d", TaskStates.IN_PROGRESS, LocalDate.of(2030, 1, 1).plusDays(i)));
+        }
+        log.addTask(new RecurringTask(0, "Weekly", null, TaskStates.TODO, LocalDate.of(2030, 3, 1), 7));
+        for (int id = 1; id <= 20; id++) {
+            log.deleteTask(id);
+        }
+        log.updateTask(new BasicTask(30, "Renamed", null, TaskStates.COMPLETED, null));
+        assertTrue(log.segmentCount() > 2);
+
+        assertTrue(log.compact());
+        assertEquals(2, log.segmentCount());
+        assertEquals(21, log.getTasks().length);
+        log.shutdown();
+
+        LogStructuredTasksDAO reopened = new LogStructuredTasksDAO(store, 256, 0, 1, false);
+        ITask[] tasks = reopened.getTasks();
+        assertEquals(21, tasks.length);
+        assertEquals(21, tasks[0].getId());
+        assertNull(reopened.getTask(5));
+        assertEquals("Renamed", reopened.getTask(30).getTitle());
+        assertSame(TaskStates.COMPLETED, reopened.getTask(30).getState());
+        assertEquals(7, ((RecurringTask) reopened.getTask(41)).interval());
+        reopened.addTask(new BasicTask(0, "Next", null, TaskStates.TODO, null));
+        assertNotNull(reopened.getTask(42));
+        reopened.shutdown();
+    }
+
+    @Test
+    @Order(11)
+    public void tornTailIsTruncatedOnRecovery() throws TasksDAOException, IOException {
+        Path store = dir.resolve("torn");
+        LogStructuredTasksDAO log = new LogStructuredTasksDAO(store, 1 << 20, 0, 4, true);
+        log.addTask(new BasicTask(0, "Survivor", null, TaskStates.TODO, null));
+        log.addTask(new BasicTask(0, "Half written", null, TaskStates.TODO, null));
+        log.shutdown();
+        Path segment = store.resolve("segment-1.log");
+        try (FileChannel ch = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            ch.truncate(ch.size() - 3);
+        }
+
+        LogStructuredTasksDAO recovered = new LogStructuredTasksDAO(store, 1 << 20, 0, 4, true);
+        assertEquals(1, recovered.getTasks().length);
+        assertEquals("Survivor", recovered.getTask(1).getTitle());
+        recovered.addTask(new BasicTask(0, "After recovery", null, TaskStates.TODO, null));
+        recovered.shutdown();
+        assertTrue(Files.size(segment) > 0);
+        LogStructuredTasksDAO again = new LogStructuredTasksDAO(store, 1 << 20, 0, 4, true);
+        assertEquals(2, again.getTasks().length);
+        again.shutdown();
+    }
+
+    @Test
+    @Order(12)
+    public void compactionRacingWritersKeepsEveryTask() throws Exception {
+        Path store = dir.resolve("racing");
+        LogStructuredTasksDAO log = new LogStructuredTasksDAO(store, 512, 0, 1, false);
+        Thread writer = new Thread(() -> {
+            try {
+                for (int i = 0; i < 2000; i++) {
+                    log.addTask(new BasicTask(0, "Task " + i, null, TaskStates.TODO, null));
+                }
+            } catch (TasksDAOException e) {
+                throw new RuntimeException(e);
+            }
+        });
+        writer.start();
+        while (writer.isAlive()) {
+            log.compact();
+        }
+        writer.join();
+        assertEquals(2000, log.getTasks().length);
+        log.shutdown();
+
+        LogStructuredTasksDAO reopened = new LogStructuredTasksDAO(store, 512, 0, 1, false);
+        assertEquals(2000, reopened.getTasks().length);
+        reopened.shutdown();
+    }
+
+    @Test
+    @Order(13)
+    public void oversizedRecordIsRefusedAndLaterWritesSurviveReopen() throws TasksDAOException {
+        Path store = dir.resolve("oversized");
+        LogStructuredTasksDAO log = new LogStructuredTasksDAO(store, 1 << 20, 0, 4, false);
+        log.addTask(new BasicTask(0, "Before", null, TaskStates.TODO, null));
+        String huge = "\u00e9".repeat(600_000);
+        assertThrows(TasksDAOException.class, () -> log.addTask(new BasicTask(0, "Huge", huge, TaskStates.TODO, null)));
+        log.addTask(new BasicTask(0, "After", null, TaskStates.TODO, null));
+        log.shutdown();
+
+        LogStructuredTasksDAO reopened = new LogStructuredTasksDAO(store, 1 << 20, 0, 4, false);
+        assertEquals(2, reopened.getTasks().length);
+        assertEquals("After", reopened.getTask(2).getTitle());
+        reopened.shutdown();
+    }
+}
@@ -0,0 +1,115 @@
+package il.ac.hit.tasksmanager.model.dao;
+
+import il.ac.hit.tasksmanager.model.BasicTask;
+import il.ac.hit.tasksmanager.model.entities.state.TaskStates;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OnlineBackupTest {
+    @TempDir
+    Path dir;
+
+    private static void add(TasksDAOImpl dao, String prefix, int count) throws TasksDAOException {
+        for (int i = 0; i < count; i++) {
+            dao.addTask(new BasicTask(0, prefix + i, null, TaskStates.TODO, null));
+        }
+    }
+
+    private static int count(Path db) throws TasksDAOException {
+        TasksDAOImpl restored = new TasksDAOImpl("jdbc:derby:" + db.toAbsolutePath(), null);
+        int n = restored.getTasks().length;
+        restored.shutdown();
+        return n;
+    }
+
+    @Test
+    public void restoresToPointInTimeWhileDatabaseStaysOnline() throws Exception {
+        Path db = dir.resolve("live");
+        Path archive = dir.resolve("archive");
+        TasksDAOImpl dao = new TasksDAOImpl("jdbc:derby:" + db.toAbsolutePath() + ";create=true", null);
+        OnlineBackup backup = new OnlineBackup(dao, archive, 0);
+        assertEquals(0, backup.archiveLogs());
+
+        add(dao, "before base ", 5);
+        backup.baseBackup();
+        add(dao, "first ", 20);
+        assertTrue(backup.archiveLogs() > 0);
+        Thread.sleep(5);
+        Instant afterFirst = Instant.now();
+        Thread.sleep(5);
+        add(dao, "second ", 30);
+        backup.archiveLogs();
+        Instant afterSecond = Instant.now();
+        Thread.sleep(5);
+        add(dao, "not archived ", 3);
+
+        assertEquals(25, count(restoreTo(archive, "pit1", afterFirst)));
+        assertEquals(55, count(restoreTo(archive, "pit2", afterSecond)));
+        assertThrows(TasksDAOException.class, () -> OnlineBackup.restore(archive, dir.resolve("pit2"), afterSecond));
+        assertThrows(TasksDAOException.class, () -> OnlineBackup.restore(archive, dir.resolve("early"), Instant.EPOCH));
+
+        // the final pass at shutdown archives everything written until then
+        dao.attachBackup(backup);
+        dao.shutdown();
+        assertEquals(58, count(restoreTo(archive, "latest", Instant.now())));
+        assertTrue(Files.exists(archive.resolve("manifest.log")));
+    }
+
+    private Path restoreTo(Path archive, String name, Instant at) throws TasksDAOException {
+        Path target = dir.resolve(name);
+        OnlineBackup.restore(archive, target, at);
+        return target;
+    }
+
+    @Test
+    public void prunesOldBasesTheirLogsAndTailsOfCompletedLogs() throws Exception {
+        Path db = dir.resolve("pruned");
+        Path archive = dir.resolve("pruned-archive");
+        TasksDAOImpl dao = new TasksDAOImpl("jdbc:derby:" + db.toAbsolutePath() + ";create=true", null);
+        OnlineBackup backup = new OnlineBackup(dao, archive, 0, 1);
+        backup.baseBackup();
+        add(dao, "first ", 10);
+        backup.archiveLogs();
+        Thread.sleep(5);
+        backup.baseBackup();
+        add(dao, "second ", 10);
+        backup.archiveLogs();
+
+        List<String> manifest = Files.readAllLines(archive.resolve("manifest.log"));
+        assertEquals(1, manifest.stream().filter(l -> l.startsWith("base ")).count());
+        try (Stream<Path> bases = Files.list(archive).filter(p -> p.getFileName().toString().startsWith("base-"))) {
+            assertEquals(1, bases.count());
+        }
+        long firstNeeded = Long.parseLong(manifest.stream().filter(l -> l.startsWith("base ")).findFirst().orElseThrow().split(" ")[2]);
+        Set<String> complete = manifest.stream().filter(l -> l.startsWith("log ")).map(l -> l.split(" ")[2]).collect(Collectors.toSet());
+        assertFalse(complete.isEmpty());
+        for (String line : manifest) {
+            String[] f = line.split(" ");
+            assertTrue(Long.parseLong(f[2]) >= firstNeeded, line);
+            assertFalse(f[0].equals("tail") && complete.contains(f[2]), line);
+        }
+        try (Stream<Path> tails = Files.list(archive.resolve("tail"))) {
+            assertEquals(manifest.stream().filter(l -> l.startsWith("tail ")).count(), tails.count());
+        }
+
+        dao.attachBackup(backup);
+        dao.shutdown();
+        assertEquals(20, count(restoreTo(archive, "pruned-latest", Instant.now())));
+    }
+
+    @Test
+    public void inMemoryDatabaseCannotBeBackedUp() throws TasksDAOException {
+        TasksDAOImpl memory = new TasksDAOImpl("jdbc:derby:memory:backupProbe;create=true", null);
+        assertThrows(TasksDAOException.class, () -> new OnlineBackup(memory, dir, 0));
+    }
+}
@@ -0,0 +1,60 @@
+package il.ac.hit.tasksmanager.model.dao;
+
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SchemaMigrationsTest {
+
+    private static Connection memoryDb(String name) throws SQLException {
+        return DriverManager.getConnection("jdbc:derby:memory:" + name + ";create=true");
+    }
+
+    private static boolean hasColumn(Connection conn, String column) throws SQLException {
+        try (ResultSet rs = conn.getMetaData().getColumns(null, null, "TASKS", column)) {
+            return rs.next();
+        }
+    }
+
+    @Test
+    public void freshDatabaseIsMigratedOnceToLatestVersion() throws SQLException {
+        try (Connection conn = memoryDb("migrationsFresh")) {
+            List<Integer> first = SchemaMigrations.migrate(conn);
+            assertEquals(SchemaMigrations.latestVersion(), first.get(first.size() - 1));
+            assertEquals(SchemaMigrations.MIGRATIONS.size(), first.size());
+            assertTrue(hasColumn(conn, "RECURRENCE_DAYS"));
+
+            assertTrue(SchemaMigrations.migrate(conn).isEmpty());
+            try (Statement stmt = conn.createStatement(); ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM SCHEMA_VERSION")) {
+                rs.next();
+                assertEquals(SchemaMigrations.MIGRATIONS.size(), rs.getInt(1));
+            }
+            assertTrue(conn.getAutoCommit());
+        }
+    }
+
+    @Test
+    public void legacyTasksTableGetsMissingColumns() throws SQLException {
+        try (Connection conn = memoryDb("migrationsLegacy"); Statement stmt = conn.createStatement()) {
+            stmt.executeUpdate("CREATE TABLE TASKS (ID INT PRIMARY KEY, TITLE VARCHAR(255) NOT NULL, "
+                + "DESCRIPTION VARCHAR(1024), STATE VARCHAR(32) NOT NULL)");
+            stmt.executeUpdate("INSERT INTO TASKS (ID, TITLE, STATE) VALUES (1, 'Old', 'TODO')");
+
+            SchemaMigrations.migrate(conn);
+
+            assertTrue(hasColumn(conn, "DUEDATE"));
+            assertTrue(hasColumn(conn, "RECURRENCE_DAYS"));
+            try (ResultSet rs = stmt.executeQuery("SELECT TITLE FROM TASKS WHERE ID = 1")) {
+                assertTrue(rs.next());
+                assertEquals("Old", rs.getString(1));
+            }
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package il.ac.hit.tasksmanager.model.dao;
+
+import il.ac.hit.tasksmanager.model.BasicTask;
+import il.ac.hit.tasksmanager.model.entities.ITask;
+import il.ac.hit.tasksmanager.model.entities.state.TaskStates;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.Statement;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ShardedTasksDAOTest extends TasksDAOContractTest {
+    @TempDir
+    static Path dir;
+
+    @Override
+    protected ITasksDAO createDao() throws TasksDAOException {
+        return new ShardedTasksDAO(dir.resolve("contract"), 3);
+    }
+
+    @AfterAll
+    public void close() throws TasksDAOException {
+        dao.shutdown();
+    }
+
+    @Test
+    @Order(10)
+    public void idsSpreadOverShardsAndScansMergeInIdOrder() throws TasksDAOException {
+        Path store = dir.resolve("spread");
+        ShardedTasksDAO sharded = new ShardedTasksDAO(store, 3);
+        for (int i = 0; i < 30; i++) {
+            sharded.addTask(new BasicTask(0, "Task " + i, null, i % 2 == 0 ? TaskStates.TODO : TaskStates.COMPLETED, null));
+        }
+        int[] perShard = new int[3];
+        for (int id = 1; id <= 30; id++) {
+            perShard[ShardedTasksDAO.shardOf(id, 3)]++;
+        }
+        for (int count : perShard) {
+            assertTrue(count >= 5, "uneven spread " + count);
+        }
+
+        ITask[] all = sharded.getTasks();
+        assertEquals(30, all.length);
+        for (int i = 0; i < all.length; i++) {
+            assertEquals(i + 1, all[i].getId());
+        }
+        ITask[] done = sharded.getTasks(t -> t.getState() == TaskStates.COMPLETED);
+        assertEquals(15, done.length);
+        assertEquals(2, done[0].getId());
+        assertEquals(30, done[14].getId());
+        sharded.shutdown();
+    }
+
+    @Test
+    @Order(11)
+    public void rebalanceMovesRowsWhenShardCountChanges() throws TasksDAOException {
+        Path store = dir.resolve("rebalance");
+        ShardedTasksDAO three = new ShardedTasksDAO(store, 3);
+        for (int i = 0; i < 40; i++) {
+            three.addTask(new BasicTask(0, "Task " + i, null, TaskStates.TODO, null));
+        }
+        three.shutdown();
+        assertThrows(TasksDAOException.class, () -> new ShardedTasksDAO(store, 5));
+
+        assertTrue(ShardRebalancer.rebalance(store, 5) > 0);
+        ShardedTasksDAO five = new ShardedTasksDAO(store, 5);
+        assertEquals(40, five.getTasks().length);
+        assertEquals("Task 39", five.getTask(40).getTitle());
+        five.shutdown();
+
+        ShardRebalancer.rebalance(store, 2);
+        assertFalse(Files.exists(store.resolve("shard-4")));
+        ShardedTasksDAO two = new ShardedTasksDAO(store, 2);
+        assertEquals(40, two.getTasks().length);
+        two.addTask(new BasicTask(0, "After", null, TaskStates.TODO, null));
+        assertEquals("After", two.getTask(41).getTitle());
+        two.shutdown();
+    }
+
+    @Test
+    @Order(12)
+    public void shutdownStopsTheShardPool() throws TasksDAOException {
+        ShardedTasksDAO sharded = new ShardedTasksDAO(dir.resolve("stopped"), 2);
+        sharded.addTask(new BasicTask(0, "Only", null, TaskStates.TODO, null));
+        sharded.shutdown();
+        TasksDAOException e = assertThrows(TasksDAOException.class, sharded::getTasks);
+        assertEquals("Sharded DAO is shut down", e.getMessage());
+    }
+
+    @Test
+    @Order(13)
+    public void streamEndsWhenAShardCursorThrowsUnchecked() throws Exception {
+        Path store = dir.resolve("unchecked");
+        ShardedTasksDAO sharded = new ShardedTasksDAO(store, 2);
+        sharded.addTask(new BasicTask(0, "Fine", null, TaskStates.TODO, null));
+        // an empty title makes the row mapper's BasicTask constructor throw
+        try (Connection conn = DriverManager.getConnection("jdbc:derby:" + store.resolve("shard-0").toAbsolutePath());
+             Statement stmt = conn.createStatement()) {
+            stmt.executeUpdate("INSERT INTO TASKS (ID, TITLE, STATE) VALUES (1000, '', 'TODO')");
+        }
+        TasksDAOException e = assertTimeoutPreemptively(Duration.ofSeconds(30),
+            () -> assertThrows(TasksDAOException.class, () -> sharded.forEachTask(task -> { })));
+        assertInstanceOf(IllegalArgumentException.class, e.getCause());
+        sharded.shutdown();
+    }
+}
@@ -0,0 +1,147 @@
+package il.ac.hit.tasksmanager.model.dao;
+
+import il.ac.hit.tasksmanager.model.BasicTask;
+import il.ac.hit.tasksmanager.model.entities.state.ToDoState;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the ring buffer of SlowQueryLog and its wiring into TasksDAOImpl.
+ */
+public class SlowQueryLogTest {
+
+    @Test
+    public void ringBufferKeepsMostRecentEntries() {
+        SlowQueryLog log = new SlowQueryLog(0, 2);
+        for (int i = 1; i <= 3; i++) {
+            log.record(new SlowQueryLog.Entry(Instant.now(), "Q" + i, List.of(), i, i, null));
+        }
+        List<SlowQueryLog.Entry> recent = log.recent();
+        assertEquals(2, recent.size());
+        assertEquals("Q2", recent.get(0).sql());
+        assertEquals("Q3", recent.get(1).sql());
+    }
+
+    @Test
+    public void daoRecordsSqlParamsAndPlanOverThreshold() throws TasksDAOException {
+        TasksDAOImpl dao = TasksDAOImpl.getInstance();
+        SlowQueryLog log = dao.getSlowQueryLog();
+        long previousThreshold = log.getThresholdMillis();
+        boolean previousCapture = log.isCapturePlans();
+        try {
+            log.clear();
+            log.setThresholdMillis(0);
+            log.setCapturePlans(true);
+            dao.addTask(new BasicTask(0, "Slow log", null, new ToDoState(), null));
+            int id = dao.getTasks()[0].getId();
+            dao.getTask(id);
+            List<SlowQueryLog.Entry> recent = log.recent();
+            SlowQueryLog.Entry byId = recent.get(recent.size() - 1);
+            assertTrue(byId.sql().contains("WHERE ID = ?"));
+            assertEquals(1, byId.params().size());
+            assertEquals(1, byId.rowCount());
+            assertNotNull(byId.plan());
+            assertTrue(byId.plan().contains("Statement Execution Plan Text"));
+        } finally {
+            log.setThresholdMillis(previousThreshold);
+            log.setCapturePlans(previousCapture);
+            log.clear();
+        }
+    }
+
+    @Test
+    public void statisticsStayOnlyOnTheProbedStatement() throws SQLException {
+        SlowQueryLog log = new SlowQueryLog(60_000, 4);
+        log.setCapturePlans(true);
+        try (Connection conn = DriverManager.getConnection("jdbc:derby:memory:probeScope;create=true")) {
+            try (Statement stmt = conn.createStatement(); StatementProbe probe = StatementProbe.start(log, conn, "SELECT", "VALUES 1");
+                 ResultSet rs = stmt.executeQuery("VALUES 1")) {
+                assertTrue(rs.next());
+                probe.rows(1);
+            }
+            // an unprobed statement afterwards must not be profiled
+            try (Statement stmt = conn.createStatement(); ResultSet rs = stmt.executeQuery("VALUES 1, 2, 3")) {
+                while (rs.next()) {
+                    rs.getInt(1);
+                }
+            }
+            try (Statement stmt = conn.createStatement(); ResultSet rs = stmt.executeQuery("VALUES SYSCS_UTIL.SYSCS_GET_RUNTIMESTATISTICS()")) {
+                assertTrue(rs.next());
+                String plan = rs.getString(1);
+                assertFalse(plan != null && plan.contains("Rows returned = 3"), plan);
+            }
+        }
+        assertTrue(log.recent().isEmpty());
+    }
+
+    @Test
+    public void planReadFailureIsLoggedNotThrown() throws SQLException {
+        SlowQueryLog log = new SlowQueryLog(0, 4);
+        log.setCapturePlans(true);
+        Connection conn = DriverManager.getConnection("jdbc:derby:memory:probeFailure;create=true");
+        StatementProbe probe = StatementProbe.start(log, conn, "SELECT", "VALUES 1");
+        conn.close();
+        assertDoesNotThrow(probe::close);
+        assertEquals(1, log.recent().size());
+        assertNull(log.recent().get(0).plan());
+    }
+
+    @Test
+    public void nestedProbeLeavesStatisticsOnForTheOuterStatement() throws SQLException {
+        SlowQueryLog log = new SlowQueryLog(0, 4);
+        log.setCapturePlans(true);
+        try (Connection conn = DriverManager.getConnection("jdbc:derby:memory:probeNesting;create=true")) {
+            try (Statement stmt = conn.createStatement(); StatementProbe outer = StatementProbe.start(log, conn, "SELECT", "VALUES 1, 2, 3")) {
+                try (Statement inner = conn.createStatement(); StatementProbe probe = StatementProbe.start(log, conn, "SELECT", "VALUES 1");
+                     ResultSet rs = inner.executeQuery("VALUES 1")) {
+                    assertTrue(rs.next());
+                    probe.rows(1);
+                }
+                try (ResultSet rs = stmt.executeQuery("VALUES 1, 2, 3")) {
+                    int rows = 0;
+                    while (rs.next()) {
+                        rows++;
+                    }
+                    outer.rows(rows);
+                }
+            }
+        }
+        List<SlowQueryLog.Entry> recent = log.recent();
+        assertEquals(2, recent.size());
+        assertEquals("VALUES 1, 2, 3", recent.get(1).sql());
+        assertNotNull(recent.get(1).plan());
+        assertTrue(recent.get(1).plan().contains("Rows returned = 3"), recent.get(1).plan());
+    }
+
+    @Test
+    public void shutdownReleasesTheFileSink(@TempDir Path dir) throws Exception {
+        TasksDAOImpl dao = new TasksDAOImpl("jdbc:derby:" + dir.resolve("db").toAbsolutePath() + ";create=true", null);
+        SlowQueryLog log = dao.getSlowQueryLog();
+        log.setThresholdMillis(0);
+        log.setFileSink(dir.resolve("slow.log"));
+        dao.addTask(new BasicTask(0, "Logged", null, new ToDoState(), null));
+        assertTrue(Files.exists(dir.resolve("slow.log.0")));
+        dao.shutdown();
+        try (var files = Files.list(dir)) {
+            assertTrue(files.noneMatch(f -> f.getFileName().toString().endsWith(".lck")));
+        }
+        // the sink stays configured and reopens when the database is used again
+        long before = Files.size(dir.resolve("slow.log.0"));
+        dao.getTasks();
+        assertTrue(Files.size(dir.resolve("slow.log.0")) > before);
+        dao.shutdown();
+        log.closeFileSink();
+    }
+}
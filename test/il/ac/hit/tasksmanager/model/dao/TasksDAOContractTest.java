@@ -0,0 +1,191 @@
+package il.ac.hit.tasksmanager.model.dao;
+
+import il.ac.hit.tasksmanager.model.BasicTask;
+import il.ac.hit.tasksmanager.model.RecurringTask;
+import il.ac.hit.tasksmanager.model.Task;
+import il.ac.hit.tasksmanager.model.entities.ITask;
+import il.ac.hit.tasksmanager.model.entities.state.TaskStates;
+import il.ac.hit.tasksmanager.model.entities.state.ToDoState;
+import org.junit.jupiter.api.*;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Behaviour every {@link ITasksDAO} implementation must share; subclasses supply the DAO.
+ */
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public abstract class TasksDAOContractTest {
+    protected ITasksDAO dao;
+
+    protected abstract ITasksDAO createDao() throws TasksDAOException;
+
+    @BeforeAll
+    public void setup() throws TasksDAOException {
+        dao = createDao();
+        // Clean slate for deterministic tests
+        dao.deleteTasks();
+    }
+
+    @Test
+    @Order(1)
+    public void addAndGetTask() throws TasksDAOException {
+        dao.addTask(new BasicTask(0, "Test A", "desc", new ToDoState(), LocalDate.of(2025, 6, 3)));
+        ITask[] items = dao.getTasks();
+        assertTrue(items.length > 0);
+        int id = items[0].getId();
+
+        ITask fetched = dao.getTask(id);
+        assertNotNull(fetched);
+        assertEquals("Test A", fetched.getTitle());
+        // rows map onto the shared state instances and keep the due date
+        assertSame(TaskStates.TODO, fetched.getState());
+        assertEquals(LocalDate.of(2025, 6, 3), ((Task) fetched).dueDate());
+    }
+
+    @Test
+    @Order(2)
+    public void updateTask() throws TasksDAOException {
+        ITask[] all = dao.getTasks();
+        assertTrue(all.length > 0);
+        ITask first = all[0];
+        ITask updated = new BasicTask(first.getId(), "Updated Title", first.getDescription(), first.getState(), (first instanceof Task t) ? t.dueDate() : null);
+        dao.updateTask(updated);
+
+        ITask fetched2 = dao.getTask(first.getId());
+        assertEquals("Updated Title", fetched2.getTitle());
+    }
+
+    @Test
+    @Order(3)
+    public void deleteTask() throws TasksDAOException {
+        dao.addTask(new BasicTask(0, "To Delete", null, new ToDoState(), null));
+        ITask[] after = dao.getTasks();
+        int delId = after[after.length - 1].getId();
+        dao.deleteTask(delId);
+        assertNull(dao.getTask(delId));
+    }
+
+    @Test
+    @Order(4)
+    public void addAndGetTaskReturnsTheAssignedIdForIdenticalAdds() throws TasksDAOException {
+        BasicTask same = new BasicTask(0, "Twin", null, TaskStates.TODO, null);
+        ITask first = dao.addAndGetTask(same);
+        ITask second = dao.addAndGetTask(same);
+        assertNotEquals(first.getId(), second.getId());
+        assertEquals("Twin", second.getTitle());
+        assertEquals("Twin", dao.getTask(first.getId()).getTitle());
+        assertEquals("Twin", dao.getTask(second.getId()).getTitle());
+
+        ITask recurring = dao.addAndGetTask(new RecurringTask(0, "Weekly", null, TaskStates.TODO, LocalDate.of(2030, 1, 1), 7));
+        assertEquals(7, ((RecurringTask) recurring).interval());
+        assertEquals(7, ((RecurringTask) dao.getTask(recurring.getId())).interval());
+    }
+
+    @Test
+    @Order(5)
+    public void upsertUpdatesExistingKeepsNewIdsAndNumbersTheRest() throws TasksDAOException {
+        dao.deleteTasks();
+        dao.addTask(new BasicTask(0, "Existing", null, TaskStates.TODO, null));
+        int written = dao.upsertTasks(List.of(
+            new BasicTask(1, "Replaced", "d", TaskStates.COMPLETED, LocalDate.of(2031, 2, 3)),
+            new RecurringTask(1000, "Imported", null, TaskStates.IN_PROGRESS, null, 7),
+            new BasicTask(0, "Numbered", null, TaskStates.TODO, null)));
+        assertEquals(3, written);
+
+        assertEquals("Replaced", dao.getTask(1).getTitle());
+        assertEquals(LocalDate.of(2031, 2, 3), ((Task) dao.getTask(1)).dueDate());
+        assertEquals(7, ((RecurringTask) dao.getTask(1000)).interval());
+        assertEquals("Numbered", dao.getTask(1001).getTitle());
+        assertEquals(3, dao.getTasks().length);
+    }
+
+    @Test
+    @Order(6)
+    public void forEachTaskStreamsAllTasksInIdOrder() throws TasksDAOException {
+        for (int i = 0; i < 25; i++) {
+            dao.addTask(new BasicTask(0, "Streamed " + i, null, TaskStates.TODO, null));
+        }
+        List<ITask> streamed = new ArrayList<>();
+        dao.forEachTask(streamed::add);
+        ITask[] all = dao.getTasks();
+        assertEquals(all.length, streamed.size());
+        for (int i = 0; i < all.length; i++) {
+            assertEquals(all[i].getId(), streamed.get(i).getId());
+            assertEquals(all[i].getTitle(), streamed.get(i).getTitle());
+        }
+    }
+
+    @Test
+    @Order(7)
+    public void groupByCountsMatchTheStoredTasks() throws TasksDAOException {
+        LocalDate day = LocalDate.of(2031, 3, 1);
+        dao.addTask(new BasicTask(0, "Open due", null, TaskStates.TODO, day));
+        dao.addTask(new BasicTask(0, "Open due too", null, TaskStates.IN_PROGRESS, day));
+        dao.addTask(new BasicTask(0, "Done due", null, TaskStates.COMPLETED, day));
+        dao.addTask(new RecurringTask(0, "Recurring due", null, TaskStates.TODO, day.plusDays(1), 7));
+
+        Map<String, Integer> byState = new TreeMap<>();
+        Map<LocalDate, Integer> openByDue = new TreeMap<>();
+        for (ITask t : dao.getTasks()) {
+            byState.merge(t.getState().name(), 1, Integer::sum);
+            LocalDate due = ((Task) t).dueDate();
+            if (due != null && !"COMPLETED".equals(t.getState().name())) {
+                openByDue.merge(due, 1, Integer::sum);
+            }
+        }
+        assertEquals(byState, new TreeMap<>(dao.countTasksByState()));
+        assertEquals(openByDue, new TreeMap<>(dao.countOpenTasksByDueDate()));
+        assertEquals(2, dao.countOpenTasksByDueDate().get(day));
+    }
+
+    @Test
+    @Order(8)
+    public void openTasksDueBeforeUsesDueDateAndState() throws TasksDAOException {
+        LocalDate day = LocalDate.of(2032, 8, 1);
+        dao.addTask(new BasicTask(0, "Late open", null, TaskStates.TODO, day.minusDays(1)));
+        dao.addTask(new BasicTask(0, "Late done", null, TaskStates.COMPLETED, day.minusDays(1)));
+        dao.addTask(new RecurringTask(0, "On the day", null, TaskStates.IN_PROGRESS, day, 7));
+
+        ITask[] due = dao.getOpenTasksDueBefore(day);
+        List<ITask> expected = new ArrayList<>();
+        for (ITask t : dao.getTasks()) {
+            LocalDate d = ((Task) t).dueDate();
+            if (d != null && d.isBefore(day) && !"COMPLETED".equals(t.getState().name())) {
+                expected.add(t);
+            }
+        }
+        assertEquals(expected.size(), due.length);
+        for (int i = 0; i < due.length; i++) {
+            assertEquals(expected.get(i).getId(), due[i].getId());
+        }
+        assertTrue(Arrays.stream(due).anyMatch(t -> "Late open".equals(t.getTitle())));
+    }
+
+    @Test
+    @Order(9)
+    public void forEachTaskFinishesWithASlowConsumer() throws TasksDAOException {
+        // more rows per shard than the sharded stream buffer holds
+        List<ITask> rows = new ArrayList<>();
+        for (int i = 0; i < ShardedTasksDAO.STREAM_BUFFER * 4; i++) {
+            rows.add(new BasicTask(0, "Bulk " + i, null, TaskStates.TODO, null));
+        }
+        dao.upsertTasks(rows);
+        int expected = dao.getTasks().length;
+        int[] seen = new int[1];
+        assertTimeoutPreemptively(Duration.ofSeconds(60), () -> dao.forEachTask(task -> {
+            LockSupport.parkNanos(100_000);
+            seen[0]++;
+        }));
+        assertEquals(expected, seen[0]);
+    }
+}
@@ -1,68 +1,68 @@
 package il.ac.hit.tasksmanager.model.dao;
 
 import il.ac.hit.tasksmanager.model.BasicTask;
-import il.ac.hit.tasksmanager.model.Task;
 import il.ac.hit.tasksmanager.model.entities.ITask;
-import il.ac.hit.tasksmanager.model.entities.state.ToDoState;
+import il.ac.hit.tasksmanager.model.entities.state.TaskStates;
 import org.junit.jupiter.api.*;
 
-import java.time.LocalDate;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static org.junit.jupiter.api.Assertions.*;
 
-@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
-public class TasksDAOImplTest {
-    private static TasksDAOImpl dao;
-
-    @BeforeAll
-    public static void setup() throws TasksDAOException {
-        dao = TasksDAOImpl.getInstance();
-        // Clean slate for deterministic tests
-        dao.deleteTasks();
+public class TasksDAOImplTest extends TasksDAOContractTest {
+    @Override
+    protected ITasksDAO createDao() throws TasksDAOException {
+        return TasksDAOImpl.getInstance();
     }
 
     @Test
-    @Order(1)
-    public void addAndGetTask() throws TasksDAOException {
-        dao.addTask(new BasicTask(0, "Test A", "desc", new ToDoState(), LocalDate.of(2025, 6, 3)));
-        ITask[] items = dao.getTasks();
-        assertTrue(items.length > 0);
-        int id = items[0].getId();
-
-        ITask fetched = dao.getTask(id);
-        assertNotNull(fetched);
-        assertEquals("Test A", fetched.getTitle());
+    @Order(10)
+    public void shutdownIsCleanAndDatabaseReopensOnDemand() throws TasksDAOException {
+        TasksDAOImpl derby = (TasksDAOImpl) dao;
+        int before = derby.getTasks().length;
+        derby.shutdown();
+        derby.shutdown();
+        assertTrue(LifecycleRecord.read(Path.of("tasksdb.lifecycle")).cleanShutdown());
+
+        assertEquals(before, derby.getTasks().length);
+        assertFalse(LifecycleRecord.read(Path.of("tasksdb.lifecycle")).cleanShutdown());
+        assertTrue(derby.getBootMillis() >= 0);
     }
 
     @Test
-    @Order(2)
-    public void updateTask() throws TasksDAOException {
-        ITask[] all = dao.getTasks();
-        assertTrue(all.length > 0);
-        ITask first = all[0];
-        ITask updated = new BasicTask(first.getId(), "Updated Title", first.getDescription(), first.getState(), (first instanceof Task t) ? t.dueDate() : null);
-        dao.updateTask(updated);
-
-        ITask fetched2 = dao.getTask(first.getId());
-        assertEquals("Updated Title", fetched2.getTitle());
-    }
-
-    @Test
-    @Order(3)
-    public void deleteTask() throws TasksDAOException {
-        dao.addTask(new BasicTask(0, "To Delete", null, new ToDoState(), null));
-        ITask[] after = dao.getTasks();
-        int delId = after[after.length - 1].getId();
-        dao.deleteTask(delId);
-        assertNull(dao.getTask(delId));
+    @Order(11)
+    public void numberedUpsertNeverOverwritesAConcurrentAdd() throws Exception {
+        dao.deleteTasks();
+        ConcurrentLinkedQueue<ITask> added = new ConcurrentLinkedQueue<>();
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        Thread adder = new Thread(() -> {
+            try {
+                for (int i = 0; i < 200; i++) {
+                    added.add(dao.addAndGetTask(new BasicTask(0, "Added " + i, null, TaskStates.TODO, null)));
+                }
+            } catch (Throwable e) {
+                failure.set(e);
+            }
+        });
+        adder.start();
+        int imported = 0;
+        while (adder.isAlive()) {
+            List<ITask> batch = new ArrayList<>();
+            for (int i = 0; i < 20; i++) {
+                batch.add(new BasicTask(0, "Imported", null, TaskStates.TODO, null));
+            }
+            imported += dao.upsertTasks(batch);
+        }
+        adder.join();
+        assertNull(failure.get());
+        assertEquals(200, added.size());
+        for (ITask task : added) {
+            assertEquals(task.getTitle(), dao.getTask(task.getId()).getTitle());
+        }
+        assertEquals(200 + imported, dao.getTasks().length);
     }
 }
-
-
-
-
-
-
-
-
-
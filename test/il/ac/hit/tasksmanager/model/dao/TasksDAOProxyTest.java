@@ -6,7 +6,10 @@ import il.ac.hit.tasksmanager.model.entities.ITask;
 import il.ac.hit.tasksmanager.model.entities.state.ToDoState;
 import org.junit.jupiter.api.Test;
 
+import java.time.Duration;
 import java.time.LocalDate;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -120,6 +123,95 @@ public class TasksDAOProxyTest {
         proxy.getTasks();
         assertEquals(5, fake.getTasksCalls, "getTasks should reload after delete all");
     }
-}
 
+    @Test
+    public void cachesMissesUntilAnAddMayCreateTheId() throws TasksDAOException {
+        FakeDAO fake = new FakeDAO();
+        TasksDAOProxy proxy = new TasksDAOProxy(fake);
+
+        // No snapshot loaded: first miss goes to the delegate, second is a negative hit
+        assertNull(proxy.getTask(2));
+        assertNull(proxy.getTask(2));
+        assertEquals(1, fake.getTaskCalls, "missing id should be negatively cached");
+        assertEquals(1, proxy.getCacheStats().negativeHits());
+
+        // Add drops negative entries: the new task (id 2) must become visible
+        proxy.addTask(new BasicTask(0, "B", null, new ToDoState(), null));
+        assertNotNull(proxy.getTask(2));
+        assertEquals(2, fake.getTaskCalls);
+    }
+
+    @Test
+    public void readsDoNotWaitForSlowWrites() throws Exception {
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        FakeDAO fake = new FakeDAO() {
+            @Override
+            public void updateTask(ITask task) {
+                writing.countDown();
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                super.updateTask(task);
+            }
+        };
+        TasksDAOProxy proxy = new TasksDAOProxy(fake);
+        proxy.getTasks();
+
+        Thread writer = new Thread(() -> {
+            try {
+                proxy.updateTask(new BasicTask(1, "A2", null, new ToDoState(), null));
+            } catch (TasksDAOException e) {
+                throw new RuntimeException(e);
+            }
+        });
+        writer.start();
+        assertTrue(writing.await(5, TimeUnit.SECONDS));
+
+        // The write is still inside the delegate: snapshot reads must not block on it
+        assertTimeoutPreemptively(Duration.ofSeconds(1), () -> {
+            assertEquals("A", proxy.getTasks()[0].getTitle());
+            assertEquals("A", proxy.getTask(1).getTitle());
+        });
+
+        release.countDown();
+        writer.join();
+        assertEquals("A2", proxy.getTasks()[0].getTitle(), "write must invalidate the snapshot");
+    }
 
+    @Test
+    public void staleWhileRevalidateServesOldSnapshotButKeepsReadYourWrites() throws Exception {
+        FakeDAO fake = new FakeDAO();
+        TasksDAOProxy proxy = new TasksDAOProxy(fake);
+        proxy.setStaleWhileRevalidate(60_000);
+        proxy.getTasks();
+        assertEquals(1, fake.getTasksCalls);
+
+        // Another thread writes: this thread may still see the previous snapshot
+        Thread writer = new Thread(() -> {
+            try {
+                proxy.updateTask(new BasicTask(1, "A2", null, new ToDoState(), null));
+            } catch (TasksDAOException e) {
+                throw new RuntimeException(e);
+            }
+        });
+        writer.start();
+        writer.join();
+        assertEquals("A", proxy.getTasks()[0].getTitle(), "stale snapshot served while refreshing");
+
+        // The single background refresh eventually publishes the new data
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!"A2".equals(proxy.getTasks()[0].getTitle()) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals("A2", proxy.getTasks()[0].getTitle());
+        assertEquals(2, fake.getTasksCalls, "only one refresh for the stale snapshot");
+
+        // The writing thread itself always reads its own write
+        proxy.updateTask(new BasicTask(1, "A3", null, new ToDoState(), null));
+        assertEquals("A3", proxy.getTasks()[0].getTitle());
+        assertEquals("A3", proxy.getTask(1).getTitle());
+    }
+}
@@ -0,0 +1,76 @@
+package il.ac.hit.tasksmanager.model.visitor;
+
+import il.ac.hit.tasksmanager.model.BasicTask;
+import il.ac.hit.tasksmanager.model.RecurringTask;
+import il.ac.hit.tasksmanager.model.Task;
+import il.ac.hit.tasksmanager.model.entities.state.TaskStates;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ReportWriterTest {
+    @TempDir
+    Path dir;
+
+    private static List<Task> sample(int n) {
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 1; i <= n; i++) {
+            tasks.add(i % 3 == 0
+                    ? new RecurringTask(i, "Task, \"" + i + "\"", "<b>" + i + "</b>", TaskStates.IN_PROGRESS, LocalDate.of(2030, 1, 1).plusDays(i), 7)
+                    : new BasicTask(i, "Task " + i, null, TaskStates.TODO, null));
+        }
+        return tasks;
+    }
+
+    @Test
+    void textLinesMatchTheFormerStringFormatOutput() {
+        GUIReportVisitor visitor = new GUIReportVisitor();
+        assertEquals(String.format("[%d] %s [%s] - %s (Type: BASIC)", 1, "Task 1", TaskStates.TODO, null),
+                visitor.format(new BasicTask(1, "Task 1", null, TaskStates.TODO, null)));
+        LocalDate due = LocalDate.of(2030, 5, 6);
+        assertEquals(String.format("[%d] %s [%s] - %s (Type: RECURRING, Interval: %d days)", 3, "Weekly", TaskStates.COMPLETED, due, 7),
+                visitor.format(new RecurringTask(3, "Weekly", "d", TaskStates.COMPLETED, due, 7)));
+    }
+
+    @Test
+    void parallelChunksAreWrittenInOrder() throws Exception {
+        List<Task> tasks = sample(10_007);
+        GUIReportVisitor visitor = new GUIReportVisitor();
+        StringBuilder expected = new StringBuilder();
+        for (Task t : tasks) {
+            expected.append(visitor.format(t)).append('\n');
+        }
+        StringWriter out = new StringWriter();
+        int rows = new ReportWriter().chunkSize(97).parallelism(4).write(tasks, ReportFormat.TEXT, out);
+        assertEquals(10_007, rows);
+        assertEquals(expected.toString(), out.toString());
+    }
+
+    @Test
+    void writesCsvAndHtmlFilesWithEscaping() throws Exception {
+        List<Task> tasks = sample(3);
+        Path csv = dir.resolve("report.csv");
+        new ReportWriter().write(tasks, csv);
+        List<String> lines = Files.readAllLines(csv, StandardCharsets.UTF_8);
+        assertEquals("id,title,description,state,dueDate,type,intervalDays", lines.get(0));
+        assertEquals("1,Task 1,,TODO,,BASIC,", lines.get(1));
+        assertEquals("3,\"Task, \"\"3\"\"\",<b>3</b>,IN_PROGRESS,2030-01-04,RECURRING,7", lines.get(3));
+
+        Path html = dir.resolve("report.html");
+        new ReportWriter().write(tasks, html);
+        String page = Files.readString(html, StandardCharsets.UTF_8);
+        assertTrue(page.startsWith("<!DOCTYPE html>"));
+        assertTrue(page.contains("<tr><td>3</td><td>Task, &quot;3&quot;</td><td>&lt;b&gt;3&lt;/b&gt;</td>"));
+        assertTrue(page.endsWith("</html>\n"));
+        assertFalse(Files.exists(dir.resolve("report.html.part")));
+    }
+}